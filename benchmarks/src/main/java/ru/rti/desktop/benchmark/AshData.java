@@ -0,0 +1,138 @@
+package ru.rti.desktop.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.fbase.model.profile.cstype.CSType;
+import org.fbase.model.profile.cstype.SType;
+
+/**
+ * Synthetic rows shaped like active session history samples. Values are drawn from dictionaries
+ * by a seeded generator, so every run and every commit gets the same data.
+ * Cardinality applies to session, sql id and module columns, the other columns have fixed small dictionaries
+ */
+public class AshData {
+
+  public static final String TABLE_NAME = "ASH_BENCH";
+
+  public static final List<String> COLUMNS = List.of("SAMPLE_TIME", "SESSION_ID", "SQL_ID", "EVENT",
+      "WAIT_CLASS", "MODULE", "USERNAME", "PROGRAM");
+
+  /**
+   * 2100-01-01, data is dated after the current time, so LocalDB doesn't serve group by of closed ranges from cache
+   */
+  public static final long BEGIN = 4_102_444_800_000L;
+
+  private static final long SEED = 20230601L;
+
+  private static final int EVENTS = 50;
+  private static final int WAIT_CLASSES = 12;
+  private static final int USERNAMES = 20;
+  private static final int PROGRAMS = 30;
+
+  private final int cardinality;
+  private final Random random = new Random(SEED);
+
+  private final String[] sqlIds;
+  private final String[] modules;
+  private final String[] events;
+  private final String[] waitClasses;
+  private final String[] usernames;
+  private final String[] programs;
+
+  public AshData(int cardinality) {
+    this.cardinality = cardinality;
+    this.sqlIds = dictionary("sql", cardinality);
+    this.modules = dictionary("module", cardinality);
+    this.events = dictionary("event", EVENTS);
+    this.waitClasses = dictionary("class", WAIT_CLASSES);
+    this.usernames = dictionary("user", USERNAMES);
+    this.programs = dictionary("program", PROGRAMS);
+  }
+
+  public Map<String, CSType> getCsTypeMap() {
+    Map<String, CSType> csTypeMap = new LinkedHashMap<>();
+
+    csTypeMap.put("SAMPLE_TIME", new CSType().toBuilder().isTimeStamp(true).sType(SType.RAW).build());
+    csTypeMap.put("SESSION_ID", new CSType().toBuilder().sType(SType.RAW).build());
+    csTypeMap.put("SQL_ID", new CSType().toBuilder().sType(SType.HISTOGRAM).build());
+    csTypeMap.put("EVENT", new CSType().toBuilder().sType(SType.ENUM).build());
+    csTypeMap.put("WAIT_CLASS", new CSType().toBuilder().sType(SType.ENUM).build());
+    csTypeMap.put("MODULE", new CSType().toBuilder().sType(SType.HISTOGRAM).build());
+    csTypeMap.put("USERNAME", new CSType().toBuilder().sType(SType.ENUM).build());
+    csTypeMap.put("PROGRAM", new CSType().toBuilder().sType(SType.ENUM).build());
+
+    return csTypeMap;
+  }
+
+  /**
+   * Column-major rows as {@link org.fbase.core.FStore#putDataDirect} takes them
+   *
+   * @param rowsPerSecond active sessions sampled each second
+   */
+  public List<List<Object>> columns(int rows, long begin, int rowsPerSecond) {
+    List<List<Object>> columns = new ArrayList<>(COLUMNS.size());
+    COLUMNS.forEach(c -> columns.add(new ArrayList<>(rows)));
+
+    for (int i = 0; i < rows; i++) {
+      columns.get(0).add(new Timestamp(begin + (i / rowsPerSecond) * 1000L));
+      columns.get(1).add((long) random.nextInt(cardinality));
+      columns.get(2).add(pick(sqlIds));
+      columns.get(3).add(pick(events));
+      columns.get(4).add(pick(waitClasses));
+      columns.get(5).add(pick(modules));
+      columns.get(6).add(pick(usernames));
+      columns.get(7).add(pick(programs));
+    }
+
+    return columns;
+  }
+
+  /**
+   * Time range of rows generated by {@link #columns(int, long, int)}
+   */
+  public static long durationMillis(int rows, int rowsPerSecond) {
+    return ((rows + rowsPerSecond - 1) / rowsPerSecond) * 1000L;
+  }
+
+  /**
+   * Forward-only result set over column-major rows, columns are 1-based as in JDBC
+   */
+  public static ResultSet resultSet(List<List<Object>> columns) {
+    int rows = columns.get(0).size();
+    int[] cursor = {-1};
+    boolean[] wasNull = {false};
+
+    return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "next" -> ++cursor[0] < rows;
+          case "getObject", "getTimestamp", "getString", "getLong" -> {
+            int index = args[0] instanceof String name ? COLUMNS.indexOf(name) : (Integer) args[0] - 1;
+            Object value = columns.get(index).get(cursor[0]);
+            wasNull[0] = value == null;
+            yield "getString".equals(method.getName()) && value != null ? String.valueOf(value) : value;
+          }
+          case "wasNull" -> wasNull[0];
+          case "isClosed" -> false;
+          case "close", "setFetchSize" -> null;
+          default -> throw new UnsupportedOperationException("Not supported by synthetic result set: " + method.getName());
+        });
+  }
+
+  private String pick(String[] dictionary) {
+    return dictionary[random.nextInt(dictionary.length)];
+  }
+
+  private static String[] dictionary(String prefix, int size) {
+    String[] values = new String[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = prefix + "_" + i;
+    }
+    return values;
+  }
+}
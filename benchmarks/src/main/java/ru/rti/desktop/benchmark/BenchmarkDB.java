@@ -0,0 +1,73 @@
+package ru.rti.desktop.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import lombok.Getter;
+import org.fbase.model.profile.CProfile;
+import org.fbase.model.profile.SProfile;
+import org.fbase.model.profile.table.IType;
+import org.fbase.model.profile.table.TType;
+import ru.rti.desktop.helper.FilesHelper;
+import ru.rti.desktop.warehouse.LocalDB;
+
+/**
+ * Local database in a temporary directory with the benchmark table registered, removed on close
+ */
+public class BenchmarkDB implements AutoCloseable {
+
+  private final Path rootDir;
+
+  @Getter
+  private final LocalDB localDB;
+
+  public BenchmarkDB(AshData ashData) throws IOException {
+    this.rootDir = Files.createTempDirectory("rti-benchmark");
+    this.localDB = new LocalDB(new FilesHelper(rootDir.toString()));
+
+    SProfile sProfile = new SProfile()
+        .setTableName(AshData.TABLE_NAME)
+        .setTableType(TType.TIME_SERIES)
+        .setIndexType(IType.GLOBAL)
+        .setCompression(false)
+        .setCsTypeMap(ashData.getCsTypeMap());
+
+    // Columns are registered from a header-only CSV, as the collector does for sources without JDBC metadata
+    Path header = rootDir.resolve(AshData.TABLE_NAME + ".csv");
+    Files.writeString(header, String.join(",", AshData.COLUMNS) + System.lineSeparator());
+    localDB.loadCsvTableMetadata(header.toString(), ",", sProfile);
+  }
+
+  public CProfile getCProfile(String colName) {
+    return localDB.getTProfile(AshData.TABLE_NAME).getCProfiles().stream()
+        .filter(c -> c.getColName().equalsIgnoreCase(colName))
+        .findAny()
+        .orElseThrow(() -> new IllegalArgumentException("Column not found: " + colName));
+  }
+
+  /**
+   * Fill the table with rows of the time range starting at {@link AshData#BEGIN}
+   *
+   * @return end of loaded range
+   */
+  public long load(AshData ashData, int rows, int rowsPerSecond, int batchSize) {
+    long begin = AshData.BEGIN;
+    for (int loaded = 0; loaded < rows; loaded += batchSize) {
+      int batch = Math.min(batchSize, rows - loaded);
+      localDB.putDataDirect(AshData.TABLE_NAME, ashData.columns(batch, begin, rowsPerSecond));
+      begin += AshData.durationMillis(batch, rowsPerSecond);
+    }
+    return begin - 1;
+  }
+
+  @Override
+  public void close() throws IOException {
+    localDB.closeBackendDb();
+
+    try (Stream<Path> paths = Files.walk(rootDir)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+}
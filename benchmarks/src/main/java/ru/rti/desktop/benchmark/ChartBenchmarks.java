@@ -0,0 +1,26 @@
+package ru.rti.desktop.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Chart benchmarks with the allocation rate of the GC profiler, other JMH options are taken from the command line
+ */
+public class ChartBenchmarks {
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    new Runner(new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .include(ChartDatasetBenchmark.class.getSimpleName())
+        .include(ChartRenderBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .resultFormat(ResultFormatType.JSON)
+        .build())
+        .run();
+  }
+}
@@ -0,0 +1,71 @@
+package ru.rti.desktop.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import ru.rti.desktop.model.chart.CategoryTableXYDatasetRealTime;
+
+/**
+ * Stacked chart values by a seeded generator, one time bucket per minute as the real-time
+ * charts keep with the default hold range
+ */
+public class ChartData {
+
+  public static final long STEP_MS = 60 * 1000L;
+
+  /**
+   * 2100-01-01, the same start as {@link AshData#BEGIN}
+   */
+  public static final long BEGIN = AshData.BEGIN;
+
+  private static final long SEED = 20230601L;
+
+  private final String[] seriesNames;
+  private final Random random = new Random(SEED);
+
+  public ChartData(int seriesCount) {
+    this.seriesNames = new String[seriesCount];
+    for (int i = 0; i < seriesCount; i++) {
+      seriesNames[i] = "series_" + i;
+    }
+  }
+
+  public long getX(int bucket) {
+    return BEGIN + bucket * STEP_MS;
+  }
+
+  /**
+   * Append the values of all series for the time bucket, one change notification per value as the collector does
+   */
+  public void addBucket(CategoryTableXYDatasetRealTime dataset, int bucket) {
+    double x = getX(bucket);
+    for (String seriesName : seriesNames) {
+      dataset.addSeriesValue(x, nextValue(), seriesName);
+    }
+  }
+
+  /**
+   * Values of the time buckets in the shape of {@link CategoryTableXYDatasetRealTime#addSeriesValues(Map)}
+   */
+  public Map<Long, Map<String, Double>> buckets(int fromBucket, int count) {
+    Map<Long, Map<String, Double>> values = new LinkedHashMap<>();
+    for (int bucket = fromBucket; bucket < fromBucket + count; bucket++) {
+      Map<String, Double> seriesValues = new LinkedHashMap<>();
+      for (String seriesName : seriesNames) {
+        seriesValues.put(seriesName, nextValue());
+      }
+      values.put(getX(bucket), seriesValues);
+    }
+    return values;
+  }
+
+  public CategoryTableXYDatasetRealTime dataset(int points) {
+    CategoryTableXYDatasetRealTime dataset = new CategoryTableXYDatasetRealTime();
+    dataset.addSeriesValues(buckets(0, points));
+    return dataset;
+  }
+
+  private double nextValue() {
+    return random.nextInt(100);
+  }
+}
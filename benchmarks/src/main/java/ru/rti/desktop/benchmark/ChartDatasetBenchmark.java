@@ -0,0 +1,81 @@
+package ru.rti.desktop.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.axis.DateAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.rti.desktop.model.chart.CategoryTableXYDatasetRealTime;
+
+/**
+ * Sliding window of a real-time stacked chart: new time buckets are appended and the buckets
+ * out of the hold range are evicted, so the dataset keeps about the same number of points.
+ * With the chart attached every change is also delivered to the plot as the workspace does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Djava.awt.headless=true"})
+public class ChartDatasetBenchmark {
+
+  @Param({"5", "20", "50"})
+  public int seriesCount;
+
+  @Param({"300", "2000", "10000"})
+  public int points;
+
+  /**
+   * Time buckets appended before each eviction
+   */
+  @Param({"1", "10"})
+  public int appendPerEvict;
+
+  @Param({"false", "true"})
+  public boolean chartAttached;
+
+  private ChartData chartData;
+  private CategoryTableXYDatasetRealTime dataset;
+  private int nextBucket;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    chartData = new ChartData(seriesCount);
+    dataset = chartData.dataset(points);
+    nextBucket = points;
+
+    if (chartAttached) {
+      ChartFactory.createStackedXYAreaChart("", "Time", "Value", dataset, PlotOrientation.VERTICAL,
+          new DateAxis(), false, true, false);
+    }
+  }
+
+  @Benchmark
+  public int appendAndEvict() {
+    for (int i = 0; i < appendPerEvict; i++) {
+      chartData.addBucket(dataset, nextBucket++);
+    }
+    dataset.deleteValuesFromDataset(points);
+    return dataset.getItemCount();
+  }
+
+  @Benchmark
+  public int appendBatchAndEvict() {
+    dataset.addSeriesValues(chartData.buckets(nextBucket, appendPerEvict));
+    nextBucket += appendPerEvict;
+    dataset.deleteValuesFromDataset(points);
+    return dataset.getItemCount();
+  }
+}
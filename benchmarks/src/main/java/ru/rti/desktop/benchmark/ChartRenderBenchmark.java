@@ -0,0 +1,107 @@
+package ru.rti.desktop.benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.ChartRenderingInfo;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.DateAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.PlotRenderingInfo;
+import org.jfree.chart.plot.XYPlot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.rti.desktop.model.chart.CategoryTableXYDatasetRealTime;
+import ru.rti.desktop.view.chart.StackedChart;
+
+/**
+ * Paint of a stacked chart configured as in the workspace into an offscreen image.
+ * Entities are collected for tooltips and selection as the chart panel does, or skipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Djava.awt.headless=true"})
+public class ChartRenderBenchmark {
+
+  private static final int WIDTH = 1200;
+  private static final int HEIGHT = 400;
+
+  @Param({"5", "20", "50"})
+  public int seriesCount;
+
+  @Param({"300", "2000", "10000"})
+  public int points;
+
+  @Param({"true", "false"})
+  public boolean entities;
+
+  private JFreeChart jFreeChart;
+  private XYPlot xyPlot;
+
+  private BufferedImage image;
+  private Graphics2D g2;
+  private Rectangle2D area;
+  private Rectangle2D dataArea;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    CategoryTableXYDatasetRealTime dataset = new ChartData(seriesCount).dataset(points);
+
+    jFreeChart = ChartFactory.createStackedXYAreaChart("", "Time", "Value", dataset, PlotOrientation.VERTICAL,
+        new DateAxis(), false, true, false);
+    StackedChart stackedChart = new StackedChart(new ChartPanel(jFreeChart));
+    stackedChart.initialize();
+    xyPlot = (XYPlot) jFreeChart.getPlot();
+
+    image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    g2 = image.createGraphics();
+    g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    area = new Rectangle2D.Double(0, 0, WIDTH, HEIGHT);
+
+    // The first paint lays out the axes and legend, the plot is rendered into the same data area after it
+    ChartRenderingInfo info = new ChartRenderingInfo();
+    jFreeChart.draw(g2, area, info);
+    dataArea = info.getPlotInfo().getDataArea();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    g2.dispose();
+  }
+
+  /**
+   * Whole chart: axes, legend and {@link XYPlot#render}
+   */
+  @Benchmark
+  public BufferedImage drawChart() {
+    jFreeChart.draw(g2, area, entities ? new ChartRenderingInfo() : null);
+    return image;
+  }
+
+  /**
+   * Series area only, each item goes to {@link org.jfree.chart.renderer.xy.StackedXYAreaRenderer3#drawItem}
+   */
+  @Benchmark
+  public boolean renderPlot() {
+    PlotRenderingInfo info = entities ? new ChartRenderingInfo().getPlotInfo() : null;
+    return xyPlot.render(g2, dataArea, 0, info, null);
+  }
+}
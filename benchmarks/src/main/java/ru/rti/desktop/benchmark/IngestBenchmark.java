@@ -0,0 +1,82 @@
+package ru.rti.desktop.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.fbase.exception.EnumByteExceedException;
+import org.fbase.exception.SqlColMetadataException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to store one batch of rows to the local database. Each batch continues the time range of
+ * the previous one, as the collector appends on each pull
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class IngestBenchmark {
+
+  /**
+   * 30000 is the batch of RowToRowLoader
+   */
+  @Param({"1000", "30000"})
+  public int batchSize;
+
+  @Param({"10", "1000"})
+  public int cardinality;
+
+  @Param({"10"})
+  public int rowsPerSecond;
+
+  private AshData ashData;
+  private BenchmarkDB benchmarkDB;
+
+  private long begin;
+  private List<List<Object>> batch;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    ashData = new AshData(cardinality);
+    benchmarkDB = new BenchmarkDB(ashData);
+    begin = AshData.BEGIN;
+  }
+
+  /**
+   * Batch is generated out of the measured time, a batch takes milliseconds to store so the per invocation setup is affordable
+   */
+  @Setup(Level.Invocation)
+  public void nextBatch() {
+    batch = ashData.columns(batchSize, begin, rowsPerSecond);
+    begin += AshData.durationMillis(batchSize, rowsPerSecond);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    benchmarkDB.close();
+  }
+
+  @Benchmark
+  public void putDataDirect() {
+    benchmarkDB.getLocalDB().putDataDirect(AshData.TABLE_NAME, batch);
+  }
+
+  @Benchmark
+  public long putDataJdbc() throws SqlColMetadataException, EnumByteExceedException {
+    return benchmarkDB.getLocalDB().putDataJdbc(AshData.TABLE_NAME, AshData.resultSet(batch));
+  }
+}
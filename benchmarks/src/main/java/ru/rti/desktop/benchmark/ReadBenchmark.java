@@ -0,0 +1,107 @@
+package ru.rti.desktop.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.fbase.exception.BeginEndWrongOrderException;
+import org.fbase.exception.GanttColumnNotSupportedException;
+import org.fbase.exception.SqlColMetadataException;
+import org.fbase.model.output.GanttColumn;
+import org.fbase.model.output.StackedColumn;
+import org.fbase.model.profile.CProfile;
+import org.fbase.sql.BatchResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Chart and detail reads over the last minutes of six hours of samples
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ReadBenchmark {
+
+  private static final int LOADED_HOURS = 6;
+  private static final int LOAD_BATCH_SIZE = 30000;
+  private static final int FETCH_SIZE = 10000;
+
+  @Param({"10", "1000"})
+  public int cardinality;
+
+  @Param({"10"})
+  public int rowsPerSecond;
+
+  @Param({"5", "60", "360"})
+  public int rangeMinutes;
+
+  private BenchmarkDB benchmarkDB;
+
+  private CProfile sqlId;
+  private CProfile event;
+
+  private long begin;
+  private long end;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    AshData ashData = new AshData(cardinality);
+    benchmarkDB = new BenchmarkDB(ashData);
+
+    int rows = LOADED_HOURS * 3600 * rowsPerSecond;
+    end = benchmarkDB.load(ashData, rows, rowsPerSecond, LOAD_BATCH_SIZE);
+    begin = end - TimeUnit.MINUTES.toMillis(rangeMinutes) + 1;
+
+    sqlId = benchmarkDB.getCProfile("SQL_ID");
+    event = benchmarkDB.getCProfile("EVENT");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    benchmarkDB.close();
+  }
+
+  @Benchmark
+  public List<StackedColumn> stackedColumns() throws SqlColMetadataException, BeginEndWrongOrderException {
+    return benchmarkDB.getLocalDB().getSColumnListByCProfile(AshData.TABLE_NAME, event, begin, end);
+  }
+
+  @Benchmark
+  public List<List<Object>> rawDataByColumn() {
+    return benchmarkDB.getLocalDB().getRawDataByColumn(AshData.TABLE_NAME, sqlId, begin, end);
+  }
+
+  @Benchmark
+  public List<GanttColumn> twoLevelGroupBy()
+      throws SqlColMetadataException, BeginEndWrongOrderException, GanttColumnNotSupportedException {
+    return benchmarkDB.getLocalDB().getGColumnListTwoLevelGroupBy(AshData.TABLE_NAME, sqlId, event, begin, end);
+  }
+
+  @Benchmark
+  public long batchResultSet(Blackhole blackhole) {
+    BatchResultSet batchResultSet =
+        benchmarkDB.getLocalDB().getBatchResultSet(AshData.TABLE_NAME, begin, end, FETCH_SIZE);
+
+    long rows = 0;
+    List<List<Object>> batch;
+    while ((batch = batchResultSet.getObject()) != null && !batch.isEmpty()) {
+      blackhole.consume(batch);
+      rows += batch.size();
+    }
+    return rows;
+  }
+}
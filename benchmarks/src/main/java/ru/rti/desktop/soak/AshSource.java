@@ -0,0 +1,137 @@
+package ru.rti.desktop.soak;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.log4j.Log4j2;
+import org.h2.Driver;
+import org.h2.tools.Server;
+import ru.rti.desktop.benchmark.AshData;
+
+/**
+ * Embedded H2 database with an active session history table, fed by a synthetic session generator
+ * each second. The collector connects over TCP as to a remote source, old samples are purged so the
+ * source keeps a constant size during hours of run.
+ */
+@Log4j2
+public class AshSource implements AutoCloseable {
+
+  public static final String TABLE_NAME = "ASH";
+  public static final String USER_NAME = "soak";
+  public static final String PASSWORD = "soak";
+
+  private static final String DATABASE = "mem:ash";
+  private static final long RETENTION_MS = TimeUnit.MINUTES.toMillis(10);
+
+  private final int rowsPerSecond;
+  private final AshData ashData;
+
+  private final AtomicLong insertedRows = new AtomicLong();
+  private final ScheduledExecutorService generator = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread thread = new Thread(r, "soak-ash-generator");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private Server server;
+  private Connection connection;
+
+  public AshSource(int rowsPerSecond, int cardinality) {
+    this.rowsPerSecond = rowsPerSecond;
+    this.ashData = new AshData(cardinality);
+  }
+
+  public void start() throws SQLException {
+    // Embedded connection keeps the in-memory database open while the TCP server shares it with the collector
+    connection = DriverManager.getConnection("jdbc:h2:" + DATABASE + ";DB_CLOSE_DELAY=-1", USER_NAME, PASSWORD);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE " + TABLE_NAME + " (SAMPLE_TIME TIMESTAMP, SESSION_ID BIGINT,"
+          + " SQL_ID VARCHAR(32), EVENT VARCHAR(64), WAIT_CLASS VARCHAR(32), MODULE VARCHAR(64),"
+          + " USERNAME VARCHAR(32), PROGRAM VARCHAR(64))");
+      statement.execute("CREATE INDEX " + TABLE_NAME + "_SAMPLE_TIME ON " + TABLE_NAME + " (SAMPLE_TIME)");
+    }
+
+    server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+
+    generator.scheduleAtFixedRate(this::generate, 0, 1, TimeUnit.SECONDS);
+    generator.scheduleWithFixedDelay(this::purge, 1, 1, TimeUnit.MINUTES);
+
+    log.info("ASH source is started at " + getUrl() + " with " + rowsPerSecond + " rows/sec");
+  }
+
+  public String getUrl() {
+    return "jdbc:h2:tcp://localhost:" + server.getPort() + "/" + DATABASE;
+  }
+
+  public String getDriver() {
+    return Driver.class.getName();
+  }
+
+  /**
+   * Jar of the driver for the connection pool of the application
+   */
+  public String getJar() {
+    try {
+      return Path.of(Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public String getQuery() {
+    return "SELECT " + String.join(", ", AshData.COLUMNS) + " FROM " + TABLE_NAME;
+  }
+
+  public long getInsertedRows() {
+    return insertedRows.get();
+  }
+
+  private void generate() {
+    long now = System.currentTimeMillis();
+    List<List<Object>> columns = ashData.columns(rowsPerSecond, now - now % 1000, rowsPerSecond);
+
+    try (PreparedStatement ps = connection.prepareStatement("INSERT INTO " + TABLE_NAME + " ("
+        + String.join(", ", AshData.COLUMNS) + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+      for (int row = 0; row < rowsPerSecond; row++) {
+        for (int col = 0; col < columns.size(); col++) {
+          ps.setObject(col + 1, columns.get(col).get(row));
+        }
+        ps.addBatch();
+      }
+      ps.executeBatch();
+      insertedRows.addAndGet(rowsPerSecond);
+    } catch (SQLException e) {
+      log.catching(e);
+    }
+  }
+
+  private void purge() {
+    try (PreparedStatement ps = connection.prepareStatement("DELETE FROM " + TABLE_NAME + " WHERE SAMPLE_TIME < ?")) {
+      ps.setTimestamp(1, new Timestamp(System.currentTimeMillis() - RETENTION_MS));
+      ps.executeUpdate();
+    } catch (SQLException e) {
+      log.catching(e);
+    }
+  }
+
+  @Override
+  public void close() throws SQLException {
+    generator.shutdownNow();
+    if (server != null) {
+      server.stop();
+    }
+    if (connection != null) {
+      connection.close();
+    }
+  }
+}
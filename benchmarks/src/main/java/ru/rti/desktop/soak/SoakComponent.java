@@ -0,0 +1,66 @@
+package ru.rti.desktop.soak;
+
+import dagger.Component;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.fbase.core.FStore;
+import ru.rti.desktop.collector.Collector;
+import ru.rti.desktop.config.CacheConfig;
+import ru.rti.desktop.config.CollectorConfig;
+import ru.rti.desktop.config.ExecutorConfig;
+import ru.rti.desktop.config.LocalDBConfig;
+import ru.rti.desktop.config.ManagerConfig;
+import ru.rti.desktop.config.RouterConfig;
+import ru.rti.desktop.config.SecurityConfig;
+import ru.rti.desktop.config.StateConfig;
+import ru.rti.desktop.helper.FilesHelper;
+import ru.rti.desktop.manager.CollectManager;
+import ru.rti.desktop.manager.ConfigurationManager;
+import ru.rti.desktop.manager.ConnectionPoolManager;
+import ru.rti.desktop.manager.ProfileManager;
+import ru.rti.desktop.security.EncryptDecrypt;
+import ru.rti.desktop.state.SqlQueryState;
+
+/**
+ * Graph of the headless mode with the files of the soak run
+ */
+@Component(modules = {
+    CollectorConfig.class,
+    ExecutorConfig.class,
+    RouterConfig.class,
+    StateConfig.class,
+    ManagerConfig.class,
+    SoakFileConfig.class,
+    LocalDBConfig.class,
+    CacheConfig.class,
+    SecurityConfig.class
+})
+@Singleton
+public interface SoakComponent {
+
+  @Named("configurationManager")
+  ConfigurationManager configurationManager();
+
+  @Named("profileManager")
+  ProfileManager profileManager();
+
+  @Named("connectionPoolManager")
+  ConnectionPoolManager connectionPoolManager();
+
+  @Named("collector")
+  Collector collector();
+
+  @Named("collectManager")
+  CollectManager collectManager();
+
+  @Named("sqlQueryState")
+  SqlQueryState sqlQueryState();
+
+  @Named("localDB")
+  FStore fStore();
+
+  @Named("encryptDecrypt")
+  EncryptDecrypt encryptDecrypt();
+
+  FilesHelper filesHelper();
+}
@@ -0,0 +1,43 @@
+package ru.rti.desktop.soak;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import dagger.Module;
+import dagger.Provides;
+import java.nio.file.Path;
+import javax.inject.Singleton;
+import ru.rti.desktop.helper.FilesHelper;
+import ru.rti.desktop.helper.ReportHelper;
+
+/**
+ * Same as the application file config, but configuration and local database are kept in the work directory of the run
+ */
+@Module
+public class SoakFileConfig {
+
+  private final Path workDir;
+
+  public SoakFileConfig(Path workDir) {
+    this.workDir = workDir;
+  }
+
+  @Provides
+  @Singleton
+  public FilesHelper getFilesHelper() {
+    return new FilesHelper(workDir.toString());
+  }
+
+  @Provides
+  @Singleton
+  public Gson getGson() {
+    return new GsonBuilder()
+        .setPrettyPrinting()
+        .create();
+  }
+
+  @Provides
+  @Singleton
+  public ReportHelper getReportHelper() {
+    return new ReportHelper();
+  }
+}
@@ -0,0 +1,268 @@
+package ru.rti.desktop.soak;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.extern.log4j.Log4j2;
+import org.fbase.model.profile.CProfile;
+import org.fbase.model.profile.table.IType;
+import org.fbase.model.profile.table.TType;
+import ru.rti.desktop.benchmark.AshData;
+import ru.rti.desktop.executor.TaskExecutor;
+import ru.rti.desktop.manager.ConfigurationManager;
+import ru.rti.desktop.model.ProfileTaskQueryKey;
+import ru.rti.desktop.model.config.ConfigEntity;
+import ru.rti.desktop.model.config.Connection;
+import ru.rti.desktop.model.config.Profile;
+import ru.rti.desktop.model.config.Query;
+import ru.rti.desktop.model.config.Table;
+import ru.rti.desktop.model.config.Task;
+import ru.rti.desktop.model.local.LoadDataMode;
+import ru.rti.desktop.model.sql.GatherDataSql;
+
+/**
+ * Soak and load test of collection: a synthetic source in embedded H2 is collected to the local
+ * database by the tasks of the collect manager for the given time, lag, heap, threads and local database size
+ * are checked along the run.
+ *
+ * Settings are system properties, e.g.
+ * <pre>
+ *  java -Dsoak.minutes=240 -Dsoak.rowsPerSecond=1000 -cp benchmarks/target/benchmarks.jar ru.rti.desktop.soak.SoakRunner
+ * </pre>
+ * Exit code is the number of failed checks.
+ */
+@Log4j2
+public class SoakRunner {
+
+  private static final int ROWS_PER_SECOND = Integer.getInteger("soak.rowsPerSecond", 100);
+  private static final int CARDINALITY = Integer.getInteger("soak.cardinality", 100);
+
+  private static final int MAX_HEAP_GROWTH_MB = Integer.getInteger("soak.maxHeapGrowthMb", 64);
+  private static final int MAX_THREAD_GROWTH = Integer.getInteger("soak.maxThreadGrowth", 5);
+  private static final int MAX_BYTES_PER_ROW = Integer.getInteger("soak.maxBytesPerRow", 200);
+
+  private static final String NAME = "Soak";
+
+  private final long runSec;
+  private final long warmupSec;
+  private final int checkIntervalSec;
+  private final int pullTimeoutSec;
+  private final int maxLagSec;
+
+  private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+  private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+  private final List<String> failures = new ArrayList<>();
+
+  private int profileId;
+  private int taskId;
+  private int queryId;
+
+  public SoakRunner() {
+    this(TimeUnit.MINUTES.toSeconds(Integer.getInteger("soak.minutes", 60)),
+        TimeUnit.MINUTES.toSeconds(Integer.getInteger("soak.warmupMinutes", 2)),
+        Integer.getInteger("soak.checkIntervalSec", 30),
+        Integer.getInteger("soak.pullTimeoutSec", 5));
+  }
+
+  SoakRunner(long runSec, long warmupSec, int checkIntervalSec, int pullTimeoutSec) {
+    this.runSec = runSec;
+    this.warmupSec = warmupSec;
+    this.checkIntervalSec = checkIntervalSec;
+    this.pullTimeoutSec = pullTimeoutSec;
+    this.maxLagSec = Integer.getInteger("soak.maxLagSec", 3 * pullTimeoutSec + 10);
+  }
+
+  public static void main(String... args) throws Exception {
+    System.setProperty("java.awt.headless", "true");
+
+    int failed = new SoakRunner().run().size();
+
+    log.info("Soak test is finished with " + failed + " failed checks");
+    System.exit(failed);
+  }
+
+  /**
+   * @return failed checks of the run
+   */
+  List<String> run() throws IOException, SQLException, InterruptedException {
+    Path workDir = Files.createTempDirectory("rti-soak");
+    log.info("Soak test for " + runSec + " sec, " + ROWS_PER_SECOND + " rows/sec, work directory " + workDir);
+
+    try (AshSource ashSource = new AshSource(ROWS_PER_SECOND, CARDINALITY)) {
+      ashSource.start();
+
+      SoakComponent component = DaggerSoakComponent.builder()
+          .soakFileConfig(new SoakFileConfig(workDir))
+          .build();
+
+      addConfig(component.configurationManager(), component, ashSource);
+      component.profileManager().updateCache();
+
+      // Metadata and last timestamp are initialized as on start of a profile in the workspace
+      Collection<TaskExecutor> taskExecutors = component.collectManager().startProfile(profileId).values();
+
+      try {
+        monitor(component, ashSource, new ProfileTaskQueryKey(profileId, taskId, queryId));
+      } finally {
+        taskExecutors.forEach(TaskExecutor::stopTask);
+        component.fStore().syncBackendDb();
+      }
+    }
+
+    failures.forEach(failure -> log.error("Failed: " + failure));
+    return failures;
+  }
+
+  /**
+   * Profile with one task and one query, defined as the configuration dialog does. Ids follow
+   * the ones already in the work directory, e.g. of the self-monitoring profile
+   */
+  private void addConfig(ConfigurationManager configurationManager, SoakComponent component, AshSource ashSource) {
+    Connection connection = new Connection();
+    connection.setId(nextId(configurationManager, Connection.class));
+    connection.setName(NAME);
+    connection.setUserName(AshSource.USER_NAME);
+    connection.setPassword(component.encryptDecrypt().encrypt(AshSource.PASSWORD));
+    connection.setUrl(ashSource.getUrl());
+    connection.setJar(ashSource.getJar());
+    connection.setDriver(ashSource.getDriver());
+    configurationManager.addConfig(connection, Connection.class);
+
+    Query query = new Query();
+    query.setId(nextId(configurationManager, Query.class));
+    query.setName(AshSource.TABLE_NAME);
+    query.setDescription("Synthetic active session history");
+    query.setText(ashSource.getQuery());
+    query.setGatherDataSql(GatherDataSql.BY_SERVER);
+    query.setLoadDataMode(LoadDataMode.JDBC_REAL_TIME);
+    configurationManager.addConfig(query, Query.class);
+
+    List<CProfile> cProfiles = new ArrayList<>();
+    new AshData(CARDINALITY).getCsTypeMap()
+        .forEach((colName, csType) -> cProfiles.add(new CProfile().setColName(colName).setCsType(csType)));
+
+    Table table = new Table();
+    table.setTableName(AshSource.TABLE_NAME);
+    table.setTableType(TType.TIME_SERIES);
+    table.setIndexType(IType.GLOBAL);
+    table.setCompression(false);
+    table.setCProfiles(cProfiles);
+    configurationManager.addConfig(table, Table.class);
+
+    Task task = new Task();
+    task.setId(nextId(configurationManager, Task.class));
+    task.setName(NAME);
+    task.setDescription("Collect synthetic active session history");
+    task.setPullTimeout(pullTimeoutSec);
+    task.setConnectionId(connection.getId());
+    task.setQueryList(List.of(query.getId()));
+    configurationManager.addConfig(task, Task.class);
+
+    Profile profile = new Profile();
+    profile.setId(nextId(configurationManager, Profile.class));
+    profile.setName(NAME);
+    profile.setDescription("Soak test");
+    profile.setTaskList(List.of(task.getId()));
+    configurationManager.addConfig(profile, Profile.class);
+
+    profileId = profile.getId();
+    taskId = task.getId();
+    queryId = query.getId();
+  }
+
+  private static <T extends ConfigEntity> int nextId(ConfigurationManager configurationManager, Class<T> clazz) {
+    return configurationManager.getConfigList(clazz).stream().mapToInt(ConfigEntity::getId).max().orElse(0) + 1;
+  }
+
+  private void monitor(SoakComponent component, AshSource ashSource, ProfileTaskQueryKey key)
+      throws IOException, InterruptedException {
+    Path databaseDir = Paths.get(component.filesHelper().getDatabaseDir());
+
+    long start = System.currentTimeMillis();
+    long warmupEnd = start + TimeUnit.SECONDS.toMillis(warmupSec);
+    long end = start + TimeUnit.SECONDS.toMillis(runSec);
+
+    long baselineHeap = -1;
+    int baselineThreads = -1;
+    int lagFailures = 0;
+
+    while (System.currentTimeMillis() < end) {
+      TimeUnit.SECONDS.sleep(checkIntervalSec);
+
+      long now = System.currentTimeMillis();
+      long lagSec = TimeUnit.MILLISECONDS.toSeconds(now - component.sqlQueryState().getLastTimestamp(key));
+      int threads = threadMXBean.getThreadCount();
+
+      log.info(String.format("Elapsed %d min, lag %d sec, heap %d MB, threads %d, local db %d MB, source rows %d",
+          TimeUnit.MILLISECONDS.toMinutes(now - start), lagSec, toMb(memoryMXBean.getHeapMemoryUsage().getUsed()),
+          threads, toMb(getSize(databaseDir)), ashSource.getInsertedRows()));
+
+      if (now < warmupEnd) {
+        continue;
+      }
+
+      if (baselineHeap < 0) {
+        baselineHeap = getHeapAfterGc();
+        baselineThreads = threads;
+        log.info("Baseline after warmup: heap " + toMb(baselineHeap) + " MB, threads " + baselineThreads);
+      }
+
+      if (lagSec > maxLagSec) {
+        lagFailures++;
+        log.warn("Lag " + lagSec + " sec is over " + maxLagSec + " sec");
+      }
+    }
+
+    if (lagFailures > 0) {
+      failures.add("lag over " + maxLagSec + " sec in " + lagFailures + " checks");
+    }
+
+    if (baselineHeap < 0) {
+      failures.add("run of " + runSec + " sec is shorter than warmup of " + warmupSec + " sec");
+      return;
+    }
+
+    long heapGrowthMb = toMb(getHeapAfterGc() - baselineHeap);
+    if (heapGrowthMb > MAX_HEAP_GROWTH_MB) {
+      failures.add("heap after GC grew by " + heapGrowthMb + " MB, limit " + MAX_HEAP_GROWTH_MB + " MB");
+    }
+
+    int threadGrowth = threadMXBean.getThreadCount() - baselineThreads;
+    if (threadGrowth > MAX_THREAD_GROWTH) {
+      failures.add("thread count grew by " + threadGrowth + ", limit " + MAX_THREAD_GROWTH);
+    }
+
+    long bytesPerRow = getSize(databaseDir) / Math.max(1, ashSource.getInsertedRows());
+    if (bytesPerRow > MAX_BYTES_PER_ROW) {
+      failures.add("local db takes " + bytesPerRow + " bytes per row, limit " + MAX_BYTES_PER_ROW);
+    }
+
+    log.info("Heap growth " + heapGrowthMb + " MB, thread growth " + threadGrowth + ", local db " + bytesPerRow + " bytes per row");
+  }
+
+  private long getHeapAfterGc() {
+    memoryMXBean.gc();
+    return memoryMXBean.getHeapMemoryUsage().getUsed();
+  }
+
+  private static long getSize(Path dir) throws IOException {
+    try (Stream<Path> paths = Files.walk(dir)) {
+      return paths.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+    }
+  }
+
+  private static long toMb(long bytes) {
+    return bytes / (1024 * 1024);
+  }
+}
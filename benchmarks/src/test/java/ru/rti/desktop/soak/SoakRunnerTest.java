@@ -0,0 +1,20 @@
+package ru.rti.desktop.soak;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class SoakRunnerTest {
+
+  @Test
+  public void one_check_iteration_test() throws Exception {
+    System.setProperty("java.awt.headless", "true");
+
+    // no warmup and a run of one check interval, the profile is started next to the self-monitoring one
+    List<String> failures = new SoakRunner(5, 0, 5, 1).run();
+
+    assertTrue(failures.stream().noneMatch(failure -> failure.startsWith("lag")), failures.toString());
+    assertTrue(failures.stream().noneMatch(failure -> failure.startsWith("run of")), failures.toString());
+  }
+}
@@ -1,5 +1,8 @@
 package ru.rti.desktop;
 
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import javax.swing.SwingUtilities;
 import lombok.extern.log4j.Log4j2;
 import ru.rti.desktop.config.DaggerMainComponent;
 import ru.rti.desktop.config.MainComponent;
@@ -37,7 +40,20 @@ public class Application {
 
     mainComponent = ru.rti.desktop.config.DaggerMainComponent.create();
 
+    // Flight recording is always on, the toolbar dumps the last minutes of it
+    mainComponent.createRecordingManager().startRecording();
+
+    // Configuration is read while the frame is built, views wait only for the types they need
+    CompletableFuture.runAsync(() -> mainComponent.createConfigurationManager().loadConfig())
+        .exceptionally(e -> {
+          log.catching(e);
+          return null;
+        });
+
     BaseFrame baseFrame = mainComponent.createBaseFrame();
     baseFrame.setVisible(true);
+
+    SwingUtilities.invokeLater(() -> log.info("Time to first frame: "
+        + (System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime()) + " ms"));
   }
 }
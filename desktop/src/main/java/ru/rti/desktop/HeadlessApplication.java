@@ -0,0 +1,30 @@
+package ru.rti.desktop;
+
+import lombok.extern.log4j.Log4j2;
+import ru.rti.desktop.config.DaggerHeadlessComponent;
+import ru.rti.desktop.headless.HeadlessRunner;
+
+@Log4j2
+public class HeadlessApplication {
+
+  /**
+   * Run reports or collection without GUI, e.g. from cron
+   *
+   * Example:
+   *  java -Dfile.encoding=UTF8 -cp desktop-1.0-SNAPSHOT-jar-with-dependencies.jar ru.rti.desktop.HeadlessApplication report
+   *  java -Dfile.encoding=UTF8 -cp desktop-1.0-SNAPSHOT-jar-with-dependencies.jar ru.rti.desktop.HeadlessApplication collect profile 600
+   * @param args command and its arguments, see {@link HeadlessRunner}
+   */
+  public static void main(String... args) {
+    System.setProperty("java.awt.headless", "true");
+    System.getProperties().setProperty("oracle.jdbc.J2EE13Compliant", "true");
+
+    HeadlessRunner headlessRunner = DaggerHeadlessComponent.create().createHeadlessRunner();
+
+    int exitCode = headlessRunner.run(args);
+
+    log.info("Headless run is finished with exit code: " + exitCode);
+
+    System.exit(exitCode);
+  }
+}
@@ -42,6 +42,13 @@ public interface AppCache {
     TableInfo getTableInfo(String tableName);
     ChartInfo getChartInfo(int chartId);
 
+    /**
+     * Get by reverse indexes, kept up to date on put and delete
+     */
+    List<ProfileInfo> getProfileInfoListByQueryId(int queryId);
+    List<TaskInfo> getTaskInfoListByConnectionId(int connectionId);
+    TableInfo getTableInfoIgnoreCase(String tableName);
+
     /**
      * Get all config maps
      */
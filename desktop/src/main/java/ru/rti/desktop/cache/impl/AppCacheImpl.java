@@ -1,10 +1,14 @@
 package ru.rti.desktop.cache.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -32,6 +36,15 @@ public class AppCacheImpl implements AppCache {
 
   private final Map<ProfileTaskQueryKey, List<RangeInfo>> rangeInfoMap = new ConcurrentHashMap<>();
 
+  /**
+   * Reverse indexes, values are the ids the entity was indexed with, so an entity changed
+   * in place is still removed from the right keys
+   */
+  private final ReverseIndex profileIdsByTaskId = new ReverseIndex();
+  private final ReverseIndex taskIdsByQueryId = new ReverseIndex();
+  private final ReverseIndex taskIdsByConnectionId = new ReverseIndex();
+  private final Map<String, TableInfo> tableInfoByLowerCaseName = new ConcurrentHashMap<>();
+
   @Inject
   public AppCacheImpl() {}
 
@@ -41,11 +54,14 @@ public class AppCacheImpl implements AppCache {
   @Override
   public void putProfileInfo(ProfileInfo profileInfo) {
     profileInfoMap.put(profileInfo.getId(), profileInfo);
+    profileIdsByTaskId.put(profileInfo.getId(), profileInfo.getTaskInfoList());
   }
 
   @Override
   public void putTaskInfo(TaskInfo taskInfo) {
     taskInfoMap.put(taskInfo.getId(), taskInfo);
+    taskIdsByQueryId.put(taskInfo.getId(), taskInfo.getQueryInfoList());
+    taskIdsByConnectionId.put(taskInfo.getId(), List.of(taskInfo.getConnectionId()));
   }
 
   @Override
@@ -61,6 +77,7 @@ public class AppCacheImpl implements AppCache {
   @Override
   public void putTableInfo(TableInfo tableInfo) {
     tableInfoMap.put(tableInfo.getTableName(), tableInfo);
+    tableInfoByLowerCaseName.put(tableInfo.getTableName().toLowerCase(Locale.ROOT), tableInfo);
   }
 
   @Override
@@ -71,11 +88,14 @@ public class AppCacheImpl implements AppCache {
   @Override
   public void deleteProfileInfo(int profileId) {
     profileInfoMap.remove(profileId);
+    profileIdsByTaskId.remove(profileId);
   }
 
   @Override
   public void deleteTaskInfo(int taskId) {
     taskInfoMap.remove(taskId);
+    taskIdsByQueryId.remove(taskId);
+    taskIdsByConnectionId.remove(taskId);
   }
 
   @Override
@@ -90,7 +110,10 @@ public class AppCacheImpl implements AppCache {
 
   @Override
   public void deleteTableInfo(String tableName) {
-    tableInfoMap.remove(tableName);
+    TableInfo tableInfo = tableInfoMap.remove(tableName);
+    if (tableInfo != null) {
+      tableInfoByLowerCaseName.remove(tableName.toLowerCase(Locale.ROOT), tableInfo);
+    }
   }
 
   @Override
@@ -131,6 +154,33 @@ public class AppCacheImpl implements AppCache {
     return chartInfoMap.get(chartId);
   }
 
+  /**
+   * Get by reverse indexes
+   */
+  @Override
+  public List<ProfileInfo> getProfileInfoListByQueryId(int queryId) {
+    return taskIdsByQueryId.get(queryId).stream()
+        .flatMap(taskId -> profileIdsByTaskId.get(taskId).stream())
+        .distinct()
+        .map(profileInfoMap::get)
+        .filter(Objects::nonNull)
+        .toList();
+  }
+
+  @Override
+  public List<TaskInfo> getTaskInfoListByConnectionId(int connectionId) {
+    return taskIdsByConnectionId.get(connectionId).stream()
+        .map(taskInfoMap::get)
+        .filter(Objects::nonNull)
+        .toList();
+  }
+
+  @Override
+  public TableInfo getTableInfoIgnoreCase(String tableName) {
+    TableInfo tableInfo = tableInfoMap.get(tableName);
+    return tableInfo != null ? tableInfo : tableInfoByLowerCaseName.get(tableName.toLowerCase(Locale.ROOT));
+  }
+
   /**
    * Put and Get methods for time range
    */
@@ -185,11 +235,14 @@ public class AppCacheImpl implements AppCache {
   @Override
   public void clearProfileInfo() {
     profileInfoMap.clear();
+    profileIdsByTaskId.clear();
   }
 
   @Override
   public void clearTaskInfo() {
     taskInfoMap.clear();
+    taskIdsByQueryId.clear();
+    taskIdsByConnectionId.clear();
   }
 
   @Override
@@ -205,6 +258,7 @@ public class AppCacheImpl implements AppCache {
   @Override
   public void clearTableInfo() {
     tableInfoMap.clear();
+    tableInfoByLowerCaseName.clear();
   }
 
   @Override
@@ -212,5 +266,39 @@ public class AppCacheImpl implements AppCache {
     chartInfoMap.clear();
   }
 
-}
+  /**
+   * Maps the referenced id to ids of the owners which refer to it
+   */
+  private static class ReverseIndex {
+    private final Map<Integer, Set<Integer>> ownersByRef = new ConcurrentHashMap<>();
+    private final Map<Integer, List<Integer>> refsByOwner = new ConcurrentHashMap<>();
+
+    synchronized void put(int ownerId, Collection<Integer> refIds) {
+      remove(ownerId);
+
+      List<Integer> refs = refIds == null ? List.of() : List.copyOf(refIds);
+      refs.forEach(refId -> ownersByRef.computeIfAbsent(refId, k -> ConcurrentHashMap.newKeySet()).add(ownerId));
+      refsByOwner.put(ownerId, refs);
+    }
 
+    synchronized void remove(int ownerId) {
+      List<Integer> refs = refsByOwner.remove(ownerId);
+      if (refs == null) {
+        return;
+      }
+      refs.forEach(refId -> ownersByRef.computeIfPresent(refId, (k, owners) -> {
+        owners.remove(ownerId);
+        return owners.isEmpty() ? null : owners;
+      }));
+    }
+
+    Set<Integer> get(int refId) {
+      return ownersByRef.getOrDefault(refId, Collections.emptySet());
+    }
+
+    synchronized void clear() {
+      ownersByRef.clear();
+      refsByOwner.clear();
+    }
+  }
+}
@@ -13,5 +13,10 @@ public interface Collector {
 
   void fillMetadata(QueryInfo queryInfo, TableInfo tableInfo, Connection connection);
 
+  /**
+   * Metadata of the built-in self-monitoring source, which has no JDBC connection
+   */
+  void fillMetadata(QueryInfo queryInfo, TableInfo tableInfo);
+
   void collect(ProfileInfo profileInfo, TaskInfo taskInfo, HashMap<Integer, DataLoader> loaderHashMap);
 }
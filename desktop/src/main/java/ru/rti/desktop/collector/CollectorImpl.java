@@ -1,20 +1,30 @@
 package ru.rti.desktop.collector;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.util.HashMap;
+import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import lombok.extern.log4j.Log4j2;
 import org.fbase.core.FStore;
+import org.fbase.model.profile.SProfile;
 import org.fbase.model.profile.TProfile;
+import ru.rti.desktop.collector.jvm.JvmTable;
+import ru.rti.desktop.diagnostic.StageMetrics;
+import ru.rti.desktop.diagnostic.event.CollectEvent;
 import ru.rti.desktop.collector.loader.DataLoader;
 import ru.rti.desktop.collector.loader.JdbcLoader;
 import ru.rti.desktop.model.ProfileTaskQueryKey;
+import ru.rti.desktop.model.config.Metric;
 import ru.rti.desktop.model.info.ProfileInfo;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.info.TableInfo;
 import ru.rti.desktop.model.info.TaskInfo;
+import ru.rti.desktop.model.sql.AggregateTable;
 import ru.rti.desktop.router.event.EventListener;
 
 @Log4j2
@@ -41,6 +51,16 @@ public class CollectorImpl implements Collector, JdbcLoader {
       tableInfo.setCompression(tProfile.getCompression());
       tableInfo.setCProfiles(tProfile.getCProfiles());
 
+      for (Metric metric : AggregateTable.getMetricList(queryInfo)) {
+        SProfile sProfile = new SProfile()
+            .setTableName(AggregateTable.getTableName(queryInfo.getName(), metric))
+            .setTableType(tProfile.getTableType())
+            .setIndexType(tProfile.getIndexType())
+            .setCompression(tProfile.getCompression())
+            .setCsTypeMap(AggregateTable.getCsTypeMap());
+        loadHeaderMetadata(AggregateTable.COLUMNS, sProfile);
+      }
+
       long localDateTime = System.currentTimeMillis();
       long serverDateTime = getSysdate(queryInfo.getDbType().getQuery(), connection, log);
 
@@ -51,6 +71,49 @@ public class CollectorImpl implements Collector, JdbcLoader {
     }
   }
 
+  @Override
+  public void fillMetadata(QueryInfo queryInfo, TableInfo tableInfo) {
+    JvmTable jvmTable = JvmTable.ofText(queryInfo.getText());
+
+    SProfile sProfile = tableInfo.getSProfile();
+    sProfile.setCsTypeMap(jvmTable.getCsTypeMap());
+
+    try {
+      TProfile tProfile = loadHeaderMetadata(jvmTable.getColumns(), sProfile);
+
+      tableInfo.setTableType(tProfile.getTableType());
+      tableInfo.setIndexType(tProfile.getIndexType());
+      tableInfo.setCompression(tProfile.getCompression());
+      tableInfo.setCProfiles(tProfile.getCProfiles());
+
+      queryInfo.setDeltaLocalServerTime(0);
+    } catch (Exception e) {
+      log.catching(e);
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Columns are registered from a header-only CSV, data is put directly on each pull
+   */
+  private TProfile loadHeaderMetadata(List<String> columns, SProfile sProfile) throws Exception {
+    Path header = null;
+    try {
+      header = Files.createTempFile(sProfile.getTableName(), ".csv");
+      Files.writeString(header, String.join(",", columns) + System.lineSeparator());
+
+      return fStore.loadCsvTableMetadata(header.toString(), ",", sProfile);
+    } finally {
+      if (header != null) {
+        try {
+          Files.deleteIfExists(header);
+        } catch (IOException e) {
+          log.catching(e);
+        }
+      }
+    }
+  }
+
   @Override
   public void collect(ProfileInfo profileInfo, TaskInfo taskInfo, HashMap<Integer, DataLoader> loaderHashMap) {
     log.info("Collect started..");
@@ -60,10 +123,22 @@ public class CollectorImpl implements Collector, JdbcLoader {
         ProfileTaskQueryKey profileTaskQueryKey =
             new ProfileTaskQueryKey(profileInfo.getId(), taskInfo.getId(), queryId);
 
-        loaderHashMap.get(queryId).initLastTimestamp();
-        eventListener.fireOnStartCollect(profileTaskQueryKey);
-        loaderHashMap.get(queryId).loadDataJdbc();
-        eventListener.fireOnStopCollect(profileTaskQueryKey);
+        CollectEvent event = new CollectEvent();
+        event.begin();
+        ProfileTaskQueryKey previous = StageMetrics.bind(profileTaskQueryKey);
+        try {
+          loaderHashMap.get(queryId).initLastTimestamp();
+          eventListener.fireOnStartCollect(profileTaskQueryKey);
+          loaderHashMap.get(queryId).loadDataJdbc();
+          eventListener.fireOnStopCollect(profileTaskQueryKey);
+        } finally {
+          StageMetrics.restore(previous);
+          event.end();
+          if (event.shouldCommit()) {
+            event.setKey(profileTaskQueryKey);
+            event.commit();
+          }
+        }
       } catch (Exception e) {
         log.catching(e);
         throw new RuntimeException(e);
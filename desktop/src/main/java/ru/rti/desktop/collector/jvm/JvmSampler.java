@@ -0,0 +1,100 @@
+package ru.rti.desktop.collector.jvm;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import ru.rti.desktop.diagnostic.StageMetrics;
+
+/**
+ * Samples the application JVM into column lists of a {@link JvmTable}, ready for direct load to the local database.
+ * GC counters are reported as a delta to the previous sample of the same sampler.
+ */
+public class JvmSampler {
+  private static final double MB = 1024 * 1024;
+
+  private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+  private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+  private final Map<String, long[]> previousGc = new HashMap<>();
+
+  public List<List<Object>> sample(JvmTable table, long timestamp) {
+    List<List<Object>> columns = new ArrayList<>();
+    table.getColumns().forEach(c -> columns.add(new ArrayList<>()));
+
+    switch (table) {
+      case GC -> sampleGc(columns, timestamp);
+      case MEMORY -> sampleMemory(columns, timestamp);
+      case THREADS -> sampleThreads(columns, timestamp);
+      case TIMINGS -> sampleTimings(columns, timestamp);
+    }
+
+    return columns;
+  }
+
+  private void sampleGc(List<List<Object>> columns, long timestamp) {
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      long count = Math.max(0, gc.getCollectionCount());
+      long time = Math.max(0, gc.getCollectionTime());
+
+      long[] previous = previousGc.getOrDefault(gc.getName(), new long[] {count, time});
+      previousGc.put(gc.getName(), new long[] {count, time});
+
+      addRow(columns, timestamp, gc.getName(), count - previous[0], time - previous[1]);
+    }
+  }
+
+  private void sampleMemory(List<List<Object>> columns, long timestamp) {
+    double direct = 0;
+    double mapped = 0;
+    for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+      if ("direct".equals(pool.getName())) {
+        direct = pool.getMemoryUsed() / MB;
+      } else if ("mapped".equals(pool.getName())) {
+        mapped = pool.getMemoryUsed() / MB;
+      }
+    }
+
+    addRow(columns, timestamp,
+        memoryMXBean.getHeapMemoryUsage().getUsed() / MB,
+        memoryMXBean.getHeapMemoryUsage().getCommitted() / MB,
+        memoryMXBean.getNonHeapMemoryUsage().getUsed() / MB,
+        direct,
+        mapped);
+  }
+
+  private void sampleThreads(List<List<Object>> columns, long timestamp) {
+    Map<Thread.State, Integer> byState = new EnumMap<>(Thread.State.class);
+    for (Thread.State state : Thread.State.values()) {
+      byState.put(state, 0);
+    }
+
+    for (ThreadInfo threadInfo : threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds(), 0)) {
+      if (threadInfo != null) {
+        byState.merge(threadInfo.getThreadState(), 1, Integer::sum);
+      }
+    }
+
+    byState.forEach((state, threads) -> addRow(columns, timestamp, state.name(), threads));
+  }
+
+  private void sampleTimings(List<List<Object>> columns, long timestamp) {
+    StageMetrics.drain().forEach((stage, values) ->
+        addRow(columns, timestamp, stage, (long) values[0], values[1], values[2]));
+  }
+
+  private void addRow(List<List<Object>> columns, long timestamp, Object... values) {
+    columns.get(0).add(new Timestamp(timestamp));
+    for (int i = 0; i < values.length; i++) {
+      columns.get(i + 1).add(values[i]);
+    }
+  }
+}
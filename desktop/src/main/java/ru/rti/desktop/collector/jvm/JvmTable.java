@@ -0,0 +1,80 @@
+package ru.rti.desktop.collector.jvm;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.fbase.model.profile.cstype.CSType;
+import org.fbase.model.profile.cstype.SType;
+import ru.rti.desktop.exception.NotFoundException;
+
+/**
+ * Tables of the built-in self-monitoring source, the first column is the sample timestamp
+ */
+public enum JvmTable {
+  GC("JVM_GC", "Garbage collections and pause time by collector since the previous sample",
+      "GC_NAME", List.of("DT", "GC_NAME", "COLLECTIONS", "PAUSE_MS")),
+  MEMORY("JVM_MEMORY", "Heap, non-heap, direct and mapped buffers usage, MB",
+      null, List.of("DT", "HEAP_USED", "HEAP_COMMITTED", "NON_HEAP_USED", "DIRECT_USED", "MAPPED_USED")),
+  THREADS("JVM_THREADS", "Live threads by state",
+      "STATE", List.of("DT", "STATE", "THREADS")),
+  TIMINGS("APP_TIMINGS", "Data path stage latencies since the previous sample, ms",
+      "STAGE", List.of("DT", "STAGE", "CALLS", "AVG_MS", "MAX_MS"));
+
+  public static final String TEXT_PREFIX = "jvm:";
+
+  private final String tableName;
+  private final String description;
+  private final String keyColumn;
+  private final List<String> columns;
+
+  JvmTable(String tableName, String description, String keyColumn, List<String> columns) {
+    this.tableName = tableName;
+    this.description = description;
+    this.keyColumn = keyColumn;
+    this.columns = columns;
+  }
+
+  public String getTableName() {
+    return tableName;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public List<String> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Query text of the table, the source has no SQL
+   */
+  public String getText() {
+    return TEXT_PREFIX + name().toLowerCase();
+  }
+
+  public Map<String, CSType> getCsTypeMap() {
+    Map<String, CSType> csTypeMap = new LinkedHashMap<>();
+
+    columns.forEach(column -> {
+      if ("DT".equals(column)) {
+        csTypeMap.put(column, new CSType().toBuilder().isTimeStamp(true).sType(SType.RAW).build());
+      } else if (column.equals(keyColumn)) {
+        csTypeMap.put(column, new CSType().toBuilder().sType(SType.ENUM).build());
+      } else {
+        csTypeMap.put(column, new CSType().toBuilder().sType(SType.RAW).build());
+      }
+    });
+
+    return csTypeMap;
+  }
+
+  public static JvmTable ofText(String text) {
+    for (JvmTable table : values()) {
+      if (table.getText().equalsIgnoreCase(text.trim())) {
+        return table;
+      }
+    }
+    throw new NotFoundException("Not found self-monitoring table for query text: " + text);
+  }
+}
@@ -0,0 +1,176 @@
+package ru.rti.desktop.collector.loader;
+
+import static ru.rti.desktop.model.function.MetricFunction.COUNT;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.log4j.Log4j2;
+import org.fbase.core.FStore;
+import org.fbase.exception.EnumByteExceedException;
+import org.fbase.exception.SqlColMetadataException;
+import ru.rti.desktop.diagnostic.Stage;
+import ru.rti.desktop.diagnostic.StageMetrics;
+import ru.rti.desktop.exception.NotFoundException;
+import ru.rti.desktop.model.ProfileTaskQueryKey;
+import ru.rti.desktop.model.config.Metric;
+import ru.rti.desktop.model.info.QueryInfo;
+import ru.rti.desktop.model.info.TableInfo;
+import ru.rti.desktop.model.info.TaskInfo;
+import ru.rti.desktop.model.sql.AggregateTable;
+import ru.rti.desktop.state.SqlQueryState;
+
+/**
+ * Loader of metrics aggregated on the server. The query is wrapped in the time bucket and
+ * GROUP BY of the source dialect, so a row per bucket and series comes over JDBC and goes
+ * to the companion table of the metric. Raw rows are loaded by the delegate when some
+ * metric of the query still needs them, otherwise the range of the pull is the query state.
+ */
+@Log4j2
+public class AggregateLoader implements DataLoader, JdbcLoader {
+
+  private final DataLoader rawLoader;
+
+  private final Connection connection;
+
+  private final ProfileTaskQueryKey profileTaskQueryKey;
+  private final TaskInfo taskInfo;
+  private final QueryInfo queryInfo;
+  private final List<Metric> metricList;
+  private final SqlQueryState sqlQueryState;
+  private final FStore fStore;
+
+  private final long bucketMs;
+  private final Map<Integer, String> sqlMap = new HashMap<>();
+  private final Map<Integer, Long> lastTimestampMap = new HashMap<>();
+
+  public AggregateLoader(DataLoader rawLoader, Connection connection, ProfileTaskQueryKey profileTaskQueryKey,
+      TaskInfo taskInfo, QueryInfo queryInfo, TableInfo tableInfo, List<Metric> metricList,
+      SqlQueryState sqlQueryState, FStore fStore) {
+    this.rawLoader = rawLoader;
+    this.connection = connection;
+    this.profileTaskQueryKey = profileTaskQueryKey;
+    this.taskInfo = taskInfo;
+    this.queryInfo = queryInfo;
+    this.metricList = metricList;
+    this.sqlQueryState = sqlQueryState;
+    this.fStore = fStore;
+
+    int bucketSeconds = Math.max(1, taskInfo.getPullTimeout());
+    this.bucketMs = bucketSeconds * 1000L;
+
+    String columnTimestamp = tableInfo.getCProfiles()
+        .stream()
+        .filter(f -> f.getCsType().isTimeStamp())
+        .findAny()
+        .orElseThrow(() -> new NotFoundException("Not found column timestamp: " + tableInfo.getTableName()))
+        .getColName();
+
+    metricList.forEach(metric -> {
+      String sqlText = AggregateTable.getSql(queryInfo.getDbType(), queryInfo.getText(),
+          columnTimestamp, metric, bucketSeconds);
+      log.info("Aggregate query of metric " + metric.getName() + " :: " + sqlText);
+      sqlMap.put(metric.getId(), sqlText);
+    });
+  }
+
+  @Override
+  public void initLastTimestamp() {
+    if (rawLoader != null) {
+      rawLoader.initLastTimestamp();
+    } else if (sqlQueryState.getLastTimestamp(profileTaskQueryKey) == 0) {
+      sqlQueryState.setLastTimestamp(profileTaskQueryKey, getSysdate(queryInfo.getDbType().getQuery(), connection, log)
+          - (taskInfo.getPullTimeout() * 1000L));
+    }
+  }
+
+  /**
+   * Aggregated rows are few, they are always put directly
+   */
+  @Override
+  public void loadDataDirect() {
+    loadDataJdbc();
+  }
+
+  @Override
+  public void loadDataJdbc() {
+    if (rawLoader != null) {
+      rawLoader.loadDataJdbc();
+    }
+
+    try {
+      long end = getSysdate(queryInfo.getDbType().getQuery(), connection, log);
+
+      // A failed metric keeps its range and is loaded again on the next pull, others go on
+      for (Metric metric : metricList) {
+        try {
+          loadMetric(metric, end);
+        } catch (Exception e) {
+          log.error("Failed to load aggregated metric " + metric.getName() + " of query " + queryInfo.getName(), e);
+        }
+      }
+
+      if (rawLoader == null) {
+        sqlQueryState.setLastTimestamp(profileTaskQueryKey, end);
+      }
+    } catch (Exception e) {
+      log.catching(e);
+    }
+  }
+
+  private void loadMetric(Metric metric, long end) throws SQLException, SqlColMetadataException, EnumByteExceedException {
+    String tableName = AggregateTable.getTableName(queryInfo.getName(), metric);
+    long begin = lastTimestampMap.computeIfAbsent(metric.getId(), id -> getBegin(tableName, end));
+
+    if (begin >= end) {
+      return;
+    }
+
+    List<List<Object>> columns = new ArrayList<>();
+    AggregateTable.COLUMNS.forEach(column -> columns.add(new ArrayList<>()));
+
+    boolean isCount = COUNT.equals(metric.getMetricFunction());
+
+    try (PreparedStatement ps = connection.prepareStatement(sqlMap.get(metric.getId()))) {
+      ps.setTimestamp(1, new Timestamp(begin));
+      ps.setTimestamp(2, new Timestamp(end));
+
+      long start = System.nanoTime();
+      try (ResultSet r = ps.executeQuery()) {
+        StageMetrics.record(Stage.JDBC_EXECUTE, profileTaskQueryKey, start);
+
+        while (r.next()) {
+          // Bucket is stamped with its last millisecond within the range, so the row is in the range
+          // of the pull and the next pull resumes exactly after the rows already aggregated
+          long bucket = r.getTimestamp(AggregateTable.BUCKET_TIME).getTime();
+          columns.get(0).add(new Timestamp(Math.min(bucket + bucketMs - 1, end)));
+          columns.get(1).add(isCount ? String.valueOf(r.getObject(AggregateTable.SERIES)) : metric.getYAxis().getColName());
+          columns.get(2).add(r.getLong(AggregateTable.ROW_COUNT));
+          columns.get(3).add(isCount ? 0D : r.getDouble(AggregateTable.VALUE_SUM));
+        }
+      }
+    }
+
+    // put stage is recorded by the local database under the key bound by the collector
+    if (!columns.get(0).isEmpty()) {
+      fStore.putDataDirect(tableName, columns);
+    }
+
+    lastTimestampMap.put(metric.getId(), end);
+  }
+
+  /**
+   * Continue after the last aggregated row of the local database, or from one pull ago
+   */
+  private long getBegin(String tableName, long end) {
+    long lastTimestamp = fStore.getLastTimestamp(tableName, Long.MIN_VALUE, Long.MAX_VALUE);
+
+    return lastTimestamp > 0 ? lastTimestamp : end - (taskInfo.getPullTimeout() * 1000L);
+  }
+}
@@ -0,0 +1,66 @@
+package ru.rti.desktop.collector.loader;
+
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.fbase.core.FStore;
+import ru.rti.desktop.collector.jvm.JvmSampler;
+import ru.rti.desktop.collector.jvm.JvmTable;
+import ru.rti.desktop.model.ProfileTaskQueryKey;
+import ru.rti.desktop.model.info.QueryInfo;
+import ru.rti.desktop.model.info.TableInfo;
+import ru.rti.desktop.state.SqlQueryState;
+
+/**
+ * Loader of the built-in self-monitoring source, samples the application JVM instead of a JDBC query
+ */
+@Log4j2
+public class JvmLoader implements DataLoader {
+
+  private final ProfileTaskQueryKey profileTaskQueryKey;
+  private final JvmTable jvmTable;
+  private final TableInfo tableInfo;
+  private final SqlQueryState sqlQueryState;
+  private final FStore fStore;
+
+  private final JvmSampler jvmSampler = new JvmSampler();
+
+  public JvmLoader(ProfileTaskQueryKey profileTaskQueryKey, QueryInfo queryInfo, TableInfo tableInfo,
+      SqlQueryState sqlQueryState, FStore fStore) {
+    this.profileTaskQueryKey = profileTaskQueryKey;
+    this.jvmTable = JvmTable.ofText(queryInfo.getText());
+    this.tableInfo = tableInfo;
+    this.sqlQueryState = sqlQueryState;
+    this.fStore = fStore;
+  }
+
+  @Override
+  public void initLastTimestamp() {
+    if (sqlQueryState.getLastTimestamp(profileTaskQueryKey) == 0) {
+      sqlQueryState.setLastTimestamp(profileTaskQueryKey, System.currentTimeMillis());
+    }
+  }
+
+  @Override
+  public void loadDataDirect() {
+    try {
+      long timestamp = System.currentTimeMillis();
+      List<List<Object>> columns = jvmSampler.sample(jvmTable, timestamp);
+
+      if (!columns.get(0).isEmpty()) {
+        fStore.putDataDirect(tableInfo.getTableName(), columns);
+      }
+
+      sqlQueryState.setLastTimestamp(profileTaskQueryKey, timestamp);
+    } catch (Exception e) {
+      log.catching(e);
+    }
+  }
+
+  /**
+   * There is no JDBC source behind, the sample is loaded directly
+   */
+  @Override
+  public void loadDataJdbc() {
+    loadDataDirect();
+  }
+}
@@ -5,6 +5,10 @@ import org.fbase.core.FStore;
 import org.fbase.model.profile.CProfile;
 import org.fbase.model.profile.TProfile;
 import ru.rti.desktop.collector.by.ByTarget;
+import ru.rti.desktop.diagnostic.FetchTimer;
+import ru.rti.desktop.diagnostic.Stage;
+import ru.rti.desktop.diagnostic.StageMetrics;
+import ru.rti.desktop.diagnostic.event.LoaderFlushEvent;
 import ru.rti.desktop.model.ProfileTaskQueryKey;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.info.TableInfo;
@@ -66,11 +70,14 @@ public class RowToRowLoader implements DataLoader, JdbcLoader {
       cProfiles.forEach(v -> listsColStore.add(v.getColId(), new ArrayList<>()));
 
       PreparedStatement ps = byTarget.getPreparedStatement();
+      long start = System.nanoTime();
       ResultSet r = ps.executeQuery();
+      StageMetrics.record(Stage.JDBC_EXECUTE, profileTaskQueryKey, start);
       r.setFetchSize(resultSetFetchSize);
 
       final boolean[] isTheSameKey = {false};
       final long[] previousValue = {0};
+      final long[] batchBegin = {0};
       AtomicInteger cnt = new AtomicInteger(0);
 
       while (r.next()) {
@@ -79,6 +86,9 @@ public class RowToRowLoader implements DataLoader, JdbcLoader {
           if (v.getCsType().isTimeStamp()) {
             try {
               Timestamp dt = (Timestamp) r.getObject(v.getColIdSql());
+              if (batchBegin[0] == 0) {
+                batchBegin[0] = dt.getTime();
+              }
               if (previousValue[0] == dt.getTime()) {
                 isTheSameKey[0] = true;
               } else {
@@ -94,11 +104,8 @@ public class RowToRowLoader implements DataLoader, JdbcLoader {
         if (cnt.incrementAndGet() >= fBaseBatchSize) {
           log.info("Flush.. " + previousValue[0] + ":" + isTheSameKey[0]);
           if (isTheSameKey[0]) {
-            try {
-              fStore.putDataDirect(tProfile.getTableName(), listsColStore);
-            } catch (Exception e) {
-              log.catching(e);
-            }
+            putDataDirect(tProfile.getTableName(), listsColStore, cnt.get(), batchBegin[0], previousValue[0]);
+            batchBegin[0] = 0;
             listsColStore.clear();
             cProfiles.forEach(v -> listsColStore.add(v.getColId(), new ArrayList<>()));
             cnt.set(0);
@@ -110,11 +117,7 @@ public class RowToRowLoader implements DataLoader, JdbcLoader {
       }
 
       if (cnt.get() != 0) {
-        try {
-          fStore.putDataDirect(tProfile.getTableName(), listsColStore);
-        } catch (Exception e) {
-          log.catching(e);
-        }
+        putDataDirect(tProfile.getTableName(), listsColStore, cnt.get(), batchBegin[0], previousValue[0]);
       }
 
       sqlQueryState.setLastTimestamp(profileTaskQueryKey, currValue.longValue());
@@ -132,9 +135,21 @@ public class RowToRowLoader implements DataLoader, JdbcLoader {
       PreparedStatement ps = byTarget.getPreparedStatement();
       ps.setFetchSize(resultSetFetchSize);
 
+      long start = System.nanoTime();
       ResultSet r = ps.executeQuery();
+      StageMetrics.record(Stage.JDBC_EXECUTE, profileTaskQueryKey, start);
 
-      long lastTimeStamp = fStore.putDataJdbc(tableInfo.getTableName(), r);
+      LoaderFlushEvent event = new LoaderFlushEvent();
+      event.begin();
+      FetchTimer fetchTimer = new FetchTimer();
+      long putStart = System.nanoTime();
+      long lastTimeStamp = fStore.putDataJdbc(tableInfo.getTableName(), fetchTimer.wrap(r));
+
+      StageMetrics.recordNanos(Stage.FETCH, profileTaskQueryKey, fetchTimer.getFetchNanos());
+      StageMetrics.recordNanos(Stage.PUT_DATA, profileTaskQueryKey,
+          System.nanoTime() - putStart - fetchTimer.getFetchNanos());
+      commit(event, tableInfo.getTableName(), fetchTimer.getRows(),
+          sqlQueryState.getLastTimestamp(profileTaskQueryKey), lastTimeStamp);
 
       if (lastTimeStamp != -1) {
         sqlQueryState.setLastTimestamp(profileTaskQueryKey, lastTimeStamp);
@@ -150,6 +165,29 @@ public class RowToRowLoader implements DataLoader, JdbcLoader {
     }
   }
 
+  private void putDataDirect(String tableName, List<List<Object>> listsColStore, long rows, long begin, long end) {
+    LoaderFlushEvent event = new LoaderFlushEvent();
+    event.begin();
+    try {
+      fStore.putDataDirect(tableName, listsColStore);
+    } catch (Exception e) {
+      log.catching(e);
+    }
+    commit(event, tableName, rows, begin, end);
+  }
+
+  private void commit(LoaderFlushEvent event, String tableName, long rows, long begin, long end) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.setKey(profileTaskQueryKey);
+      event.table = tableName;
+      event.rows = rows;
+      event.rangeBegin = begin;
+      event.rangeEnd = end;
+      event.commit();
+    }
+  }
+
   private void addToList(List<List<Object>> lists, CProfile v, ResultSet r) {
     try {
       lists.get(v.getColId()).add(r.getObject(v.getColIdSql()));
@@ -0,0 +1,25 @@
+package ru.rti.desktop.config;
+
+import dagger.Component;
+import ru.rti.desktop.headless.HeadlessRunner;
+
+import javax.inject.Singleton;
+
+/**
+ * Graph of managers, local storage and collector without any view, used by the headless mode
+ */
+@Component(modules = {
+        CollectorConfig.class,
+        ExecutorConfig.class,
+        RouterConfig.class,
+        StateConfig.class,
+        ManagerConfig.class,
+        FileConfig.class,
+        LocalDBConfig.class,
+        CacheConfig.class,
+        SecurityConfig.class
+})
+@Singleton
+public interface HeadlessComponent {
+    HeadlessRunner createHeadlessRunner();
+}
@@ -6,8 +6,11 @@ import ru.rti.desktop.config.presenter.PresenterConfig;
 import ru.rti.desktop.config.prototype.profile.WorkspaceProfileComponent;
 import ru.rti.desktop.config.prototype.profile.WorkspaceProfileModule;
 import ru.rti.desktop.config.view.*;
+import ru.rti.desktop.manager.ConfigurationManager;
+import ru.rti.desktop.manager.RecordingManager;
 import ru.rti.desktop.view.BaseFrame;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 @Component(modules = {
@@ -33,5 +36,11 @@ import javax.inject.Singleton;
 public interface MainComponent {
     BaseFrame createBaseFrame();
 
+    @Named("configurationManager")
+    ConfigurationManager createConfigurationManager();
+
+    @Named("recordingManager")
+    RecordingManager createRecordingManager();
+
     WorkspaceProfileComponent initProfile(WorkspaceProfileModule workspaceProfileModule);
 }
\ No newline at end of file
@@ -29,4 +29,12 @@ public abstract class ManagerConfig {
   @Binds
   @Named("reportManager")
   public abstract ReportManager bindReportManager(ReportManagerImpl reportManager);
+
+  @Binds
+  @Named("recordingManager")
+  public abstract RecordingManager bindRecordingManager(RecordingManagerImpl recordingManager);
+
+  @Binds
+  @Named("collectManager")
+  public abstract CollectManager bindCollectManager(CollectManagerImpl collectManager);
 }
@@ -48,4 +48,27 @@ public class ToolbarConfig {
     jButton.setPreferredSize(new Dimension(120, 30));
     return jButton;
   }
+
+  @Provides
+  @Singleton
+  @Named("toolbarDiagnosticsButton")
+  public JButton getDiagnosticsButton() {
+    JButton jButton = new JButton();
+    jButton.setActionCommand(DIAGNOSTICS.name());
+    jButton.setMnemonic('D');
+    jButton.setText("Diagnostics");
+    jButton.setPreferredSize(new Dimension(120, 30));
+    return jButton;
+  }
+
+  @Provides
+  @Singleton
+  @Named("toolbarRecordingButton")
+  public JButton getRecordingButton() {
+    JButton jButton = new JButton();
+    jButton.setActionCommand(RECORDING.name());
+    jButton.setText("Dump recording");
+    jButton.setPreferredSize(new Dimension(140, 30));
+    return jButton;
+  }
 }
@@ -0,0 +1,43 @@
+package ru.rti.desktop.diagnostic;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+
+/**
+ * Result set wrapper which sums the time of {@link ResultSet#next()}, so the fetch from the
+ * target database can be told apart from the time spent storing rows, fetched rows are counted
+ */
+public class FetchTimer {
+  private long fetchNanos;
+  private long rows;
+
+  public ResultSet wrap(ResultSet resultSet) {
+    return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+        (proxy, method, args) -> {
+          boolean next = "next".equals(method.getName());
+          long start = next ? System.nanoTime() : 0;
+          try {
+            Object result = method.invoke(resultSet, args);
+            if (next && Boolean.TRUE.equals(result)) {
+              rows++;
+            }
+            return result;
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          } finally {
+            if (next) {
+              fetchNanos += System.nanoTime() - start;
+            }
+          }
+        });
+  }
+
+  public long getFetchNanos() {
+    return fetchNanos;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+}
@@ -0,0 +1,25 @@
+package ru.rti.desktop.diagnostic;
+
+/**
+ * Stages of the data path from the target database to the chart on screen
+ */
+public enum Stage {
+  TASK_COLLECT("task.collect"),
+  JDBC_EXECUTE("jdbc.execute"),
+  FETCH("jdbc.fetch"),
+  PUT_DATA("localdb.put"),
+  CHART_QUERY("chart.query"),
+  AGGREGATION("chart.aggregation"),
+  DATASET_UPDATE("chart.dataset"),
+  REPAINT("chart.repaint");
+
+  private final String stageName;
+
+  Stage(String stageName) {
+    this.stageName = stageName;
+  }
+
+  public String getStageName() {
+    return stageName;
+  }
+}
@@ -0,0 +1,163 @@
+package ru.rti.desktop.diagnostic;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+import lombok.experimental.UtilityClass;
+import lombok.extern.log4j.Log4j2;
+import ru.rti.desktop.model.ProfileTaskQueryKey;
+
+/**
+ * Registry of stage latencies keyed by profile task query. Recording is a couple of lock-free
+ * counter updates, each stage of a key is exposed as MBean {@value #DOMAIN}:type=Stage.
+ * Code which does not know the query, like local database calls, records to the key bound
+ * to the current thread by {@link #bind(ProfileTaskQueryKey)}.
+ */
+@Log4j2
+@UtilityClass
+public class StageMetrics {
+  public static final String DOMAIN = "ru.rti.desktop";
+
+  /** Key of stages recorded outside of a profile task query **/
+  public static final ProfileTaskQueryKey NO_KEY = new ProfileTaskQueryKey(0, 0, 0);
+
+  private static final ThreadLocal<ProfileTaskQueryKey> currentKey = new ThreadLocal<>();
+
+  private static final Map<StatsKey, StageStats> stats = new ConcurrentHashMap<>();
+  private static final Map<Stage, Interval> intervals = new EnumMap<>(Stage.class);
+
+  static {
+    for (Stage stage : Stage.values()) {
+      intervals.put(stage, new Interval());
+    }
+  }
+
+  /**
+   * Bind the key to the current thread, returns the previous one to restore by {@link #restore(ProfileTaskQueryKey)}
+   */
+  public static ProfileTaskQueryKey bind(ProfileTaskQueryKey key) {
+    ProfileTaskQueryKey previous = currentKey.get();
+    currentKey.set(key);
+    return previous;
+  }
+
+  public static void restore(ProfileTaskQueryKey previous) {
+    if (previous == null) {
+      currentKey.remove();
+    } else {
+      currentKey.set(previous);
+    }
+  }
+
+  /**
+   * Key bound to the current thread, null when nothing is bound
+   */
+  public static ProfileTaskQueryKey getBoundKey() {
+    return currentKey.get();
+  }
+
+  public static void record(Stage stage, long startNanos) {
+    recordNanos(stage, currentKey.get(), System.nanoTime() - startNanos);
+  }
+
+  public static void record(Stage stage, ProfileTaskQueryKey key, long startNanos) {
+    recordNanos(stage, key, System.nanoTime() - startNanos);
+  }
+
+  public static void recordNanos(Stage stage, long nanos) {
+    recordNanos(stage, currentKey.get(), nanos);
+  }
+
+  public static void recordNanos(Stage stage, ProfileTaskQueryKey key, long nanos) {
+    ProfileTaskQueryKey k = key == null ? NO_KEY : key;
+
+    stats.computeIfAbsent(new StatsKey(stage, k), StageMetrics::register).record(nanos);
+    intervals.get(stage).record(nanos);
+  }
+
+  /**
+   * Stats of all stages ordered by key and stage
+   */
+  public static List<StageStats> getStats() {
+    List<StageStats> list = new ArrayList<>(stats.values());
+    list.sort(Comparator.<StageStats>comparingInt(s -> s.getKey().getProfileId())
+        .thenComparingInt(s -> s.getKey().getTaskId())
+        .thenComparingInt(s -> s.getKey().getQueryId())
+        .thenComparing(StageStats::getStageType));
+    return list;
+  }
+
+  public static void reset() {
+    stats.values().forEach(StageStats::reset);
+  }
+
+  /**
+   * @return stage name to [count, avg ms, max ms] of all keys since the previous call
+   */
+  public static Map<String, double[]> drain() {
+    Map<String, double[]> result = new LinkedHashMap<>();
+
+    intervals.forEach((stage, interval) -> {
+      long count = interval.count.sumThenReset();
+      long nanos = interval.nanos.sumThenReset();
+      long maxNanos = interval.maxNanos.getThenReset();
+
+      if (count > 0) {
+        result.put(stage.getStageName(), new double[] {
+            count,
+            toMillis(nanos / count),
+            toMillis(maxNanos)
+        });
+      }
+    });
+
+    return result;
+  }
+
+  private static double toMillis(long nanos) {
+    return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  private static StageStats register(StatsKey statsKey) {
+    StageStats stageStats = new StageStats(statsKey.stage(), statsKey.key());
+
+    try {
+      ObjectName name = new ObjectName(DOMAIN + ":type=Stage"
+          + ",profile=" + statsKey.key().getProfileId()
+          + ",task=" + statsKey.key().getTaskId()
+          + ",query=" + statsKey.key().getQueryId()
+          + ",name=" + statsKey.stage().getStageName());
+      if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(stageStats, name);
+      }
+    } catch (Exception e) {
+      log.warn("Stage " + statsKey + " is not registered in JMX: " + e.getMessage());
+    }
+
+    return stageStats;
+  }
+
+  private record StatsKey(Stage stage, ProfileTaskQueryKey key) {
+  }
+
+  private static class Interval {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    private void record(long nanos) {
+      this.count.increment();
+      this.nanos.add(nanos);
+      this.maxNanos.accumulate(nanos);
+    }
+  }
+}
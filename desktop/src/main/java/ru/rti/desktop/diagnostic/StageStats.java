@@ -0,0 +1,72 @@
+package ru.rti.desktop.diagnostic;
+
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import ru.rti.desktop.model.ProfileTaskQueryKey;
+
+/**
+ * Latency histogram and counters of a stage for one profile task query
+ */
+public class StageStats implements StageStatsMXBean {
+  private static final double NANOS_IN_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Getter
+  private final Stage stageType;
+  @Getter
+  private final ProfileTaskQueryKey key;
+  @Getter
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  private volatile long startNanos = System.nanoTime();
+
+  public StageStats(Stage stageType, ProfileTaskQueryKey key) {
+    this.stageType = stageType;
+    this.key = key;
+  }
+
+  void record(long nanos) {
+    histogram.record(nanos);
+  }
+
+  @Override
+  public String getStage() {
+    return stageType.getStageName();
+  }
+
+  @Override
+  public long getCount() {
+    return histogram.getCount();
+  }
+
+  @Override
+  public double getThroughputPerSec() {
+    double seconds = (double) (System.nanoTime() - startNanos) / TimeUnit.SECONDS.toNanos(1);
+    return seconds <= 0 ? 0 : histogram.getCount() / seconds;
+  }
+
+  @Override
+  public double getMeanMillis() {
+    return histogram.getMean() / NANOS_IN_MILLI;
+  }
+
+  @Override
+  public double getP50Millis() {
+    return histogram.getValueAtQuantile(0.5) / NANOS_IN_MILLI;
+  }
+
+  @Override
+  public double getP99Millis() {
+    return histogram.getValueAtQuantile(0.99) / NANOS_IN_MILLI;
+  }
+
+  @Override
+  public double getMaxMillis() {
+    return histogram.getMax() / NANOS_IN_MILLI;
+  }
+
+  @Override
+  public void reset() {
+    histogram.reset();
+    startNanos = System.nanoTime();
+  }
+}
@@ -0,0 +1,23 @@
+package ru.rti.desktop.diagnostic;
+
+/**
+ * JMX view of a stage of one profile task query, latencies in milliseconds
+ */
+public interface StageStatsMXBean {
+
+  String getStage();
+
+  long getCount();
+
+  double getThroughputPerSec();
+
+  double getMeanMillis();
+
+  double getP50Millis();
+
+  double getP99Millis();
+
+  double getMaxMillis();
+
+  void reset();
+}
@@ -0,0 +1,21 @@
+package ru.rti.desktop.diagnostic.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("ru.rti.desktop.ChartRepaint")
+@Label("Chart Repaint")
+@Category({"Real-time intelligence", "Chart"})
+@Description("Paint of a chart panel on the event dispatch thread")
+public class ChartRepaintEvent extends QueryEvent {
+  @Label("Column")
+  public String column;
+
+  @Label("Series")
+  public int series;
+
+  @Label("Items")
+  public int items;
+}
@@ -0,0 +1,13 @@
+package ru.rti.desktop.diagnostic.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("ru.rti.desktop.Collect")
+@Label("Collector Pull")
+@Category({"Real-time intelligence", "Collector"})
+@Description("Pull of one query of a profile task from the target database")
+public class CollectEvent extends QueryEvent {
+}
@@ -0,0 +1,24 @@
+package ru.rti.desktop.diagnostic.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timestamp;
+
+@Name("ru.rti.desktop.LoaderFlush")
+@Label("Loader Flush")
+@Category({"Real-time intelligence", "Storage"})
+@Description("Rows of the target result set stored to the local database")
+public class LoaderFlushEvent extends QueryEvent {
+  @Label("Rows")
+  public long rows;
+
+  @Label("Range Begin")
+  @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+  public long rangeBegin;
+
+  @Label("Range End")
+  @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+  public long rangeEnd;
+}
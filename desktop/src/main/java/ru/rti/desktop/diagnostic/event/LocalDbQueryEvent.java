@@ -0,0 +1,31 @@
+package ru.rti.desktop.diagnostic.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timestamp;
+
+@Name("ru.rti.desktop.LocalDbQuery")
+@Label("Local DB Range Query")
+@Category({"Real-time intelligence", "Storage"})
+@Description("Read of a time range from the local database")
+public class LocalDbQueryEvent extends QueryEvent {
+  @Label("Operation")
+  public String operation;
+
+  @Label("Column")
+  public String column;
+
+  @Label("Rows")
+  @Description("Rows of raw data, columns of stacked or gantt data")
+  public long rows;
+
+  @Label("Range Begin")
+  @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+  public long rangeBegin;
+
+  @Label("Range End")
+  @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+  public long rangeEnd;
+}
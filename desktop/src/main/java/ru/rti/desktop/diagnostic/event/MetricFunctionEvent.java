@@ -0,0 +1,30 @@
+package ru.rti.desktop.diagnostic.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timestamp;
+
+@Name("ru.rti.desktop.MetricFunction")
+@Label("Metric Function")
+@Category({"Real-time intelligence", "Chart"})
+@Description("Computation of a metric function over a time range for a chart")
+public class MetricFunctionEvent extends QueryEvent {
+  @Label("Function")
+  public String function;
+
+  @Label("Column")
+  public String column;
+
+  @Label("Series")
+  public int series;
+
+  @Label("Range Begin")
+  @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+  public long rangeBegin;
+
+  @Label("Range End")
+  @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+  public long rangeEnd;
+}
@@ -0,0 +1,30 @@
+package ru.rti.desktop.diagnostic.event;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import ru.rti.desktop.model.ProfileTaskQueryKey;
+
+/**
+ * Base of the application events, carries the profile task query and the local table the work is done for
+ */
+public abstract class QueryEvent extends Event {
+  @Label("Profile Id")
+  public int profileId;
+
+  @Label("Task Id")
+  public int taskId;
+
+  @Label("Query Id")
+  public int queryId;
+
+  @Label("Table")
+  public String table;
+
+  public void setKey(ProfileTaskQueryKey key) {
+    if (key != null) {
+      this.profileId = key.getProfileId();
+      this.taskId = key.getTaskId();
+      this.queryId = key.getQueryId();
+    }
+  }
+}
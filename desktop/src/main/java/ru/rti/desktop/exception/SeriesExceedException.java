@@ -1,7 +0,0 @@
-package ru.rti.desktop.exception;
-
-public class SeriesExceedException extends RuntimeException {
-  public SeriesExceedException(String message) {
-    super(message);
-  }
-}
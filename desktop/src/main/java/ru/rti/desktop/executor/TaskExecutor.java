@@ -2,7 +2,6 @@ package ru.rti.desktop.executor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.Executors;
@@ -15,16 +14,23 @@ import ru.rti.desktop.collector.Collector;
 import ru.rti.desktop.collector.by.ByClient;
 import ru.rti.desktop.collector.by.ByServer;
 import ru.rti.desktop.collector.by.ByTarget;
+import ru.rti.desktop.collector.loader.AggregateLoader;
 import ru.rti.desktop.collector.loader.DataLoader;
+import ru.rti.desktop.collector.loader.JvmLoader;
 import ru.rti.desktop.collector.loader.RowToRowLoader;
+import ru.rti.desktop.diagnostic.Stage;
+import ru.rti.desktop.diagnostic.StageMetrics;
 import ru.rti.desktop.exception.NotFoundException;
 import ru.rti.desktop.manager.ConnectionPoolManager;
 import ru.rti.desktop.model.ProfileTaskQueryKey;
+import ru.rti.desktop.model.config.Metric;
+import ru.rti.desktop.model.db.DBType;
 import ru.rti.desktop.model.info.ConnectionInfo;
 import ru.rti.desktop.model.info.ProfileInfo;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.info.TableInfo;
 import ru.rti.desktop.model.info.TaskInfo;
+import ru.rti.desktop.model.sql.AggregateTable;
 import ru.rti.desktop.model.sql.GatherDataSql;
 import ru.rti.desktop.state.SqlQueryState;
 
@@ -53,6 +59,8 @@ public class TaskExecutor {
 
   private final FStore fStore;
 
+  private final ProfileTaskQueryKey taskKey;
+
   /**
    * Task executor
    */
@@ -77,6 +85,7 @@ public class TaskExecutor {
     this.fStore = fStore;
 
     this.pullTimeout = taskInfo.getPullTimeout();
+    this.taskKey = new ProfileTaskQueryKey(profileInfo.getId(), taskInfo.getId(), 0);
 
     this.connection = null;
     this.loaderHashMap = new HashMap<>();
@@ -84,7 +93,9 @@ public class TaskExecutor {
 
   public void startTask() {
     try {
-      connection = connectionPoolManager.getConnection(connectionInfo);
+      if (!DBType.JVM.equals(connectionInfo.getDbType())) {
+        connection = connectionPoolManager.getConnection(connectionInfo);
+      }
 
       queryInfoList.forEach(queryInfo -> {
         TableInfo tableInfo = tableInfoList.stream()
@@ -97,15 +108,33 @@ public class TaskExecutor {
           ProfileTaskQueryKey profileTaskQueryKey = new ProfileTaskQueryKey(profileInfo.getId(),
               taskInfo.getId(), queryInfo.getId());
 
-          if (GatherDataSql.BY_CLIENT.equals(queryInfo.getGatherDataSql())) {
+          if (DBType.JVM.equals(connectionInfo.getDbType())) {
+            DataLoader dataLoader = new JvmLoader(profileTaskQueryKey, queryInfo, tableInfo, sqlQueryState, fStore);
+            loaderHashMap.put(queryInfo.getId(), dataLoader);
+          } else if (GatherDataSql.BY_CLIENT.equals(queryInfo.getGatherDataSql())) {
             ByTarget byClient = new ByClient(profileTaskQueryKey, queryInfo, connection);
             DataLoader dataLoader = new RowToRowLoader(byClient, connection, profileTaskQueryKey,
                 taskInfo, queryInfo, tableInfo, sqlQueryState, fStore);
             loaderHashMap.put(queryInfo.getId(), dataLoader);
           } else if (GatherDataSql.BY_SERVER.equals(queryInfo.getGatherDataSql())) {
-            ByTarget byServer = new ByServer(profileTaskQueryKey, queryInfo, tableInfo, connection, sqlQueryState);
-            DataLoader dataLoader = new RowToRowLoader(byServer, connection, profileTaskQueryKey,
-                taskInfo, queryInfo, tableInfo, sqlQueryState, fStore);
+            if (!connectionInfo.getDbType().hasTimeBucket()
+                && queryInfo.getMetricList().stream().anyMatch(Metric::isPushdown)) {
+              log.warn("Aggregate on server is not supported for " + connectionInfo.getDbType()
+                  + ", metrics of query " + queryInfo.getName() + " are collected raw");
+            }
+
+            DataLoader dataLoader = null;
+            if (!AggregateTable.isAggregateOnly(queryInfo)) {
+              ByTarget byServer = new ByServer(profileTaskQueryKey, queryInfo, tableInfo, connection, sqlQueryState);
+              dataLoader = new RowToRowLoader(byServer, connection, profileTaskQueryKey,
+                  taskInfo, queryInfo, tableInfo, sqlQueryState, fStore);
+            }
+
+            List<Metric> aggregateMetricList = AggregateTable.getMetricList(queryInfo);
+            if (!aggregateMetricList.isEmpty()) {
+              dataLoader = new AggregateLoader(dataLoader, connection, profileTaskQueryKey,
+                  taskInfo, queryInfo, tableInfo, aggregateMetricList, sqlQueryState, fStore);
+            }
             loaderHashMap.put(queryInfo.getId(), dataLoader);
           }
 
@@ -127,12 +156,12 @@ public class TaskExecutor {
   }
 
   private void run() {
-    Instant before = Instant.now();
+    long start = System.nanoTime();
     collector.collect(profileInfo, taskInfo, loaderHashMap);
-    Instant after = Instant.now();
+    StageMetrics.record(Stage.TASK_COLLECT, taskKey, start);
 
-    double range = ((double) after.toEpochMilli() - (double) before.toEpochMilli()) / 1000;
-    log.info("Task: " + taskInfo.getName() + ", execution (sec): " + range);
+    log.debug("Task: " + taskInfo.getName() + ", execution (ms): "
+        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
   }
 
 }
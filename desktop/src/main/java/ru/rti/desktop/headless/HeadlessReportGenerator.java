@@ -0,0 +1,310 @@
+package ru.rti.desktop.headless;
+
+import static ru.rti.desktop.model.function.ChartType.LINEAR;
+import static ru.rti.desktop.model.function.ChartType.STACKED;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.extern.log4j.Log4j2;
+import org.fbase.core.FStore;
+import org.fbase.model.profile.cstype.CType;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.DateAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.StackedXYAreaRenderer3;
+import org.jfree.chart.title.LegendTitle;
+import org.jfree.chart.ui.RectangleEdge;
+import ru.rti.desktop.exception.NotFoundException;
+import ru.rti.desktop.helper.ColorHelper;
+import ru.rti.desktop.helper.FilesHelper;
+import ru.rti.desktop.helper.ReportHelper;
+import ru.rti.desktop.manager.ProfileManager;
+import ru.rti.desktop.manager.ReportManager;
+import ru.rti.desktop.model.chart.CategoryTableXYDatasetRealTime;
+import ru.rti.desktop.model.chart.ChartRange;
+import ru.rti.desktop.model.config.Metric;
+import ru.rti.desktop.model.db.TimestampType;
+import ru.rti.desktop.model.function.MetricFunction;
+import ru.rti.desktop.model.info.QueryInfo;
+import ru.rti.desktop.model.info.TableInfo;
+import ru.rti.desktop.model.info.gui.ChartInfo;
+import ru.rti.desktop.model.report.CProfileReport;
+import ru.rti.desktop.model.report.MetricReport;
+import ru.rti.desktop.model.report.QueryReportData;
+import ru.rti.desktop.model.view.RangeChartHistory;
+import ru.rti.desktop.view.chart.FunctionDataHandler;
+import ru.rti.desktop.view.chart.HistoryLoader;
+import ru.rti.desktop.view.handler.report.design.ReportPdfBuilder;
+
+/**
+ * Render a saved report design to PDF without Swing: chart data is computed from local storage
+ * and charts are drawn by JFreeChart straight into the PDF
+ */
+@Log4j2
+public class HeadlessReportGenerator {
+
+  private static final int MAX_POINT_PER_GRAPH = 300;
+  private static final float CHART_WIDTH = 520;
+  private static final float CHART_HEIGHT = 300;
+  private static final String FONT_NAME = "arialuni.ttf";
+
+  private final ProfileManager profileManager;
+  private final ReportManager reportManager;
+  private final FStore fStore;
+  private final FilesHelper filesHelper;
+  private final ReportHelper reportHelper;
+  private final ReportPdfBuilder reportPdfBuilder;
+
+  public HeadlessReportGenerator(ProfileManager profileManager,
+                                 ReportManager reportManager,
+                                 FStore fStore,
+                                 FilesHelper filesHelper,
+                                 ReportHelper reportHelper) {
+    this.profileManager = profileManager;
+    this.reportManager = reportManager;
+    this.fStore = fStore;
+    this.filesHelper = filesHelper;
+    this.reportHelper = reportHelper;
+    this.reportPdfBuilder = new ReportPdfBuilder();
+  }
+
+  /**
+   * @return names of saved design folders, newest first
+   */
+  public List<String> getDesignNames() {
+    try (var folders = Files.list(Paths.get(filesHelper.getDesignDir()))) {
+      return folders
+          .filter(Files::isDirectory)
+          .map(f -> f.getFileName().toString())
+          .filter(f -> f.startsWith("design_"))
+          .sorted((a, b) -> b.compareTo(a))
+          .toList();
+    } catch (IOException e) {
+      log.catching(e);
+      return List.of();
+    }
+  }
+
+  /**
+   * Copy the report template and font shared by all designs to the template folder, the files already there are kept
+   */
+  public void copyResources() throws IOException {
+    copyResourceIfAbsent("ftl", ReportPdfBuilder.TEMPLATE_NAME);
+    copyResourceIfAbsent("ttf", FONT_NAME);
+  }
+
+  /**
+   * Render the design to report_*.pdf in its folder, an earlier report of the design is replaced
+   *
+   * @param designName folder name of the design, e.g. design_240101120000
+   * @return path of the report
+   */
+  public Path generate(String designName) throws Exception {
+    Map<String, QueryReportData> mapDesign = reportManager.getConfig(designName, "design");
+    if (mapDesign == null || mapDesign.isEmpty()) {
+      throw new NotFoundException("Design not found or empty: " + designName);
+    }
+
+    copyResources();
+
+    String designDir = filesHelper.getDesignDir() + filesHelper.getFileSeparator() + designName;
+    Path pdfPath = Paths.get(designDir, "report_" + designName.substring(designName.indexOf("_") + 1) + ".pdf");
+
+    fStore.syncBackendDb();
+
+    ReportPdfBuilder.Report report = reportPdfBuilder.open(pdfPath, filesHelper.getFilePathFont(FONT_NAME));
+
+    List<Map<String, Object>> pages = new ArrayList<>();
+    try {
+      for (Map.Entry<String, QueryReportData> entry : new TreeMap<>(mapDesign).entrySet()) {
+        addQueryPages(report, pages, designDir, entry.getKey(), entry.getValue());
+      }
+    } catch (Exception e) {
+      report.discard();
+      throw e;
+    }
+
+    reportPdfBuilder.build(report, pages, filesHelper.getFilePathTemplate(ReportPdfBuilder.TEMPLATE_NAME));
+
+    return pdfPath;
+  }
+
+  private void addQueryPages(ReportPdfBuilder.Report report, List<Map<String, Object>> pages, String designDir,
+                             String key, QueryReportData queryReportData) throws Exception {
+    String[] stringKey = key.split("_");
+
+    int profileId = Integer.parseInt(stringKey[0]);
+    int taskId = Integer.parseInt(stringKey[1]);
+    int queryId = Integer.parseInt(stringKey[2]);
+    long begin = parseFused(stringKey[3]);
+    long end = parseFused(stringKey[4]);
+
+    QueryInfo queryInfo = profileManager.getQueryInfoById(queryId);
+    TableInfo tableInfo = profileManager.getTableInfoByTableName(queryInfo.getName());
+    if (Objects.isNull(tableInfo)) {
+      throw new NotFoundException(String.format("Table info with id=%s not found", queryInfo.getName()));
+    }
+
+    ChartInfo savedChartInfo = profileManager.getChartInfoById(queryId);
+    if (Objects.isNull(savedChartInfo)) {
+      throw new NotFoundException(String.format("Chart info with id=%s not found", queryId));
+    }
+
+    ChartInfo chartInfo = new ChartInfo()
+        .setId(savedChartInfo.getId())
+        .setRange(savedChartInfo.getRange())
+        .setPullTimeout(savedChartInfo.getPullTimeout())
+        .setSeriesTopK(savedChartInfo.getSeriesTopK())
+        .setDownsampleType(savedChartInfo.getDownsampleType())
+        .setRangeHistory(RangeChartHistory.CUSTOM)
+        .setCustomBegin(begin)
+        .setCustomEnd(end);
+
+    Map<String, Object> pageData = new HashMap<>();
+    pageData.put("profileName", profileManager.getProfileInfoById(profileId).getName());
+    pageData.put("taskName", profileManager.getTaskInfoById(taskId).getName());
+    pageData.put("queryName", queryInfo.getName());
+    pageData.put("dateFrom", reportHelper.getDateFormat(begin));
+    pageData.put("dateTo", reportHelper.getDateFormat(end));
+
+    String chartDir = designDir + filesHelper.getFileSeparator() + "profileId_" + profileId
+        + "_taskId_" + taskId + "_queryId_" + queryId;
+
+    for (MetricReport m : queryReportData.getMetricReportList()) {
+      Metric metric = new Metric();
+      metric.setName(m.getName());
+      metric.setXAxis(m.getXAxis());
+      metric.setYAxis(m.getYAxis());
+      metric.setGroup(m.getGroup());
+      metric.setMetricFunction(m.getMetricFunction());
+      metric.setChartType(m.getChartType());
+
+      pages.add(addChartPage(report, pageData, chartDir, "Metric", metric, m.getComment(), queryInfo, chartInfo));
+    }
+
+    for (CProfileReport c : queryReportData.getCProfileReportList()) {
+      Metric metric = new Metric();
+      metric.setName(c.getColName());
+      metric.setXAxis(tableInfo.getCProfiles().stream().filter(f -> f.getCsType().isTimeStamp()).findAny().orElseThrow());
+      metric.setYAxis(c);
+      metric.setGroup(c);
+      setMetricFunction(c, metric);
+
+      pages.add(addChartPage(report, pageData, chartDir, "Column", metric, c.getComment(), queryInfo, chartInfo));
+    }
+  }
+
+  private Map<String, Object> addChartPage(ReportPdfBuilder.Report report, Map<String, Object> queryPageData,
+                                           String chartDir, String title, Metric metric, String comment,
+                                           QueryInfo queryInfo, ChartInfo chartInfo) throws Exception {
+    String pathChart = chartDir + filesHelper.getFileSeparator()
+        + metric.getName().trim().replace(" ", "_").toLowerCase();
+
+    report.addChart(pathChart, createChart(metric, queryInfo, chartInfo), CHART_WIDTH, CHART_HEIGHT);
+
+    Map<String, Object> pageData = new HashMap<>(queryPageData);
+    pageData.put("nameCard", "<p><b>" + title + ": </b>" + metric.getName() + "</p>");
+    pageData.put("nameFunction", " FUNCTION: " + metric.getMetricFunction().getName());
+    pageData.put("description", comment == null ? "" : comment);
+    pageData.put("pathChart", pathChart);
+
+    return pageData;
+  }
+
+  private JFreeChart createChart(Metric metric, QueryInfo queryInfo, ChartInfo chartInfo) {
+    FunctionDataHandler dataHandler = FunctionDataHandler.create(metric, queryInfo, fStore);
+
+    Set<String> series = new LinkedHashSet<>();
+    dataHandler.fillSeriesDataForHistory(chartInfo, series);
+
+    ChartRange chartRange = dataHandler.getRange(chartInfo);
+    long step = Math.round((double) dataHandler.getRangeHistory(chartInfo) / MAX_POINT_PER_GRAPH);
+
+    Map<Long, Map<String, Double>> values = HistoryLoader.computeStacked(dataHandler, chartRange, step, series, () -> false);
+
+    CategoryTableXYDatasetRealTime dataset = new CategoryTableXYDatasetRealTime();
+    JFreeChart chart = ChartFactory.createStackedXYAreaChart("", metric.getYAxis().getColName(), "Value", dataset,
+        PlotOrientation.VERTICAL, new DateAxis(), false, false, false);
+
+    StackedXYAreaRenderer3 renderer = new StackedXYAreaRenderer3();
+    renderer.setRoundXCoordinates(true);
+
+    XYPlot xyPlot = (XYPlot) chart.getPlot();
+    xyPlot.setRenderer(renderer);
+    xyPlot.getRangeAxis().setLowerBound(0.0);
+    xyPlot.getRangeAxis().setAutoRange(true);
+
+    List<String> seriesNames = values.values().stream()
+        .flatMap(bucket -> bucket.keySet().stream())
+        .distinct()
+        .toList();
+    for (int i = 0; i < seriesNames.size(); i++) {
+      renderer.setSeriesPaint(i, ColorHelper.getColor(seriesNames.get(i)));
+    }
+
+    dataset.addSeriesValues(values);
+
+    LegendTitle legendTitle = new LegendTitle(xyPlot);
+    legendTitle.setPosition(RectangleEdge.RIGHT);
+    chart.addSubtitle(legendTitle);
+
+    return chart;
+  }
+
+  private void setMetricFunction(CProfileReport cProfile, Metric metric) {
+    if (CType.STRING.equals(cProfile.getCsType().getCType())
+        || Arrays.stream(TimestampType.values()).anyMatch((t) -> t.name().equals(cProfile.getColDbTypeName()))) {
+      metric.setMetricFunction(MetricFunction.COUNT);
+      metric.setChartType(STACKED);
+    } else {
+      metric.setMetricFunction(MetricFunction.AVERAGE);
+      metric.setChartType(LINEAR);
+    }
+  }
+
+  private long parseFused(String date) {
+    return LocalDateTime.parse(date, reportHelper.getDateTimeFormatterFused())
+        .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  private void copyResourceIfAbsent(String resourceDir, String fileName) throws IOException {
+    Path target = Paths.get(filesHelper.getTemplateDir(), fileName);
+    if (Files.exists(target)) {
+      return;
+    }
+
+    Files.createDirectories(target.getParent());
+    try (InputStream is = getClass().getClassLoader().getResourceAsStream(resourceDir + "/" + fileName)) {
+      if (is == null) {
+        throw new NotFoundException("Resource not found: " + resourceDir + "/" + fileName);
+      }
+      Path temp = Files.createTempFile(target.getParent(), fileName, ".tmp");
+      try {
+        Files.copy(is, temp, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+      } catch (FileAlreadyExistsException e) {
+        log.info("Resource is already copied: " + target);
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package ru.rti.desktop.headless;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import lombok.extern.log4j.Log4j2;
+import org.fbase.core.FStore;
+import ru.rti.desktop.exception.NotFoundException;
+import ru.rti.desktop.executor.TaskExecutor;
+import ru.rti.desktop.helper.FilesHelper;
+import ru.rti.desktop.helper.ReportHelper;
+import ru.rti.desktop.manager.CollectManager;
+import ru.rti.desktop.manager.ProfileManager;
+import ru.rti.desktop.manager.ReportManager;
+import ru.rti.desktop.model.info.ProfileInfo;
+
+/**
+ * Commands of the headless mode:
+ * <pre>
+ *  report [design_name ...]          render saved designs to PDF, all designs if none given
+ *  collect profile_name seconds      collect data of the profile tasks for the given time
+ * </pre>
+ */
+@Log4j2
+@Singleton
+public class HeadlessRunner {
+
+  private final ProfileManager profileManager;
+  private final CollectManager collectManager;
+  private final FStore fStore;
+  private final HeadlessReportGenerator reportGenerator;
+
+  @Inject
+  public HeadlessRunner(@Named("profileManager") ProfileManager profileManager,
+                        @Named("reportManager") ReportManager reportManager,
+                        @Named("collectManager") CollectManager collectManager,
+                        @Named("localDB") FStore fStore,
+                        FilesHelper filesHelper,
+                        ReportHelper reportHelper) {
+    this.profileManager = profileManager;
+    this.collectManager = collectManager;
+    this.fStore = fStore;
+    this.reportGenerator = new HeadlessReportGenerator(profileManager, reportManager, fStore, filesHelper, reportHelper);
+  }
+
+  /**
+   * @return process exit code, number of failed designs for report
+   */
+  public int run(String... args) {
+    if (args.length == 0) {
+      log.error("Command is not set, expected: report [design_name ...] | collect profile_name seconds");
+      return 1;
+    }
+
+    try {
+      return switch (args[0]) {
+        case "report" -> report(Arrays.asList(args).subList(1, args.length));
+        case "collect" -> collect(args);
+        default -> {
+          log.error("Unknown command: " + args[0]);
+          yield 1;
+        }
+      };
+    } finally {
+      fStore.syncBackendDb();
+    }
+  }
+
+  private int report(List<String> designNames) {
+    List<String> designs = designNames.isEmpty() ? reportGenerator.getDesignNames() : designNames;
+    if (designs.isEmpty()) {
+      log.warn("No saved designs found");
+      return 0;
+    }
+
+    try {
+      reportGenerator.copyResources();
+    } catch (IOException e) {
+      log.error("Report resources are not copied", e);
+      return designs.size();
+    }
+
+    int threads = Math.max(1, Math.min(designs.size(), Runtime.getRuntime().availableProcessors()));
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    List<Future<Path>> reports = new ArrayList<>();
+    designs.forEach(design -> reports.add(executor.submit(() -> reportGenerator.generate(design))));
+
+    int failed = 0;
+    for (int i = 0; i < designs.size(); i++) {
+      try {
+        log.info("Report for " + designs.get(i) + " is saved to " + reports.get(i).get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failed++;
+      } catch (ExecutionException e) {
+        log.error("Report for " + designs.get(i) + " failed", e.getCause());
+        failed++;
+      }
+    }
+
+    executor.shutdown();
+
+    return failed;
+  }
+
+  private int collect(String[] args) {
+    if (args.length < 3) {
+      log.error("Expected: collect profile_name seconds");
+      return 1;
+    }
+
+    ProfileInfo profileInfo = profileManager.getProfileInfoList().stream()
+        .filter(f -> f.getName().equals(args[1]))
+        .findAny()
+        .orElseThrow(() -> new NotFoundException("Profile not found: " + args[1]));
+    long seconds = Long.parseLong(args[2]);
+
+    Collection<TaskExecutor> taskExecutors = collectManager.startProfile(profileInfo.getId()).values();
+
+    try {
+      TimeUnit.SECONDS.sleep(seconds);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      taskExecutors.forEach(TaskExecutor::stopTask);
+    }
+
+    log.info("Collect for profile " + profileInfo.getName() + " is finished after " + seconds + " sec");
+
+    return 0;
+  }
+}
@@ -0,0 +1,363 @@
+package ru.rti.desktop.helper;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.log4j.Log4j2;
+import ru.rti.desktop.exception.FileNameExistException;
+
+/**
+ * In-memory index of configuration entities by file name. Each entity type is read from disk once,
+ * changes are written back on a single writer thread with atomic file replacement and external
+ * edits of the config directories are picked up by a file watcher. A change which failed to be
+ * written stays pending and is written again later.
+ */
+@Log4j2
+@Singleton
+public class ConfigRepository {
+    private static final long FLUSH_TIMEOUT_SEC = 30;
+    private static final long RETRY_DELAY_SEC = 5;
+    private static final long RETRY_DELAY_MAX_SEC = 300;
+
+    private final GsonHelper gsonHelper;
+
+    private final Map<Class<?>, EntityIndex<?>> indexes = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Class<?>> watchKeys = new ConcurrentHashMap<>();
+
+    private final Map<Path, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+    private final Map<Path, FileTime> ownWrites = new ConcurrentHashMap<>();
+    private final Map<Path, Long> retryDelays = new ConcurrentHashMap<>();
+    private final Set<Path> retryScheduled = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "config-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private WatchService watchService;
+
+    @Inject
+    public ConfigRepository(GsonHelper gsonHelper) {
+        this.gsonHelper = gsonHelper;
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "config-writer-flush"));
+    }
+
+    public <T> List<T> getList(Class<T> clazz) {
+        EntityIndex<T> index = getIndex(clazz);
+        synchronized (index) {
+            return index.entities.values().stream()
+                    .map(e -> gsonHelper.copy(e, clazz))
+                    .toList();
+        }
+    }
+
+    public <T> Optional<T> get(Class<T> clazz, String entityName) {
+        EntityIndex<T> index = getIndex(clazz);
+        String fileName = gsonHelper.getConfigFilePath(entityName, clazz).getFileName().toString();
+
+        synchronized (index) {
+            T entity = index.entities.get(fileName);
+            if (entity == null) {
+                String prefix = fileName.substring(0, fileName.length() - ".json".length());
+                entity = index.entities.entrySet().stream()
+                        .filter(e -> e.getKey().startsWith(prefix))
+                        .map(Map.Entry::getValue)
+                        .findFirst()
+                        .orElse(null);
+            }
+            return Optional.ofNullable(entity).map(e -> gsonHelper.copy(e, clazz));
+        }
+    }
+
+    public <T> void add(T entity, Class<T> clazz) {
+        EntityIndex<T> index = getIndex(clazz);
+        Path file = gsonHelper.getConfigFilePath(entity, clazz);
+        String fileName = file.getFileName().toString();
+
+        synchronized (index) {
+            if (index.entities.containsKey(fileName)) {
+                throw new FileNameExistException("File name: " + fileName +
+                        " already exist. Please choose another one..");
+            }
+            index.entities.put(fileName, gsonHelper.copy(entity, clazz));
+        }
+
+        scheduleWrite(file, new PendingWrite(clazz, gsonHelper.copy(entity, clazz)));
+    }
+
+    public <T> void update(T entity, Class<T> clazz) {
+        EntityIndex<T> index = getIndex(clazz);
+        Path file = gsonHelper.getConfigFilePath(entity, clazz);
+
+        synchronized (index) {
+            index.entities.put(file.getFileName().toString(), gsonHelper.copy(entity, clazz));
+        }
+
+        scheduleWrite(file, new PendingWrite(clazz, gsonHelper.copy(entity, clazz)));
+    }
+
+    public <T> void delete(T entity, Class<T> clazz) {
+        delete(gsonHelper.getConfigFilePath(entity, clazz), clazz);
+    }
+
+    public <T> void delete(String entityName, Class<T> clazz) {
+        delete(gsonHelper.getConfigFilePath(entityName, clazz), clazz);
+    }
+
+    /**
+     * Read the config directories of the entity types in parallel, types already in memory are skipped
+     */
+    public void preload(List<Class<?>> classes) {
+        long start = System.currentTimeMillis();
+        classes.parallelStream().forEach(this::getIndex);
+        log.info("Preloaded " + classes.size() + " config types in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Write all pending changes, including the failed ones, and wait until it is done
+     */
+    public void flush() {
+        try {
+            writer.submit(() -> List.copyOf(pendingWrites.keySet()).forEach(this::write))
+                    .get(FLUSH_TIMEOUT_SEC, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.catching(e);
+        }
+    }
+
+    /**
+     * Files with changes which are not written to disk yet
+     */
+    public List<Path> getPendingFiles() {
+        return List.copyOf(pendingWrites.keySet());
+    }
+
+    private <T> void delete(Path file, Class<T> clazz) {
+        EntityIndex<T> index = getIndex(clazz);
+
+        synchronized (index) {
+            index.entities.remove(file.getFileName().toString());
+        }
+
+        scheduleWrite(file, new PendingWrite(clazz, null));
+    }
+
+    private void scheduleWrite(Path file, PendingWrite pendingWrite) {
+        pendingWrites.put(file, pendingWrite);
+        writer.execute(() -> write(file));
+    }
+
+    /**
+     * Writes the latest pending state of the file, earlier changes of the same file are coalesced.
+     * On failure the change stays pending and the write is retried with a growing delay
+     */
+    @SuppressWarnings("unchecked")
+    private void write(Path file) {
+        PendingWrite pendingWrite = pendingWrites.get(file);
+        if (pendingWrite == null) {
+            return;
+        }
+
+        try {
+            if (pendingWrite.entity() == null) {
+                Files.deleteIfExists(file);
+                ownWrites.remove(file);
+            } else {
+                gsonHelper.writeConfigAtomic(pendingWrite.entity(), (Class<Object>) pendingWrite.clazz());
+                ownWrites.put(file, Files.getLastModifiedTime(file));
+            }
+            pendingWrites.remove(file, pendingWrite);
+            retryDelays.remove(file);
+        } catch (IOException e) {
+            log.error("Failed to write configuration file " + file, e);
+            scheduleRetry(file);
+        }
+    }
+
+    private void scheduleRetry(Path file) {
+        if (!retryScheduled.add(file)) {
+            return;
+        }
+
+        long delay = retryDelays.merge(file, RETRY_DELAY_SEC, (prev, init) -> Math.min(prev * 2, RETRY_DELAY_MAX_SEC));
+        log.info("Write of configuration file " + file + " is retried in " + delay + " sec");
+
+        writer.schedule(() -> {
+            retryScheduled.remove(file);
+            write(file);
+        }, delay, TimeUnit.SECONDS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> EntityIndex<T> getIndex(Class<T> clazz) {
+        return (EntityIndex<T>) indexes.computeIfAbsent(clazz, this::load);
+    }
+
+    private <T> EntityIndex<T> load(Class<T> clazz) {
+        long start = System.currentTimeMillis();
+
+        EntityIndex<T> index = new EntityIndex<>();
+        Path dir = gsonHelper.getConfigDirPath(clazz);
+
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> paths = Files.list(dir)) {
+                paths.filter(this::isConfigFile)
+                        .forEach(file -> readToIndex(clazz, index, file));
+            } catch (IOException e) {
+                log.catching(e);
+            }
+            watch(dir, clazz);
+        }
+
+        log.info("Loaded " + index.entities.size() + " " + clazz.getSimpleName() + " configs in "
+                + (System.currentTimeMillis() - start) + " ms");
+
+        return index;
+    }
+
+    private <T> void readToIndex(Class<T> clazz, EntityIndex<T> index, Path file) {
+        try {
+            T entity = gsonHelper.readConfig(clazz, file);
+            if (entity != null) {
+                synchronized (index) {
+                    index.entities.put(file.getFileName().toString(), entity);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to read configuration file " + file, e);
+        }
+    }
+
+    private boolean isConfigFile(Path file) {
+        return file.getFileName().toString().endsWith(".json") && Files.isRegularFile(file);
+    }
+
+    private synchronized void watch(Path dir, Class<?> clazz) {
+        try {
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+
+                Thread watcher = new Thread(this::processEvents, "config-watcher");
+                watcher.setDaemon(true);
+                watcher.start();
+            }
+
+            WatchKey key = dir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            watchKeys.put(key, clazz);
+        } catch (IOException e) {
+            log.warn("External changes of " + dir + " are not watched: " + e.getMessage());
+        }
+    }
+
+    private void processEvents() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Class<?> clazz = watchKeys.get(key);
+            if (clazz != null) {
+                Path dir = (Path) key.watchable();
+                key.pollEvents().forEach(event -> processEvent(clazz, dir, event));
+            }
+
+            if (!key.reset()) {
+                watchKeys.remove(key);
+            }
+        }
+    }
+
+    private <T> void processEvent(Class<T> clazz, Path dir, WatchEvent<?> event) {
+        EntityIndex<T> index = getIndex(clazz);
+
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            log.info("Reload " + clazz.getSimpleName() + " configs after lost file events");
+            reload(clazz, index, dir);
+            return;
+        }
+
+        Path file = dir.resolve((Path) event.context());
+        String fileName = file.getFileName().toString();
+        if (!fileName.endsWith(".json") || pendingWrites.containsKey(file)) {
+            return;
+        }
+
+        if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+            synchronized (index) {
+                index.entities.remove(fileName);
+            }
+            ownWrites.remove(file);
+            return;
+        }
+
+        try {
+            if (Files.getLastModifiedTime(file).equals(ownWrites.get(file))) {
+                return;
+            }
+        } catch (IOException e) {
+            return;
+        }
+
+        log.info("Configuration file " + file + " is changed externally");
+        readToIndex(clazz, index, file);
+    }
+
+    private <T> void reload(Class<T> clazz, EntityIndex<T> index, Path dir) {
+        EntityIndex<T> fresh = new EntityIndex<>();
+        try (Stream<Path> paths = Files.list(dir)) {
+            paths.filter(this::isConfigFile)
+                    .forEach(file -> readToIndex(clazz, fresh, file));
+        } catch (IOException e) {
+            log.catching(e);
+            return;
+        }
+
+        synchronized (index) {
+            index.entities.keySet().removeIf(fileName ->
+                    !fresh.entities.containsKey(fileName) && !pendingWrites.containsKey(dir.resolve(fileName)));
+            fresh.entities.forEach((fileName, entity) -> {
+                if (!pendingWrites.containsKey(dir.resolve(fileName))) {
+                    index.entities.put(fileName, entity);
+                }
+            });
+        }
+    }
+
+    private static class EntityIndex<T> {
+        private final Map<String, T> entities = new TreeMap<>();
+    }
+
+    private record PendingWrite(Class<?> clazz, Object entity) {
+    }
+}
@@ -0,0 +1,161 @@
+package ru.rti.desktop.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.DoubleStream;
+import ru.rti.desktop.model.chart.AsIsValueTyped;
+import ru.rti.desktop.model.function.DownsampleType;
+
+public class DownsampleHelper {
+  private DownsampleHelper() {}
+
+  public static List<AsIsValueTyped> downsample(List<AsIsValueTyped> data, int columns, DownsampleType downsampleType) {
+    if (downsampleType == null) {
+      return data;
+    }
+
+    return switch (downsampleType) {
+      case LTTB -> lttb(data, columns);
+      case MIN_MAX -> minMax(data, columns);
+      default -> data;
+    };
+  }
+
+  /**
+   * Split points of the range read at once into time buckets [begin, begin + step - 1] and
+   * compute one point per bucket in memory, empty buckets get the function of no values
+   *
+   * @param data     points of the range [begin, end]
+   * @param function bucket value, e.g. sum or average
+   */
+  public static List<AsIsValueTyped> aggregate(List<AsIsValueTyped> data, long begin, long end, long step,
+                                               ToDoubleFunction<DoubleStream> function) {
+    if (step <= 0 || end < begin) {
+      return new ArrayList<>();
+    }
+
+    int bucketCount = Math.toIntExact((end - begin) / step + 1);
+
+    List<DoubleStream.Builder> buckets = new ArrayList<>(bucketCount);
+    for (int i = 0; i < bucketCount; i++) {
+      buckets.add(DoubleStream.builder());
+    }
+
+    for (AsIsValueTyped point : data) {
+      if (point.getTimestamp() < begin || point.getTimestamp() > end) {
+        continue;
+      }
+      buckets.get(Math.toIntExact((point.getTimestamp() - begin) / step)).add(point.getValue());
+    }
+
+    List<AsIsValueTyped> aggregated = new ArrayList<>(bucketCount);
+    for (int i = 0; i < bucketCount; i++) {
+      aggregated.add(new AsIsValueTyped(begin + i * step, function.applyAsDouble(buckets.get(i).build())));
+    }
+
+    return aggregated;
+  }
+
+  /**
+   * Largest triangle three buckets, keeps the first and the last points and selects
+   * one point per bucket which forms the largest triangle with its neighbours
+   *
+   * @param data      time ordered points
+   * @param threshold number of points to keep, e.g. chart width in pixels
+   */
+  public static List<AsIsValueTyped> lttb(List<AsIsValueTyped> data, int threshold) {
+    if (threshold >= data.size() || threshold < 3) {
+      return data;
+    }
+
+    List<AsIsValueTyped> sampled = new ArrayList<>(threshold);
+
+    double every = (double) (data.size() - 2) / (threshold - 2);
+    int a = 0;
+    sampled.add(data.get(a));
+
+    for (int i = 0; i < threshold - 2; i++) {
+      int avgRangeStart = (int) Math.floor((i + 1) * every) + 1;
+      int avgRangeEnd = Math.min((int) Math.floor((i + 2) * every) + 1, data.size());
+
+      double avgX = 0D;
+      double avgY = 0D;
+      for (int j = avgRangeStart; j < avgRangeEnd; j++) {
+        avgX += data.get(j).getTimestamp();
+        avgY += data.get(j).getValue();
+      }
+      int avgRangeLength = avgRangeEnd - avgRangeStart;
+      avgX /= avgRangeLength;
+      avgY /= avgRangeLength;
+
+      int rangeOffs = (int) Math.floor(i * every) + 1;
+      int rangeTo = (int) Math.floor((i + 1) * every) + 1;
+
+      double pointAX = data.get(a).getTimestamp();
+      double pointAY = data.get(a).getValue();
+
+      double maxArea = -1D;
+      int next = rangeOffs;
+      for (int j = rangeOffs; j < rangeTo; j++) {
+        double area = Math.abs((pointAX - avgX) * (data.get(j).getValue() - pointAY)
+            - (pointAX - data.get(j).getTimestamp()) * (avgY - pointAY));
+        if (area > maxArea) {
+          maxArea = area;
+          next = j;
+        }
+      }
+
+      sampled.add(data.get(next));
+      a = next;
+    }
+
+    sampled.add(data.get(data.size() - 1));
+
+    return sampled;
+  }
+
+  /**
+   * Min/max envelope, for each pixel column keeps the lowest and the highest points
+   * in time order so peaks and troughs stay visible
+   *
+   * @param data    time ordered points
+   * @param columns number of pixel columns
+   */
+  public static List<AsIsValueTyped> minMax(List<AsIsValueTyped> data, int columns) {
+    if (columns * 2 >= data.size() || columns < 1) {
+      return data;
+    }
+
+    List<AsIsValueTyped> sampled = new ArrayList<>(columns * 2);
+
+    double every = (double) data.size() / columns;
+
+    for (int i = 0; i < columns; i++) {
+      int from = (int) Math.floor(i * every);
+      int to = Math.min((int) Math.floor((i + 1) * every), data.size());
+
+      if (from >= to) {
+        continue;
+      }
+
+      int min = from;
+      int max = from;
+      for (int j = from + 1; j < to; j++) {
+        if (data.get(j).getValue() < data.get(min).getValue()) {
+          min = j;
+        }
+        if (data.get(j).getValue() > data.get(max).getValue()) {
+          max = j;
+        }
+      }
+
+      sampled.add(data.get(Math.min(min, max)));
+      if (min != max) {
+        sampled.add(data.get(Math.max(min, max)));
+      }
+    }
+
+    return sampled;
+  }
+}
@@ -9,9 +9,13 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -142,6 +146,47 @@ public class GsonHelper {
         }
     }
 
+    public <T> Path getConfigDirPath(Class<T> clazz) {
+        return filesHelper.getFilePathDirectory(getEntityTypeName(clazz));
+    }
+
+    public <T> Path getConfigFilePath(T entity, Class<T> clazz) {
+        return getConfigDirPath(clazz).resolve(getFileName(entity, clazz));
+    }
+
+    public <T> Path getConfigFilePath(String entityName, Class<T> clazz) {
+        return getConfigDirPath(clazz).resolve(getFileName(entityName, clazz));
+    }
+
+    public <T> T readConfig(Class<T> clazz, Path file) throws IOException {
+        try (FileReader fileReader = new FileReader(file.toFile(), StandardCharsets.UTF_8)) {
+            return gson.fromJson(fileReader, clazz);
+        }
+    }
+
+    /**
+     * Write the entity to a temporary file and move it over the config file, so readers
+     * and the file watcher never see a partly written JSON
+     */
+    public <T> void writeConfigAtomic(T entity, Class<T> clazz) throws IOException {
+        Path file = getConfigFilePath(entity, clazz);
+        Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (Writer writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+            gson.toJson(entity, writer);
+        }
+
+        try {
+            Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public <T> T copy(T entity, Class<T> clazz) {
+        return gson.fromJson(gson.toJsonTree(entity), clazz);
+    }
+
     public <T> T getConfig(Class<T> clazz, String fileName) {
         Path dirPath = filesHelper.getFilePathDirectory(getEntityTypeName(clazz));
 
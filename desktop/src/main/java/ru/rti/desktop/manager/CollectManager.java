@@ -0,0 +1,16 @@
+package ru.rti.desktop.manager;
+
+import java.util.Map;
+import ru.rti.desktop.executor.TaskExecutor;
+import ru.rti.desktop.model.ProfileTaskKey;
+
+public interface CollectManager {
+
+  /**
+   * Create data sources, initialize the last timestamps and metadata of the profile queries
+   * and start its tasks, the query state is cleared if some query could not be prepared
+   *
+   * @return started task executors of the profile
+   */
+  Map<ProfileTaskKey, TaskExecutor> startProfile(int profileId);
+}
@@ -4,6 +4,11 @@ import java.util.List;
 
 public interface ConfigurationManager {
 
+  /**
+   * Read all configuration types into memory, may run in parallel with the UI creation
+   */
+  void loadConfig();
+
   <T> void saveConfigList(List<T> configList, Class<T> clazz);
 
   <T> void addConfig(T config, Class<T> clazz);
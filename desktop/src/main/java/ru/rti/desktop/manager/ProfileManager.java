@@ -60,6 +60,9 @@ public interface ProfileManager {
 
   List<QueryInfo> getQueryInfoListByConnDriver(String connDriver);
 
+  /** Tables of the queries, table name matches query name ignoring case **/
+  List<TableInfo> getTableInfoListByQueryList(List<QueryInfo> queryInfoList);
+
   void updateCache();
 
   void loadDeltaLocalServerTime(ProfileTaskQueryKey profileTaskQueryKey);
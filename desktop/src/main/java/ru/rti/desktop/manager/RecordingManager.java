@@ -0,0 +1,24 @@
+package ru.rti.desktop.manager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface RecordingManager {
+
+  boolean isRecording();
+
+  /**
+   * Start flight recording with the JDK default settings and the application events,
+   * the recording keeps the last 30 minutes on disk and is stopped on shutdown
+   */
+  void startRecording();
+
+  void stopRecording();
+
+  /**
+   * Write a snapshot of the recording to the recordings directory, the recording goes on
+   *
+   * @return path of the written file
+   */
+  Path dumpRecording() throws IOException;
+}
@@ -0,0 +1,140 @@
+package ru.rti.desktop.manager.impl;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import lombok.extern.log4j.Log4j2;
+import org.fbase.core.FStore;
+import ru.rti.desktop.collector.Collector;
+import ru.rti.desktop.exception.NotFoundException;
+import ru.rti.desktop.executor.TaskExecutor;
+import ru.rti.desktop.manager.CollectManager;
+import ru.rti.desktop.manager.ConnectionPoolManager;
+import ru.rti.desktop.manager.ProfileManager;
+import ru.rti.desktop.model.ProfileTaskKey;
+import ru.rti.desktop.model.ProfileTaskQueryKey;
+import ru.rti.desktop.model.db.DBType;
+import ru.rti.desktop.model.info.ConnectionInfo;
+import ru.rti.desktop.model.info.ProfileInfo;
+import ru.rti.desktop.model.info.QueryInfo;
+import ru.rti.desktop.model.info.TableInfo;
+import ru.rti.desktop.model.info.TaskInfo;
+import ru.rti.desktop.state.SqlQueryState;
+
+@Log4j2
+@Singleton
+public class CollectManagerImpl implements CollectManager {
+
+  private final ProfileManager profileManager;
+  private final ConnectionPoolManager connectionPoolManager;
+  private final Collector collector;
+  private final SqlQueryState sqlQueryState;
+  private final FStore fStore;
+
+  @Inject
+  public CollectManagerImpl(@Named("profileManager") ProfileManager profileManager,
+                            @Named("connectionPoolManager") ConnectionPoolManager connectionPoolManager,
+                            @Named("collector") Collector collector,
+                            @Named("sqlQueryState") SqlQueryState sqlQueryState,
+                            @Named("localDB") FStore fStore) {
+    this.profileManager = profileManager;
+    this.connectionPoolManager = connectionPoolManager;
+    this.collector = collector;
+    this.sqlQueryState = sqlQueryState;
+    this.fStore = fStore;
+  }
+
+  @Override
+  public Map<ProfileTaskKey, TaskExecutor> startProfile(int profileId) {
+    ProfileInfo profileInfo = profileManager.getProfileInfoById(profileId);
+
+    List<ProfileTaskQueryKey> initialized = new ArrayList<>();
+    try {
+      profileInfo.getTaskInfoList().forEach(taskId -> prepareTask(profileId, taskId, initialized));
+    } catch (RuntimeException e) {
+      initialized.forEach(sqlQueryState::clear);
+      throw e;
+    }
+
+    Map<ProfileTaskKey, TaskExecutor> taskExecutors = new LinkedHashMap<>();
+
+    profileInfo.getTaskInfoList().forEach(taskId -> {
+      TaskInfo taskInfo = profileManager.getTaskInfoById(taskId);
+      ConnectionInfo connectionInfo = profileManager.getConnectionInfoById(taskInfo.getConnectionId());
+
+      List<QueryInfo> queryInfoList = profileManager.getQueryInfoList(profileId, taskId);
+      List<TableInfo> tableInfoList = profileManager.getTableInfoListByQueryList(queryInfoList);
+
+      log.info("Task name {}", taskInfo.getName());
+
+      TaskExecutor taskExecutor = new TaskExecutor(connectionPoolManager, collector, profileInfo,
+          taskInfo, connectionInfo, queryInfoList, tableInfoList, sqlQueryState, fStore);
+
+      taskExecutor.startTask();
+
+      taskExecutors.put(new ProfileTaskKey(profileId, taskId), taskExecutor);
+    });
+
+    return taskExecutors;
+  }
+
+  private void prepareTask(int profileId, int taskId, List<ProfileTaskQueryKey> initialized) {
+    TaskInfo taskInfo = profileManager.getTaskInfoById(taskId);
+    ConnectionInfo connectionInfo = profileManager.getConnectionInfoById(taskInfo.getConnectionId());
+
+    List<QueryInfo> queryInfoList = profileManager.getQueryInfoList(profileId, taskId);
+    List<TableInfo> tableInfoList = profileManager.getTableInfoListByQueryList(queryInfoList);
+
+    boolean jvmSource = DBType.JVM.equals(connectionInfo.getDbType());
+    if (!jvmSource) {
+      connectionPoolManager.createDataSource(connectionInfo);
+    }
+
+    queryInfoList.forEach(queryInfo -> {
+      queryInfo.setDbType(connectionInfo.getDbType());
+
+      TableInfo tableInfo = tableInfoList
+          .stream()
+          .filter(f -> f.getTableName().equals(queryInfo.getName())).findAny()
+          .orElseThrow(() -> new NotFoundException("Table not found by name: " + queryInfo.getName()));
+
+      ProfileTaskQueryKey profileTaskQueryKey = new ProfileTaskQueryKey(profileId, taskId, queryInfo.getId());
+
+      long lastTimestampLocalDb = fStore.getLastTimestamp(tableInfo.getTableName(), Long.MIN_VALUE, Long.MIN_VALUE);
+      sqlQueryState.initializeLastTimestamp(profileTaskQueryKey, lastTimestampLocalDb);
+      initialized.add(profileTaskQueryKey);
+
+      try {
+        if (jvmSource) {
+          collector.fillMetadata(queryInfo, tableInfo);
+        } else {
+          Connection connection = connectionPoolManager.getConnection(connectionInfo);
+          collector.fillMetadata(queryInfo, tableInfo, connection);
+        }
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+
+      profileManager.updateQuery(queryInfo);
+
+      if (tableInfo.getSProfile().getCsTypeMap().isEmpty()) {
+        throw new NotFoundException("Metadata for query: " + queryInfo.getName() + " not found..");
+      }
+
+      tableInfo.getSProfile().getCsTypeMap()
+          .entrySet()
+          .stream()
+          .filter(f -> f.getValue().isTimeStamp())
+          .findAny()
+          .ifPresentOrElse(csTypeEntry -> log.info("Found timestamp field: " + csTypeEntry.getKey()),
+              () -> {
+                throw new NotFoundException("Not found timestamp field for query: " + queryInfo.getName());
+              });
+    });
+  }
+}
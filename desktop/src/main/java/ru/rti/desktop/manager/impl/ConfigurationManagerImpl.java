@@ -5,6 +5,8 @@ import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.log4j.Log4j2;
+import ru.rti.desktop.exception.NotFoundException;
+import ru.rti.desktop.helper.ConfigRepository;
 import ru.rti.desktop.helper.GsonHelper;
 import ru.rti.desktop.manager.ConfigurationManager;
 import ru.rti.desktop.model.config.Connection;
@@ -13,93 +15,76 @@ import ru.rti.desktop.model.config.Query;
 import ru.rti.desktop.model.config.Table;
 import ru.rti.desktop.model.config.Task;
 import ru.rti.desktop.security.EncryptDecrypt;
+import ru.rti.desktop.utility.SelfMonitoringData;
 import ru.rti.desktop.utility.TestData;
 
 @Log4j2
 @Singleton
 public class ConfigurationManagerImpl implements ConfigurationManager {
-  private final GsonHelper gsonHelper;
+  private final ConfigRepository configRepository;
 
   @Inject
-  public ConfigurationManagerImpl(GsonHelper gsonHelper, EncryptDecrypt encryptDecrypt) {
-    this.gsonHelper = gsonHelper;
+  public ConfigurationManagerImpl(GsonHelper gsonHelper,
+                                  ConfigRepository configRepository,
+                                  EncryptDecrypt encryptDecrypt) {
+    this.configRepository = configRepository;
 
     try {
-      saveEmptyConfigToFileIfNotExist(Connection.class);
-      saveEmptyConfigToFileIfNotExist(Query.class);
-      saveEmptyConfigToFileIfNotExist(Task.class);
-      saveEmptyConfigToFileIfNotExist(Profile.class);
-      saveEmptyConfigToFileIfNotExist(Table.class);
+      gsonHelper.createConfigDir(Connection.class);
+      gsonHelper.createConfigDir(Query.class);
+      gsonHelper.createConfigDir(Task.class);
+      gsonHelper.createConfigDir(Profile.class);
+      gsonHelper.createConfigDir(Table.class);
     } catch (IOException e) {
       log.catching(e);
       throw new RuntimeException(e);
     }
 
+    // Test data goes to disk before the repository reads the config directories
     TestData.saveConfigToFile(gsonHelper, encryptDecrypt);
+    SelfMonitoringData.saveConfig(configRepository);
   }
 
-  private <T> void saveEmptyConfigToFileIfNotExist(Class<T> clazz) throws IOException {
-    if (getConfigList(clazz).stream().findAny().isEmpty()) {
-      gsonHelper.createConfigDir(clazz);
-    }
+  @Override
+  public void loadConfig() {
+    configRepository.preload(List.of(Connection.class, Query.class, Task.class, Profile.class, Table.class));
   }
 
   @Override
   public <T> void saveConfigList(List<T> configList, Class<T> clazz) {
-      configList.forEach(e -> {
-        try {
-          gsonHelper.add(e, clazz);
-        } catch (IOException ex) {
-          log.catching(ex);
-          throw new RuntimeException(ex);
-        }
-      });
+    configList.forEach(e -> configRepository.add(e, clazz));
   }
 
   @Override
   public <T> List<T> getConfigList(Class<T> clazz) {
-    return gsonHelper.getConfigList(clazz);
+    return configRepository.getList(clazz);
   }
 
   @Override
   public <T> void addConfig(T config, Class<T> clazz) {
-    try {
-      gsonHelper.add(config, clazz);
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
+    configRepository.add(config, clazz);
   }
 
   @Override
   public <T> void updateConfig(T config, Class<T> clazz) {
-    try {
-      gsonHelper.update(config, clazz);
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
+    configRepository.update(config, clazz);
   }
 
   @Override
   public <T> T getConfig(Class<T> clazz, String fileName) {
-    return gsonHelper.getConfig(clazz, fileName);
+    return configRepository.get(clazz, fileName)
+        .orElseThrow(() -> new NotFoundException("Configuration: " + fileName + " not found for "
+            + clazz.getSimpleName()));
   }
 
   @Override
   public <T> void deleteConfig(T config, Class<T> clazz) {
-    try {
-      gsonHelper.delete(config, clazz);
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
+    configRepository.delete(config, clazz);
   }
 
   @Override
   public <T> void deleteConfig(String entityName, Class<T> clazz) {
-    try {
-      gsonHelper.delete(entityName, clazz);
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
+    configRepository.delete(entityName, clazz);
   }
 
 }
@@ -1,6 +1,8 @@
 package ru.rti.desktop.manager.impl;
 
+import static ru.rti.desktop.model.db.DBType.H2;
 import static ru.rti.desktop.model.db.DBType.MSSQL;
+import static ru.rti.desktop.model.db.DBType.JVM;
 import static ru.rti.desktop.model.db.DBType.ORACLE;
 import static ru.rti.desktop.model.db.DBType.POSTGRES;
 import static ru.rti.desktop.model.db.DBType.UNKNOWN;
@@ -9,6 +11,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -294,6 +297,7 @@ public class ProfileManagerImpl implements ProfileManager, JdbcLoader {
     return this.appCache.getTaskInfo(taskId)
         .getQueryInfoList().stream()
         .map(this.appCache::getQueryInfo)
+        .filter(Objects::nonNull)
         .toList();
   }
 
@@ -456,6 +460,10 @@ public class ProfileManagerImpl implements ProfileManager, JdbcLoader {
       return POSTGRES;
     } else if (url.contains(MSSQL.getUrlPattern())) {
       return MSSQL;
+    } else if (url.startsWith(H2.getUrlPattern())) {
+      return H2;
+    } else if (url.startsWith(JVM.getUrlPattern())) {
+      return JVM;
     } else {
       return UNKNOWN;
     }
@@ -463,15 +471,11 @@ public class ProfileManagerImpl implements ProfileManager, JdbcLoader {
 
   @Override
   public ProfileInfo getProfileInfoByQueryId(int queryId) {
-    return this.appCache.getProfileInfoMap().entrySet().stream()
-        .filter(profileInfo -> profileInfo.getValue().getTaskInfoList().stream()
-            .anyMatch(taskId -> this.appCache.getTaskInfo(taskId).getQueryInfoList().stream()
-                .map(this.appCache::getQueryInfo)
-                .anyMatch(queryInfo -> queryInfo.getId() == queryId)))
+    return this.appCache.getProfileInfoListByQueryId(queryId).stream()
         .findAny()
         .orElseThrow(() ->
             new NotFoundException(
-                String.format("Profile with connected queryId=%s not found", queryId))).getValue();
+                String.format("Profile with connected queryId=%s not found", queryId)));
   }
 
   @Override
@@ -481,14 +485,23 @@ public class ProfileManagerImpl implements ProfileManager, JdbcLoader {
 
   @Override
   public List<QueryInfo> getQueryInfoListByConnDriver(String connDriver) {
-    return this.appCache.getTaskInfoMap().values()
+    return this.appCache.getConnectionInfo().values()
         .stream()
-        .filter(f -> this.appCache.getConnectionInfo(f.getConnectionId()).getDriver().equalsIgnoreCase(connDriver))
+        .filter(f -> f.getDriver().equalsIgnoreCase(connDriver))
+        .flatMap(c -> this.appCache.getTaskInfoListByConnectionId(c.getId()).stream())
         .flatMap(t -> t.getQueryInfoList().stream())
         .distinct()
-        .toList()
-        .stream()
         .map(this.appCache::getQueryInfo)
+        .filter(Objects::nonNull)
+        .toList();
+  }
+
+  @Override
+  public List<TableInfo> getTableInfoListByQueryList(List<QueryInfo> queryInfoList) {
+    return queryInfoList.stream()
+        .map(queryInfo -> this.appCache.getTableInfoIgnoreCase(queryInfo.getName()))
+        .filter(Objects::nonNull)
+        .distinct()
         .toList();
   }
 
@@ -0,0 +1,113 @@
+package ru.rti.desktop.manager.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import lombok.extern.log4j.Log4j2;
+import ru.rti.desktop.diagnostic.event.ChartRepaintEvent;
+import ru.rti.desktop.diagnostic.event.CollectEvent;
+import ru.rti.desktop.diagnostic.event.LoaderFlushEvent;
+import ru.rti.desktop.diagnostic.event.LocalDbQueryEvent;
+import ru.rti.desktop.diagnostic.event.MetricFunctionEvent;
+import ru.rti.desktop.helper.FilesHelper;
+import ru.rti.desktop.manager.RecordingManager;
+
+@Log4j2
+@Singleton
+public class RecordingManagerImpl implements RecordingManager {
+  private static final Duration MAX_AGE = Duration.ofMinutes(30);
+  private static final long MAX_SIZE = 100L * 1024 * 1024;
+  private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  private static final List<Class<? extends Event>> EVENTS = List.of(CollectEvent.class, LoaderFlushEvent.class,
+      LocalDbQueryEvent.class, MetricFunctionEvent.class, ChartRepaintEvent.class);
+
+  private final FilesHelper filesHelper;
+
+  private Recording recording;
+
+  @Inject
+  public RecordingManagerImpl(FilesHelper filesHelper) {
+    this.filesHelper = filesHelper;
+
+    Runtime.getRuntime().addShutdownHook(new Thread(this::stopRecording, "recording-stop"));
+  }
+
+  @Override
+  public synchronized boolean isRecording() {
+    return recording != null;
+  }
+
+  @Override
+  public synchronized void startRecording() {
+    if (recording != null) {
+      return;
+    }
+
+    Recording newRecording = createRecording();
+    newRecording.setName("desktop");
+    newRecording.setMaxAge(MAX_AGE);
+    newRecording.setMaxSize(MAX_SIZE);
+    newRecording.setToDisk(true);
+    EVENTS.forEach(event -> newRecording.enable(event).withoutThreshold());
+
+    try {
+      newRecording.start();
+    } catch (IllegalStateException | SecurityException e) {
+      log.warn("Flight recording is not started: " + e.getMessage());
+      newRecording.close();
+      return;
+    }
+    recording = newRecording;
+
+    log.info("Flight recording started");
+  }
+
+  @Override
+  public synchronized void stopRecording() {
+    if (recording == null) {
+      return;
+    }
+
+    recording.close();
+    recording = null;
+
+    log.info("Flight recording stopped");
+  }
+
+  private Recording createRecording() {
+    try {
+      return new Recording(Configuration.getConfiguration("default"));
+    } catch (IOException | ParseException e) {
+      log.warn("JDK default recording settings are not available: " + e.getMessage());
+      return new Recording();
+    }
+  }
+
+  @Override
+  public synchronized Path dumpRecording() throws IOException {
+    if (recording == null) {
+      throw new IllegalStateException("Flight recording is not started");
+    }
+
+    Path dir = Paths.get(filesHelper.getRootDir(), "recordings");
+    Files.createDirectories(dir);
+    Path file = dir.resolve("desktop-" + LocalDateTime.now().format(FILE_DATE_FORMAT) + ".jfr");
+
+    recording.dump(file);
+
+    log.info("Flight recording is written to " + file);
+    return file;
+  }
+}
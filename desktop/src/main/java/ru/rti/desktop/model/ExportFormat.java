@@ -0,0 +1,22 @@
+package ru.rti.desktop.model;
+
+public enum ExportFormat {
+  CSV("csv", "CSV files"),
+  COLUMNAR("rtic", "Compressed columnar files");
+
+  private final String extension;
+  private final String description;
+
+  ExportFormat(String extension, String description) {
+    this.extension = extension;
+    this.description = description;
+  }
+
+  public String getExtension() {
+    return this.extension;
+  }
+
+  public String getDescription() {
+    return this.description;
+  }
+}
@@ -7,8 +7,11 @@ import org.jfree.data.xy.CategoryTableXYDataset;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
 
 @Log4j2
@@ -37,10 +40,96 @@ public class CategoryTableXYDatasetRealTime extends CategoryTableXYDataset {
         }
     }
 
+    /**
+     *  Add values of many time buckets in order with a single change notification
+     *
+     * @param values values by series name for each time
+     */
+    public void addSeriesValues(Map<Long, Map<String, Double>> values) {
+        values.forEach((x, seriesValues) -> seriesValues.forEach((seriesName, y) -> {
+            if (!seriesNames.containsValue(seriesName)) {
+                Integer key = !seriesNames.keySet().isEmpty() ? Collections.max(seriesNames.keySet()) : 0;
+                saveSeriesValues(key + 1, seriesName);
+            }
+            add(x.doubleValue(), y, seriesName, false);
+        }));
+
+        fireDatasetChanged();
+    }
+
+    /**
+     *  Replace all values of the dataset with a single change notification, e.g. coarse
+     *  history values with the full resolution ones
+     *
+     * @param values values by series name for each time
+     */
+    public void replaceSeriesValues(Map<Long, Map<String, Double>> values) {
+        List<Number> xValues = new ArrayList<>();
+        for (int i = 0; i < getItemCount(); i++) {
+            xValues.add(getX(0, i));
+        }
+
+        List<String> seriesKeys = new ArrayList<>();
+        for (int i = 0; i < getSeriesCount(); i++) {
+            seriesKeys.add(String.valueOf(getSeriesKey(i)));
+        }
+
+        xValues.forEach(x -> seriesKeys.forEach(seriesName -> remove(x, seriesName, false)));
+
+        addSeriesValues(values);
+    }
+
     public void saveSeriesValues(int series, String seriesName){
         seriesNames.put(series, seriesName);
     }
 
+    /**
+     *  Move all values of one series into another one and drop the source series
+     *
+     * @param seriesFrom series to fold
+     * @param seriesTo target series, e.g. "Others"
+     */
+    public void foldSeries(String seriesFrom, String seriesTo) {
+        int from = getSeriesIndex(seriesFrom);
+        if (from < 0) {
+            return;
+        }
+        int to = getSeriesIndex(seriesTo);
+
+        List<Number> xValues = new ArrayList<>();
+        for (int i = 0; i < getItemCount(); i++) {
+            Number x = getX(from, i);
+            Number yFrom = getY(from, i);
+            Number yTo = to < 0 ? null : getY(to, i);
+
+            double y = (yFrom == null ? 0D : yFrom.doubleValue()) + (yTo == null ? 0D : yTo.doubleValue());
+            add(x, y, seriesTo, false);
+
+            xValues.add(x);
+            to = getSeriesIndex(seriesTo);
+        }
+
+        for (Number x : xValues) {
+            remove(x, seriesFrom, false);
+        }
+
+        seriesNames.clear();
+        for (int i = 0; i < getSeriesCount(); i++) {
+            seriesNames.put(i, String.valueOf(getSeriesKey(i)));
+        }
+
+        fireDatasetChanged();
+    }
+
+    private int getSeriesIndex(String seriesName) {
+        for (int i = 0; i < getSeriesCount(); i++) {
+            if (seriesName.equals(getSeriesKey(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public void deleteValuesFromDataset(int holdRange) {
         int imax = getItemCount();
 
@@ -0,0 +1,128 @@
+package ru.rti.desktop.model.chart;
+
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.Getter;
+
+/**
+ * Mergeable quantile sketch with log-scale buckets, quantiles are returned with a bounded
+ * relative error whatever the number of values is. Sketches of adjacent time buckets are
+ * merged to get quantiles for any zoom level without sorting raw values.
+ */
+public class QuantileSketch {
+
+  public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+  private final double gamma;
+  private final double logGamma;
+
+  private final TreeMap<Integer, Long> positive = new TreeMap<>();
+  private final TreeMap<Integer, Long> negative = new TreeMap<>();
+  private long zeroCount;
+
+  @Getter
+  private long count;
+  @Getter
+  private double min = Double.POSITIVE_INFINITY;
+  @Getter
+  private double max = Double.NEGATIVE_INFINITY;
+
+  public QuantileSketch() {
+    this(DEFAULT_RELATIVE_ACCURACY);
+  }
+
+  public QuantileSketch(double relativeAccuracy) {
+    this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+    this.logGamma = Math.log(gamma);
+  }
+
+  public void add(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+
+    if (value > 0) {
+      positive.merge(index(value), 1L, Long::sum);
+    } else if (value < 0) {
+      negative.merge(index(-value), 1L, Long::sum);
+    } else {
+      zeroCount++;
+    }
+
+    count++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  public QuantileSketch merge(QuantileSketch other) {
+    if (other.gamma != this.gamma) {
+      throw new IllegalArgumentException("Can't merge sketches with different relative accuracy");
+    }
+
+    other.positive.forEach((k, v) -> positive.merge(k, v, Long::sum));
+    other.negative.forEach((k, v) -> negative.merge(k, v, Long::sum));
+    zeroCount += other.zeroCount;
+
+    count += other.count;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+
+    return this;
+  }
+
+  /**
+   * @param quantile from 0 to 1, e.g. 0.99 for P99
+   * @return estimated value or 0 for an empty sketch
+   */
+  public double getQuantile(double quantile) {
+    if (count == 0) {
+      return 0D;
+    }
+    if (quantile <= 0) {
+      return min;
+    }
+    if (quantile >= 1) {
+      return max;
+    }
+
+    long rank = (long) Math.floor(quantile * (count - 1));
+    long seen = 0;
+
+    for (Map.Entry<Integer, Long> entry : negative.descendingMap().entrySet()) {
+      seen += entry.getValue();
+      if (seen > rank) {
+        return clamp(-value(entry.getKey()));
+      }
+    }
+
+    seen += zeroCount;
+    if (seen > rank) {
+      return 0D;
+    }
+
+    for (Map.Entry<Integer, Long> entry : positive.entrySet()) {
+      seen += entry.getValue();
+      if (seen > rank) {
+        return clamp(value(entry.getKey()));
+      }
+    }
+
+    return max;
+  }
+
+  public boolean isEmpty() {
+    return count == 0;
+  }
+
+  private int index(double value) {
+    return (int) Math.ceil(Math.log(value) / logGamma);
+  }
+
+  private double value(int index) {
+    return 2 * Math.pow(gamma, index) / (gamma + 1);
+  }
+
+  private double clamp(double value) {
+    return Math.max(min, Math.min(max, value));
+  }
+}
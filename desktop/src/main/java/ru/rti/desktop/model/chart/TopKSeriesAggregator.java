@@ -0,0 +1,145 @@
+package ru.rti.desktop.model.chart;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Streaming heavy hitters of series names for stacked charts (space-saving algorithm).
+ * Keeps a bounded number of counters whatever the column cardinality is, counts decay
+ * with each time bucket so the ranking follows the sliding chart window.
+ */
+public class TopKSeriesAggregator {
+
+  public static final String OTHER = "Others";
+
+  @Getter
+  private final int topK;
+  private final int capacity;
+  private final double decay;
+
+  private final Map<String, Counter> counters;
+
+  /**
+   * @param topK          number of series to show on chart
+   * @param windowBuckets number of time buckets in chart window, 0 - no decay
+   */
+  public TopKSeriesAggregator(int topK, int windowBuckets) {
+    this.topK = topK;
+    this.capacity = Math.max(topK * 4, 64);
+    this.decay = windowBuckets > 0 ? 1D - 1D / windowBuckets : 1D;
+    this.counters = new HashMap<>(capacity * 2);
+  }
+
+  public void offer(String seriesName, long count) {
+    Counter counter = counters.get(seriesName);
+
+    if (counter != null) {
+      counter.count += count;
+      return;
+    }
+
+    if (counters.size() < capacity) {
+      counters.put(seriesName, new Counter(count, 0));
+      return;
+    }
+
+    Map.Entry<String, Counter> min = counters.entrySet().stream()
+        .min(Comparator.comparingDouble(e -> e.getValue().count))
+        .orElseThrow();
+
+    counters.remove(min.getKey());
+    counters.put(seriesName, new Counter(min.getValue().count + count, min.getValue().count));
+  }
+
+  /**
+   * Move to the next time bucket, old counts fade out
+   */
+  public void slide() {
+    if (decay < 1D) {
+      counters.values().forEach(counter -> {
+        counter.count *= decay;
+        counter.error *= decay;
+      });
+    }
+  }
+
+  public double estimate(String seriesName) {
+    Counter counter = counters.get(seriesName);
+    return counter == null ? 0D : counter.count;
+  }
+
+  public Set<String> getTopKSeries() {
+    return counters.entrySet().stream()
+        .sorted(Map.Entry.<String, Counter>comparingByValue(
+            Comparator.comparingDouble(Counter::getCount)).reversed())
+        .limit(topK)
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  /**
+   * Offer the weights of a time bucket and rank the chart series by accumulated weight,
+   * a shown series which drops out of the top-K gives its slot to a new heavy hitter
+   * and the names out of the top-K are charted as {@link #OTHER}
+   *
+   * @return shown series evicted from the top-K, their values are to be folded into {@link #OTHER}
+   */
+  public List<String> rank(Set<String> series, Map<String, ? extends Number> weights) {
+    weights.forEach((seriesName, weight) -> offer(seriesName, weight.longValue()));
+    slide();
+
+    Set<String> topKSeriesSet = getTopKSeries();
+    List<String> evicted = new ArrayList<>();
+
+    for (String seriesName : topKSeriesSet) {
+      if (series.contains(seriesName)) {
+        continue;
+      }
+
+      if (series.stream().filter(s -> !OTHER.equals(s)).count() < topK) {
+        series.add(seriesName);
+        continue;
+      }
+
+      Optional<String> min = series.stream()
+          .filter(s -> !OTHER.equals(s))
+          .filter(s -> !topKSeriesSet.contains(s))
+          .min(Comparator.comparingDouble(this::estimate));
+
+      if (min.isEmpty()) {
+        break;
+      }
+
+      series.remove(min.get());
+      series.add(OTHER);
+      series.add(seriesName);
+      evicted.add(min.get());
+    }
+
+    if (weights.keySet().stream().anyMatch(seriesName -> !series.contains(seriesName))) {
+      series.add(OTHER);
+    }
+
+    return evicted;
+  }
+
+  public void clear() {
+    counters.clear();
+  }
+
+  @Getter
+  @AllArgsConstructor
+  private static class Counter {
+    private double count;
+    private double error;
+  }
+}
@@ -30,6 +30,13 @@ public class Metric {
 
   private List<CProfile> columnGanttList;
 
+  private Boolean pushdown; // aggregate on server, COUNT, SUM and AVERAGE of by server queries
+
+  public boolean isPushdown() {
+    return Boolean.TRUE.equals(pushdown)
+        & (COUNT.equals(metricFunction) | SUM.equals(metricFunction) | AVERAGE.equals(metricFunction));
+  }
+
   public boolean isStackedYAxisSameCount() {
     return chartType.equals(STACKED)
         & yAxis.equals(group)
@@ -47,4 +54,10 @@ public class Metric {
         & yAxis.equals(group)
         & metricFunction.equals(AVERAGE);
   }
+
+  public boolean isLinearYAxisQuantile() {
+    return chartType.equals(LINEAR)
+        & yAxis.equals(group)
+        & metricFunction.isQuantile();
+  }
 }
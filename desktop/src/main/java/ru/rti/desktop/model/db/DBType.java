@@ -1,17 +1,27 @@
 package ru.rti.desktop.model.db;
 
 public enum DBType {
-  ORACLE("oracle", "SELECT sysdate FROM dual"),
-  POSTGRES("postgresql","SELECT now()"),
-  MSSQL("sqlserver","SELECT getdate()"),
-  UNKNOWN("", "");
+  ORACLE("oracle", "SELECT sysdate FROM dual",
+      "CAST(TRUNC(%1$s, 'DD') + NUMTODSINTERVAL(FLOOR((CAST(%1$s AS DATE) - TRUNC(%1$s, 'DD')) * 86400 / %2$d) * %2$d, 'SECOND') AS TIMESTAMP)"),
+  POSTGRES("postgresql","SELECT now()",
+      "date_trunc('second', %1$s) - mod(extract(epoch FROM date_trunc('second', %1$s))::bigint, %2$d) * interval '1 second'"),
+  MSSQL("sqlserver","SELECT getdate()",
+      "DATEADD(second, DATEDIFF(second, '2000-01-01', %1$s) / %2$d * %2$d, CAST('2000-01-01' AS datetime2))"),
+  /** Embedded database, e.g. synthetic sources of the soak test **/
+  H2("jdbc:h2:", "SELECT LOCALTIMESTAMP",
+      "DATEADD(SECOND, DATEDIFF(SECOND, TIMESTAMP '2000-01-01 00:00:00', %1$s) / %2$d * %2$d, TIMESTAMP '2000-01-01 00:00:00')"),
+  /** Built-in self-monitoring source of the application JVM, no JDBC connection **/
+  JVM("jvm:", "", null),
+  UNKNOWN("", "", null);
 
   private final String urlPattern;
   private final String query;
+  private final String timeBucket;
 
-  DBType(String urlPattern, String query) {
+  DBType(String urlPattern, String query, String timeBucket) {
     this.urlPattern = urlPattern;
     this.query = query;
+    this.timeBucket = timeBucket;
   }
 
   public String getUrlPattern() {
@@ -22,4 +32,18 @@ public enum DBType {
     return query;
   }
 
+  public boolean hasTimeBucket() {
+    return timeBucket != null;
+  }
+
+  /**
+   * Expression of the start of the time bucket of the column, buckets are aligned to the day
+   */
+  public String getTimeBucket(String column, int bucketSeconds) {
+    if (timeBucket == null) {
+      throw new UnsupportedOperationException("Time bucket is not supported for database: " + this);
+    }
+    return String.format(timeBucket, column, bucketSeconds);
+  }
+
 }
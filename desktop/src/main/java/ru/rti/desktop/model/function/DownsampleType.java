@@ -0,0 +1,17 @@
+package ru.rti.desktop.model.function;
+
+public enum DownsampleType {
+  NONE("None"),
+  LTTB("Largest triangle three buckets"),
+  MIN_MAX("Min/max envelope");
+
+  private final String description;
+
+  DownsampleType(String description) {
+    this.description = description;
+  }
+
+  public String getDescription() {
+    return this.description;
+  }
+}
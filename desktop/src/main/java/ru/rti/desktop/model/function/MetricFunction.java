@@ -5,7 +5,11 @@ public enum MetricFunction {
   ASIS("As is"),
   COUNT("Count"),
   SUM("Sum"),
-  AVERAGE("Average");
+  AVERAGE("Average"),
+  P50("P50"),
+  P90("P90"),
+  P99("P99"),
+  MAX("Max");
 
   private final String name;
 
@@ -16,4 +20,21 @@ public enum MetricFunction {
   public String getName() {
     return this.name;
   }
+
+  public boolean isQuantile() {
+    return this == P50 || this == P90 || this == P99 || this == MAX;
+  }
+
+  /**
+   * Quantile for functions computed by quantile sketches, MAX is the quantile 1
+   */
+  public double getQuantile() {
+    return switch (this) {
+      case P50 -> 0.5;
+      case P90 -> 0.9;
+      case P99 -> 0.99;
+      case MAX -> 1.0;
+      default -> throw new UnsupportedOperationException("Not a quantile function: " + this);
+    };
+  }
 }
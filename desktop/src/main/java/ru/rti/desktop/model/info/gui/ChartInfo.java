@@ -3,11 +3,14 @@ package ru.rti.desktop.model.info.gui;
 import lombok.Data;
 import lombok.ToString;
 import lombok.experimental.Accessors;
+import ru.rti.desktop.model.function.DownsampleType;
 import ru.rti.desktop.model.view.RangeChartHistory;
 
 
 /**
  * range - show current saved real time data, in minutes
+ * seriesTopK - max number of series on stacked chart, the rest are folded into "Others"
+ * downsampleType - how linear history chart data is reduced to the chart width in pixels
  */
 @Data
 @Accessors(chain = true)
@@ -20,4 +23,7 @@ public class ChartInfo {
 
   private long customBegin;
   private long customEnd;
+
+  private int seriesTopK = 50;
+  private DownsampleType downsampleType = DownsampleType.LTTB;
 }
@@ -0,0 +1,91 @@
+package ru.rti.desktop.model.sql;
+
+import static ru.rti.desktop.model.function.MetricFunction.COUNT;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.experimental.UtilityClass;
+import org.fbase.model.profile.cstype.CSType;
+import org.fbase.model.profile.cstype.SType;
+import ru.rti.desktop.model.config.Metric;
+import ru.rti.desktop.model.db.DBType;
+import ru.rti.desktop.model.info.QueryInfo;
+
+/**
+ * Companion table of a metric aggregated on the server, a row per time bucket and series.
+ * COUNT keeps the number of rows by values of the y-axis column, SUM and AVERAGE keep
+ * the number of rows and the sum of the y-axis column, so buckets of any chart range add up.
+ */
+@UtilityClass
+public class AggregateTable {
+
+  public static final String BUCKET_TIME = "BUCKET_TIME";
+  public static final String SERIES = "SERIES";
+  public static final String ROW_COUNT = "ROW_COUNT";
+  public static final String VALUE_SUM = "VALUE_SUM";
+
+  public static final List<String> COLUMNS = List.of(BUCKET_TIME, SERIES, ROW_COUNT, VALUE_SUM);
+
+  public static String getTableName(String queryName, Metric metric) {
+    return queryName + "_AGG_" + metric.getId();
+  }
+
+  public static Map<String, CSType> getCsTypeMap() {
+    Map<String, CSType> csTypeMap = new LinkedHashMap<>();
+    csTypeMap.put(BUCKET_TIME, new CSType().toBuilder().isTimeStamp(true).sType(SType.RAW).build());
+    csTypeMap.put(SERIES, new CSType().toBuilder().sType(SType.RAW).build());
+    csTypeMap.put(ROW_COUNT, new CSType().toBuilder().sType(SType.RAW).build());
+    csTypeMap.put(VALUE_SUM, new CSType().toBuilder().sType(SType.RAW).build());
+    return csTypeMap;
+  }
+
+  /**
+   * Metric is collected into the companion table instead of being computed on raw rows,
+   * a source without time bucket expression is collected raw
+   */
+  public static boolean isPushdown(QueryInfo queryInfo, Metric metric) {
+    return GatherDataSql.BY_SERVER.equals(queryInfo.getGatherDataSql()) && metric.isPushdown()
+        && (queryInfo.getDbType() == null || queryInfo.getDbType().hasTimeBucket());
+  }
+
+  public static List<Metric> getMetricList(QueryInfo queryInfo) {
+    return queryInfo.getMetricList().stream()
+        .filter(metric -> isPushdown(queryInfo, metric))
+        .toList();
+  }
+
+  /**
+   * Raw rows are not needed when every metric of the query is aggregated on the server
+   */
+  public static boolean isAggregateOnly(QueryInfo queryInfo) {
+    return !queryInfo.getMetricList().isEmpty()
+        && queryInfo.getMetricList().stream().allMatch(metric -> isPushdown(queryInfo, metric));
+  }
+
+  /**
+   * Query text wrapped in the time bucket and GROUP BY of the source dialect, parameters
+   * are the exclusive begin and the inclusive end of the timestamp range
+   */
+  public static String getSql(DBType dbType, String text, String columnTimestamp, Metric metric, int bucketSeconds) {
+    String bucket = dbType.getTimeBucket("q." + columnTimestamp, bucketSeconds);
+    String column = "q." + metric.getYAxis().getColName();
+
+    String from = " FROM (" + text + ") q"
+        + " WHERE q." + columnTimestamp + " > ? AND q." + columnTimestamp + " <= ?";
+
+    if (COUNT.equals(metric.getMetricFunction())) {
+      return "SELECT " + bucket + " AS " + BUCKET_TIME + ", " + column + " AS " + SERIES
+          + ", COUNT(*) AS " + ROW_COUNT
+          + from
+          + " GROUP BY " + bucket + ", " + column
+          + " ORDER BY " + BUCKET_TIME;
+    }
+
+    return "SELECT " + bucket + " AS " + BUCKET_TIME
+        + ", COUNT(" + column + ") AS " + ROW_COUNT + ", SUM(" + column + ") AS " + VALUE_SUM
+        + from
+        + " GROUP BY " + bucket
+        + " ORDER BY " + BUCKET_TIME;
+  }
+}
@@ -3,5 +3,7 @@ package ru.rti.desktop.model.view;
 public enum ToolbarAction {
   CONFIGURATION,
   TEMPLATE,
-  REPORT;
+  REPORT,
+  DIAGNOSTICS,
+  RECORDING;
 }
@@ -23,6 +23,7 @@ public class Resource_en extends ListResourceBundle {
                     {"loadMeta","Load metadata from database"},
                     {"metricName","Metric name"},
                     {"metricDef","Default"},
+                    {"metricPushdown","Aggregate on server"},
                     {"xAxis", "X axis value"},
                     {"yAxis", "Y axis value"},
 
@@ -23,6 +23,7 @@ public class Resource_ru extends ListResourceBundle {
                     {"loadMeta","Загрузка метаданных из базы данных"},
                     {"metricName","Имя метрики"},
                     {"metricDef","По умолчанию"},
+                    {"metricPushdown","Агрегировать на сервере"},
                     {"xAxis", "Значение по оси X"},
                     {"yAxis", "Значение по оси Y"},
 
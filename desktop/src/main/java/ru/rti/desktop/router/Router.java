@@ -6,6 +6,7 @@ public interface Router {
 
   void runTemplateDialog();
   void runReportDialog();
+  void runDiagnosticsDialog();
 
   void fireOnSelectProfileOnNavigator(int profileId);
 }
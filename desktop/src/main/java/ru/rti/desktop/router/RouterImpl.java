@@ -1,8 +1,14 @@
 package ru.rti.desktop.router;
 
+import dagger.Lazy;
 import lombok.extern.log4j.Log4j2;
 import ru.rti.desktop.model.view.*;
 import ru.rti.desktop.router.event.EventListener;
+import ru.rti.desktop.view.common.LazyView;
+import ru.rti.desktop.view.structure.diagnostic.DiagnosticsDialog;
+import ru.rti.desktop.view.structure.ConfigView;
+import ru.rti.desktop.view.structure.ReportView;
+import ru.rti.desktop.view.structure.TemplateView;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -16,12 +22,26 @@ public class RouterImpl implements Router {
   private final ScheduledExecutorService executorService;
   private final EventListener eventListener;
 
+  private final LazyView<ConfigView> configView;
+  private final LazyView<TemplateView> templateView;
+  private final LazyView<ReportView> reportView;
+  private final Lazy<DiagnosticsDialog> diagnosticsDialog;
+
   @Inject
   public RouterImpl(@Named("executorService") ScheduledExecutorService executorService,
-      @Named("eventListener") EventListener eventListener) {
+      @Named("eventListener") EventListener eventListener,
+      @Named("configView") Lazy<ConfigView> configView,
+      @Named("templateView") Lazy<TemplateView> templateView,
+      @Named("reportView") Lazy<ReportView> reportView,
+      Lazy<DiagnosticsDialog> diagnosticsDialog) {
 
     this.executorService = executorService;
     this.eventListener = eventListener;
+
+    this.configView = new LazyView<>(configView, "configuration");
+    this.templateView = new LazyView<>(templateView, "template");
+    this.reportView = new LazyView<>(reportView, "report");
+    this.diagnosticsDialog = diagnosticsDialog;
   }
 
   @Override
@@ -33,6 +53,7 @@ public class RouterImpl implements Router {
       eventListener.fireProgressbarVisible(ProgressbarState.SHOW);
 
       try {
+        configView.get();
         eventListener.fireShowConfig(ConfigState.SHOW);
       } finally {
         eventListener.fireProgressbarVisible(ProgressbarState.HIDE);
@@ -49,6 +70,7 @@ public class RouterImpl implements Router {
     eventListener.fireProgressbarVisible(ProgressbarState.SHOW);
 
     try {
+      templateView.get();
       eventListener.fireShowTemplate(TemplateState.SHOW);
     } finally {
       eventListener.fireProgressbarVisible(ProgressbarState.HIDE);
@@ -65,6 +87,7 @@ public class RouterImpl implements Router {
       eventListener.fireProgressbarVisible(ProgressbarState.SHOW);
 
       try {
+        reportView.get();
         eventListener.fireShowReport(ReportState.SHOW);
       } finally {
         eventListener.fireProgressbarVisible(ProgressbarState.HIDE);
@@ -73,6 +96,12 @@ public class RouterImpl implements Router {
     });
   }
 
+  @Override
+  public void runDiagnosticsDialog() {
+    log.info("Run diagnostics dialog..");
+    diagnosticsDialog.get().showDiagnostics();
+  }
+
   @Override
   public void fireOnSelectProfileOnNavigator(int profileId) {
     eventListener.fireOnSelectProfileOnNavigator(profileId);
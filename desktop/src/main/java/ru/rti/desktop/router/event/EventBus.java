@@ -0,0 +1,278 @@
+package ru.rti.desktop.router.event;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.swing.SwingUtilities;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Typed event bus. Subscriber lists are copy-on-write, so publishing never blocks on subscribe,
+ * and each subscriber gets events on its own delivery: inline, on EDT or on a background pool.
+ * Queued events of a subscriber run in order one by one, a queued event with the same coalesce
+ * key is replaced by the newer one.
+ */
+@Log4j2
+@Singleton
+public class EventBus {
+    private static final long SLOW_DISPATCH_MS = 1000;
+
+    public enum Delivery {
+        /** On the publishing thread, exceptions are thrown to the publisher **/
+        DIRECT,
+        /** On the event dispatch thread **/
+        EDT,
+        /** On the background pool **/
+        BACKGROUND
+    }
+
+    private final Map<Class<?>, List<Subscription<?>>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, DispatchStats> dispatchStats = new ConcurrentHashMap<>();
+
+    private final ExecutorService backgroundPool = Executors.newCachedThreadPool(new Daemons());
+
+    @Inject
+    public EventBus() {
+    }
+
+    public <L> Subscription<L> subscribe(Class<L> type, L listener, Delivery delivery) {
+        return subscribe(type, null, listener, delivery);
+    }
+
+    /**
+     * @param topic subscriber gets only events published for the topic, null for events without topic
+     */
+    public <L> Subscription<L> subscribe(Class<L> type, Object topic, L listener, Delivery delivery) {
+        Executor executor = switch (delivery) {
+            case DIRECT -> null;
+            case EDT -> SwingUtilities::invokeLater;
+            case BACKGROUND -> backgroundPool;
+        };
+
+        Subscription<L> subscription = new Subscription<>(this, type, topic, listener, executor);
+        subscriptions.computeIfAbsent(type, k -> new CopyOnWriteArrayList<>()).add(subscription);
+        return subscription;
+    }
+
+    public <L> void unsubscribeIf(Class<L> type, Predicate<Subscription<?>> filter) {
+        List<Subscription<?>> list = subscriptions.getOrDefault(type, Collections.emptyList());
+        list.stream().filter(filter).forEach(Subscription::cancel);
+        list.removeIf(filter);
+    }
+
+    public <L> void publish(Class<L> type, String eventName, Consumer<L> event) {
+        publish(type, null, eventName, null, event);
+    }
+
+    /**
+     * @param coalesceKey queued event of the subscriber with the same key is replaced, null to queue all
+     */
+    public <L> void publish(Class<L> type, Object topic, String eventName, Object coalesceKey, Consumer<L> event) {
+        DispatchStats stats = dispatchStats.computeIfAbsent(eventName, DispatchStats::new);
+
+        for (Subscription<?> s : subscriptions.getOrDefault(type, Collections.emptyList())) {
+            if (Objects.equals(topic, s.topic)) {
+                stats.published.increment();
+                @SuppressWarnings("unchecked")
+                Subscription<L> subscription = (Subscription<L>) s;
+                subscription.offer(new Pending<>(eventName, coalesceKey, event, System.nanoTime()));
+            }
+        }
+    }
+
+    /**
+     * Dispatch statistics by event name, for diagnostics
+     */
+    public Map<String, DispatchStats> getDispatchStats() {
+        return Collections.unmodifiableMap(dispatchStats);
+    }
+
+    private <L> void deliver(Subscription<L> subscription, Pending<L> pending, boolean direct) {
+        DispatchStats stats = dispatchStats.get(pending.eventName);
+        long start = System.nanoTime();
+        long queueNanos = start - pending.publishedNanos;
+
+        try {
+            pending.event.accept(subscription.listener);
+        } catch (RuntimeException e) {
+            if (direct) {
+                throw e;
+            }
+            log.error("Event " + pending.eventName + " failed in " + subscription.listener.getClass().getSimpleName(), e);
+        } finally {
+            long handleNanos = System.nanoTime() - start;
+            stats.record(queueNanos, handleNanos);
+
+            if (TimeUnit.NANOSECONDS.toMillis(queueNanos + handleNanos) > SLOW_DISPATCH_MS) {
+                log.warn("Slow event " + pending.eventName + " in " + subscription.listener.getClass().getSimpleName()
+                        + ": queued " + TimeUnit.NANOSECONDS.toMillis(queueNanos) + " ms, handled "
+                        + TimeUnit.NANOSECONDS.toMillis(handleNanos) + " ms");
+            }
+        }
+    }
+
+    private static class Pending<L> {
+        private final Object coalesceKey;
+        private final long publishedNanos;
+        private String eventName;
+        private Consumer<L> event;
+
+        private Pending(String eventName, Object coalesceKey, Consumer<L> event, long publishedNanos) {
+            this.eventName = eventName;
+            this.coalesceKey = coalesceKey;
+            this.event = event;
+            this.publishedNanos = publishedNanos;
+        }
+    }
+
+    /**
+     * Subscriber with its queue of events, the queue is drained by one task at a time
+     */
+    public static class Subscription<L> {
+        private final EventBus eventBus;
+        @Getter
+        private final Class<L> type;
+        @Getter
+        private final Object topic;
+        @Getter
+        private final L listener;
+        private final Executor executor;
+
+        private final Deque<Pending<L>> queue = new ArrayDeque<>();
+        private boolean scheduled;
+        private volatile boolean cancelled;
+
+        private Subscription(EventBus eventBus, Class<L> type, Object topic, L listener, Executor executor) {
+            this.eventBus = eventBus;
+            this.type = type;
+            this.topic = topic;
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        private void offer(Pending<L> pending) {
+            if (executor == null) {
+                eventBus.deliver(this, pending, true);
+                return;
+            }
+
+            synchronized (queue) {
+                if (pending.coalesceKey != null && replace(pending)) {
+                    eventBus.dispatchStats.get(pending.eventName).coalesced.increment();
+                    return;
+                }
+                queue.addLast(pending);
+
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+
+            executor.execute(this::drain);
+        }
+
+        private boolean replace(Pending<L> pending) {
+            for (Pending<L> queued : queue) {
+                if (pending.coalesceKey.equals(queued.coalesceKey)) {
+                    queued.eventName = pending.eventName;
+                    queued.event = pending.event;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void drain() {
+            while (true) {
+                Pending<L> pending;
+                synchronized (queue) {
+                    pending = queue.pollFirst();
+                    if (pending == null) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+
+                if (!cancelled) {
+                    eventBus.deliver(this, pending, false);
+                }
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            synchronized (queue) {
+                queue.clear();
+            }
+        }
+    }
+
+    /**
+     * Counters of the event, latency is split to the time in the subscriber queue and in the handler
+     */
+    @Getter
+    public static class DispatchStats {
+        private final String eventName;
+        private final LongAdder published = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder queueNanos = new LongAdder();
+        private final LongAdder handleNanos = new LongAdder();
+        private final LongAccumulator maxQueueNanos = new LongAccumulator(Long::max, 0);
+        private final LongAccumulator maxHandleNanos = new LongAccumulator(Long::max, 0);
+
+        DispatchStats(String eventName) {
+            this.eventName = eventName;
+        }
+
+        private void record(long queueNanos, long handleNanos) {
+            this.delivered.increment();
+            this.queueNanos.add(queueNanos);
+            this.handleNanos.add(handleNanos);
+            this.maxQueueNanos.accumulate(queueNanos);
+            this.maxHandleNanos.accumulate(handleNanos);
+        }
+
+        @Override
+        public String toString() {
+            long count = Math.max(1, delivered.sum());
+            return eventName + ": published " + published.sum() + ", coalesced " + coalesced.sum()
+                    + ", delivered " + delivered.sum()
+                    + ", avg queue " + TimeUnit.NANOSECONDS.toMicros(queueNanos.sum() / count) + " us"
+                    + ", max queue " + TimeUnit.NANOSECONDS.toMicros(maxQueueNanos.get()) + " us"
+                    + ", avg handle " + TimeUnit.NANOSECONDS.toMicros(handleNanos.sum() / count) + " us"
+                    + ", max handle " + TimeUnit.NANOSECONDS.toMicros(maxHandleNanos.get()) + " us";
+        }
+    }
+
+    private static class Daemons implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "event-bus-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
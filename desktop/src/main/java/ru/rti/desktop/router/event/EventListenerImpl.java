@@ -5,174 +5,176 @@ import org.fbase.model.profile.CProfile;
 import ru.rti.desktop.model.ProfileTaskQueryKey;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.view.*;
+import ru.rti.desktop.router.event.EventBus.Delivery;
 import ru.rti.desktop.router.listener.*;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Listener registry on top of {@link EventBus}. Collect start/stop goes to chart panels on the
+ * background pool, so collection never waits for charts, state of toolbar, progress bar and
+ * profile view is delivered on EDT with the latest state winning, dialog and navigation events
+ * stay synchronous for their callers.
+ */
 @Log4j2
 @Singleton
 public class EventListenerImpl implements EventListener {
-    private List<ToolbarListener> profileButtonStateListenerList = new ArrayList<>();
-    private List<ToolbarListener> profileSelectOnNavigatorListenerList = new ArrayList<>();
-    private List<ConfigListener> configListenerList = new ArrayList<>();
-    private List<TemplateListener> templateListenerList = new ArrayList<>();
-    private List<ReportListener> reportListenerList = new ArrayList<>();
-    private List<ProgressbarListener> progressbarListenerList = new ArrayList<>();
-    private List<WorkspaceListener> workspaceListenerList = new ArrayList<>();
-    private List<ProfileStartStopListener> profileStartStopListenerList = new ArrayList<>();
-    private Map<ProfileTaskQueryKey, CollectStartStopListener> collectStartStopListenerMap = new ConcurrentHashMap<>();
-    private List<ShowLocalHistoryListener> showLocalHistoryListenerList = new ArrayList<>();
-    private List<AppCacheAddListener> appCacheAddListenerList = new ArrayList<>();
-    private List<ProfileAddListener> profileAddListeners = new ArrayList<>();
+    private static final String BUTTON_STATE = "buttonState";
+    private static final String SELECT_ON_NAVIGATOR = "selectOnNavigator";
+
+    private final EventBus eventBus;
 
     @Inject
-    public EventListenerImpl() {
+    public EventListenerImpl(EventBus eventBus) {
+        this.eventBus = eventBus;
     }
 
     @Override
     public void fireToolbarButtonStateChange(ToolbarButtonState toolbarButtonState) {
-        profileButtonStateListenerList.forEach(l -> l.fireToolbarButtonStateChange(toolbarButtonState));
+        eventBus.publish(ToolbarListener.class, BUTTON_STATE, "fireToolbarButtonStateChange", BUTTON_STATE,
+                l -> l.fireToolbarButtonStateChange(toolbarButtonState));
     }
 
     @Override
     public void fireOnSelectProfileOnNavigator(int profileId) {
-        workspaceListenerList.forEach(l -> l.fireOnSelectProfileOnNavigator(profileId));
+        eventBus.publish(WorkspaceListener.class, "fireOnSelectProfileOnNavigator",
+                l -> l.fireOnSelectProfileOnNavigator(profileId));
     }
 
     @Override
     public void addProfileButtonStateListener(ToolbarListener toolbarListener) {
-        profileButtonStateListenerList.add(toolbarListener);
+        eventBus.subscribe(ToolbarListener.class, BUTTON_STATE, toolbarListener, Delivery.EDT);
     }
 
     @Override
     public void addProfileSelectOnNavigator(ToolbarListener toolbarListener) {
-        profileSelectOnNavigatorListenerList.add(toolbarListener);
+        eventBus.subscribe(ToolbarListener.class, SELECT_ON_NAVIGATOR, toolbarListener, Delivery.EDT);
     }
 
     @Override
     public void addConfigStateListener(ConfigListener configListener) {
-        configListenerList.add(configListener);
+        eventBus.subscribe(ConfigListener.class, configListener, Delivery.DIRECT);
     }
 
     @Override
     public void fireShowConfig(ConfigState configState) {
-        configListenerList.forEach(l -> l.fireShowConfig(configState));
+        eventBus.publish(ConfigListener.class, "fireShowConfig", l -> l.fireShowConfig(configState));
     }
 
     @Override
     public void addTemplateStateListener(TemplateListener configListener) {
-        templateListenerList.add(configListener);
+        eventBus.subscribe(TemplateListener.class, configListener, Delivery.DIRECT);
     }
 
     @Override
     public void fireShowTemplate(TemplateState templateState) {
-        templateListenerList.forEach(l -> l.fireShowTemplate(templateState));
+        eventBus.publish(TemplateListener.class, "fireShowTemplate", l -> l.fireShowTemplate(templateState));
     }
 
     @Override
     public void addProgressbarListener(ProgressbarListener progressbarListener) {
-        progressbarListenerList.add(progressbarListener);
+        eventBus.subscribe(ProgressbarListener.class, progressbarListener, Delivery.EDT);
     }
 
     @Override
     public void addProfileStartStopListener(ProfileStartStopListener profileStartStopListener) {
-        profileStartStopListenerList.add(profileStartStopListener);
+        eventBus.subscribe(ProfileStartStopListener.class, profileStartStopListener, Delivery.EDT);
     }
 
     @Override
     public void addCollectStartStopListener(ProfileTaskQueryKey profileTaskQueryKey, CollectStartStopListener collectStartStopListener) {
-        collectStartStopListenerMap.put(profileTaskQueryKey, collectStartStopListener);
+        eventBus.unsubscribeIf(CollectStartStopListener.class, s -> profileTaskQueryKey.equals(s.getTopic()));
+        eventBus.subscribe(CollectStartStopListener.class, profileTaskQueryKey, collectStartStopListener, Delivery.BACKGROUND);
     }
 
     @Override
     public void addShowLocalHistoryListener(ShowLocalHistoryListener showLocalHistoryListener) {
-        showLocalHistoryListenerList.add(showLocalHistoryListener);
+        eventBus.subscribe(ShowLocalHistoryListener.class, showLocalHistoryListener, Delivery.DIRECT);
     }
 
     @Override
     public void addAppCacheAddListener(AppCacheAddListener appCacheAddListener) {
-        appCacheAddListenerList.add(appCacheAddListener);
+        eventBus.subscribe(AppCacheAddListener.class, appCacheAddListener, Delivery.DIRECT);
     }
 
     @Override
     public void addProfileAddListener(ProfileAddListener profileAddListener) {
-        profileAddListeners.add(profileAddListener);
+        eventBus.subscribe(ProfileAddListener.class, profileAddListener, Delivery.DIRECT);
     }
 
     @Override
     public <T> void clearListener(Class<T> genericClass) {
-        profileStartStopListenerList.removeIf(genericClass::isInstance);
-        collectStartStopListenerMap.entrySet().removeIf(map -> genericClass.isInstance(map.getValue()));
-        showLocalHistoryListenerList.removeIf(genericClass::isInstance);
-        appCacheAddListenerList.removeIf(genericClass::isInstance);
+        eventBus.unsubscribeIf(ProfileStartStopListener.class, s -> genericClass.isInstance(s.getListener()));
+        eventBus.unsubscribeIf(CollectStartStopListener.class, s -> genericClass.isInstance(s.getListener()));
+        eventBus.unsubscribeIf(ShowLocalHistoryListener.class, s -> genericClass.isInstance(s.getListener()));
+        eventBus.unsubscribeIf(AppCacheAddListener.class, s -> genericClass.isInstance(s.getListener()));
     }
 
     @Override
     public void clearListenerByKey(ProfileTaskQueryKey profileTaskQueryKey) {
-        collectStartStopListenerMap.entrySet().removeIf(map -> profileTaskQueryKey.equals(map.getKey()));
+        eventBus.unsubscribeIf(CollectStartStopListener.class, s -> profileTaskQueryKey.equals(s.getTopic()));
     }
 
     @Override
     public void addProfileSelectOnNavigator(WorkspaceListener workspaceListener) {
-        workspaceListenerList.add(workspaceListener);
+        eventBus.subscribe(WorkspaceListener.class, workspaceListener, Delivery.DIRECT);
     }
 
     @Override
     public void fireProgressbarVisible(ProgressbarState progressbarState) {
-        progressbarListenerList.forEach(l -> l.fireProgressbarVisible(progressbarState));
+        eventBus.publish(ProgressbarListener.class, null, "fireProgressbarVisible", ProgressbarState.class,
+                l -> l.fireProgressbarVisible(progressbarState));
     }
 
     @Override
     public void fireOnStartOnWorkspaceProfileView(int profileId) {
-        profileStartStopListenerList.forEach(l -> l.fireOnStartOnWorkspaceProfileView(profileId));
+        eventBus.publish(ProfileStartStopListener.class, null, "fireOnStartOnWorkspaceProfileView", profileId,
+                l -> l.fireOnStartOnWorkspaceProfileView(profileId));
     }
 
     @Override
     public void fireOnStopOnWorkspaceProfileView(int profileId) {
-        profileStartStopListenerList.forEach(l -> l.fireOnStopOnWorkspaceProfileView(profileId));
+        eventBus.publish(ProfileStartStopListener.class, null, "fireOnStopOnWorkspaceProfileView", profileId,
+                l -> l.fireOnStopOnWorkspaceProfileView(profileId));
     }
 
     @Override
     public void fireOnStartCollect(ProfileTaskQueryKey profileTaskQueryKey) {
-        collectStartStopListenerMap.entrySet().stream()
-                .filter(f -> f.getKey().equals(profileTaskQueryKey))
-                .forEach(l -> l.getValue().fireOnStartCollect(profileTaskQueryKey));
+        eventBus.publish(CollectStartStopListener.class, profileTaskQueryKey, "fireOnStartCollect", "start",
+                l -> l.fireOnStartCollect(profileTaskQueryKey));
     }
 
     @Override
     public void fireOnStopCollect(ProfileTaskQueryKey profileTaskQueryKey) {
-        collectStartStopListenerMap.entrySet().stream()
-                .filter(f -> f.getKey().equals(profileTaskQueryKey))
-                .forEach(l -> l.getValue().fireOnStopCollect(profileTaskQueryKey));
+        eventBus.publish(CollectStartStopListener.class, profileTaskQueryKey, "fireOnStopCollect", "stop",
+                l -> l.fireOnStopCollect(profileTaskQueryKey));
     }
 
     @Override
     public void fireOnShowHistory(QueryInfo queryInfo, CProfile cProfile, long begin, long end) {
-        showLocalHistoryListenerList.forEach(l -> l.fireOnShowHistory(queryInfo, cProfile, begin, end));
+        eventBus.publish(ShowLocalHistoryListener.class, "fireOnShowHistory",
+                l -> l.fireOnShowHistory(queryInfo, cProfile, begin, end));
     }
 
     @Override
     public void fireOnAddToAppCache(ProfileTaskQueryKey profileTaskQueryKey) {
-        appCacheAddListenerList.forEach(l -> l.fireOnAddToAppCache(profileTaskQueryKey));
+        eventBus.publish(AppCacheAddListener.class, "fireOnAddToAppCache",
+                l -> l.fireOnAddToAppCache(profileTaskQueryKey));
     }
 
     @Override
     public void fireProfileAdd() {
-        profileAddListeners.forEach(ProfileAddListener::fireProfileAdd);
+        eventBus.publish(ProfileAddListener.class, "fireProfileAdd", ProfileAddListener::fireProfileAdd);
     }
 
     @Override
     public void fireShowReport(ReportState reportState) {
-        reportListenerList.forEach(l -> l.fireShowReport(reportState));
+        eventBus.publish(ReportListener.class, "fireShowReport", l -> l.fireShowReport(reportState));
     }
 
     @Override
     public void addReportStateListener(ReportListener reportListener) {
-        reportListenerList.add(reportListener);
+        eventBus.subscribe(ReportListener.class, reportListener, Delivery.DIRECT);
     }
 }
@@ -0,0 +1,102 @@
+package ru.rti.desktop.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToIntFunction;
+import lombok.experimental.UtilityClass;
+import lombok.extern.log4j.Log4j2;
+import ru.rti.desktop.collector.jvm.JvmTable;
+import ru.rti.desktop.helper.ConfigRepository;
+import ru.rti.desktop.model.config.ConfigEntity;
+import ru.rti.desktop.model.config.Connection;
+import ru.rti.desktop.model.config.Profile;
+import ru.rti.desktop.model.config.Query;
+import ru.rti.desktop.model.config.Table;
+import ru.rti.desktop.model.config.Task;
+import ru.rti.desktop.model.sql.GatherDataSql;
+
+/**
+ * Built-in profile which collects the application own JVM metrics to the local database.
+ * Configs are added once through the config repository, entities already present are reused by name.
+ */
+@UtilityClass
+@Log4j2
+public class SelfMonitoringData {
+    public static final String PROFILE_NAME = "Desktop self-monitoring";
+    public static final String TASK_NAME = "Desktop JVM";
+    public static final String CONNECTION_NAME = "Desktop JVM";
+    public static final String CONNECTION_URL = "jvm:self";
+
+    private static final int PULL_TIMEOUT_SEC = 5;
+
+    public void saveConfig(ConfigRepository configRepository) {
+        if (find(configRepository, PROFILE_NAME, Profile.class).isPresent()) {
+            return;
+        }
+
+        Connection connection = new Connection();
+        connection.setName(CONNECTION_NAME);
+        connection.setUrl(CONNECTION_URL);
+        connection.setUserName("");
+        connection.setPassword("");
+        connection.setDriver("");
+        connection.setJar("");
+        connection = getOrAdd(configRepository, connection, Connection.class);
+
+        List<Integer> queryIdList = new ArrayList<>();
+        for (JvmTable jvmTable : JvmTable.values()) {
+            Query query = new Query();
+            query.setName(jvmTable.getTableName());
+            query.setDescription(jvmTable.getDescription());
+            query.setText(jvmTable.getText());
+            query.setGatherDataSql(GatherDataSql.BY_CLIENT);
+            queryIdList.add(getOrAdd(configRepository, query, Query.class).getId());
+
+            if (configRepository.getList(Table.class).stream()
+                    .noneMatch(table -> jvmTable.getTableName().equals(table.getTableName()))) {
+                Table table = new Table();
+                table.setTableName(jvmTable.getTableName());
+                configRepository.add(table, Table.class);
+            }
+        }
+
+        Task task = new Task();
+        task.setName(TASK_NAME);
+        task.setDescription("Samples of the desktop application JVM");
+        task.setPullTimeout(PULL_TIMEOUT_SEC);
+        task.setConnectionId(connection.getId());
+        task.setQueryList(queryIdList);
+        task = getOrAdd(configRepository, task, Task.class);
+
+        Profile profile = new Profile();
+        profile.setName(PROFILE_NAME);
+        profile.setDescription("GC, memory, threads and latencies of the desktop application");
+        profile.setTaskList(List.of(task.getId()));
+        getOrAdd(configRepository, profile, Profile.class);
+
+        log.info("Profile " + PROFILE_NAME + " is created");
+    }
+
+    private <T extends ConfigEntity> T getOrAdd(ConfigRepository configRepository, T entity, Class<T> clazz) {
+        Optional<T> existing = find(configRepository, entity.getName(), clazz);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        entity.setId(nextId(configRepository.getList(clazz), ConfigEntity::getId));
+        configRepository.add(entity, clazz);
+
+        return entity;
+    }
+
+    private <T extends ConfigEntity> Optional<T> find(ConfigRepository configRepository, String name, Class<T> clazz) {
+        return configRepository.getList(clazz).stream()
+                .filter(entity -> name.equals(entity.getName()))
+                .findAny();
+    }
+
+    private <T> int nextId(List<T> entityList, ToIntFunction<T> id) {
+        return entityList.stream().mapToInt(id).max().orElse(0) + 1;
+    }
+}
@@ -25,9 +25,6 @@ public class BaseFrame extends JFrame {
     private final NavigatorView navigatorView;
     private final WorkspaceView workspaceView;
     private final ToolbarView toolbarView;
-    private final ConfigView configView;
-    private final TemplateView templateView;
-    private final ReportView reportView;
     private final ProgressbarView progressbarView;
 
     private final ProfileManager profileManager;
@@ -44,9 +41,6 @@ public class BaseFrame extends JFrame {
                      @Named("navigatorView") NavigatorView navigatorView,
                      @Named("workspaceView") WorkspaceView workspaceView,
                      @Named("toolbarView") ToolbarView toolbarView,
-                     @Named("configView") ConfigView configView,
-                     @Named("templateView") TemplateView templateView,
-                     @Named("reportView") ReportView reportView,
                      @Named("progressbarView") ProgressbarView progressbarView,
                      @Named("profileManager") ProfileManager profileManager,
                      @Named("taskExecutorPool") TaskExecutorPool taskExecutorPool,
@@ -61,15 +55,6 @@ public class BaseFrame extends JFrame {
         this.toolbarView = toolbarView;
         this.toolbarView.bindPresenter();
 
-        this.configView = configView;
-        this.configView.bindPresenter();
-
-        this.templateView = templateView;
-        this.templateView.bindPresenter();
-
-        this.reportView = reportView;
-        this.reportView.bindPresenter();
-
         this.progressbarView = progressbarView;
         this.progressbarView.bindPresenter();
 
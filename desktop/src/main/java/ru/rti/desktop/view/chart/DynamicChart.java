@@ -20,8 +20,14 @@ public interface DynamicChart {
 
   void addSeriesValue(double x, double y, String seriesName);
 
+  void addSeriesValues(Map<Long, Map<String, Double>> values);
+
+  void replaceSeriesValues(Map<Long, Map<String, Double>> values);
+
   void deleteSeriesValue(double x, String seriesName);
 
+  void foldSeries(String seriesFrom, String seriesTo);
+
   void deleteAllSeriesData(int holdRange);
 
   double getEndXValue();
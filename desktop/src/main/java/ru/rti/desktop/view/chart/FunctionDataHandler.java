@@ -1,14 +1,85 @@
 package ru.rti.desktop.view.chart;
 
+import org.fbase.core.FStore;
+import org.fbase.exception.BeginEndWrongOrderException;
+import org.fbase.exception.SqlColMetadataException;
+import org.fbase.model.output.StackedColumn;
+import ru.rti.desktop.model.chart.AsIsValueTyped;
+import ru.rti.desktop.model.chart.ChartRange;
+import ru.rti.desktop.model.config.Metric;
+import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.info.gui.ChartInfo;
+import ru.rti.desktop.model.sql.AggregateTable;
+import ru.rti.desktop.view.chart.stacked.function.AggregateMetricFunctionHandler;
+import ru.rti.desktop.view.chart.stacked.function.AsIsMetricFunctionHandler;
+import ru.rti.desktop.view.chart.stacked.function.AverageMetricFunctionHandler;
+import ru.rti.desktop.view.chart.stacked.function.CountMetricFunctionHandler;
+import ru.rti.desktop.view.chart.stacked.function.PercentileMetricFunctionHandler;
+import ru.rti.desktop.view.chart.stacked.function.SumMetricFunctionHandler;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 public interface FunctionDataHandler extends HelperChart {
 
+    static FunctionDataHandler create(Metric metric, QueryInfo queryInfo, FStore fStore) {
+        if (AggregateTable.isPushdown(queryInfo, metric)) {
+            return new TimedFunctionDataHandler(new AggregateMetricFunctionHandler(metric, queryInfo, fStore), metric, queryInfo);
+        }
+
+        FunctionDataHandler dataHandler = switch (metric.getMetricFunction()) {
+            case ASIS -> new AsIsMetricFunctionHandler(metric, queryInfo, fStore);
+            case COUNT -> new CountMetricFunctionHandler(metric, queryInfo, fStore);
+            case SUM -> new SumMetricFunctionHandler(metric, queryInfo, fStore);
+            case AVERAGE -> new AverageMetricFunctionHandler(metric, queryInfo, fStore);
+            case P50, P90, P99, MAX -> new PercentileMetricFunctionHandler(metric, queryInfo, fStore);
+            default -> throw new IllegalArgumentException("Function is undefined for metric: " + metric.getName());
+        };
+        return new TimedFunctionDataHandler(dataHandler, metric, queryInfo);
+    }
+
     void fillSeriesDataForHistory(ChartInfo chartInfo, Set<String> series);
 
     void handleFunction(ChartInfo chartInfo, long beginRange, long endRange,
                               boolean isClientRealTime, long finalX, double yK,
                               Set<String> series, StackedChart stackedChart);
+
+    /**
+     * Value of linear chart for the time bucket
+     */
+    double getLinearValue(long beginRange, long endRange, double yK);
+
+    /**
+     * Values of linear chart for all buckets of the range, used to build fine data before downsampling.
+     * By default each bucket is computed by {@link #getLinearValue} in parallel
+     */
+    default List<AsIsValueTyped> getLinearData(ChartRange chartRange, long step, BooleanSupplier cancelled) {
+        double k = (double) step / 1000;
+
+        List<AsIsValueTyped> values = HistoryLoader.computeInOrder(chartRange, step,
+                (dtBegin, dtEnd) -> new AsIsValueTyped(dtBegin, getLinearValue(dtBegin, dtEnd, k)),
+                cancelled);
+
+        return values.stream().filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Values of the history time bucket by series name, computed without touching the chart
+     * so the buckets of history range can be loaded in parallel
+     */
+    Map<String, Double> getHistoryValues(long beginRange, long endRange, double yK, Set<String> series);
+
+    /**
+     * Stacked columns of the table the metric is read from, used to find series of real time chart
+     */
+    List<StackedColumn> getSColumnList(long beginRange, long endRange)
+            throws SqlColMetadataException, BeginEndWrongOrderException;
+
+    /**
+     * Last timestamp of the table the metric is read from
+     */
+    long getLastTimestamp();
 }
@@ -0,0 +1,216 @@
+package ru.rti.desktop.view.chart;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.swing.SwingUtilities;
+import lombok.extern.log4j.Log4j2;
+import ru.rti.desktop.model.chart.ChartRange;
+
+/**
+ * Load history charts in parallel: the range is split into time buckets, chunks of buckets
+ * are computed on a bounded fork-join pool with read-only queries to local storage and
+ * the results are merged in time order
+ */
+@Log4j2
+public final class HistoryLoader {
+
+  private static final int CHUNK_BUCKETS = 8;
+  private static final int MAX_PARALLELISM = 8;
+
+  private static final ForkJoinPool POOL =
+      new ForkJoinPool(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_PARALLELISM)));
+
+  private HistoryLoader() {
+  }
+
+  /**
+   * Fill stacked chart with function values for all buckets of the range, the dataset is
+   * notified once at the end
+   */
+  public static void loadStacked(FunctionDataHandler dataHandler, ChartRange chartRange, long step,
+                                 Set<String> series, StackedChart stackedChart) {
+    Map<Long, Map<String, Double>> values = computeStacked(dataHandler, chartRange, step, series, () -> false);
+
+    values.values().forEach(bucket -> series.addAll(bucket.keySet()));
+
+    stackedChart.addSeriesValues(values);
+  }
+
+  /**
+   * Function values by series name for all non-empty buckets of the range
+   */
+  public static Map<Long, Map<String, Double>> computeStacked(FunctionDataHandler dataHandler, ChartRange chartRange,
+                                                               long step, Set<String> series, BooleanSupplier cancelled) {
+    double k = (double) step / 1000;
+
+    List<Map<String, Double>> bucketValues = computeInOrder(chartRange, step,
+        (dtBegin, dtEnd) -> dataHandler.getHistoryValues(dtBegin, dtEnd, k, series), cancelled);
+
+    Map<Long, Map<String, Double>> values = new TreeMap<>();
+    long dtBegin = chartRange.getBegin();
+    for (Map<String, Double> bucket : bucketValues) {
+      if (bucket != null && !bucket.isEmpty()) {
+        values.put(dtBegin, bucket);
+      }
+      dtBegin += step;
+    }
+
+    return values;
+  }
+
+  public static <T> List<T> computeInOrder(ChartRange chartRange, long step, BiFunction<Long, Long, T> function) {
+    return computeInOrder(chartRange, step, function, () -> false);
+  }
+
+  /**
+   * Compute the function for each bucket [begin, begin + step - 1] of the range in parallel,
+   * a failed or cancelled bucket is returned as null
+   *
+   * @return results in time order
+   */
+  public static <T> List<T> computeInOrder(ChartRange chartRange, long step, BiFunction<Long, Long, T> function,
+                                           BooleanSupplier cancelled) {
+    long begin = chartRange.getBegin();
+    int bucketCount = step <= 0 || chartRange.getEnd() < begin ? 0
+        : Math.toIntExact((chartRange.getEnd() - begin) / step + 1);
+
+    long start = System.currentTimeMillis();
+
+    List<T> result = POOL.invoke(new BucketTask<>(begin, step, 0, bucketCount, function, cancelled));
+
+    log.info("Loaded " + bucketCount + " history buckets in " + (System.currentTimeMillis() - start)
+        + " ms with parallelism " + POOL.getParallelism() + (cancelled.getAsBoolean() ? ", cancelled" : ""));
+
+    return result;
+  }
+
+  /**
+   * Compute in background and apply the result on the event dispatch thread unless the
+   * refinement is cancelled before
+   */
+  public static <T> Refinement refine(Function<Refinement, T> compute, Consumer<T> apply) {
+    Refinement refinement = new Refinement();
+
+    CompletableFuture.supplyAsync(() -> compute.apply(refinement), POOL)
+        .thenAccept(result -> SwingUtilities.invokeLater(() -> {
+          if (!refinement.isCancelled()) {
+            apply.accept(result);
+          }
+        }))
+        .exceptionally(throwable -> {
+          log.catching(throwable);
+          return null;
+        });
+
+    return refinement;
+  }
+
+  /**
+   * Compute a coarse pass and then a fine pass in background, each result is applied on the event
+   * dispatch thread in that order unless the refinement is cancelled before
+   */
+  public static <T> Refinement refine(Function<Refinement, T> coarse, Function<Refinement, T> fine, Consumer<T> apply) {
+    Refinement refinement = new Refinement();
+
+    CompletableFuture.supplyAsync(() -> coarse.apply(refinement), POOL)
+        .thenApply(result -> {
+          applyLater(refinement, result, apply);
+          return refinement.isCancelled() ? null : fine.apply(refinement);
+        })
+        .thenAccept(result -> applyLater(refinement, result, apply))
+        .exceptionally(throwable -> {
+          log.catching(throwable);
+          return null;
+        });
+
+    return refinement;
+  }
+
+  private static <T> void applyLater(Refinement refinement, T result, Consumer<T> apply) {
+    SwingUtilities.invokeLater(() -> {
+      if (!refinement.isCancelled()) {
+        apply.accept(result);
+      }
+    });
+  }
+
+  public static final class Refinement implements BooleanSupplier {
+
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+    public void cancel() {
+      cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+      return cancelled.get();
+    }
+
+    @Override
+    public boolean getAsBoolean() {
+      return isCancelled();
+    }
+  }
+
+  private static class BucketTask<T> extends RecursiveTask<List<T>> {
+
+    private final long begin;
+    private final long step;
+    private final int from;
+    private final int to;
+    private final BiFunction<Long, Long, T> function;
+    private final BooleanSupplier cancelled;
+
+    BucketTask(long begin, long step, int from, int to, BiFunction<Long, Long, T> function,
+               BooleanSupplier cancelled) {
+      this.begin = begin;
+      this.step = step;
+      this.from = from;
+      this.to = to;
+      this.function = function;
+      this.cancelled = cancelled;
+    }
+
+    @Override
+    protected List<T> compute() {
+      if (to - from <= CHUNK_BUCKETS) {
+        List<T> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+          if (cancelled.getAsBoolean()) {
+            result.add(null);
+            continue;
+          }
+          long dtBegin = begin + i * step;
+          try {
+            result.add(function.apply(dtBegin, dtBegin + step - 1));
+          } catch (Exception exception) {
+            log.info(exception);
+            result.add(null);
+          }
+        }
+        return result;
+      }
+
+      int middle = (from + to) >>> 1;
+      BucketTask<T> left = new BucketTask<>(begin, step, from, middle, function, cancelled);
+      BucketTask<T> right = new BucketTask<>(begin, step, middle, to, function, cancelled);
+
+      left.fork();
+      List<T> rightResult = right.compute();
+      List<T> result = new ArrayList<>(left.join());
+      result.addAll(rightResult);
+      return result;
+    }
+  }
+}
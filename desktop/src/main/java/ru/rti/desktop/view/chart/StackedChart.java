@@ -43,6 +43,8 @@ import org.jfree.data.general.SelectionChangeEvent;
 import org.jfree.data.general.SelectionChangeListener;
 import org.jfree.data.time.Day;
 import org.jfree.data.time.Month;
+import ru.rti.desktop.diagnostic.Stage;
+import ru.rti.desktop.diagnostic.StageMetrics;
 import ru.rti.desktop.helper.ColorHelper;
 import ru.rti.desktop.model.chart.CategoryTableXYDatasetRealTime;
 
@@ -157,7 +159,33 @@ public class StackedChart implements SelectionChangeListener<XYCursor>, DynamicC
 
     @Override
     public void addSeriesValue(double x, double y, String seriesName){
+        long start = System.nanoTime();
         this.categoryTableXYDataset.addSeriesValue(x, y, seriesName);
+        StageMetrics.record(Stage.DATASET_UPDATE, start);
+    }
+
+    @Override
+    public void addSeriesValues(Map<Long, Map<String, Double>> values) {
+        values.values().stream()
+                .flatMap(seriesValues -> seriesValues.keySet().stream())
+                .distinct()
+                .forEach(this::setSeriesPaintDynamic);
+
+        long start = System.nanoTime();
+        this.categoryTableXYDataset.addSeriesValues(values);
+        StageMetrics.record(Stage.DATASET_UPDATE, start);
+    }
+
+    @Override
+    public void replaceSeriesValues(Map<Long, Map<String, Double>> values) {
+        values.values().stream()
+                .flatMap(seriesValues -> seriesValues.keySet().stream())
+                .distinct()
+                .forEach(this::setSeriesPaintDynamic);
+
+        long start = System.nanoTime();
+        this.categoryTableXYDataset.replaceSeriesValues(values);
+        StageMetrics.record(Stage.DATASET_UPDATE, start);
     }
 
     @Override
@@ -165,12 +193,30 @@ public class StackedChart implements SelectionChangeListener<XYCursor>, DynamicC
         this.categoryTableXYDataset.remove(x, seriesName);
     }
 
+    @Override
+    public void foldSeries(String seriesFrom, String seriesTo) {
+        this.setSeriesPaintDynamic(seriesTo);
+        this.categoryTableXYDataset.foldSeries(seriesFrom, seriesTo);
+        this.colorLinkedHashMap.remove(seriesFrom);
+
+        int seriesCount = this.categoryTableXYDataset.getSeriesCount();
+        for (int i = 0; i < seriesCount; i++) {
+            Color color = this.colorLinkedHashMap.get(String.valueOf(this.categoryTableXYDataset.getSeriesKey(i)));
+            if (color != null) {
+                this.stackedXYAreaRenderer3.setSeriesPaint(i, color);
+            }
+        }
+        this.counter.set(seriesCount);
+    }
+
     @Override
     public void deleteAllSeriesData(int holdRange) {
+        long start = System.nanoTime();
         if (holdRange == 0) {
             this.categoryTableXYDataset.clear();
         }
         this.categoryTableXYDataset.deleteValuesFromDataset(holdRange);
+        StageMetrics.record(Stage.DATASET_UPDATE, start);
     }
 
     @Override
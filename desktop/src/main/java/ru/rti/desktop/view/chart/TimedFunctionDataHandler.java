@@ -0,0 +1,125 @@
+package ru.rti.desktop.view.chart;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import org.fbase.exception.BeginEndWrongOrderException;
+import org.fbase.exception.SqlColMetadataException;
+import org.fbase.model.output.StackedColumn;
+import ru.rti.desktop.diagnostic.Stage;
+import ru.rti.desktop.diagnostic.StageMetrics;
+import ru.rti.desktop.diagnostic.event.MetricFunctionEvent;
+import ru.rti.desktop.model.chart.AsIsValueTyped;
+import ru.rti.desktop.model.chart.ChartRange;
+import ru.rti.desktop.model.config.Metric;
+import ru.rti.desktop.model.info.QueryInfo;
+import ru.rti.desktop.model.info.gui.ChartInfo;
+
+/**
+ * Records the time of metric function computation as {@link Stage#AGGREGATION} and emits
+ * {@link MetricFunctionEvent} for the computed range
+ */
+class TimedFunctionDataHandler implements FunctionDataHandler {
+    private final FunctionDataHandler dataHandler;
+    private final Metric metric;
+    private final QueryInfo queryInfo;
+
+    TimedFunctionDataHandler(FunctionDataHandler dataHandler, Metric metric, QueryInfo queryInfo) {
+        this.dataHandler = dataHandler;
+        this.metric = metric;
+        this.queryInfo = queryInfo;
+    }
+
+    @Override
+    public void fillSeriesDataForHistory(ChartInfo chartInfo, Set<String> series) {
+        MetricFunctionEvent event = new MetricFunctionEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            dataHandler.fillSeriesDataForHistory(chartInfo, series);
+        } finally {
+            StageMetrics.record(Stage.AGGREGATION, start);
+            commit(event, 0, 0, series);
+        }
+    }
+
+    @Override
+    public void handleFunction(ChartInfo chartInfo, long beginRange, long endRange,
+                               boolean isClientRealTime, long finalX, double yK,
+                               Set<String> series, StackedChart stackedChart) {
+        MetricFunctionEvent event = new MetricFunctionEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            dataHandler.handleFunction(chartInfo, beginRange, endRange, isClientRealTime, finalX, yK, series, stackedChart);
+        } finally {
+            StageMetrics.record(Stage.AGGREGATION, start);
+            commit(event, beginRange, endRange, series);
+        }
+    }
+
+    @Override
+    public double getLinearValue(long beginRange, long endRange, double yK) {
+        MetricFunctionEvent event = new MetricFunctionEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return dataHandler.getLinearValue(beginRange, endRange, yK);
+        } finally {
+            StageMetrics.record(Stage.AGGREGATION, start);
+            commit(event, beginRange, endRange, null);
+        }
+    }
+
+    @Override
+    public List<AsIsValueTyped> getLinearData(ChartRange chartRange, long step, BooleanSupplier cancelled) {
+        MetricFunctionEvent event = new MetricFunctionEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return dataHandler.getLinearData(chartRange, step, cancelled);
+        } finally {
+            StageMetrics.record(Stage.AGGREGATION, start);
+            commit(event, chartRange.getBegin(), chartRange.getEnd(), null);
+        }
+    }
+
+    @Override
+    public Map<String, Double> getHistoryValues(long beginRange, long endRange, double yK, Set<String> series) {
+        MetricFunctionEvent event = new MetricFunctionEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            return dataHandler.getHistoryValues(beginRange, endRange, yK, series);
+        } finally {
+            StageMetrics.record(Stage.AGGREGATION, start);
+            commit(event, beginRange, endRange, series);
+        }
+    }
+
+    @Override
+    public List<StackedColumn> getSColumnList(long beginRange, long endRange)
+            throws SqlColMetadataException, BeginEndWrongOrderException {
+        return dataHandler.getSColumnList(beginRange, endRange);
+    }
+
+    @Override
+    public long getLastTimestamp() {
+        return dataHandler.getLastTimestamp();
+    }
+
+    private void commit(MetricFunctionEvent event, long beginRange, long endRange, Set<String> series) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setKey(StageMetrics.getBoundKey());
+            event.table = queryInfo.getName();
+            event.function = String.valueOf(metric.getMetricFunction());
+            event.column = metric.getYAxis() == null ? null : metric.getYAxis().getColName();
+            event.series = series == null ? 0 : series.size();
+            event.rangeBegin = beginRange;
+            event.rangeEnd = endRange;
+            event.commit();
+        }
+    }
+}
@@ -10,6 +10,7 @@ import ru.rti.desktop.model.chart.ChartRange;
 import ru.rti.desktop.model.config.Metric;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.info.gui.ChartInfo;
+import ru.rti.desktop.view.chart.HistoryLoader;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -44,35 +45,26 @@ public class ServerClientHistoryOneSCRP extends StackChartReportPanel {
         ChartRange chartRange = getRange(chartInfo);
 
         double range = (double) getRangeHistory(chartInfo) / MAX_POINT_PER_GRAPH;
-        for (long dtBegin = chartRange.getBegin(); dtBegin <= chartRange.getEnd(); dtBegin += Math.round(range)) {
-            long dtEnd = dtBegin + Math.round(range) - 1;
 
-            List<List<Object>> rawDataByColumn =
-                    fStore.getRawDataByColumn(queryInfo.getName(), metric.getYAxis(), dtBegin, dtEnd);
-
-            try {
-                List<AsIsValueTyped> objectsAll = new ArrayList<>();
-                for (List<Object> objects : rawDataByColumn) {
-                    objectsAll.add(new AsIsValueTyped((Long) objects.get(0), Double.parseDouble((String) objects.get(1))));
-                }
-
-                Map<Long, DoubleSummaryStatistics> statisticsHashMap = new HashMap<>();
-
-                objectsAll.stream()
-                        .collect(Collectors.groupingBy(AsIsValueTyped::getTimestamp, TreeMap::new, Collectors.toList()))
-                        .forEach((k, v) -> statisticsHashMap.put(k, v.stream()
-                                .collect(Collectors.summarizingDouble(AsIsValueTyped::getValue))));
-
-                statisticsHashMap.forEach((key, value) ->
-                        categoryTableXYDatasetRealTime.add(key.doubleValue(), value.getAverage(),
-                                series.stream().findAny().orElseThrow()));
+        Optional<String> seriesName = series.stream().findAny();
+        if (seriesName.isEmpty()) {
+            log.warn("No series to load history of column " + metric.getYAxis().getColName() + " for " + queryInfo.getName());
+            return;
+        }
 
-            } catch (Exception exception) {
-                log.info(exception);
-            }
+        List<Map<Long, Double>> bucketValues = HistoryLoader.computeInOrder(chartRange, Math.round(range),
+                (dtBegin, dtEnd) -> fStore.getRawDataByColumn(queryInfo.getName(), metric.getYAxis(), dtBegin, dtEnd)
+                        .stream()
+                        .map(objects -> new AsIsValueTyped((Long) objects.get(0), Double.parseDouble((String) objects.get(1))))
+                        .collect(Collectors.groupingBy(AsIsValueTyped::getTimestamp, TreeMap::new,
+                                Collectors.averagingDouble(AsIsValueTyped::getValue))));
 
-        }
+        Map<Long, Map<String, Double>> values = new TreeMap<>();
+        bucketValues.stream()
+                .filter(Objects::nonNull)
+                .forEach(averages -> averages.forEach((key, value) -> values.put(key, Map.of(seriesName.get(), value))));
 
+        categoryTableXYDatasetRealTime.addSeriesValues(values);
     }
 
 }
@@ -6,13 +6,13 @@ import org.fbase.exception.BeginEndWrongOrderException;
 import org.fbase.exception.SqlColMetadataException;
 import org.fbase.model.output.StackedColumn;
 import org.fbase.model.profile.CProfile;
-import ru.rti.desktop.exception.SeriesExceedException;
 import ru.rti.desktop.model.ProfileTaskQueryKey;
 import ru.rti.desktop.model.chart.CategoryTableXYDatasetRealTime;
 import ru.rti.desktop.model.chart.ChartRange;
 import ru.rti.desktop.model.config.Metric;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.info.gui.ChartInfo;
+import ru.rti.desktop.view.chart.HistoryLoader;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -44,25 +44,9 @@ public class ServerHistorySCRP extends StackChartReportPanel {
 
         ChartRange chartRange = getRange(chartInfo);
 
-//        log.info(series);
-//        if (series.size() > 50) {
-//            throw new SeriesExceedException("Series more than 50. Not supported to show stacked data..");
-//        }
-
         double range = (double) getRangeHistory(chartInfo) / MAX_POINT_PER_GRAPH;
-        for (long dtBegin = chartRange.getBegin(); dtBegin <= chartRange.getEnd(); dtBegin += Math.round(range)) {
-
-            long dtEnd = dtBegin + Math.round(range) - 1;
-
-//            LocalDateTime beginLocalRange = LocalDateTime.ofInstant(Instant.ofEpochMilli(dtBegin),
-//                    TimeZone.getDefault().toZoneId());
-//            LocalDateTime endLocalRange = LocalDateTime.ofInstant(Instant.ofEpochMilli(dtEnd),
-//                    TimeZone.getDefault().toZoneId());
-
-            double k = (double) Math.round(range) / 1000;
 
-            dataHandler.handleFunction(chartInfo, dtBegin, dtEnd,false, dtBegin, k, series, stackedChart);
-        }
+        HistoryLoader.loadStacked(dataHandler, chartRange, Math.round(range), series, stackedChart);
 
     }
 
@@ -13,6 +13,7 @@ import org.jfree.chart.util.IDetailPanel;
 import ru.rti.desktop.exception.NotFoundException;
 import ru.rti.desktop.model.ProfileTaskQueryKey;
 import ru.rti.desktop.model.chart.CategoryTableXYDatasetRealTime;
+import ru.rti.desktop.model.chart.TopKSeriesAggregator;
 import ru.rti.desktop.model.config.Metric;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.info.gui.ChartInfo;
@@ -22,10 +23,6 @@ import ru.rti.desktop.view.chart.DetailChart;
 import ru.rti.desktop.view.chart.FunctionDataHandler;
 import ru.rti.desktop.view.chart.HelperChart;
 import ru.rti.desktop.view.chart.StackedChart;
-import ru.rti.desktop.view.chart.stacked.function.AsIsMetricFunctionHandler;
-import ru.rti.desktop.view.chart.stacked.function.AverageMetricFunctionHandler;
-import ru.rti.desktop.view.chart.stacked.function.CountMetricFunctionHandler;
-import ru.rti.desktop.view.chart.stacked.function.SumMetricFunctionHandler;
 
 
 import javax.swing.*;
@@ -33,6 +30,7 @@ import java.awt.*;
 import java.time.Duration;
 import java.util.List;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Log4j2
 public abstract class StackChartReportPanel extends JPanel implements DetailChart, HelperChart,
@@ -58,6 +56,7 @@ public abstract class StackChartReportPanel extends JPanel implements DetailChar
     protected int legendFontSize = 12;
 
     protected Set<String> series;
+    private TopKSeriesAggregator seriesTopK;
 
     protected int batchSize;
 
@@ -84,7 +83,7 @@ public abstract class StackChartReportPanel extends JPanel implements DetailChar
         this.metric = metric;
         this.fStore = fStore;
 
-        this.initFunctionDataHandler(metric);
+        this.dataHandler = FunctionDataHandler.create(metric, queryInfo, fStore);
 
         if (metric.getYAxis().getCsType() == null) {
             throw new NotFoundException("Column storage type is undefined for column profile: " + metric.getYAxis());
@@ -101,15 +100,6 @@ public abstract class StackChartReportPanel extends JPanel implements DetailChar
         this.stackedChart.initialize();
     }
 
-    private void initFunctionDataHandler(Metric metric) {
-        switch (metric.getMetricFunction()) {
-            case ASIS -> dataHandler = new AsIsMetricFunctionHandler(metric, queryInfo, fStore);
-            case COUNT -> dataHandler = new CountMetricFunctionHandler(metric, queryInfo, fStore);
-            case SUM -> dataHandler = new SumMetricFunctionHandler(metric, queryInfo, fStore);
-            case AVERAGE -> dataHandler = new AverageMetricFunctionHandler(metric, queryInfo, fStore);
-        }
-    }
-
     public abstract void initialize();
 
     protected abstract void loadData();
@@ -140,12 +130,21 @@ public abstract class StackChartReportPanel extends JPanel implements DetailChar
         return chartPanel;
     }
 
+    /**
+     * Series ranked by accumulated count, a series which drops out of the top-K is folded into "Others"
+     */
     protected void fillSeries(List<StackedColumn> sColumnList) {
-        sColumnList.stream()
+        if (seriesTopK == null) {
+            seriesTopK = new TopKSeriesAggregator(chartInfo.getSeriesTopK(), 0);
+        }
+
+        Map<String, Long> weights = sColumnList.stream()
                 .map(StackedColumn::getKeyCount)
-                .map(Map::keySet)
-                .flatMap(Collection::stream)
-                .forEach(series::add);
+                .flatMap(keyCount -> keyCount.entrySet().stream())
+                .collect(Collectors.groupingBy(Map.Entry::getKey, Collectors.summingLong(Map.Entry::getValue)));
+
+        seriesTopK.rank(series, weights)
+                .forEach(evicted -> stackedChart.foldSeries(evicted, TopKSeriesAggregator.OTHER));
     }
 
     protected void fillWithEmptyStackedChart(long beginRangeFill, long endRangeFill) {
@@ -1,11 +1,15 @@
 package ru.rti.desktop.view.chart.stacked;
 
 import org.fbase.core.FStore;
+import org.fbase.exception.BeginEndWrongOrderException;
+import org.fbase.exception.SqlColMetadataException;
 import org.fbase.model.output.StackedColumn;
+import ru.rti.desktop.model.chart.AsIsValueTyped;
 import ru.rti.desktop.model.config.Metric;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.view.chart.FunctionDataHandler;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -30,4 +34,31 @@ public abstract class MetricFunctionDataHandler implements FunctionDataHandler {
                 .forEach(series::add);
     }
 
+    @Override
+    public Map<String, Double> getHistoryValues(long beginRange, long endRange, double yK, Set<String> series) {
+        return Map.of(metric.getYAxis().getColName(), getLinearValue(beginRange, endRange, yK));
+    }
+
+    @Override
+    public List<StackedColumn> getSColumnList(long beginRange, long endRange)
+            throws SqlColMetadataException, BeginEndWrongOrderException {
+        return fStore.getSColumnListByCProfile(queryInfo.getName(), metric.getYAxis(), beginRange, endRange);
+    }
+
+    @Override
+    public long getLastTimestamp() {
+        return fStore.getLastTimestamp(queryInfo.getName(), Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    protected List<AsIsValueTyped> getRawValues(long beginRange, long endRange) {
+        List<List<Object>> rawDataByColumn =
+            fStore.getRawDataByColumn(queryInfo.getName(), metric.getYAxis(), beginRange, endRange);
+
+        List<AsIsValueTyped> objectsAll = new ArrayList<>();
+        for (List<Object> objects : rawDataByColumn) {
+            objectsAll.add(new AsIsValueTyped((Long) objects.get(0), Double.parseDouble((String) objects.get(1))));
+        }
+        return objectsAll;
+    }
+
 }
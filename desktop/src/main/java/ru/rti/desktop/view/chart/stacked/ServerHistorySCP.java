@@ -6,6 +6,7 @@ import ru.rti.desktop.model.ProfileTaskQueryKey;
 import ru.rti.desktop.model.chart.CategoryTableXYDatasetRealTime;
 import ru.rti.desktop.model.chart.ChartRange;
 import ru.rti.desktop.model.config.Metric;
+import ru.rti.desktop.model.function.ChartType;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.info.gui.ChartInfo;
 import ru.rti.desktop.model.view.ProcessType;
@@ -42,15 +43,12 @@ public class ServerHistorySCP extends StackChartPanel {
 
         ChartRange chartRange = getRange(chartInfo);
 
-        double range = (double) getRangeHistory(chartInfo) / MAX_POINT_PER_GRAPH;
-        for (long dtBegin = chartRange.getBegin(); dtBegin <= chartRange.getEnd(); dtBegin += Math.round(range)) {
-
-            long dtEnd = dtBegin + Math.round(range) - 1;
-
-            double k = (double) Math.round(range) / 1000;
-
-            dataHandler.handleFunction(chartInfo, dtBegin, dtEnd,false, dtBegin, k, series, stackedChart);
+        if (ChartType.LINEAR.equals(metric.getChartType())) {
+            loadDataLinear(chartRange);
+            return;
         }
+
+        loadDataStacked(chartRange);
     }
 
 }
@@ -61,7 +61,7 @@ public class ServerRealTimeSCP extends StackChartPanel {
         if (needToFillStackedChartWhenDataFound) {
             log.info("Fill stacked chart with empty data when we get the first series");
             List<StackedColumn> sColumnList =
-                fStore.getSColumnListByCProfile(queryInfo.getName(), metric.getYAxis(), begin, end);
+                dataHandler.getSColumnList(begin, end);
             fillSeries(sColumnList);
 
             if (series.isEmpty()) {
@@ -77,12 +77,12 @@ public class ServerRealTimeSCP extends StackChartPanel {
             log.info("Handle initial loading");
 
             List<StackedColumn> sColumnList =
-                fStore.getSColumnListByCProfile(queryInfo.getName(), metric.getYAxis(), beginCurrentRange, endCurrentRange);
+                dataHandler.getSColumnList(beginCurrentRange, endCurrentRange);
             fillSeries(sColumnList);
 
             if (series.isEmpty()) {
                 log.info("No data in current range. Try to get last data from history");
-                long last = fStore.getLastTimestamp(queryInfo.getName(), Long.MIN_VALUE, Long.MAX_VALUE);
+                long last = dataHandler.getLastTimestamp();
 
                 if (last != 0) {
                     log.info("Fill the data from history");
@@ -92,7 +92,7 @@ public class ServerRealTimeSCP extends StackChartPanel {
                         long endFromHistory = last;
 
                         sColumnList =
-                            fStore.getSColumnListByCProfile(queryInfo.getName(), metric.getYAxis(), beginFromHistory, endFromHistory);
+                            dataHandler.getSColumnList(beginFromHistory, endFromHistory);
                         fillSeries(sColumnList);
 
                         fillWithEmptyStackedChart(beginCurrentRange, endCurrentRange);
@@ -110,7 +110,7 @@ public class ServerRealTimeSCP extends StackChartPanel {
                 stackedChart.deleteAllSeriesData(0);
 
                 sColumnList =
-                    fStore.getSColumnListByCProfile(queryInfo.getName(), metric.getYAxis(), beginCurrentRange, endCurrentRange);
+                    dataHandler.getSColumnList(beginCurrentRange, endCurrentRange);
                 fillSeries(sColumnList);
 
                 fillStackedChart(beginCurrentRange, endCurrentRange);
@@ -2,15 +2,19 @@ package ru.rti.desktop.view.chart.stacked;
 
 import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.time.Duration;
-import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.swing.JPanel;
+import javax.swing.Timer;
 import lombok.extern.log4j.Log4j2;
 import org.fbase.core.FStore;
 import org.fbase.model.output.StackedColumn;
@@ -23,10 +27,17 @@ import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.util.IDetailPanel;
 import ru.rti.desktop.config.prototype.chart.WorkspaceChartModule;
 import ru.rti.desktop.config.prototype.query.WorkspaceQueryComponent;
+import ru.rti.desktop.diagnostic.Stage;
+import ru.rti.desktop.diagnostic.StageMetrics;
+import ru.rti.desktop.diagnostic.event.ChartRepaintEvent;
 import ru.rti.desktop.exception.NotFoundException;
+import ru.rti.desktop.helper.DownsampleHelper;
 import ru.rti.desktop.manager.ProfileManager;
 import ru.rti.desktop.model.ProfileTaskQueryKey;
+import ru.rti.desktop.model.chart.AsIsValueTyped;
 import ru.rti.desktop.model.chart.CategoryTableXYDatasetRealTime;
+import ru.rti.desktop.model.chart.ChartRange;
+import ru.rti.desktop.model.chart.TopKSeriesAggregator;
 import ru.rti.desktop.model.config.Metric;
 import ru.rti.desktop.model.function.ChartType;
 import ru.rti.desktop.model.info.QueryInfo;
@@ -40,17 +51,17 @@ import ru.rti.desktop.state.SqlQueryState;
 import ru.rti.desktop.view.chart.DetailChart;
 import ru.rti.desktop.view.chart.FunctionDataHandler;
 import ru.rti.desktop.view.chart.HelperChart;
+import ru.rti.desktop.view.chart.HistoryLoader;
 import ru.rti.desktop.view.chart.StackedChart;
-import ru.rti.desktop.view.chart.stacked.function.AsIsMetricFunctionHandler;
-import ru.rti.desktop.view.chart.stacked.function.AverageMetricFunctionHandler;
-import ru.rti.desktop.view.chart.stacked.function.CountMetricFunctionHandler;
-import ru.rti.desktop.view.chart.stacked.function.SumMetricFunctionHandler;
 
 @Log4j2
 public abstract class StackChartPanel extends JPanel implements DetailChart, HelperChart,
         CollectStartStopListener, ShowLocalHistoryListener {
 
     protected static int MAX_POINT_PER_GRAPH = 300;
+    protected static int FINE_POINT_PER_PIXEL = 4;
+    protected static int COARSE_POINT_PER_GRAPH = 30;
+    private static final int RESIZE_DELAY_MS = 200;
 
     private final WorkspaceQueryComponent workspaceQueryComponent;
     protected final CategoryTableXYDatasetRealTime categoryTableXYDatasetRealTime;
@@ -72,6 +83,7 @@ public abstract class StackChartPanel extends JPanel implements DetailChart, Hel
     protected int legendFontSize = 12;
 
     protected Set<String> series;
+    private TopKSeriesAggregator seriesTopK;
 
     protected long clientBegin;
     protected int batchSize;
@@ -81,6 +93,13 @@ public abstract class StackChartPanel extends JPanel implements DetailChart, Hel
 
     protected double range;
 
+    private volatile List<AsIsValueTyped> linearData;
+    private int linearDataColumns;
+    private ChartRange linearRange;
+    private int fineDataColumns;
+
+    private volatile HistoryLoader.Refinement refinement;
+
     @Inject
     @Named("eventListener")
     EventListener eventListener;
@@ -113,7 +132,7 @@ public abstract class StackChartPanel extends JPanel implements DetailChart, Hel
         this.processType = processType;
         this.metric = metric;
 
-        this.initFunctionDataHandler(metric);
+        this.dataHandler = FunctionDataHandler.create(metric, queryInfo, fStore);
 
         if (metric.getYAxis().getCsType() == null) {
             throw new NotFoundException("Column storage type is undefined for column profile: " + metric.getYAxis());
@@ -135,15 +154,6 @@ public abstract class StackChartPanel extends JPanel implements DetailChart, Hel
         this.stackedChart.initialize();
     }
 
-    private void initFunctionDataHandler(Metric metric) {
-        switch (metric.getMetricFunction()) {
-            case ASIS -> dataHandler = new AsIsMetricFunctionHandler(metric, queryInfo, fStore);
-            case COUNT -> dataHandler = new CountMetricFunctionHandler(metric, queryInfo, fStore);
-            case SUM -> dataHandler = new SumMetricFunctionHandler(metric, queryInfo, fStore);
-            case AVERAGE -> dataHandler = new AverageMetricFunctionHandler(metric, queryInfo, fStore);
-        }
-    }
-
     public abstract void initialize();
 
     protected abstract void loadData();
@@ -163,10 +173,121 @@ public abstract class StackChartPanel extends JPanel implements DetailChart, Hel
 
         this.loadData();
 
+        if (ChartType.LINEAR.equals(metric.getChartType())) {
+            Timer resizeTimer = new Timer(RESIZE_DELAY_MS, e -> {
+                int columns = getPixelColumns();
+                if (linearData == null) {
+                    return;
+                }
+                if (columns > fineDataColumns) {
+                    refineLinearData(columns);
+                } else if (columns != linearDataColumns) {
+                    drawLinearData(columns);
+                }
+            });
+            resizeTimer.setRepeats(false);
+
+            this.stackedChart.getChartPanel().addComponentListener(new ComponentAdapter() {
+                @Override
+                public void componentResized(ComponentEvent e) {
+                    resizeTimer.restart();
+                }
+            });
+        }
+
         this.setLayout(new BorderLayout());
         this.add("Center", stackedChart.getChartPanel());
     }
 
+    /**
+     * Load a coarse pass of the history chart and refine it to full resolution, both in background
+     * so EDT is not blocked, the refinement is cancelled by {@link #cancelRefinement()}
+     */
+    protected void loadDataStacked(ChartRange chartRange) {
+        long fineStep = Math.round((double) getRangeHistory(chartInfo) / MAX_POINT_PER_GRAPH);
+        long coarseStep = Math.round((double) getRangeHistory(chartInfo) / COARSE_POINT_PER_GRAPH);
+
+        refinement = HistoryLoader.refine(
+                cancelled -> HistoryLoader.computeStacked(dataHandler, chartRange, coarseStep, series, cancelled),
+                cancelled -> HistoryLoader.computeStacked(dataHandler, chartRange, fineStep, series, cancelled),
+                values -> {
+                    values.values().forEach(bucket -> series.addAll(bucket.keySet()));
+                    stackedChart.replaceSeriesValues(values);
+                });
+    }
+
+    /**
+     * Load linear chart at a few points per pixel and downsample it to the chart width,
+     * on resize the fine data is downsampled again without a new query to local storage
+     * unless the chart gets wider than the fine data covers.
+     * A coarse pass is drawn first, fine data replaces it when ready, both are loaded in background
+     */
+    protected void loadDataLinear(ChartRange chartRange) {
+        int columns = getPixelColumns();
+
+        this.linearRange = chartRange;
+        this.fineDataColumns = columns;
+
+        long fineStep = getFineStep(columns);
+        long coarseStep = Math.max(fineStep, Math.round((double) (chartRange.getEnd() - chartRange.getBegin())
+                / COARSE_POINT_PER_GRAPH));
+
+        refinement = HistoryLoader.refine(
+                cancelled -> dataHandler.getLinearData(chartRange, coarseStep, cancelled),
+                cancelled -> coarseStep > fineStep ? dataHandler.getLinearData(chartRange, fineStep, cancelled) : null,
+                data -> {
+                    if (data != null) {
+                        this.linearData = data;
+                        drawLinearData(getPixelColumns());
+                    }
+                });
+    }
+
+    private void refineLinearData(int columns) {
+        cancelRefinement();
+
+        long fineStep = getFineStep(columns);
+        this.fineDataColumns = columns;
+
+        refinement = HistoryLoader.refine(
+                cancelled -> dataHandler.getLinearData(linearRange, fineStep, cancelled),
+                data -> {
+                    this.linearData = data;
+                    drawLinearData(getPixelColumns());
+                });
+    }
+
+    private long getFineStep(int columns) {
+        return Math.max(1, Math.round((double) (linearRange.getEnd() - linearRange.getBegin())
+                / ((long) columns * FINE_POINT_PER_PIXEL)));
+    }
+
+    public void cancelRefinement() {
+        if (refinement != null) {
+            refinement.cancel();
+        }
+    }
+
+    private synchronized void drawLinearData(int columns) {
+        List<AsIsValueTyped> points = DownsampleHelper.downsample(linearData, columns, chartInfo.getDownsampleType());
+
+        log.info("Draw " + points.size() + " points of " + linearData.size() + " for " + columns + " pixel columns");
+
+        String seriesName = metric.getYAxis().getColName();
+
+        stackedChart.deleteAllSeriesData(0);
+        points.forEach(point -> stackedChart.addSeriesValue(point.getTimestamp(), point.getValue(), seriesName));
+
+        this.linearDataColumns = columns;
+    }
+
+    protected int getPixelColumns() {
+        if (chartPanel == null || chartPanel.getWidth() <= 0) {
+            return MAX_POINT_PER_GRAPH;
+        }
+        return chartPanel.getWidth();
+    }
+
     public Map<String, Color> getSeriesColorMap() {
         return stackedChart.getSeriesColorMap();
     }
@@ -176,17 +297,44 @@ public abstract class StackChartPanel extends JPanel implements DetailChart, Hel
         dateAxis = new DateAxis();
         jFreeChart = ChartFactory.createStackedXYAreaChart("", xAxisLabel, yAxisLabel, categoryTableXYDataset,
                 PlotOrientation.VERTICAL, dateAxis, false, true, false);
-        chartPanel = new ChartPanel(jFreeChart);
+        chartPanel = new ChartPanel(jFreeChart) {
+            @Override
+            public void paintComponent(Graphics g) {
+                ChartRepaintEvent event = new ChartRepaintEvent();
+                event.begin();
+                long start = System.nanoTime();
+                super.paintComponent(g);
+                StageMetrics.record(Stage.REPAINT, profileTaskQueryKey, start);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.setKey(profileTaskQueryKey);
+                    event.table = queryInfo.getName();
+                    event.column = metric.getYAxis().getColName();
+                    event.series = categoryTableXYDataset.getSeriesCount();
+                    event.items = categoryTableXYDataset.getItemCount();
+                    event.commit();
+                }
+            }
+        };
 
         return chartPanel;
     }
 
+    /**
+     * Series ranked by accumulated count, a series which drops out of the top-K is folded into "Others"
+     */
     protected void fillSeries(List<StackedColumn> sColumnList) {
-        sColumnList.stream()
+        if (seriesTopK == null) {
+            seriesTopK = new TopKSeriesAggregator(chartInfo.getSeriesTopK(), 0);
+        }
+
+        Map<String, Long> weights = sColumnList.stream()
             .map(StackedColumn::getKeyCount)
-            .map(Map::keySet)
-            .flatMap(Collection::stream)
-            .forEach(series::add);
+            .flatMap(keyCount -> keyCount.entrySet().stream())
+            .collect(Collectors.groupingBy(Map.Entry::getKey, Collectors.summingLong(Map.Entry::getValue)));
+
+        seriesTopK.rank(series, weights)
+            .forEach(evicted -> stackedChart.foldSeries(evicted, TopKSeriesAggregator.OTHER));
     }
 
     protected void fillWithEmptyStackedChart(long beginRangeFill, long endRangeFill) {
@@ -257,18 +405,26 @@ public abstract class StackChartPanel extends JPanel implements DetailChart, Hel
     @Override
     public void fireOnStartCollect(ProfileTaskQueryKey profileTaskQueryKey) {
         log.info("Start collect for " + profileTaskQueryKey);
-        begin = sqlQueryState.getLastTimestamp(profileTaskQueryKey);
+        // Events come asynchronously and may be coalesced, so after the first collect
+        // the range continues from the end of the previous load
+        if (begin == 0) {
+            begin = sqlQueryState.getLastTimestamp(profileTaskQueryKey);
+        }
     }
 
     @Override
     public void fireOnStopCollect(ProfileTaskQueryKey profileTaskQueryKey) {
         log.info("Stop collect for " + profileTaskQueryKey);
 
+        ProfileTaskQueryKey previous = StageMetrics.bind(profileTaskQueryKey);
         try {
             end = sqlQueryState.getLastTimestamp(profileTaskQueryKey);
             this.loadData();
+            begin = end;
         } catch (Exception e) {
             log.catching(e);
+        } finally {
+            StageMetrics.restore(previous);
         }
     }
 
@@ -0,0 +1,210 @@
+package ru.rti.desktop.view.chart.stacked.function;
+
+import static ru.rti.desktop.model.function.MetricFunction.AVERAGE;
+import static ru.rti.desktop.model.function.MetricFunction.COUNT;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.log4j.Log4j2;
+import org.fbase.core.FStore;
+import org.fbase.exception.TableNameEmptyException;
+import org.fbase.model.output.StackedColumn;
+import org.fbase.model.profile.CProfile;
+import org.fbase.model.profile.TProfile;
+import ru.rti.desktop.exception.NotFoundException;
+import ru.rti.desktop.model.chart.ChartRange;
+import ru.rti.desktop.model.chart.TopKSeriesAggregator;
+import ru.rti.desktop.model.config.Metric;
+import ru.rti.desktop.model.info.QueryInfo;
+import ru.rti.desktop.model.info.gui.ChartInfo;
+import ru.rti.desktop.model.sql.AggregateTable;
+import ru.rti.desktop.view.chart.StackedChart;
+import ru.rti.desktop.view.chart.stacked.MetricFunctionDataHandler;
+
+/**
+ * COUNT, SUM and AVERAGE of the metric aggregated on the server, buckets of the companion
+ * table are added up instead of computing the function on raw rows
+ */
+@Log4j2
+public class AggregateMetricFunctionHandler extends MetricFunctionDataHandler {
+    private static final int WINDOW_BUCKETS = 300;
+
+    private final String tableName;
+
+    private TopKSeriesAggregator topKSeries;
+    private boolean rankFixed = false;
+
+    public AggregateMetricFunctionHandler(Metric metric, QueryInfo queryInfo, FStore fStore) {
+        super(metric, queryInfo, fStore);
+        this.tableName = AggregateTable.getTableName(queryInfo.getName(), metric);
+    }
+
+    @Override
+    public void fillSeriesDataForHistory(ChartInfo chartInfo, Set<String> series) {
+        if (!COUNT.equals(metric.getMetricFunction())) {
+            return;
+        }
+
+        ChartRange chartRange = getRange(chartInfo);
+
+        TopKSeriesAggregator topK = new TopKSeriesAggregator(chartInfo.getSeriesTopK(), 0);
+        Map<String, Long> counts = getCounts(chartRange.getBegin(), chartRange.getEnd());
+        counts.forEach(topK::offer);
+
+        Set<String> topKSeriesSet = topK.getTopKSeries();
+        series.addAll(topKSeriesSet);
+
+        if (counts.keySet().stream().anyMatch(seriesName -> !topKSeriesSet.contains(seriesName))) {
+            series.add(TopKSeriesAggregator.OTHER);
+        }
+
+        rankFixed = true;
+    }
+
+    @Override
+    public void handleFunction(ChartInfo chartInfo, long beginRange, long endRange,
+                               boolean isClientRealTime, long finalX, double yK,
+                               Set<String> series, StackedChart stackedChart) {
+        try {
+            if (!COUNT.equals(metric.getMetricFunction())) {
+                stackedChart.addSeriesValue(finalX, getLinearValue(beginRange, endRange, yK),
+                        metric.getYAxis().getColName());
+                return;
+            }
+
+            Map<String, Long> batchData = getCounts(beginRange, endRange);
+
+            if (!rankFixed) {
+                getTopKSeries(chartInfo).rank(series, batchData)
+                        .forEach(evicted -> stackedChart.foldSeries(evicted, TopKSeriesAggregator.OTHER));
+            }
+
+            Map<String, Long> counts = new HashMap<>();
+            batchData.forEach((seriesName, count) ->
+                    counts.merge(series.contains(seriesName) ? seriesName : TopKSeriesAggregator.OTHER,
+                            count, Long::sum));
+            if (counts.containsKey(TopKSeriesAggregator.OTHER)) {
+                series.add(TopKSeriesAggregator.OTHER);
+            }
+
+            series.forEach(seriesName -> {
+                stackedChart.setSeriesPaintDynamic(seriesName);
+                stackedChart.addSeriesValue(finalX, counts.getOrDefault(seriesName, 0L) / yK, seriesName);
+            });
+        } catch (Exception exception) {
+            log.info(exception);
+        }
+    }
+
+    @Override
+    public double getLinearValue(long beginRange, long endRange, double yK) {
+        long rowCount = 0;
+        double valueSum = 0D;
+
+        for (AggregateRow row : getRows(beginRange, endRange)) {
+            rowCount += row.rowCount();
+            valueSum += row.valueSum();
+        }
+
+        if (AVERAGE.equals(metric.getMetricFunction())) {
+            return rowCount == 0 ? 0D : valueSum / rowCount;
+        }
+
+        return valueSum / yK;
+    }
+
+    @Override
+    public Map<String, Double> getHistoryValues(long beginRange, long endRange, double yK, Set<String> series) {
+        if (!COUNT.equals(metric.getMetricFunction())) {
+            return super.getHistoryValues(beginRange, endRange, yK, series);
+        }
+
+        Map<String, Double> values = new LinkedHashMap<>();
+        series.forEach(seriesName -> values.put(seriesName, 0D));
+
+        getCounts(beginRange, endRange).forEach((seriesName, count) ->
+                values.merge(series.contains(seriesName) ? seriesName : TopKSeriesAggregator.OTHER,
+                        count / yK, Double::sum));
+
+        return values;
+    }
+
+    @Override
+    public List<StackedColumn> getSColumnList(long beginRange, long endRange) {
+        StackedColumn stackedColumn = new StackedColumn();
+        stackedColumn.setKey(beginRange);
+        stackedColumn.setTail(endRange);
+        stackedColumn.setKeyCount(new HashMap<>());
+
+        getCounts(beginRange, endRange).forEach((seriesName, count) ->
+                stackedColumn.getKeyCount().put(seriesName, Math.toIntExact(count)));
+
+        List<StackedColumn> sColumnList = new ArrayList<>();
+        sColumnList.add(stackedColumn);
+        return sColumnList;
+    }
+
+    @Override
+    public long getLastTimestamp() {
+        return fStore.getLastTimestamp(tableName, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    private Map<String, Long> getCounts(long beginRange, long endRange) {
+        Map<String, Long> counts = new HashMap<>();
+        getRows(beginRange, endRange).forEach(row -> counts.merge(row.series(), row.rowCount(), Long::sum));
+        return counts;
+    }
+
+    private TopKSeriesAggregator getTopKSeries(ChartInfo chartInfo) {
+        if (topKSeries == null) {
+            topKSeries = new TopKSeriesAggregator(chartInfo.getSeriesTopK(), WINDOW_BUCKETS);
+        }
+        return topKSeries;
+    }
+
+    private List<AggregateRow> getRows(long beginRange, long endRange) {
+        List<AggregateRow> rows = new ArrayList<>();
+
+        TProfile tProfile;
+        try {
+            tProfile = fStore.getTProfile(tableName);
+        } catch (TableNameEmptyException e) {
+            throw new RuntimeException(e);
+        }
+
+        if (tProfile == null || tProfile.getCProfiles() == null) {
+            return rows;
+        }
+
+        int seriesId = getColId(tProfile, AggregateTable.SERIES);
+        int rowCountId = getColId(tProfile, AggregateTable.ROW_COUNT);
+        int valueSumId = getColId(tProfile, AggregateTable.VALUE_SUM);
+
+        for (List<Object> row : fStore.getRawDataAll(tableName, beginRange, endRange)) {
+            try {
+                rows.add(new AggregateRow(String.valueOf(row.get(seriesId)),
+                        (long) Double.parseDouble(String.valueOf(row.get(rowCountId))),
+                        Double.parseDouble(String.valueOf(row.get(valueSumId)))));
+            } catch (Exception e) {
+                log.info(e);
+            }
+        }
+
+        return rows;
+    }
+
+    private static int getColId(TProfile tProfile, String colName) {
+        return tProfile.getCProfiles().stream()
+                .filter(cProfile -> colName.equalsIgnoreCase(cProfile.getColName()))
+                .mapToInt(CProfile::getColId)
+                .findAny()
+                .orElseThrow(() -> new NotFoundException("Not found column " + colName + " of table: " + tProfile.getTableName()));
+    }
+
+    private record AggregateRow(String series, long rowCount, double valueSum) {
+    }
+}
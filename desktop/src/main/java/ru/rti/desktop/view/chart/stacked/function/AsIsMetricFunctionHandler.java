@@ -1,12 +1,15 @@
 package ru.rti.desktop.view.chart.stacked.function;
 
 import org.fbase.core.FStore;
+import ru.rti.desktop.model.chart.AsIsValueTyped;
 import ru.rti.desktop.model.config.Metric;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.info.gui.ChartInfo;
 import ru.rti.desktop.view.chart.StackedChart;
 import ru.rti.desktop.view.chart.stacked.MetricFunctionDataHandler;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class AsIsMetricFunctionHandler extends MetricFunctionDataHandler {
@@ -25,4 +28,15 @@ public class AsIsMetricFunctionHandler extends MetricFunctionDataHandler {
 
     }
 
+    @Override
+    public Map<String, Double> getHistoryValues(long beginRange, long endRange, double yK, Set<String> series) {
+        return Map.of();
+    }
+
+    @Override
+    public double getLinearValue(long beginRange, long endRange, double yK) {
+        List<AsIsValueTyped> values = getRawValues(beginRange, endRange);
+        return values.isEmpty() ? 0D : values.get(values.size() - 1).getValue();
+    }
+
 }
@@ -1,11 +1,13 @@
 package ru.rti.desktop.view.chart.stacked.function;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.OptionalDouble;
+import java.util.function.BooleanSupplier;
 import lombok.extern.log4j.Log4j2;
 import org.fbase.core.FStore;
+import ru.rti.desktop.helper.DownsampleHelper;
 import ru.rti.desktop.model.chart.AsIsValueTyped;
+import ru.rti.desktop.model.chart.ChartRange;
 import ru.rti.desktop.model.config.Metric;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.info.gui.ChartInfo;
@@ -29,14 +31,8 @@ public class AverageMetricFunctionHandler extends MetricFunctionDataHandler {
     public void handleFunction(ChartInfo chartInfo, long beginRange, long endRange, boolean isClientRealTime,
         long finalX, double yK, Set<String> series, StackedChart stackedChart) {
 
-        List<List<Object>> rawDataByColumn =
-            fStore.getRawDataByColumn(queryInfo.getName(), metric.getYAxis(), beginRange, endRange);
-
         try {
-            List<AsIsValueTyped> objectsAll = new ArrayList<>();
-            for (List<Object> objects : rawDataByColumn) {
-                objectsAll.add(new AsIsValueTyped((Long) objects.get(0), Double.parseDouble((String) objects.get(1))));
-            }
+            List<AsIsValueTyped> objectsAll = getRawValues(beginRange, endRange);
 
             long x;
 
@@ -58,4 +54,18 @@ public class AverageMetricFunctionHandler extends MetricFunctionDataHandler {
 
     }
 
+    @Override
+    public double getLinearValue(long beginRange, long endRange, double yK) {
+        return getRawValues(beginRange, endRange).stream()
+            .mapToDouble(AsIsValueTyped::getValue)
+            .average()
+            .orElse(0D);
+    }
+
+    @Override
+    public List<AsIsValueTyped> getLinearData(ChartRange chartRange, long step, BooleanSupplier cancelled) {
+        return DownsampleHelper.aggregate(getRawValues(chartRange.getBegin(), chartRange.getEnd()),
+            chartRange.getBegin(), chartRange.getEnd(), step, values -> values.average().orElse(0D));
+    }
+
 }
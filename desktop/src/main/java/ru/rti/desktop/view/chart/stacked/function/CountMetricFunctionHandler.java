@@ -2,10 +2,10 @@ package ru.rti.desktop.view.chart.stacked.function;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.IntSummaryStatistics;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.extern.log4j.Log4j2;
@@ -13,8 +13,8 @@ import org.fbase.core.FStore;
 import org.fbase.exception.BeginEndWrongOrderException;
 import org.fbase.exception.SqlColMetadataException;
 import org.fbase.model.output.StackedColumn;
-import ru.rti.desktop.exception.SeriesExceedException;
 import ru.rti.desktop.model.chart.ChartRange;
+import ru.rti.desktop.model.chart.TopKSeriesAggregator;
 import ru.rti.desktop.model.config.Metric;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.info.gui.ChartInfo;
@@ -23,6 +23,11 @@ import ru.rti.desktop.view.chart.stacked.MetricFunctionDataHandler;
 
 @Log4j2
 public class CountMetricFunctionHandler extends MetricFunctionDataHandler {
+    private static final int WINDOW_BUCKETS = 300;
+
+    private TopKSeriesAggregator topKSeries;
+    private boolean rankFixed = false;
+
     public CountMetricFunctionHandler(Metric metric, QueryInfo queryInfo, FStore fStore) {
         super(metric, queryInfo, fStore);
     }
@@ -37,11 +42,25 @@ public class CountMetricFunctionHandler extends MetricFunctionDataHandler {
                     fStore.getSColumnListByCProfile(queryInfo.getName(),  metric.getYAxis(),
                             chartRange.getBegin(), chartRange.getEnd()));
 
+            TopKSeriesAggregator topK = getTopKSeries(chartInfo);
             sColumnList.stream()
+                    .map(StackedColumn::getKeyCount)
+                    .flatMap(sc -> sc.entrySet().stream())
+                    .forEach(e -> topK.offer(e.getKey(), e.getValue()));
+
+            Set<String> topKSeriesSet = topK.getTopKSeries();
+            series.addAll(topKSeriesSet);
+
+            boolean hasOther = sColumnList.stream()
                     .map(StackedColumn::getKeyCount)
                     .map(Map::keySet)
                     .flatMap(Collection::stream)
-                    .forEach(series::add);
+                    .anyMatch(seriesName -> !topKSeriesSet.contains(seriesName));
+            if (hasOther) {
+                series.add(TopKSeriesAggregator.OTHER);
+            }
+
+            rankFixed = true;
         } catch (SqlColMetadataException | BeginEndWrongOrderException e) {
             log.error(e);
             throw new RuntimeException(e);
@@ -64,23 +83,27 @@ public class CountMetricFunctionHandler extends MetricFunctionDataHandler {
                 x = finalX;
             }
 
-            checkSeriesCount(series);
-            fillSeries(sColumnList, series);
-            checkSeriesCount(series);
-
-            Map<String, IntSummaryStatistics> batchData = sColumnList.stream()
-                    .toList()
-                    .stream()
+            Map<String, Long> batchData = sColumnList.stream()
                     .map(StackedColumn::getKeyCount)
                     .flatMap(sc -> sc.entrySet().stream())
-                    .collect(Collectors.groupingBy(Map.Entry::getKey, Collectors.summarizingInt(Map.Entry::getValue)));
+                    .collect(Collectors.groupingBy(Map.Entry::getKey, Collectors.summingLong(Map.Entry::getValue)));
+
+            if (!rankFixed) {
+                rankSeries(chartInfo, batchData, series, stackedChart);
+            }
+
+            Map<String, Long> batchDataTopK = getBatchDataTopK(batchData, series);
+
+            if (batchDataTopK.containsKey(TopKSeriesAggregator.OTHER)) {
+                series.add(TopKSeriesAggregator.OTHER);
+            }
 
             series.forEach(seriesName -> {
-                Optional<IntSummaryStatistics> batch = Optional.ofNullable(batchData.get(seriesName));
+                long batch = batchDataTopK.getOrDefault(seriesName, 0L);
                 stackedChart.setSeriesPaintDynamic(seriesName);
 
                 try {
-                    double y = sColumnList.size() == 0 ? 0D : ((double) batch.map(IntSummaryStatistics::getSum).orElse(0L) / (yK));
+                    double y = sColumnList.size() == 0 ? 0D : ((double) batch / (yK));
 
                     stackedChart.addSeriesValue(x, y, seriesName);
                 } catch (Exception exception) {
@@ -93,10 +116,67 @@ public class CountMetricFunctionHandler extends MetricFunctionDataHandler {
         }
     }
 
-    private void checkSeriesCount(Set<String> series) {
-        if (series.size() > 50) {
-           throw new SeriesExceedException("Column data series exceeds 50. Not supported to show stacked data..");
+    @Override
+    public Map<String, Double> getHistoryValues(long beginRange, long endRange, double yK, Set<String> series) {
+        try {
+            List<StackedColumn> sColumnList = fStore.getSColumnListByCProfile(queryInfo.getName(), metric.getYAxis(), beginRange, endRange);
+            sColumnList.removeIf(stackedColumn -> stackedColumn.getKeyCount().isEmpty());
+
+            Map<String, Long> batchData = sColumnList.stream()
+                    .map(StackedColumn::getKeyCount)
+                    .flatMap(sc -> sc.entrySet().stream())
+                    .collect(Collectors.groupingBy(Map.Entry::getKey, Collectors.summingLong(Map.Entry::getValue)));
+
+            Map<String, Long> batchDataTopK = getBatchDataTopK(batchData, series);
+
+            Map<String, Double> values = new LinkedHashMap<>();
+            series.forEach(seriesName -> values.put(seriesName, 0D));
+            batchDataTopK.forEach((seriesName, batch) -> values.put(seriesName, (double) batch / yK));
+
+            return values;
+        } catch (SqlColMetadataException | BeginEndWrongOrderException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public double getLinearValue(long beginRange, long endRange, double yK) {
+        try {
+            return fStore.getSColumnListByCProfile(queryInfo.getName(), metric.getYAxis(), beginRange, endRange).stream()
+                    .map(StackedColumn::getKeyCount)
+                    .flatMap(sc -> sc.values().stream())
+                    .mapToLong(Integer::longValue)
+                    .sum() / yK;
+        } catch (SqlColMetadataException | BeginEndWrongOrderException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Map<String, Long> getBatchDataTopK(Map<String, Long> batchData, Set<String> series) {
+        Map<String, Long> batchDataTopK = new HashMap<>();
+        batchData.forEach((seriesName, count) ->
+                batchDataTopK.merge(series.contains(seriesName) ? seriesName : TopKSeriesAggregator.OTHER,
+                        count, Long::sum));
+        return batchDataTopK;
+    }
+
+    /**
+     * Re-rank series as the real time window slides, a series which drops out of the top-K
+     * gives its slot to a new heavy hitter and its values are folded into "Others"
+     */
+    private void rankSeries(ChartInfo chartInfo, Map<String, Long> batchData,
+                            Set<String> series, StackedChart stackedChart) {
+        getTopKSeries(chartInfo).rank(series, batchData).forEach(evicted -> {
+            log.info("Series " + evicted + " is folded into " + TopKSeriesAggregator.OTHER);
+            stackedChart.foldSeries(evicted, TopKSeriesAggregator.OTHER);
+        });
+    }
+
+    private TopKSeriesAggregator getTopKSeries(ChartInfo chartInfo) {
+        if (topKSeries == null) {
+            topKSeries = new TopKSeriesAggregator(chartInfo.getSeriesTopK(), WINDOW_BUCKETS);
         }
+        return topKSeries;
     }
 
 }
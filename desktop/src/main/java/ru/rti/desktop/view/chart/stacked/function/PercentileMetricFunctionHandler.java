@@ -0,0 +1,57 @@
+package ru.rti.desktop.view.chart.stacked.function;
+
+import java.util.Set;
+import lombok.extern.log4j.Log4j2;
+import org.fbase.core.FStore;
+import ru.rti.desktop.model.chart.QuantileSketch;
+import ru.rti.desktop.model.config.Metric;
+import ru.rti.desktop.model.info.QueryInfo;
+import ru.rti.desktop.model.info.gui.ChartInfo;
+import ru.rti.desktop.view.chart.StackedChart;
+import ru.rti.desktop.view.chart.stacked.MetricFunctionDataHandler;
+import ru.rti.desktop.warehouse.LocalDB;
+import ru.rti.desktop.warehouse.SketchRollup;
+
+@Log4j2
+public class PercentileMetricFunctionHandler extends MetricFunctionDataHandler {
+    private final double quantile;
+    private final SketchRollup sketchRollup;
+
+    public PercentileMetricFunctionHandler(Metric metric, QueryInfo queryInfo, FStore fStore) {
+        super(metric, queryInfo, fStore);
+        this.quantile = metric.getMetricFunction().getQuantile();
+        this.sketchRollup = fStore instanceof LocalDB localDB ? localDB.getSketchRollup() : new SketchRollup(fStore);
+    }
+
+    @Override
+    public void fillSeriesDataForHistory(ChartInfo chartInfo, Set<String> series) {
+
+    }
+
+    @Override
+    public void handleFunction(ChartInfo chartInfo, long beginRange, long endRange, boolean isClientRealTime,
+        long finalX, double yK, Set<String> series, StackedChart stackedChart) {
+
+        try {
+            QuantileSketch sketch = sketchRollup.getSketch(queryInfo.getName(), metric.getYAxis(), beginRange, endRange);
+
+            stackedChart.addSeriesValue(finalX, getValue(sketch), metric.getYAxis().getColName());
+
+        } catch (Exception exception) {
+            log.info(exception);
+        }
+    }
+
+    @Override
+    public double getLinearValue(long beginRange, long endRange, double yK) {
+        return getValue(sketchRollup.getSketch(queryInfo.getName(), metric.getYAxis(), beginRange, endRange));
+    }
+
+    private double getValue(QuantileSketch sketch) {
+        if (sketch.isEmpty()) {
+            return 0D;
+        }
+        return quantile >= 1 ? sketch.getMax() : sketch.getQuantile(quantile);
+    }
+
+}
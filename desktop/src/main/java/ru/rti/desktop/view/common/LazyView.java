@@ -0,0 +1,33 @@
+package ru.rti.desktop.view.common;
+
+import dagger.Lazy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * View which is built with its presenter and handlers on first navigation to it
+ */
+@Log4j2
+public class LazyView<V extends BaseView> {
+    private final Lazy<V> view;
+    private final String name;
+    private volatile boolean bound;
+
+    public LazyView(Lazy<V> view, String name) {
+        this.view = view;
+        this.name = name;
+    }
+
+    public V get() {
+        if (!bound) {
+            synchronized (this) {
+                if (!bound) {
+                    long start = System.currentTimeMillis();
+                    view.get().bindPresenter();
+                    bound = true;
+                    log.info("View " + name + " is built in " + (System.currentTimeMillis() - start) + " ms");
+                }
+            }
+        }
+        return view.get();
+    }
+}
@@ -0,0 +1,132 @@
+package ru.rti.desktop.view.detail;
+
+import java.awt.Component;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import lombok.extern.log4j.Log4j2;
+import org.fbase.core.FStore;
+import org.fbase.model.profile.CProfile;
+import ru.rti.desktop.model.ExportFormat;
+import ru.rti.desktop.warehouse.RawDataExporter;
+
+/**
+ * Export raw data of the selected range to a file on a background worker with progress
+ */
+@Log4j2
+public class RawDataExportButton extends JButton {
+
+  private static final int PROGRESS_MAX = 1000;
+
+  private final FStore fStore;
+  private final String tableName;
+  private final List<CProfile> cProfiles;
+  private final long begin;
+  private final long end;
+
+  public RawDataExportButton(FStore fStore, String tableName, List<CProfile> cProfiles, long begin, long end) {
+    super("Export..");
+    this.fStore = fStore;
+    this.tableName = tableName;
+    this.cProfiles = cProfiles;
+    this.begin = begin;
+    this.end = end;
+
+    this.addActionListener(e -> export());
+  }
+
+  private void export() {
+    JFileChooser fileChooser = new JFileChooser();
+    fileChooser.setDialogTitle("Export raw data");
+    fileChooser.setAcceptAllFileFilterUsed(false);
+
+    for (ExportFormat format : ExportFormat.values()) {
+      fileChooser.addChoosableFileFilter(new FileNameExtensionFilter(format.getDescription(), format.getExtension()));
+    }
+    fileChooser.setSelectedFile(new File(tableName + "." + ExportFormat.CSV.getExtension()));
+
+    if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+
+    ExportFormat format = getFormat(fileChooser);
+
+    File file = fileChooser.getSelectedFile();
+    if (!file.getName().toLowerCase().endsWith("." + format.getExtension())) {
+      file = new File(file.getParentFile(), file.getName() + "." + format.getExtension());
+    }
+    Path path = file.toPath();
+
+    Component parent = this;
+    ProgressMonitor progressMonitor = new ProgressMonitor(parent, "Exporting " + tableName + " to " + path,
+        "", 0, PROGRESS_MAX);
+    progressMonitor.setMillisToDecideToPopup(200);
+
+    SwingWorker<Long, Void> worker = new SwingWorker<>() {
+      @Override
+      protected Long doInBackground() throws Exception {
+        return new RawDataExporter(fStore).export(tableName, cProfiles, begin, end, path, format,
+            new RawDataExporter.ExportProgress() {
+              @Override
+              public void update(long rows, long lastTimestamp) {
+                int progress = end > begin && lastTimestamp >= begin
+                    ? (int) Math.min(PROGRESS_MAX - 1, (lastTimestamp - begin) * PROGRESS_MAX / (end - begin))
+                    : 0;
+                SwingUtilities.invokeLater(() -> {
+                  progressMonitor.setNote("Rows: " + rows);
+                  progressMonitor.setProgress(progress);
+                });
+              }
+
+              @Override
+              public boolean isCancelled() {
+                return progressMonitor.isCanceled();
+              }
+            });
+      }
+
+      @Override
+      protected void done() {
+        progressMonitor.close();
+        try {
+          long rows = get();
+          JOptionPane.showMessageDialog(parent, "Exported " + rows + " rows to " + path,
+              "Information", JOptionPane.INFORMATION_MESSAGE);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof CancellationException) {
+            JOptionPane.showMessageDialog(parent, "Export is cancelled, the partial file " + path + " is deleted",
+                "Information", JOptionPane.INFORMATION_MESSAGE);
+            return;
+          }
+          log.catching(e.getCause());
+          JOptionPane.showMessageDialog(parent, "Export failed, the partial file " + path + " is deleted: "
+              + e.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+      }
+    };
+
+    worker.execute();
+  }
+
+  private ExportFormat getFormat(JFileChooser fileChooser) {
+    if (fileChooser.getFileFilter() instanceof FileNameExtensionFilter filter) {
+      for (ExportFormat format : ExportFormat.values()) {
+        if (format.getExtension().equals(filter.getExtensions()[0])) {
+          return format;
+        }
+      }
+    }
+    return ExportFormat.CSV;
+  }
+}
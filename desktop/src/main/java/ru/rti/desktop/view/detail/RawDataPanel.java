@@ -6,10 +6,7 @@ import java.awt.Component;
 import java.awt.FlowLayout;
 import java.awt.KeyboardFocusManager;
 import java.awt.event.ActionEvent;
-import java.sql.Date;
-import java.text.SimpleDateFormat;
-import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.time.Instant;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.swing.Action;
@@ -25,23 +22,23 @@ import javax.swing.ScrollPaneConstants;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
 import lombok.extern.log4j.Log4j2;
 import org.fbase.core.FStore;
 import org.fbase.model.profile.CProfile;
-import org.fbase.sql.BatchResultSet;
 import org.jdesktop.swingx.JXCollapsiblePane;
 import org.jdesktop.swingx.JXFindBar;
 import org.jdesktop.swingx.JXPanel;
 import org.jdesktop.swingx.JXTable;
 import org.jdesktop.swingx.action.AbstractActionExt;
 import org.jdesktop.swingx.search.AbstractSearchable;
-import org.jdesktop.swingx.search.SearchFactory;
 import ru.rti.desktop.config.prototype.detail.WorkspaceRawModule;
 import ru.rti.desktop.config.prototype.query.WorkspaceQueryComponent;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.info.TableInfo;
 import ru.rti.desktop.router.event.EventListener;
+import ru.rti.desktop.view.detail.searchable.BackgroundFindBar;
+import ru.rti.desktop.view.detail.searchable.BackgroundTableSearchable;
 import ru.rti.desktop.view.detail.searchable.DecoratorFactory;
 import ru.rti.desktop.view.detail.searchable.MatchingTextHighlighter;
 import ru.rti.desktop.view.detail.searchable.XMatchingTextHighlighter;
@@ -56,7 +53,8 @@ public class RawDataPanel extends JPanel {
   private final JXTable table;
   private final JXFindBar findBar;
   private final ResultSetRawDataJPanel resultSetRawDataJPanel;
-  private final DefaultTableModel tableModel;
+  private final RawDataTableModel tableModel;
+  private final RawDataExportButton exportButton;
 
   private final WorkspaceQueryComponent workspaceQueryComponent;
 
@@ -69,8 +67,6 @@ public class RawDataPanel extends JPanel {
 
   private boolean hasData = false;
 
-  private BatchResultSet batchResultSet;
-
   @Inject
   @Named("eventListener")
   EventListener eventListener;
@@ -96,20 +92,21 @@ public class RawDataPanel extends JPanel {
 
     this.resultSetRawDataJPanel = new ResultSetRawDataJPanel(jLabelRowCount);
 
-    if (useFetchSize) {
-      batchResultSet = fStore.getBatchResultSet(queryInfo.getName(), begin, end, fetchSize);
-    }
-
-    this.tableModel = new DefaultTableModel(getColumnHeaders(), 0);
-    this.loadRawData(queryInfo.getName(), begin, end);
+    this.tableModel = new RawDataTableModel(fStore, queryInfo.getName(), tableInfo.getCProfiles(), begin, end, fetchSize);
+    this.tableModel.addTableModelListener(e -> updateRowCount());
+    this.loadRawData(begin, end);
 
     this.table = new JXTable(tableModel);
 
     this.table.setColumnControlVisible(true);
     this.table.setHorizontalScrollEnabled(true);
+    // rows come in timestamp order, sorting a paged model would read every page through the cache
+    this.table.setSortable(false);
     this.table.packAll();
 
-    this.findBar = SearchFactory.getInstance().createFindBar();
+    this.table.setSearchable(new BackgroundTableSearchable(this.table));
+    this.findBar = new BackgroundFindBar();
+    this.exportButton = new RawDataExportButton(fStore, queryInfo.getName(), tableInfo.getCProfiles(), begin, end);
 
     MatchingTextHighlighter matchingTextMarker = new XMatchingTextHighlighter();
     matchingTextMarker.setPainter(DecoratorFactory.createPlainPainter());
@@ -133,67 +130,34 @@ public class RawDataPanel extends JPanel {
     this.add(searchablePanel, BorderLayout.CENTER);
   }
 
-  private void loadRawData(String tableName, long begin, long end) {
+  private void loadRawData(long begin, long end) {
     log.info("Parameters begin: {}, end: {}", getDate(begin), getDate(end));
 
-    List<List<Object>> rawData;
-    if (useFetchSize) {
-      rawData = batchResultSet.getObject();
-    } else {
-      rawData = fStore.getRawDataAll(tableName, begin, end);
-    }
-
-    if (!rawData.isEmpty()) hasData = true;
+    if (tableModel.fetchNextPage() > 0) hasData = true;
 
-    loadToModel(rawData);
+    updateRowCount();
   }
 
-  private void loadToModel(List<List<Object>> rawData) {
-    List<CProfile> timeStampIndex = tableInfo.getCProfiles()
-        .stream()
-        .filter(f -> (f.getCsType().isTimeStamp() || f.getColDbTypeName().contains("TIMESTAMP")))
-        .toList();
-
-    if (rawData == null || rawData.isEmpty()) {
-      if (useFetchSize) {
-        if (hasData) {
-          JOptionPane.showMessageDialog(this,
-              "No raw data found", "Warning", JOptionPane.WARNING_MESSAGE);
-        }
-      } else {
-        log.warn("No raw data found");
+  private void loadNextPage() {
+    if (tableModel.fetchNextPage() == 0) {
+      if (hasData) {
+        JOptionPane.showMessageDialog(this,
+            "No raw data found", "Warning", JOptionPane.WARNING_MESSAGE);
       }
     } else {
-      rowCount = rowCount + rawData.size();
-      resultSetRawDataJPanel.updateJLabelRowCount(rowCount);
-
-      rawData.forEach(row -> {
-        Object[] rawObj = row.toArray();
-
-        timeStampIndex.forEach(cProfile -> {
-          if (cProfile.getCsType().isTimeStamp()) {
-            rawObj[cProfile.getColId()] = getDate((Long) rawObj[cProfile.getColId()]);
-          }
-        });
-
-        tableModel.addRow(rawObj);
-      });
+      hasData = true;
     }
-  }
 
-  private String getDate(long l) {
-    SimpleDateFormat dateFormat = new SimpleDateFormat("dd.MM.yyyy HH:mm:ss");
-    Date date = new Date(l);
-    return dateFormat.format(date);
+    updateRowCount();
   }
 
-  private String[] getColumnHeaders() {
-    String[] columnHeaders = new String[tableInfo.getCProfiles().size()];
-    AtomicInteger at = new AtomicInteger(0);
-
-    tableInfo.getCProfiles().forEach(e -> columnHeaders[at.getAndIncrement()] = e.getColName());
+  private void updateRowCount() {
+    rowCount = tableModel.getRowCount();
+    resultSetRawDataJPanel.updateJLabelRowCount(rowCount);
+  }
 
-    return columnHeaders;
+  private String getDate(long l) {
+    return RawDataTableModel.DATE_FORMATTER.format(Instant.ofEpochMilli(l));
   }
 
   private JXCollapsiblePane connectCollapsibleFindBarWithTable() {
@@ -202,6 +166,7 @@ public class RawDataPanel extends JPanel {
     } else {
       this.findBar.add(jLabelRowCount);
     }
+    this.findBar.add(exportButton);
 
     final JXCollapsiblePane collapsible = new JXCollapsiblePane();
     this.table.putClientProperty(AbstractSearchable.MATCH_HIGHLIGHTER, Boolean.TRUE);
@@ -230,9 +195,9 @@ public class RawDataPanel extends JPanel {
 
   private class CustomRenderer extends DefaultTableCellRenderer {
 
-    private final DefaultTableModel model;
+    private final TableModel model;
 
-    public CustomRenderer(DefaultTableModel model) {
+    public CustomRenderer(TableModel model) {
       this.model = model;
     }
 
@@ -270,7 +235,7 @@ public class RawDataPanel extends JPanel {
       this.findNext.addActionListener(e -> {
         if (e.getSource() == this.findNext) {
           log.info("Fetch next batch of " + fetchSize + " rows..");
-          loadToModel(batchResultSet.getObject());
+          loadNextPage();
         }
       });
 
@@ -10,12 +10,13 @@ import org.jdesktop.swingx.JXPanel;
 import org.jdesktop.swingx.JXTable;
 import org.jdesktop.swingx.action.AbstractActionExt;
 import org.jdesktop.swingx.search.AbstractSearchable;
-import org.jdesktop.swingx.search.SearchFactory;
 import ru.rti.desktop.config.prototype.detail.WorkspaceRawModule;
 import ru.rti.desktop.config.prototype.query.WorkspaceQueryComponent;
 import ru.rti.desktop.model.info.QueryInfo;
 import ru.rti.desktop.model.info.TableInfo;
 import ru.rti.desktop.router.event.EventListener;
+import ru.rti.desktop.view.detail.searchable.BackgroundFindBar;
+import ru.rti.desktop.view.detail.searchable.BackgroundTableSearchable;
 import ru.rti.desktop.view.detail.searchable.DecoratorFactory;
 import ru.rti.desktop.view.detail.searchable.MatchingTextHighlighter;
 import ru.rti.desktop.view.detail.searchable.XMatchingTextHighlighter;
@@ -45,6 +46,7 @@ public class RawDataReportPanel extends JPanel {
     private final JXFindBar findBar;
     private final ResultSetRawDataJPanel resultSetRawDataJPanel;
     private final DefaultTableModel tableModel;
+    private final RawDataExportButton exportButton;
 
     private final boolean useFetchSize;
     private int fetchSize = 1000;
@@ -95,7 +97,9 @@ public class RawDataReportPanel extends JPanel {
         this.table.setHorizontalScrollEnabled(true);
         this.table.packAll();
 
-        this.findBar = SearchFactory.getInstance().createFindBar();
+        this.table.setSearchable(new BackgroundTableSearchable(this.table));
+        this.findBar = new BackgroundFindBar();
+        this.exportButton = new RawDataExportButton(fStore, queryInfo.getName(), tableInfo.getCProfiles(), begin, end);
 
         MatchingTextHighlighter matchingTextMarker = new XMatchingTextHighlighter();
         matchingTextMarker.setPainter(DecoratorFactory.createPlainPainter());
@@ -188,6 +192,7 @@ public class RawDataReportPanel extends JPanel {
         } else {
             this.findBar.add(jLabelRowCount);
         }
+        this.findBar.add(exportButton);
 
         final JXCollapsiblePane collapsible = new JXCollapsiblePane();
         this.table.putClientProperty(AbstractSearchable.MATCH_HIGHLIGHTER, Boolean.TRUE);
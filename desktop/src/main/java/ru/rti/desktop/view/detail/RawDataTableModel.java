@@ -0,0 +1,338 @@
+package ru.rti.desktop.view.detail;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import lombok.AllArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.fbase.core.FStore;
+import org.fbase.model.profile.CProfile;
+import org.fbase.sql.BatchResultSet;
+import ru.rti.desktop.view.detail.searchable.ScannableTableModel;
+
+/**
+ * Table model for raw data backed by a LocalDB cursor. Rows are fetched page by page as the
+ * table asks for them, only a bounded number of pages is kept in memory and an evicted page
+ * is read again from its first timestamp. Pages are read on the loader thread, the model state
+ * is changed only on EDT together with the event of the change.
+ */
+@Log4j2
+public class RawDataTableModel extends AbstractTableModel implements ScannableTableModel {
+
+  public static final DateTimeFormatter DATE_FORMATTER =
+      DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss").withZone(ZoneId.systemDefault());
+
+  /**
+   * Cell value of a row which page is being read again
+   */
+  public static final String LOADING = "...";
+
+  private static final int MAX_CACHED_PAGES = 10;
+
+  private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "raw-data-loader");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final FStore fStore;
+  private final String tableName;
+  private final long begin;
+  private final long end;
+  private final int pageSize;
+
+  private final String[] columnNames;
+  private final boolean[] timestampColumns;
+  private final int timestampIndex;
+
+  private final BatchResultSet batchResultSet;
+  private final List<Page> pages = new CopyOnWriteArrayList<>();
+  private final Map<Integer, List<List<Object>>> pageCache;
+  private final Set<Integer> pagesLoading = Collections.synchronizedSet(new HashSet<>());
+
+  private volatile int rowCount = 0;
+  private volatile boolean hasMore = true;
+  private volatile boolean fetching = false;
+
+  public RawDataTableModel(FStore fStore, String tableName, List<CProfile> cProfiles,
+                           long begin, long end, int pageSize) {
+    this.fStore = fStore;
+    this.tableName = tableName;
+    this.begin = begin;
+    this.end = end;
+    this.pageSize = pageSize;
+
+    this.columnNames = cProfiles.stream().map(CProfile::getColName).toArray(String[]::new);
+    this.timestampColumns = new boolean[columnNames.length];
+    cProfiles.stream()
+        .filter(f -> f.getCsType().isTimeStamp())
+        .filter(f -> f.getColId() < columnNames.length)
+        .forEach(f -> timestampColumns[f.getColId()] = true);
+    this.timestampIndex = cProfiles.stream()
+        .filter(f -> f.getCsType().isTimeStamp())
+        .mapToInt(CProfile::getColId)
+        .findFirst()
+        .orElse(-1);
+
+    this.pageCache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, List<List<Object>>> eldest) {
+        return size() > MAX_CACHED_PAGES;
+      }
+    };
+
+    this.batchResultSet = fStore.getBatchResultSet(tableName, begin, end, pageSize);
+  }
+
+  @Override
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return columnNames.length;
+  }
+
+  @Override
+  public String getColumnName(int column) {
+    return columnNames[column];
+  }
+
+  @Override
+  public boolean isCellEditable(int rowIndex, int columnIndex) {
+    return false;
+  }
+
+  @Override
+  public Object getValueAt(int rowIndex, int columnIndex) {
+    int pageIndex = getPageIndex(rowIndex);
+
+    if (hasMore && pageIndex == pages.size() - 1) {
+      fetchNextPageAsync();
+    }
+
+    List<List<Object>> rows;
+    synchronized (pageCache) {
+      rows = pageCache.get(pageIndex);
+    }
+
+    if (rows == null) {
+      reloadPageAsync(pageIndex);
+      return LOADING;
+    }
+
+    return getShownValue(rows.get(rowIndex - pages.get(pageIndex).offset).get(columnIndex), columnIndex);
+  }
+
+  /**
+   * Rows are read with a cursor of their own in the order of the model cursor
+   */
+  @Override
+  public void scanRows(RowConsumer rowConsumer) {
+    BatchResultSet scanResultSet = fStore.getBatchResultSet(tableName, begin, end, pageSize);
+
+    int row = 0;
+    List<List<Object>> rows;
+    while ((rows = scanResultSet.getObject()) != null && !rows.isEmpty()) {
+      for (List<Object> values : rows) {
+        List<Object> shownValues = new ArrayList<>(values.size());
+        for (int column = 0; column < values.size(); column++) {
+          shownValues.add(getShownValue(values.get(column), column));
+        }
+
+        if (!rowConsumer.accept(row++, shownValues)) {
+          return;
+        }
+      }
+    }
+  }
+
+  public boolean hasMore() {
+    return hasMore;
+  }
+
+  /**
+   * Read the next page from the cursor on the caller thread, the rows are added to the model on EDT
+   *
+   * @return number of rows read
+   */
+  public int fetchNextPage() {
+    synchronized (batchResultSet) {
+      if (!hasMore) {
+        return 0;
+      }
+
+      List<List<Object>> rows = batchResultSet.getObject();
+
+      if (rows == null || rows.isEmpty()) {
+        hasMore = false;
+        return 0;
+      }
+
+      if (rows.size() < pageSize) {
+        hasMore = false;
+      }
+
+      runOnEdt(() -> {
+        int firstRow = rowCount;
+        addPage(rows);
+        fireTableRowsInserted(firstRow, firstRow + rows.size() - 1);
+      });
+
+      return rows.size();
+    }
+  }
+
+  private void fetchNextPageAsync() {
+    if (fetching) {
+      return;
+    }
+    fetching = true;
+
+    LOADER.submit(() -> {
+      try {
+        fetchNextPage();
+      } catch (Exception e) {
+        log.catching(e);
+      } finally {
+        fetching = false;
+      }
+    });
+  }
+
+  private void addPage(List<List<Object>> rows) {
+    long firstTimestamp = getTimestamp(rows.get(0));
+    int skip = 0;
+
+    if (!pages.isEmpty()) {
+      Page previous = pages.get(pages.size() - 1);
+      if (previous.lastTimestamp == firstTimestamp) {
+        skip = previous.lastTimestampRun + (previous.firstTimestamp == firstTimestamp ? previous.skip : 0);
+      }
+    }
+
+    long lastTimestamp = getTimestamp(rows.get(rows.size() - 1));
+    int lastTimestampRun = 0;
+    for (int i = rows.size() - 1; i >= 0 && getTimestamp(rows.get(i)) == lastTimestamp; i--) {
+      lastTimestampRun++;
+    }
+
+    Page page = new Page(rowCount, rows.size(), firstTimestamp, skip, lastTimestamp, lastTimestampRun);
+
+    synchronized (pageCache) {
+      pageCache.put(pages.size(), rows);
+    }
+    pages.add(page);
+
+    rowCount += rows.size();
+  }
+
+  /**
+   * Read an evicted page again starting from its first timestamp, rows of the same timestamp
+   * which belong to previous pages are skipped
+   */
+  private void reloadPageAsync(int pageIndex) {
+    if (!pagesLoading.add(pageIndex)) {
+      return;
+    }
+
+    LOADER.submit(() -> {
+      try {
+        Page page = pages.get(pageIndex);
+
+        BatchResultSet pageResultSet = fStore.getBatchResultSet(tableName, page.firstTimestamp, end,
+            page.skip + page.size);
+
+        List<List<Object>> rows = new ArrayList<>(page.skip + page.size);
+        while (rows.size() < page.skip + page.size) {
+          List<List<Object>> batch = pageResultSet.getObject();
+          if (batch == null || batch.isEmpty()) {
+            break;
+          }
+          rows.addAll(batch);
+        }
+
+        List<List<Object>> pageRows = new ArrayList<>(
+            rows.subList(Math.min(page.skip, rows.size()), Math.min(page.skip + page.size, rows.size())));
+
+        while (pageRows.size() < page.size) {
+          pageRows.add(Collections.nCopies(columnNames.length, null));
+        }
+
+        runOnEdt(() -> {
+          synchronized (pageCache) {
+            pageCache.put(pageIndex, pageRows);
+          }
+          pagesLoading.remove(pageIndex);
+          fireTableRowsUpdated(page.offset, page.offset + page.size - 1);
+        });
+      } catch (Exception e) {
+        log.catching(e);
+        pagesLoading.remove(pageIndex);
+      }
+    });
+  }
+
+  private Object getShownValue(Object value, int columnIndex) {
+    if (columnIndex < timestampColumns.length && timestampColumns[columnIndex] && value instanceof Long timestamp) {
+      return DATE_FORMATTER.format(Instant.ofEpochMilli(timestamp));
+    }
+
+    return value;
+  }
+
+  private int getPageIndex(int rowIndex) {
+    int low = 0;
+    int high = pages.size() - 1;
+
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+      if (pages.get(middle).offset <= rowIndex) {
+        low = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+
+    return low;
+  }
+
+  private long getTimestamp(List<Object> row) {
+    if (timestampIndex < 0 || !(row.get(timestampIndex) instanceof Long timestamp)) {
+      return Long.MIN_VALUE;
+    }
+    return timestamp;
+  }
+
+  private static void runOnEdt(Runnable runnable) {
+    if (SwingUtilities.isEventDispatchThread()) {
+      runnable.run();
+    } else {
+      SwingUtilities.invokeLater(runnable);
+    }
+  }
+
+  @AllArgsConstructor
+  private static class Page {
+
+    private final int offset;
+    private final int size;
+    private final long firstTimestamp;
+    private final int skip;
+    private final long lastTimestamp;
+    private final int lastTimestampRun;
+  }
+}
@@ -16,11 +16,16 @@ import java.awt.Color;
 import java.awt.Font;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
@@ -29,6 +34,7 @@ import javax.swing.JViewport;
 import javax.swing.ScrollPaneConstants;
 import javax.swing.event.ListSelectionListener;
 import lombok.extern.log4j.Log4j2;
+import org.fbase.core.FStore;
 import org.fbase.model.output.GanttColumn;
 import org.fbase.model.profile.CProfile;
 import org.jdesktop.swingx.JXTable;
@@ -37,11 +43,19 @@ import ru.rti.desktop.model.column.QueryColumnNames;
 import ru.rti.desktop.model.gantt.DrawingScale;
 import ru.rti.desktop.model.info.TableInfo;
 import ru.rti.desktop.model.table.JXTableCase;
+import ru.rti.desktop.warehouse.LocalDB;
 
 @Log4j2
 public abstract class GanttPanel extends JPanel implements ListSelectionListener {
     protected static final String TEXT_PAINTER = "TxtPainter";
     protected static final int DIVIDER_LOCATION = 200;
+    protected static final int GROUP_BY_PARALLELISM = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 4));
+
+    private static final ExecutorService GROUP_BY_EXECUTOR = Executors.newFixedThreadPool(GROUP_BY_PARALLELISM, r -> {
+        Thread thread = new Thread(r, "gantt-group-by");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     protected final TableInfo tableInfo;
     protected final CProfile cProfile;
@@ -76,6 +90,44 @@ public abstract class GanttPanel extends JPanel implements ListSelectionListener
 
     protected abstract JScrollPane loadValuableGantt();
 
+    /**
+     * Two-level group by for each first level column, local storage computes all of them in one
+     * scan, otherwise they are computed in parallel with bounded concurrency
+     *
+     * @return results in the order of first level columns, failed columns are skipped
+     */
+    protected Map<CProfile, List<GanttColumn>> loadGanttColumnLists(FStore fStore, List<CProfile> firstLevelGroupByList) {
+        if (fStore instanceof LocalDB localDB) {
+            try {
+                return localDB.getGColumnListTwoLevelGroupBy(tableInfo.getTableName(), firstLevelGroupByList, cProfile, begin, end);
+            } catch (Exception exception) {
+                log.catching(exception);
+            }
+        }
+
+        Map<CProfile, CompletableFuture<List<GanttColumn>>> futures = new LinkedHashMap<>();
+
+        firstLevelGroupByList.forEach(firstLevelGroupBy -> futures.put(firstLevelGroupBy,
+            CompletableFuture.supplyAsync(() -> {
+                try {
+                    return fStore.getGColumnListTwoLevelGroupBy(tableInfo.getTableName(), firstLevelGroupBy, cProfile, begin, end);
+                } catch (Exception exception) {
+                    throw new RuntimeException(exception);
+                }
+            }, GROUP_BY_EXECUTOR)));
+
+        Map<CProfile, List<GanttColumn>> ganttColumnLists = new LinkedHashMap<>();
+        futures.forEach((firstLevelGroupBy, future) -> {
+            try {
+                ganttColumnLists.put(firstLevelGroupBy, future.join());
+            } catch (Exception exception) {
+                log.catching(exception);
+            }
+        });
+
+        return ganttColumnLists;
+    }
+
     private void fillModel() {
             this.tableInfo.getCProfiles().forEach(cProfile -> {
                 if (!cProfile.getCsType().isTimeStamp()) {
@@ -91,29 +143,23 @@ public abstract class GanttPanel extends JPanel implements ListSelectionListener
         int visibleRowCount, int rowHeightForJTable) {
         String[][] columnNames = {{"Activity %", firstLevelGroupBy.getColName()}};
 
-        ganttColumnList.sort((g1, g2) -> {
-            Integer g1Int = g1.getGantt().values().stream().mapToInt(Integer::intValue).sum();
-            Integer g2Int = g2.getGantt().values().stream().mapToInt(Integer::intValue).sum();
+        Map<GanttColumn, Integer> totals = new IdentityHashMap<>(ganttColumnList.size());
+        ganttColumnList.forEach(ganttColumn ->
+            totals.put(ganttColumn, ganttColumn.getGantt().values().stream().mapToInt(Integer::intValue).sum()));
 
-            return g2Int.compareTo(g1Int);
-        });
+        ganttColumnList.sort(Comparator.comparing(totals::get, Comparator.reverseOrder()));
 
         Object[][] data = new Object[ganttColumnList.size()][columnNames[0].length];
 
         final GanttDrawingPartHelper partHelper = new GanttDrawingPartHelper();
 
-        long countOfAllRowsId = ganttColumnList.stream()
-            .map(GanttColumn::getGantt)
-            .map(Map::values)
-            .flatMap(Collection::stream)
-            .mapToInt(Integer::intValue)
-            .sum();
+        long countOfAllRowsId = totals.values().stream().mapToLong(Integer::longValue).sum();
 
         AtomicInteger atomicInteger = new AtomicInteger(0);
 
         ganttColumnList.forEach(ganttColumn -> {
             int rowNumber = atomicInteger.getAndIncrement();
-            data[rowNumber][0] = createDrawingState(drawingScale, partHelper, ganttColumn, countOfAllRowsId);
+            data[rowNumber][0] = createDrawingState(drawingScale, partHelper, ganttColumn, totals.get(ganttColumn), countOfAllRowsId);
             data[rowNumber][1] = ganttColumn.getKey();
         });
 
@@ -146,14 +192,12 @@ public abstract class GanttPanel extends JPanel implements ListSelectionListener
     }
 
     private DrawingState createDrawingState(DrawingScale drawingScale, GanttDrawingPartHelper helper,
-        GanttColumn me, double countOfEntries) {
+        GanttColumn me, double countPerEntry, double countOfEntries) {
 
         BasicDrawingState state = helper.createDrawingState();
         ListDrawingPart part = helper.createDrawingPart(false);
         ListDrawingPart textLayer = helper.createDrawingPart(true);
 
-        double countPerEntry = me.getGantt().values().stream().mapToInt(Integer::intValue).sum();
-
         double percent = round(countPerEntry / countOfEntries * 100, 2);
 
         String percentText = "" + percent + "%";
@@ -77,16 +77,15 @@ public class ReportGanttPanel extends GanttPanel implements ListSelectionListene
         List<JScrollPane> jScrollPaneList = new ArrayList<>();
 
         try {
-            tableInfo.getValuableColumnList().forEach(colName -> {
+            List<CProfile> firstLevelGroupByList = new ArrayList<>();
+            tableInfo.getValuableColumnList().forEach(colName -> tableInfo.getCProfiles().stream()
+                .filter(f -> f.getColName().equalsIgnoreCase(colName))
+                .findFirst()
+                .ifPresentOrElse(firstLevelGroupByList::add,
+                    () -> log.warn("Not found column profile for valuable column: " + colName)));
+
+            loadGanttColumnLists(fStore, firstLevelGroupByList).forEach((firstLevelGroupBy, ganttColumnList) -> {
                 try {
-                    CProfile firstLevelGroupBy = tableInfo.getCProfiles().stream()
-                        .filter(f -> f.getColName().equalsIgnoreCase(colName))
-                        .findFirst()
-                        .orElseThrow();
-
-                    List<GanttColumn> ganttColumnList =
-                        fStore.getGColumnListTwoLevelGroupBy(tableInfo.getTableName(), firstLevelGroupBy, cProfile, begin, end);
-
                     DrawingScale drawingScale = new DrawingScale();
 
                     JXTable jxTable = loadGantt(firstLevelGroupBy, ganttColumnList, seriesColorMap, drawingScale, 5, 20);
@@ -0,0 +1,66 @@
+package ru.rti.desktop.view.detail.searchable;
+
+import java.util.regex.Pattern;
+import javax.swing.Timer;
+import org.jdesktop.swingx.JXFindBar;
+
+/**
+ * Find bar which debounces keystrokes and searches with {@link BackgroundTableSearchable},
+ * so typing stays responsive on large tables
+ */
+public class BackgroundFindBar extends JXFindBar {
+
+  private static final int DEBOUNCE_MS = 250;
+
+  private final Timer debounceTimer;
+
+  public BackgroundFindBar() {
+    this.debounceTimer = new Timer(DEBOUNCE_MS, e -> startSearch());
+    this.debounceTimer.setRepeats(false);
+  }
+
+  @Override
+  protected int doSearch() {
+    if (!(searchable instanceof BackgroundTableSearchable backgroundSearchable)) {
+      return super.doSearch();
+    }
+
+    Pattern pattern = getPatternModel().getPattern();
+
+    if (pattern == null) {
+      debounceTimer.stop();
+      backgroundSearchable.searchInBackground(null, found -> {});
+      return -1;
+    }
+
+    if (backgroundSearchable.isSearched(pattern)) {
+      int foundIndex = backgroundSearchable.moveToMatch(getPatternModel().isBackwards());
+      return foundIndex == -1 && backgroundSearchable.isSearching() ? 0 : foundIndex;
+    }
+
+    debounceTimer.restart();
+
+    return 0;
+  }
+
+  @Override
+  public void cancel() {
+    debounceTimer.stop();
+    if (searchable instanceof BackgroundTableSearchable backgroundSearchable) {
+      backgroundSearchable.cancel();
+    }
+    super.cancel();
+  }
+
+  private void startSearch() {
+    if (searchable instanceof BackgroundTableSearchable backgroundSearchable) {
+      backgroundSearchable.searchInBackground(getPatternModel().getPattern(), found -> {
+        if (found) {
+          showFoundMessage();
+        } else {
+          showNotFoundMessage();
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,213 @@
+package ru.rti.desktop.view.detail.searchable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.table.TableModel;
+import lombok.extern.log4j.Log4j2;
+import org.jdesktop.swingx.JXTable;
+import org.jdesktop.swingx.search.TableSearchable;
+
+/**
+ * Table searchable which scans the rows on a background worker, matches are published as they
+ * are found and the first one is marked at once. A {@link ScannableTableModel} is read from its
+ * backing store, other models are copied in chunks of rows on EDT. Find next and previous move
+ * over the found matches without a new scan.
+ */
+@Log4j2
+public class BackgroundTableSearchable extends TableSearchable {
+
+  private static final int CHUNK_ROWS = 2_000;
+
+  private final List<int[]> matches = new ArrayList<>();
+  private int matchPosition = -1;
+
+  private Pattern matchesPattern;
+  private SwingWorker<Void, int[]> worker;
+
+  public BackgroundTableSearchable(JXTable table) {
+    super(table);
+  }
+
+  /**
+   * @return true if the pattern is the one of the running or finished scan
+   */
+  public boolean isSearched(Pattern pattern) {
+    return matchesPattern != null && pattern != null
+        && matchesPattern.pattern().equals(pattern.pattern())
+        && matchesPattern.flags() == pattern.flags();
+  }
+
+  public boolean isSearching() {
+    return worker != null && !worker.isDone();
+  }
+
+  public int getMatchCount() {
+    return matches.size();
+  }
+
+  /**
+   * Mark the next or previous found match
+   *
+   * @return view row of the match or -1 if there are no matches
+   */
+  public int moveToMatch(boolean backwards) {
+    if (matches.isEmpty()) {
+      return -1;
+    }
+
+    matchPosition = Math.floorMod(matchPosition + (backwards ? -1 : 1), matches.size());
+
+    return markMatch(matches.get(matchPosition));
+  }
+
+  /**
+   * Scan the table model for the pattern, must be called on EDT
+   *
+   * @param onDone called on EDT with true if something is found, not called for a cancelled scan
+   */
+  public void searchInBackground(Pattern pattern, Consumer<Boolean> onDone) {
+    cancel();
+
+    matches.clear();
+    matchPosition = -1;
+    matchesPattern = pattern;
+
+    if (pattern == null) {
+      search((Pattern) null, -1, false);
+      onDone.accept(false);
+      return;
+    }
+
+    TableModel model = table.getModel();
+
+    long start = System.currentTimeMillis();
+
+    worker = new SwingWorker<>() {
+      private int scannedRows = 0;
+
+      @Override
+      protected Void doInBackground() throws Exception {
+        Matcher matcher = pattern.matcher("");
+
+        if (model instanceof ScannableTableModel scannableModel) {
+          // row count is read again for every row, so pages added during the scan are searched too
+          scannableModel.scanRows((row, values) -> {
+            if (isCancelled() || row >= model.getRowCount()) {
+              return false;
+            }
+            match(matcher, row, values);
+            scannedRows = row + 1;
+            return true;
+          });
+          return null;
+        }
+
+        for (int chunk = 0; !isCancelled(); chunk += CHUNK_ROWS) {
+          List<List<Object>> rows = readChunk(model, chunk);
+          if (rows.isEmpty()) {
+            break;
+          }
+
+          for (int i = 0; i < rows.size(); i++) {
+            match(matcher, chunk + i, rows.get(i));
+          }
+          scannedRows = chunk + rows.size();
+        }
+        return null;
+      }
+
+      private void match(Matcher matcher, int row, List<Object> values) {
+        for (int column = 0; column < values.size(); column++) {
+          Object value = values.get(column);
+          if (value != null && matcher.reset(value.toString()).find()) {
+            publish(new int[]{row, column});
+          }
+        }
+      }
+
+      @Override
+      protected void process(List<int[]> found) {
+        if (isCancelled()) {
+          return;
+        }
+
+        boolean first = matches.isEmpty();
+        matches.addAll(found);
+
+        if (first) {
+          matchPosition = 0;
+          markMatch(matches.get(0));
+        }
+      }
+
+      @Override
+      protected void done() {
+        if (isCancelled()) {
+          return;
+        }
+
+        log.info("Found " + matches.size() + " matches of " + pattern.pattern() + " in " + scannedRows
+            + " rows in " + (System.currentTimeMillis() - start) + " ms");
+
+        if (matches.isEmpty()) {
+          search((Pattern) null, -1, false);
+        }
+
+        onDone.accept(!matches.isEmpty());
+      }
+    };
+
+    worker.execute();
+  }
+
+  public void cancel() {
+    if (worker != null) {
+      worker.cancel(false);
+      worker = null;
+    }
+  }
+
+  /**
+   * Copy values of a chunk of rows on EDT, models without a backing store are changed there
+   */
+  private static List<List<Object>> readChunk(TableModel model, int firstRow)
+      throws InterruptedException, InvocationTargetException {
+    List<List<Object>> rows = new ArrayList<>();
+
+    SwingUtilities.invokeAndWait(() -> {
+      int lastRow = Math.min(firstRow + CHUNK_ROWS, model.getRowCount());
+      for (int row = firstRow; row < lastRow; row++) {
+        List<Object> values = new ArrayList<>(model.getColumnCount());
+        for (int column = 0; column < model.getColumnCount(); column++) {
+          values.add(model.getValueAt(row, column));
+        }
+        rows.add(values);
+      }
+    });
+
+    return rows;
+  }
+
+  private int markMatch(int[] match) {
+    int viewRow = table.convertRowIndexToView(match[0]);
+    int viewColumn = table.convertColumnIndexToView(match[1]);
+
+    if (viewRow < 0 || viewColumn < 0) {
+      return -1;
+    }
+
+    Matcher matcher = matchesPattern.matcher(String.valueOf(table.getStringAt(viewRow, viewColumn)));
+    if (matcher.find()) {
+      updateState(createSearchResult(matcher, viewRow, viewColumn));
+      moveMatchMarker();
+    }
+
+    return viewRow;
+  }
+}
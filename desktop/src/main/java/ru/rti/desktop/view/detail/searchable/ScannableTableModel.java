@@ -0,0 +1,24 @@
+package ru.rti.desktop.view.detail.searchable;
+
+import java.util.List;
+import javax.swing.table.TableModel;
+
+/**
+ * Table model which rows can be read from the backing store without the caches of the model,
+ * so a background search neither loads nor evicts pages the table shows
+ */
+public interface ScannableTableModel extends TableModel {
+
+  /**
+   * Read rows in model order with the values as the model shows them, called off EDT
+   *
+   * @param rowConsumer gets the model row index and the values, returns false to stop the scan
+   */
+  void scanRows(RowConsumer rowConsumer);
+
+  @FunctionalInterface
+  interface RowConsumer {
+
+    boolean accept(int row, List<Object> values);
+  }
+}
@@ -254,7 +254,8 @@ public class QueryMetricButtonPanelHandler implements ActionListener {
                         Metric saveMetric = new Metric(metricIdNext.incrementAndGet(), nameMetrics, isDefault,
                                 xAxisProfile,
                                 yAxisProfile, dimensionProfile, MetricFunction.valueOf(selectedYAxisFunction),
-                                ChartType.valueOf(selectedChartType), Collections.emptyList());
+                                ChartType.valueOf(selectedChartType), Collections.emptyList(),
+                                metricQueryPanel.getPushdownCheckBox().isSelected());
 
                         this.saveMetricList = saveQuery.getMetricList();
 
@@ -351,7 +352,8 @@ public class QueryMetricButtonPanelHandler implements ActionListener {
 
                         Metric editMetric = new Metric(selectedMetric.getId(), nameMetric, isDefault, xAxisProfile,
                                 yAxisProfile, dimensionProfile, MetricFunction.valueOf(selectedYAxisFunction),
-                                ChartType.valueOf(selectedChartType), Collections.emptyList());
+                                ChartType.valueOf(selectedChartType), Collections.emptyList(),
+                                metricQueryPanel.getPushdownCheckBox().isSelected());
 
                         this.editMetricList = editQuery.getMetricList();
                         int index = editMetricList.indexOf(selectedMetric);
@@ -410,6 +412,7 @@ public class QueryMetricButtonPanelHandler implements ActionListener {
         metricQueryPanel.getNameMetric().setText("");
         metricQueryPanel.getNameMetric().setPrompt("New metric...");
         metricQueryPanel.getDefaultCheckBox().setSelected(false);
+        metricQueryPanel.getPushdownCheckBox().setSelected(false);
         metricQueryPanel.getYComboBox().setSelectedIndex(0);
         metricQueryPanel.getDimensionComboBox().setSelectedIndex(0);
         metricQueryPanel.getMetricFunction().setSelectedIndex(0);
@@ -420,6 +423,7 @@ public class QueryMetricButtonPanelHandler implements ActionListener {
     private void setPanelView(Boolean isSelected) {
         metricQueryPanel.getMetricQueryButtonPanel().setButtonView(isSelected);
         metricQueryPanel.getDefaultCheckBox().setEnabled(!isSelected);
+        metricQueryPanel.getPushdownCheckBox().setEnabled(!isSelected);
         metricQueryPanel.getNameMetric().setEditable(!isSelected);
         metricQueryPanel.getXTextFile().setEditable(!isSelected);
         metricQueryPanel.getYComboBox().setEnabled(!isSelected);
@@ -45,6 +45,7 @@ public class QueryMetricHandler implements ListSelectionListener {
                 Metric metric = getMetricById(metricId, queryName);
 
                 metricQueryPanel.getDefaultCheckBox().setEnabled(false);
+                metricQueryPanel.getPushdownCheckBox().setEnabled(false);
                 metricQueryPanel.getNameMetric().setEditable(false);
                 metricQueryPanel.getXTextFile().setEnabled(false);
                 metricQueryPanel.getYComboBox().setEnabled(false);
@@ -54,6 +55,7 @@ public class QueryMetricHandler implements ListSelectionListener {
 
                 metricQueryPanel.getNameMetric().setText(metric.getName());
                 metricQueryPanel.getDefaultCheckBox().setSelected(metric.getIsDefault());
+                metricQueryPanel.getPushdownCheckBox().setSelected(Boolean.TRUE.equals(metric.getPushdown()));
                 metricQueryPanel.getXTextFile().setText(metric.getXAxis().getColName());
                 metricQueryPanel.getYComboBox().setSelectedItem(metric.getYAxis().getColName());
                 metricQueryPanel.getDimensionComboBox().setSelectedItem(metric.getGroup().getColName());
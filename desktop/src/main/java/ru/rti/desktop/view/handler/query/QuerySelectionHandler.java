@@ -125,6 +125,7 @@ public class QuerySelectionHandler extends MouseListenerImpl implements ListSele
                 metricQueryPanel.getNameMetric().setText("");
                 metricQueryPanel.getNameMetric().setPrompt(bundleDefault.getString("metricName"));
                 metricQueryPanel.getDefaultCheckBox().setSelected(false);
+                metricQueryPanel.getPushdownCheckBox().setSelected(false);
             } else {
                 int queryId = getSelectedQueryId(listSelectionModel);
                 QueryInfo queryInfo = profileManager.getQueryInfoById(queryId);
@@ -5,14 +5,6 @@ import static ru.rti.desktop.helper.FilesHelper.CONFIG_TTF_DIR_NAME;
 import static ru.rti.desktop.model.function.ChartType.LINEAR;
 import static ru.rti.desktop.model.function.ChartType.STACKED;
 
-import com.itextpdf.text.Document;
-import com.itextpdf.text.FontFactory;
-import com.itextpdf.text.PageSize;
-import com.itextpdf.text.pdf.PdfWriter;
-import com.itextpdf.tool.xml.XMLWorkerFontProvider;
-import com.itextpdf.tool.xml.XMLWorkerHelper;
-import freemarker.template.Configuration;
-import freemarker.template.Template;
 import java.net.URISyntaxException;
 import lombok.extern.log4j.Log4j2;
 import org.fbase.core.FStore;
@@ -49,7 +41,6 @@ import ru.rti.desktop.router.event.EventListener;
 import ru.rti.desktop.view.chart.report.StackChartReportPanel;
 import ru.rti.desktop.view.panel.report.*;
 
-import javax.imageio.ImageIO;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -62,7 +53,6 @@ import javax.swing.event.ListSelectionListener;
 import javax.swing.table.TableCellEditor;
 import java.awt.*;
 import java.awt.event.*;
-import java.awt.image.BufferedImage;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -72,6 +62,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 @Log4j2
 @Singleton
@@ -89,6 +80,7 @@ public class DesignPanelHandler extends ChartReportHandler implements ActionList
     private List<File> designReportDirs;
     private final ReportHelper reportHelper;
     private final PathPdfInfo reportPdfPath;
+    private final ReportPdfBuilder reportPdfBuilder;
     private JPanel containerChartCardDesign;
     private int savedRow;
     private int previousSelectedRow = -1;
@@ -123,6 +115,7 @@ public class DesignPanelHandler extends ChartReportHandler implements ActionList
         this.reportHelper = reportHelper;
         this.reportManager = reportManager;
         this.reportPdfPath = reportPdfPath;
+        this.reportPdfBuilder = new ReportPdfBuilder();
         this.containerChartCardDesign = new JPanel();
 
         this.savedRow = -1;
@@ -532,8 +525,7 @@ public class DesignPanelHandler extends ChartReportHandler implements ActionList
                 reportHelper.setMadeChanges(false);
                 savedRow = 0;
                 reportTabsPane.getDesignReportCase().getJxTable().setRowSelectionInterval(0, 0);
-                createdReport();
-                reportTabsPane.getSavedReportCase().getJxTable().setRowSelectionInterval(0, 0);
+                createdReport(() -> reportTabsPane.getSavedReportCase().getJxTable().setRowSelectionInterval(0, 0));
             } else {
                 int inputDesign = JOptionPane.showOptionDialog(new JDialog(),
                         "This design has already been saved, should overwrite it or save it as a new one?",
@@ -544,28 +536,29 @@ public class DesignPanelHandler extends ChartReportHandler implements ActionList
                     savedRow = selectedRow;
                     updatedDesign();
                     reportHelper.setMadeChanges(false);
-                    createdReport();
-
-                    String formattedDateForDir = reportPdfPath.getDateTimeFolder();
-                    LocalDateTime dateTime = LocalDateTime.parse(formattedDateForDir, reportHelper.getDateTimeFormatterFused());
                     reportTabsPane.getDesignReportCase().getJxTable().setRowSelectionInterval(selectedRow, selectedRow);
-                    int rowCount = reportTabsPane.getSavedReportCase().getJxTable().getRowCount();
-                    for (int row = 0; row < rowCount; row++) {
-                        String value = (String) reportTabsPane.getSavedReportCase().getJxTable().getValueAt(row, 0);
-                        if (value.contains(dateTime.format(reportHelper.getDateTimeFormatter()))) {
-                            reportTabsPane.getSavedReportCase().getJxTable().setRowSelectionInterval(row, row);
+                    createdReport(() -> {
+                        String formattedDateForDir = reportPdfPath.getDateTimeFolder();
+                        LocalDateTime dateTime = LocalDateTime.parse(formattedDateForDir, reportHelper.getDateTimeFormatterFused());
+                        int rowCount = reportTabsPane.getSavedReportCase().getJxTable().getRowCount();
+                        for (int row = 0; row < rowCount; row++) {
+                            String value = (String) reportTabsPane.getSavedReportCase().getJxTable().getValueAt(row, 0);
+                            if (value.contains(dateTime.format(reportHelper.getDateTimeFormatter()))) {
+                                reportTabsPane.getSavedReportCase().getJxTable().setRowSelectionInterval(row, row);
+                            }
                         }
-                    }
-                    reportTabsPane.getDelBtnReport().setEnabled(true);
+                        reportTabsPane.getDelBtnReport().setEnabled(true);
+                    });
 
                 } else if (inputDesign == 1) {
                     savedDesign();
                     reportHelper.setMadeChanges(false);
                     savedRow = 0;
                     reportTabsPane.getDesignReportCase().getJxTable().setRowSelectionInterval(0, 0);
-                    createdReport();
-                    reportTabsPane.getSavedReportCase().getJxTable().setRowSelectionInterval(0, 0);
-                    reportTabsPane.getDelBtnReport().setEnabled(true);
+                    createdReport(() -> {
+                        reportTabsPane.getSavedReportCase().getJxTable().setRowSelectionInterval(0, 0);
+                        reportTabsPane.getDelBtnReport().setEnabled(true);
+                    });
                 }
             }
 
@@ -672,7 +665,12 @@ public class DesignPanelHandler extends ChartReportHandler implements ActionList
         }
     }
 
-    private void createdReport() {
+    /**
+     * Snapshot chart cards on EDT and build the PDF in background
+     *
+     * @param onCreated called on EDT after the report is built and the saved report list is updated
+     */
+    private void createdReport(Runnable onCreated) {
 
         String folderName = reportPdfPath.getDirDesignName();
         String formattedDateForDir = reportPdfPath.getDateTimeFolder();
@@ -686,65 +684,78 @@ public class DesignPanelHandler extends ChartReportHandler implements ActionList
         String dateFrom = "";
         String dateTo = "";
 
-        Map<String, Object> dataReport = new HashMap<>();
-        int pageCount = 0;
-        for (int tabIndex = 0; tabIndex < reportTabsPane.getJTabbedPaneChart().getTabCount(); tabIndex++) {
-            Component component = reportTabsPane.getJTabbedPaneChart().getComponentAt(tabIndex);
-            if (component instanceof JScrollPane scrollPane) {
-                Component viewComponent = scrollPane.getViewport().getView();
-                Container container = (Container) viewComponent;
-                Component[] cards = container.getComponents();
-                for (Component c : cards) {
-                    if (c instanceof JPanelForChartCard cardChart) {
-                        ProfileTaskQueryKey profileTaskQueryKey = cardChart.getKey();
-                        profileId = profileTaskQueryKey.getProfileId();
-                        profileName = profileManager.getProfileInfoById(profileId).getName();
-
-                        taskId = profileTaskQueryKey.getTaskId();
-                        taskName = profileManager.getTaskInfoById(taskId).getName();
-
-                        queryId = profileTaskQueryKey.getQueryId();
-                        queryName = profileManager.getQueryInfoById(queryId).getName();
+        String designDir = filesHelper.getDesignDir() + filesHelper.getFileSeparator() + folderName;
+        String reportFileName = String.format("report_%s.pdf", formattedDateForDir);
+        String fileReportPath = designDir + filesHelper.getFileSeparator() + reportFileName;
 
-                        ChartInfo chartInfo = profileManager.getChartInfoById(queryId);
+        String font = "arialuni.ttf";
+        String pathDir = filesHelper.getFilePathFont(font);
+        Path templateDir = filesHelper.getFilePathTemplate(ReportPdfBuilder.TEMPLATE_NAME);
 
-                        dateFrom = reportHelper.getDateFormat(chartInfo.getCustomBegin());
-                        dateTo = reportHelper.getDateFormat(chartInfo.getCustomEnd());
+        ReportPdfBuilder.Report report;
+        try {
+            Files.createDirectories(Paths.get(designDir));
+            report = reportPdfBuilder.open(Paths.get(fileReportPath), pathDir);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
 
-                        String fileName = cardChart.getMetric().getName().trim().replace(" ", "_").toLowerCase();
-                        String description = cardChart.getJtaDescription().getText();
-                        String nameFunction = "";
-                        for (AbstractButton button : Collections.list(cardChart.getButtonGroupFunction().getElements())) {
-                            if (button.isSelected()) {
-                                nameFunction = " FUNCTION: " + button.getText();
+        Map<String, Object> dataReport = new HashMap<>();
+        List<Map<String, Object>> pages = new ArrayList<>();
+        try {
+            for (int tabIndex = 0; tabIndex < reportTabsPane.getJTabbedPaneChart().getTabCount(); tabIndex++) {
+                Component component = reportTabsPane.getJTabbedPaneChart().getComponentAt(tabIndex);
+                if (component instanceof JScrollPane scrollPane) {
+                    Component viewComponent = scrollPane.getViewport().getView();
+                    Container container = (Container) viewComponent;
+                    Component[] cards = container.getComponents();
+                    for (Component c : cards) {
+                        if (c instanceof JPanelForChartCard cardChart) {
+                            ProfileTaskQueryKey profileTaskQueryKey = cardChart.getKey();
+                            profileId = profileTaskQueryKey.getProfileId();
+                            profileName = profileManager.getProfileInfoById(profileId).getName();
+
+                            taskId = profileTaskQueryKey.getTaskId();
+                            taskName = profileManager.getTaskInfoById(taskId).getName();
+
+                            queryId = profileTaskQueryKey.getQueryId();
+                            queryName = profileManager.getQueryInfoById(queryId).getName();
+
+                            ChartInfo chartInfo = profileManager.getChartInfoById(queryId);
+
+                            dateFrom = reportHelper.getDateFormat(chartInfo.getCustomBegin());
+                            dateTo = reportHelper.getDateFormat(chartInfo.getCustomEnd());
+
+                            String fileName = cardChart.getMetric().getName().trim().replace(" ", "_").toLowerCase();
+                            String description = cardChart.getJtaDescription().getText();
+                            String nameFunction = "";
+                            for (AbstractButton button : Collections.list(cardChart.getButtonGroupFunction().getElements())) {
+                                if (button.isSelected()) {
+                                    nameFunction = " FUNCTION: " + button.getText();
+                                }
                             }
-                        }
 
-                        if (cardChart.getJSplitPane().getTopComponent() instanceof StackChartReportPanel chartPanel) {
-                            String designDir = filesHelper.getDesignDir() + filesHelper.getFileSeparator() + folderName
-                                    + filesHelper.getFileSeparator() + "profileId_" + profileId
-                                    + "_taskId_" + taskId
-                                    + "_queryId_" + queryId;
-
-                            /**
-                             *     todo implement relative path
-                             *    String designDir2 = "profileId_" + profileId
-                             *                               + "_taskId_" + taskId
-                             *                                + "_queryId_" + queryId;
-                             */
-
-                            String filePath = designDir + filesHelper.getFileSeparator() + fileName + ".png";
-
-                            BufferedImage image = new BufferedImage(cardChart.getJSplitPane().getWidth(),
-                                    cardChart.getJSplitPane().getHeight(), BufferedImage.TYPE_INT_ARGB);
-                            Graphics2D g2d = image.createGraphics();
-                            cardChart.getJSplitPane().printAll(g2d);
-                            g2d.dispose();
-                            try {
-                                Files.createDirectories(Paths.get(designDir));
-                                File outputFile = new File(filePath);
-                                ImageIO.write(image, "png", outputFile);
-                                String pathPNG = designDir + filesHelper.getFileSeparator() + fileName + ".png";
+                            if (cardChart.getJSplitPane().getTopComponent() instanceof StackChartReportPanel chartPanel) {
+                                String chartDir = designDir
+                                        + filesHelper.getFileSeparator() + "profileId_" + profileId
+                                        + "_taskId_" + taskId
+                                        + "_queryId_" + queryId;
+
+                                /**
+                                 *     todo implement relative path
+                                 *    String designDir2 = "profileId_" + profileId
+                                 *                               + "_taskId_" + taskId
+                                 *                                + "_queryId_" + queryId;
+                                 */
+
+                                String pathChart = chartDir + filesHelper.getFileSeparator() + fileName;
+
+                                try {
+                                    report.addChart(pathChart, cardChart.getJSplitPane(), chartPanel.getJFreeChart());
+                                } catch (Exception ex) {
+                                    throw new RuntimeException(ex);
+                                }
+
                                 dataReport.put("profileName", profileName);
                                 dataReport.put("taskName", taskName);
                                 dataReport.put("queryName", queryName);
@@ -753,94 +764,64 @@ public class DesignPanelHandler extends ChartReportHandler implements ActionList
                                 dataReport.put("nameCard", cardChart.getJlTitle().getText().replace("html", "p"));
                                 dataReport.put("nameFunction", nameFunction);
                                 dataReport.put("description", description);
-                                dataReport.put("pathChart", pathPNG);
-
-                            } catch (IOException ex) {
-                                throw new RuntimeException(ex);
+                                dataReport.put("pathChart", pathChart);
                             }
                         }
-                    }
 
-                    try {
-                        Configuration cfg = new Configuration(Configuration.VERSION_2_3_32);
-                        String fileNameTemplate = "default.ftl";
-                        Path path = filesHelper.getFilePathTemplate("default.ftl");
-                        cfg.setDirectoryForTemplateLoading(path.toFile());
-                        cfg.setDefaultEncoding("UTF-8");
-
-                        StringWriter stringWriter = new StringWriter();
-                        Template template = cfg.getTemplate(fileNameTemplate);
-                        template.process(dataReport, stringWriter);
-                        String html = stringWriter.toString();
-
-                        String designDir = filesHelper.getDesignDir() + filesHelper.getFileSeparator() + folderName;
-                        String templateFileName = String.format("template_%d_%d_%s.html", tabIndex, pageCount++, formattedDateForDir);
-                        String filePath = designDir + filesHelper.getFileSeparator() + templateFileName;
-
-                        File file = new File(filePath);
-                        FileWriter fw = new FileWriter(file);
-                        BufferedWriter bf = new BufferedWriter(fw);
-                        bf.write(html);
-                        bf.close();
-
-                    } catch (Exception ex) {
-                        throw new RuntimeException(ex);
+                        pages.add(new HashMap<>(dataReport));
                     }
                 }
             }
+        } catch (RuntimeException ex) {
+            // the open writer and its partly written file are dropped on any failure of the snapshot
+            report.discard();
+            throw ex;
         }
-        String designDir = filesHelper.getDesignDir() + filesHelper.getFileSeparator() + folderName;
-        String reportFileName = String.format("report_%s.pdf", formattedDateForDir);
-        String fileReportPath = designDir + filesHelper.getFileSeparator() + reportFileName;
-
-        try {
-            String font = "arialuni.ttf";
-            String pathDir = filesHelper.getFilePathFont(font);
 
-            Document document = new Document(PageSize.A4);
+        reportTabsPane.getGenerateReportBtnDesign().setEnabled(false);
 
-            PdfWriter writer = PdfWriter.getInstance(document, new FileOutputStream(fileReportPath));
-
-            document.open();
-
-            File folder = new File(filesHelper.getDesignDir() + filesHelper.getFileSeparator() + folderName);
-            if (folder.isDirectory()) {
-                File[] files = folder.listFiles();
-                if (files != null) {
-                    for (File htmlFile : files) {
-                        if (htmlFile.isFile() && htmlFile.getName().endsWith(".html")) {
-                            String filePathHtml = htmlFile.getAbsolutePath();
-                            String contentHtml = new String(Files.readAllBytes(Paths.get(filePathHtml)));
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                reportPdfBuilder.build(report, pages, templateDir);
+                return null;
+            }
 
-                            InputStream inf = new ByteArrayInputStream(contentHtml.getBytes("UTF-8"));
+            @Override
+            protected void done() {
+                reportTabsPane.getGenerateReportBtnDesign().setEnabled(true);
 
-                            XMLWorkerFontProvider fontProvider = new XMLWorkerFontProvider(XMLWorkerFontProvider.DONTLOOKFORFONTS);
-                            fontProvider.register(pathDir);
+                try {
+                    get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException ex) {
+                    log.catching(ex.getCause());
+                    JOptionPane.showMessageDialog(null, "Failed to create report: " + ex.getCause().getMessage(),
+                            "General Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
 
-                            FontFactory.setFontImp(fontProvider);
-                            XMLWorkerHelper.getInstance().parseXHtml(writer, document, inf, null, null, fontProvider);
-                            document.newPage();
-                        }
-                    }
+                if (reportTabsPane.getScrollPanePDF().getViewport().getView() instanceof PdfViewer previous) {
+                    previous.closePdfFile();
                 }
-            }
-            document.close();
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
-        }
 
-        try {
-            PdfViewer pdfViewer = new PdfViewer(new File(fileReportPath));
-            reportTabsPane.getScrollPanePDF().setViewportView(pdfViewer);
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
-        }
+                try {
+                    PdfViewer pdfViewer = new PdfViewer(new File(fileReportPath));
+                    reportTabsPane.getScrollPanePDF().setViewportView(pdfViewer);
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
 
-        this.reportTabsPane.getSavedReportCase().getDefaultTableModel().getDataVector().removeAllElements();
-        this.reportTabsPane.getSavedReportCase().getDefaultTableModel().fireTableDataChanged();
+                reportTabsPane.getSavedReportCase().getDefaultTableModel().getDataVector().removeAllElements();
+                reportTabsPane.getSavedReportCase().getDefaultTableModel().fireTableDataChanged();
 
-        updateSavedReportCase();
+                updateSavedReportCase();
 
+                onCreated.run();
+            }
+        }.execute();
     }
 
     private void savedDesign() {
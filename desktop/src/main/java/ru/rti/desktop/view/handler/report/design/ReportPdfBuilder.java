@@ -0,0 +1,372 @@
+package ru.rti.desktop.view.handler.report.design;
+
+import com.itextpdf.awt.FontMapper;
+import com.itextpdf.awt.PdfGraphics2D;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.Image;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfTemplate;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.itextpdf.tool.xml.XMLWorker;
+import com.itextpdf.tool.xml.XMLWorkerFontProvider;
+import com.itextpdf.tool.xml.XMLWorkerHelper;
+import com.itextpdf.tool.xml.html.CssAppliers;
+import com.itextpdf.tool.xml.html.CssAppliersImpl;
+import com.itextpdf.tool.xml.html.Tags;
+import com.itextpdf.tool.xml.parser.XMLParser;
+import com.itextpdf.tool.xml.pipeline.css.CssResolverPipeline;
+import com.itextpdf.tool.xml.pipeline.end.PdfWriterPipeline;
+import com.itextpdf.tool.xml.pipeline.html.AbstractImageProvider;
+import com.itextpdf.tool.xml.pipeline.html.HtmlPipeline;
+import com.itextpdf.tool.xml.pipeline.html.HtmlPipelineContext;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import lombok.extern.log4j.Log4j2;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.XYPlot;
+
+import javax.swing.JSplitPane;
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds the design report PDF. Charts are drawn as vector graphics on a worker pool, each into
+ * a PDF of its own, which is placed into the chart template referenced from pages by the image
+ * source. Pages are rendered from the template on the pool too while the writer adds finished
+ * pages to the document in order.
+ */
+@Log4j2
+public class ReportPdfBuilder {
+
+    public static final String TEMPLATE_NAME = "default.ftl";
+
+    private static final int PARALLELISM = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 4));
+
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(PARALLELISM, r -> {
+        Thread thread = new Thread(r, "report-pdf-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Configuration configuration;
+    private Path configurationDir;
+
+    /**
+     * Open the report document
+     *
+     * @param fontPath font for the page text and the chart text
+     */
+    public Report open(Path pdfPath, String fontPath) throws Exception {
+        return new Report(pdfPath, fontPath);
+    }
+
+    /**
+     * Render pages and write them with charts of the report, the report is closed at the end.
+     * If the build fails the report is discarded with its partly written file
+     *
+     * @param pages       data of pages for the template
+     * @param templateDir directory with the page template
+     */
+    public void build(Report report, List<Map<String, Object>> pages, Path templateDir) throws Exception {
+        long start = System.currentTimeMillis();
+
+        List<CompletableFuture<String>> htmlPages = new ArrayList<>(pages.size());
+
+        try {
+            Template template = getConfiguration(templateDir).getTemplate(TEMPLATE_NAME);
+
+            for (Map<String, Object> page : pages) {
+                htmlPages.add(CompletableFuture.supplyAsync(() -> renderPage(template, page), POOL));
+            }
+
+            for (ChartDraw chartDraw : report.chartDraws) {
+                report.place(chartDraw);
+            }
+
+            for (CompletableFuture<String> htmlPage : htmlPages) {
+                report.addPage(join(htmlPage));
+            }
+
+            report.close();
+        } catch (Exception e) {
+            report.discard();
+            throw e;
+        } finally {
+            htmlPages.forEach(f -> f.cancel(false));
+            report.chartDraws.forEach(chartDraw -> chartDraw.pdf().cancel(false));
+        }
+
+        log.info("Report " + report.pdfPath + " with " + pages.size() + " pages and " + report.charts.size()
+                + " charts is built in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private synchronized Configuration getConfiguration(Path templateDir) throws IOException {
+        if (configuration == null || !templateDir.equals(configurationDir)) {
+            Configuration cfg = new Configuration(Configuration.VERSION_2_3_32);
+            cfg.setDirectoryForTemplateLoading(templateDir.toFile());
+            cfg.setDefaultEncoding("UTF-8");
+
+            configuration = cfg;
+            configurationDir = templateDir;
+        }
+        return configuration;
+    }
+
+    private String renderPage(Template template, Map<String, Object> page) {
+        try {
+            StringWriter stringWriter = new StringWriter();
+            template.process(page, stringWriter);
+            return stringWriter.toString();
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Draw the chart into a one page PDF of the chart size, a writer per chart lets charts be drawn
+     * in parallel
+     */
+    private static byte[] drawChart(JFreeChart chart, float width, float height, FontMapper fontMapper) {
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            Document document = new Document(new Rectangle(width, height), 0, 0, 0, 0);
+            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+            document.open();
+
+            Graphics2D g2d = new PdfGraphics2D(writer.getDirectContent(), width, height, fontMapper);
+            try {
+                chart.draw(g2d, new Rectangle2D.Double(0, 0, width, height));
+            } finally {
+                g2d.dispose();
+                release(chart);
+            }
+
+            document.close();
+            return outputStream.toByteArray();
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Cloned plot listens to the datasets of the card, it is detached once the clone is drawn
+     */
+    private static void release(JFreeChart chart) {
+        if (chart.getPlot() instanceof XYPlot plot) {
+            for (int i = 0; i < plot.getDatasetCount(); i++) {
+                if (plot.getDataset(i) != null) {
+                    plot.getDataset(i).removeChangeListener(plot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Chart drawn on the pool, to be placed at the position of the template in PDF coordinates
+     */
+    private record ChartDraw(PdfTemplate template, float x, float y, CompletableFuture<byte[]> pdf) {
+    }
+
+    /**
+     * Open PDF document with charts drawn for its pages
+     */
+    public static class Report {
+
+        private final Path pdfPath;
+        private final OutputStream outputStream;
+        private final Document document;
+        private final PdfWriter writer;
+        private final CssAppliers cssAppliers;
+        private final FontMapper fontMapper;
+        private final Map<String, Image> charts = new HashMap<>();
+        private final List<ChartDraw> chartDraws = new ArrayList<>();
+
+        private Report(Path pdfPath, String fontPath) throws Exception {
+            this.pdfPath = pdfPath;
+            this.outputStream = new BufferedOutputStream(Files.newOutputStream(pdfPath));
+            this.document = new Document(PageSize.A4);
+            this.writer = PdfWriter.getInstance(document, outputStream);
+
+            // the font provider is passed to the pages of this report only, the global FontFactory is not changed
+            XMLWorkerFontProvider fontProvider = new XMLWorkerFontProvider(XMLWorkerFontProvider.DONTLOOKFORFONTS);
+            fontProvider.register(fontPath);
+            this.cssAppliers = new CssAppliersImpl(fontProvider);
+
+            this.fontMapper = new SingleFontMapper(BaseFont.createFont(fontPath, BaseFont.IDENTITY_H, BaseFont.EMBEDDED));
+
+            this.document.open();
+        }
+
+        /**
+         * Snapshot of the chart card, must be called on EDT. The bottom component is printed right
+         * away, a clone of the chart is drawn on the pool at the bounds of the top component
+         *
+         * @param src image source the pages refer to the chart with
+         */
+        public void addChart(String src, JSplitPane splitPane, JFreeChart chart) throws Exception {
+            float width = splitPane.getWidth();
+            float height = splitPane.getHeight();
+
+            PdfTemplate template = PdfTemplate.createTemplate(writer, width, height);
+
+            Component bottom = splitPane.getBottomComponent();
+            if (bottom != null) {
+                Graphics2D g2d = new PdfGraphics2D(template, width, height, fontMapper);
+                try {
+                    g2d.translate(bottom.getX(), bottom.getY());
+                    bottom.printAll(g2d);
+                } finally {
+                    g2d.dispose();
+                }
+            }
+
+            Component top = splitPane.getTopComponent();
+            addChartDraw(template, (JFreeChart) chart.clone(),
+                    top.getX(), height - top.getY() - top.getHeight(), top.getWidth(), top.getHeight());
+
+            charts.put(src, Image.getInstance(template));
+        }
+
+        /**
+         * Draw the chart as vector graphics without a Swing component, used for headless reports
+         */
+        public void addChart(String src, JFreeChart chart, float width, float height) throws Exception {
+            PdfTemplate template = PdfTemplate.createTemplate(writer, width, height);
+            addChartDraw(template, chart, 0, 0, width, height);
+
+            charts.put(src, Image.getInstance(template));
+        }
+
+        private void addChartDraw(PdfTemplate template, JFreeChart chart, float x, float y, float width, float height) {
+            chartDraws.add(new ChartDraw(template, x, y,
+                    CompletableFuture.supplyAsync(() -> drawChart(chart, width, height, fontMapper), POOL)));
+        }
+
+        private void place(ChartDraw chartDraw) throws Exception {
+            PdfReader reader = new PdfReader(join(chartDraw.pdf()));
+            try {
+                chartDraw.template().addTemplate(writer.getImportedPage(reader, 1), chartDraw.x(), chartDraw.y());
+                writer.freeReader(reader);
+            } finally {
+                reader.close();
+            }
+        }
+
+        private void addPage(String html) throws IOException {
+            HtmlPipelineContext htmlContext = new HtmlPipelineContext(cssAppliers);
+            htmlContext.setTagFactory(Tags.getHtmlTagProcessorFactory());
+            htmlContext.setImageProvider(new ChartImageProvider(charts));
+            htmlContext.charSet(StandardCharsets.UTF_8);
+
+            XMLWorker worker = new XMLWorker(new CssResolverPipeline(
+                    XMLWorkerHelper.getInstance().getDefaultCssResolver(true),
+                    new HtmlPipeline(htmlContext, new PdfWriterPipeline(document, writer))), true);
+
+            new XMLParser(worker, StandardCharsets.UTF_8)
+                    .parse(new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+
+            document.newPage();
+        }
+
+        /**
+         * Drop the report which can't be built, the partly written file is deleted
+         */
+        public void discard() {
+            try {
+                outputStream.close();
+                Files.deleteIfExists(pdfPath);
+            } catch (IOException e) {
+                log.catching(e);
+            }
+        }
+
+        private void close() throws IOException {
+            try {
+                if (document.isOpen()) {
+                    document.close();
+                }
+            } finally {
+                outputStream.close();
+            }
+        }
+    }
+
+    /**
+     * Gives the vector chart for its source, other images are loaded by the worker
+     */
+    private static class ChartImageProvider extends AbstractImageProvider {
+
+        private final Map<String, Image> charts;
+
+        ChartImageProvider(Map<String, Image> charts) {
+            this.charts = charts;
+        }
+
+        @Override
+        public Image retrieve(String src) {
+            Image chart = charts.get(src);
+            return chart != null ? chart : super.retrieve(src);
+        }
+
+        @Override
+        public String getImageRootPath() {
+            return null;
+        }
+    }
+
+    /**
+     * Maps all AWT fonts of charts to the report font, so the text stays selectable and
+     * Cyrillic names are shown
+     */
+    private static class SingleFontMapper implements FontMapper {
+
+        private final BaseFont baseFont;
+
+        SingleFontMapper(BaseFont baseFont) {
+            this.baseFont = baseFont;
+        }
+
+        @Override
+        public BaseFont awtToPdf(Font font) {
+            return baseFont;
+        }
+
+        @Override
+        public Font pdfToAwt(BaseFont font, int size) {
+            return new Font(Font.DIALOG, Font.PLAIN, size);
+        }
+    }
+}
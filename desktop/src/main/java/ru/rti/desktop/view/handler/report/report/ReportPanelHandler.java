@@ -26,6 +26,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 @Log4j2
 @Singleton
@@ -37,7 +38,6 @@ public class ReportPanelHandler implements ActionListener, ListSelectionListener
     private final PathPdfInfo reportPdfPath;
     private final FilesHelper filesHelper;
     private final ReportHelper reportHelper;
-    private PdfViewer pdfViewer;
 
 
     @Inject
@@ -57,8 +57,6 @@ public class ReportPanelHandler implements ActionListener, ListSelectionListener
         this.saveFC.setFileFilter(new FileNameExtensionFilter("PDF файлы", "pdf"));
         this.saveFC.setSelectedFile(new File("report.pdf"));
 
-        this.pdfViewer = new PdfViewer();
-
         this.reportTabsPane.getSaveBtnPDFReport().addActionListener(this);
         this.reportTabsPane.getDelBtnReport().addActionListener(this);
         this.reportTabsPane.getSavedReportCase().getJxTable().getSelectionModel().addListSelectionListener(this);
@@ -108,6 +106,7 @@ public class ReportPanelHandler implements ActionListener, ListSelectionListener
                     reportTabsPane.getSavedReportCase().getDefaultTableModel().removeRow(selectedRow);
                     reportTabsPane.getSavedReportCase().getJxTable().clearSelection();
 
+                    CompletableFuture<Void> released = closeShownViewer();
                     reportTabsPane.getScrollPanePDF().getViewport().removeAll();
                     reportTabsPane.getScrollPanePDF().getViewport().revalidate();
 
@@ -120,8 +119,7 @@ public class ReportPanelHandler implements ActionListener, ListSelectionListener
                         if (files != null) {
                             for (File file : files) {
                                 if (file.getName().endsWith(".pdf")) {
-                                    pdfViewer.closePdfFile();
-                                    file.delete();
+                                    released.thenRun(file::delete);
                                 }
                             }
                         }
@@ -164,8 +162,8 @@ public class ReportPanelHandler implements ActionListener, ListSelectionListener
                                             + filesHelper.getFileSeparator() + file.getName();
 
                                     try {
-                                        pdfViewer = new PdfViewer(new File(fileReportPath));
-                                        reportTabsPane.getScrollPanePDF().setViewportView(pdfViewer);
+                                        closeShownViewer();
+                                        reportTabsPane.getScrollPanePDF().setViewportView(new PdfViewer(new File(fileReportPath)));
                                     } catch (Exception ex) {
                                         throw new RuntimeException(ex);
                                     }
@@ -179,4 +177,16 @@ public class ReportPanelHandler implements ActionListener, ListSelectionListener
             }
         }
     }
+
+    /**
+     * Close the viewer shown in the report pane, whichever handler created it
+     *
+     * @return completed when the shown document file is released
+     */
+    private CompletableFuture<Void> closeShownViewer() {
+        if (reportTabsPane.getScrollPanePDF().getViewport().getView() instanceof PdfViewer shown) {
+            return shown.closePdfFile();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
 }
@@ -25,6 +25,7 @@ public class MetricQueryPanel extends JPanel {
     private final ButtonPanel metricQueryButtonPanel;
     private final JXTextField nameMetric;
     private final JCheckBox defaultCheckBox;
+    private final JCheckBox pushdownCheckBox;
     private final JXTextField xTextFile;
     private final JComboBox<String> yComboBox;
     private final JComboBox<String> dimensionComboBox;
@@ -43,6 +44,8 @@ public class MetricQueryPanel extends JPanel {
         this.nameMetric = new JXTextField();
         this.nameMetric.setPrompt(bundleDefault.getString("metricName"));
         this.defaultCheckBox = new JCheckBox(bundleDefault.getString("metricDef"), false);
+        this.pushdownCheckBox = new JCheckBox(bundleDefault.getString("metricPushdown"), false);
+        this.pushdownCheckBox.setToolTipText("COUNT, SUM and AVERAGE of by server query are grouped by time on the database");
         this.xTextFile = new JXTextField();
         this.yComboBox = new JComboBox<String>();
         this.dimensionComboBox = new JComboBox<>();
@@ -64,6 +67,7 @@ public class MetricQueryPanel extends JPanel {
         AutoCompleteDecorator.decorate(this.chartType);
 
         defaultCheckBox.setEnabled(false);
+        pushdownCheckBox.setEnabled(false);
         nameMetric.setEditable(false);
         xTextFile.setEnabled(false);
         yComboBox.setEnabled(false);
@@ -76,7 +80,7 @@ public class MetricQueryPanel extends JPanel {
                 .cellXRemainder(metricQueryButtonPanel).fillX();
 
         gbl.row()
-                .cell(defaultCheckBox).cell(new JLabel()).fillX();
+                .cell(defaultCheckBox).cell(pushdownCheckBox).fillX();
 
         gbl.row()
                 .cell(new JLabel("Name")).cell(nameMetric).fillX();
@@ -461,7 +461,7 @@ public class JPanelForChartCard extends JPanel {
                 metric.setMetricFunction(metricFunctionOnEdit);
                 metric.setChartType(STACKED);
             }
-            case SUM, AVERAGE -> {
+            case SUM, AVERAGE, P50, P90, P99, MAX -> {
                 metric.setMetricFunction(metricFunctionOnEdit);
                 metric.setChartType(LINEAR);
             }
@@ -495,7 +495,7 @@ public class JPanelForChartCard extends JPanel {
             GUIHelper.addToJSplitPane(cardChart.getJSplitPane(), detailPanel, JSplitPane.BOTTOM, 200);
         }
 
-        if (metric.isLinearYAxisSameSum() | metric.isLinearYAxisAvg()) {
+        if (metric.isLinearYAxisSameSum() | metric.isLinearYAxisAvg() | metric.isLinearYAxisQuantile()) {
             StackChartReportPanel stackChartPanel = getStackChartPanel(metric, queryInfo, key, chartInfo);
 
             DetailReportPanel detailPanel = getDetailPanel(fStore, metric, queryInfo, tableInfo, stackChartPanel.getSeriesColorMap(),
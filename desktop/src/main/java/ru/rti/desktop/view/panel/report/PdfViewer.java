@@ -5,29 +5,60 @@ import java.awt.CardLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
 import java.awt.Toolkit;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.swing.Box;
 import javax.swing.JButton;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
 
+import lombok.extern.log4j.Log4j2;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
 
+/**
+ * Shows the report page by page. Pages are rendered for the viewer size on a background thread,
+ * kept in a small LRU cache and the adjacent pages are prefetched, so paging does not block EDT.
+ */
+@Log4j2
 public class PdfViewer extends JPanel {
+    private static final long LARGE_FILE_BYTES = 32L * 1024 * 1024;
+    private static final long SCRATCH_MEMORY_BYTES = 16L * 1024 * 1024;
+    private static final int CACHED_PAGES = 6;
+
     private File document;
     private PDDocument doc;
 
-    private PDFRenderer renderer;
+    private volatile PDFRenderer renderer;
+    private ExecutorService renderExecutor;
+    private CompletableFuture<Void> released;
+    private float renderScale;
+    private final Map<Integer, BufferedImage> pageCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+
     private JPanel panelSelectedPage;
     private JPanel panelControls;
 
     private int numberOfPages;
-    private int currentPageIndex = 0;
+    private volatile int currentPageIndex = 0;
 
     private int width;
     private int height;
@@ -63,7 +94,7 @@ public class PdfViewer extends JPanel {
 
     public PdfViewer(File document) throws Exception {
         this.document = document;
-        this.doc = PDDocument.load(document);
+        this.doc = load(document);
         initialize(document);
     }
 
@@ -73,22 +104,15 @@ public class PdfViewer extends JPanel {
 
 
     private void selectPage(int pageIndex) {
-        BufferedImage renderImage = null;
+        currentPageIndex = pageIndex;
 
-        try {
-            renderImage = renderer.renderImage(pageIndex, 1);
-        } catch (IOException e) {
-            e.printStackTrace();
+        BufferedImage renderImage = getCachedPage(pageIndex);
+        if (renderImage != null) {
+            showPage(renderImage);
+        } else {
+            showRendering();
+            render(pageIndex);
         }
-        panelSelectedPage.removeAll();
-
-        ImagePanel imagePanel = new ImagePanel(renderImage, width, height);
-        imagePanel.setBorder(new EmptyBorder(0, 0, 0, 0));
-        imagePanel.setLayout(new CardLayout(0, 0));
-        imagePanel.setPreferredSize(new Dimension(width, height));
-        panelSelectedPage.add(panelControls, BorderLayout.NORTH);
-        panelSelectedPage.add(imagePanel, BorderLayout.CENTER);
-        currentPageIndex = pageIndex;
 
         String pageText = String.format("%d / %d", pageIndex + 1, numberOfPages);
         txtPageNumber.setText(pageText);
@@ -101,10 +125,87 @@ public class PdfViewer extends JPanel {
             enableDisableButtons(-1);
         }
 
+        if (pageIndex + 1 < numberOfPages) {
+            render(pageIndex + 1);
+        }
+        if (pageIndex > 0) {
+            render(pageIndex - 1);
+        }
+    }
+
+    /**
+     * Render task keeps the renderer of the open document, it is skipped once the document is closed
+     */
+    private void render(int pageIndex) {
+        PDFRenderer pageRenderer = renderer;
+        if (pageRenderer != null) {
+            renderExecutor.execute(() -> renderPage(pageRenderer, pageIndex));
+        }
+    }
+
+    private void renderPage(PDFRenderer pageRenderer, int pageIndex) {
+        if (pageRenderer != renderer || Math.abs(pageIndex - currentPageIndex) > 1 || getCachedPage(pageIndex) != null) {
+            return;
+        }
+
+        BufferedImage renderImage;
+        try {
+            renderImage = pageRenderer.renderImage(pageIndex, renderScale, ImageType.RGB);
+        } catch (IOException e) {
+            log.catching(e);
+            return;
+        }
+
+        synchronized (pageCache) {
+            pageCache.put(pageIndex, renderImage);
+        }
+
+        SwingUtilities.invokeLater(() -> {
+            if (currentPageIndex == pageIndex) {
+                showPage(renderImage);
+            }
+        });
+    }
+
+    private BufferedImage getCachedPage(int pageIndex) {
+        synchronized (pageCache) {
+            return pageCache.get(pageIndex);
+        }
+    }
+
+    private void showPage(BufferedImage renderImage) {
+        ImagePanel imagePanel = new ImagePanel(renderImage, width, height);
+        imagePanel.setBorder(new EmptyBorder(0, 0, 0, 0));
+        imagePanel.setLayout(new CardLayout(0, 0));
+        imagePanel.setPreferredSize(new Dimension(width, height));
+        setPageComponent(imagePanel);
+    }
+
+    private void showRendering() {
+        setPageComponent(new JLabel("Rendering page..", SwingConstants.CENTER));
+    }
+
+    private void setPageComponent(Component component) {
+        panelSelectedPage.removeAll();
+        panelSelectedPage.add(panelControls, BorderLayout.NORTH);
+        panelSelectedPage.add(component, BorderLayout.CENTER);
         panelSelectedPage.revalidate();
         panelSelectedPage.repaint();
     }
 
+    /**
+     * Scale of the page to fill the viewer width in device pixels, PDF units are 1/72 inch
+     */
+    private float getRenderScale(float realWidth) {
+        double deviceScale = 1.0;
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            deviceScale = gc.getDefaultTransform().getScaleX();
+        }
+        return (float) (width * deviceScale / realWidth);
+    }
+
     private void initialize(File file) throws Exception {
 
         //PDDocument doc = PDDocument.load(file);
@@ -121,6 +222,8 @@ public class PdfViewer extends JPanel {
         numberOfPages = doc.getNumberOfPages();
 
         renderer = new PDFRenderer(doc);
+        renderScale = getRenderScale(realWidth);
+        renderExecutor = newRenderExecutor();
 
         panelControls = new JPanel();
         panelControls.setLayout(new BorderLayout(0, 0));
@@ -208,11 +311,80 @@ public class PdfViewer extends JPanel {
         selectPage(0);
     }
 
-    public void closePdfFile() {
-        try {
-            doc.close();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    private static PDDocument load(File document) throws IOException {
+        return PDDocument.load(document, document.length() > LARGE_FILE_BYTES
+                ? MemoryUsageSetting.setupMixed(SCRATCH_MEMORY_BYTES)
+                : MemoryUsageSetting.setupMainMemoryOnly());
+    }
+
+    private static ExecutorService newRenderExecutor() {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "pdf-viewer-renderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The document closed on removal is opened again when the viewer is added back and its file is still there
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+
+        if (released != null && document.exists()) {
+            try {
+                doc = load(document);
+                renderer = new PDFRenderer(doc);
+                renderExecutor = newRenderExecutor();
+                released = null;
+                selectPage(currentPageIndex);
+            } catch (IOException e) {
+                log.catching(e);
+            }
         }
     }
+
+    /**
+     * The document is closed when the viewer is removed from the report pane or the window is disposed
+     */
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+        closePdfFile();
+    }
+
+    /**
+     * Close the document without blocking EDT, pending page renders are skipped and the document
+     * is closed by the last task of the render thread. A close in progress is returned to later calls.
+     *
+     * @return completed when the document file is released
+     */
+    public CompletableFuture<Void> closePdfFile() {
+        if (released != null) {
+            return released;
+        }
+        if (doc == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        PDDocument closing = doc;
+        doc = null;
+        renderer = null;
+
+        synchronized (pageCache) {
+            pageCache.clear();
+        }
+
+        released = CompletableFuture.runAsync(() -> {
+            try {
+                closing.close();
+            } catch (IOException e) {
+                log.catching(e);
+            }
+        }, renderExecutor);
+        renderExecutor.shutdown();
+
+        return released;
+    }
 }
@@ -6,4 +6,6 @@ import ru.rti.desktop.view.common.BaseView;
 public interface ToolbarView extends BaseView {
 
   void setProfileButtonState(ToolbarButtonState toolbarButtonState);
+
+  void setRecordingButtonState(boolean recording);
 }
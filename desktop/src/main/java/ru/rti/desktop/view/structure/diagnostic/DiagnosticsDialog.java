@@ -0,0 +1,118 @@
+package ru.rti.desktop.view.structure.diagnostic;
+
+import lombok.extern.log4j.Log4j2;
+import ru.rti.desktop.diagnostic.StageMetrics;
+import ru.rti.desktop.diagnostic.StageStats;
+import ru.rti.desktop.manager.ProfileManager;
+import ru.rti.desktop.model.ProfileTaskQueryKey;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.function.IntFunction;
+
+/**
+ * Latencies and throughput of the data path stages by profile, task and query, refreshed every second
+ */
+@Log4j2
+@Singleton
+public class DiagnosticsDialog extends JDialog {
+    private static final int REFRESH_MS = 1000;
+    private static final String[] COLUMNS = {"Profile", "Task", "Query", "Stage", "Count", "Per sec",
+            "Mean, ms", "P50, ms", "P99, ms", "Max, ms"};
+
+    private final ProfileManager profileManager;
+    private final DefaultTableModel tableModel;
+    private final Timer timer;
+
+    @Inject
+    public DiagnosticsDialog(@Named("profileManager") ProfileManager profileManager) {
+        this.profileManager = profileManager;
+
+        this.tableModel = new DefaultTableModel(COLUMNS, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(e -> {
+            StageMetrics.reset();
+            refresh();
+        });
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(resetButton);
+
+        this.setLayout(new BorderLayout());
+        this.add(new JScrollPane(table), BorderLayout.CENTER);
+        this.add(buttonPanel, BorderLayout.SOUTH);
+        this.setTitle("Diagnostics");
+
+        this.timer = new Timer(REFRESH_MS, e -> refresh());
+        this.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                timer.stop();
+            }
+
+            @Override
+            public void windowClosed(WindowEvent e) {
+                timer.stop();
+            }
+        });
+
+        this.setSize(new Dimension(900, 400));
+        this.setLocationRelativeTo(null);
+    }
+
+    public void showDiagnostics() {
+        refresh();
+        timer.start();
+        this.setVisible(true);
+        this.toFront();
+    }
+
+    private void refresh() {
+        tableModel.setRowCount(0);
+
+        for (StageStats stats : StageMetrics.getStats()) {
+            ProfileTaskQueryKey key = stats.getKey();
+            tableModel.addRow(new Object[]{
+                    getName(key.getProfileId(), id -> profileManager.getProfileInfoById(id).getName()),
+                    getName(key.getTaskId(), id -> profileManager.getTaskInfoById(id).getName()),
+                    getName(key.getQueryId(), id -> profileManager.getQueryInfoById(id).getName()),
+                    stats.getStage(),
+                    stats.getCount(),
+                    format(stats.getThroughputPerSec()),
+                    format(stats.getMeanMillis()),
+                    format(stats.getP50Millis()),
+                    format(stats.getP99Millis()),
+                    format(stats.getMaxMillis())
+            });
+        }
+    }
+
+    private String getName(int id, IntFunction<String> name) {
+        if (id == 0) {
+            return "";
+        }
+        try {
+            return name.apply(id);
+        } catch (RuntimeException e) {
+            return String.valueOf(id);
+        }
+    }
+
+    private String format(double value) {
+        return String.format("%.3f", value);
+    }
+}
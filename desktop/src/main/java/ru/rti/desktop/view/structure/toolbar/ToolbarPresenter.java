@@ -1,13 +1,20 @@
 package ru.rti.desktop.view.structure.toolbar;
 
+import java.awt.Component;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import javax.swing.JButton;
+import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
 
 import lombok.extern.log4j.Log4j2;
 import ru.rti.desktop.manager.ProfileManager;
+import ru.rti.desktop.manager.RecordingManager;
 import ru.rti.desktop.model.view.ToolbarButtonState;
 import ru.rti.desktop.model.view.ToolbarAction;
 import ru.rti.desktop.router.Router;
@@ -25,20 +32,24 @@ public class ToolbarPresenter implements ActionListener, ToolbarListener {
   private final EventListener eventListener;
   private final ProfileManager profileManager;
   private final Router router;
+  private final RecordingManager recordingManager;
 
   @Inject
   public ToolbarPresenter(@Named("toolbarView") ToolbarView toolbarView,
                           @Named("navigatorState") NavigatorState navigatorState,
                           @Named("eventListener") EventListener eventListener,
                           @Named("profileManager") ProfileManager profileManager,
-                          @Named("router") Router router) {
+                          @Named("router") Router router,
+                          @Named("recordingManager") RecordingManager recordingManager) {
     this.toolbarView = toolbarView;
     this.navigatorState = navigatorState;
     this.eventListener = eventListener;
     this.profileManager = profileManager;
     this.router = router;
+    this.recordingManager = recordingManager;
 
     this.eventListener.addProfileButtonStateListener(this);
+    this.toolbarView.setRecordingButtonState(recordingManager.isRecording());
   }
 
   @Override
@@ -54,6 +65,51 @@ public class ToolbarPresenter implements ActionListener, ToolbarListener {
     if (e.getActionCommand().equals(ToolbarAction.REPORT.name())) {
       router.runReportDialog();
     }
+
+    if (e.getActionCommand().equals(ToolbarAction.DIAGNOSTICS.name())) {
+      router.runDiagnosticsDialog();
+    }
+
+    if (e.getActionCommand().equals(ToolbarAction.RECORDING.name())) {
+      dumpRecording((JButton) e.getSource());
+    }
+  }
+
+  /**
+   * Dump a snapshot of the flight recording to file, the recording is started if it is not running.
+   * The dump may take a while so it is done off the EDT
+   */
+  private void dumpRecording(JButton button) {
+    if (!recordingManager.isRecording()) {
+      recordingManager.startRecording();
+      toolbarView.setRecordingButtonState(true);
+      return;
+    }
+
+    button.setEnabled(false);
+
+    new SwingWorker<Path, Void>() {
+      @Override
+      protected Path doInBackground() throws Exception {
+        return recordingManager.dumpRecording();
+      }
+
+      @Override
+      protected void done() {
+        toolbarView.setRecordingButtonState(recordingManager.isRecording());
+        Component parent = button.getTopLevelAncestor();
+        try {
+          JOptionPane.showMessageDialog(parent, "Recording is written to " + get(),
+              "Information", JOptionPane.INFORMATION_MESSAGE);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+          log.catching(e.getCause());
+          JOptionPane.showMessageDialog(parent, "Recording dump failed: " + e.getCause().getMessage(),
+              "Error", JOptionPane.ERROR_MESSAGE);
+        }
+      }
+    }.execute();
   }
 
   @Override
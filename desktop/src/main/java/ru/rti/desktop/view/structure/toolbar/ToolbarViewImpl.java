@@ -20,16 +20,22 @@ public class ToolbarViewImpl extends JToolBar implements ToolbarView {
     private final JButton toolbarConfigButton;
     private final JButton toolbarTemplateButton;
     private final JButton toolbarReportButton;
+    private final JButton toolbarDiagnosticsButton;
+    private final JButton toolbarRecordingButton;
 
     @Inject
     public ToolbarViewImpl(@Named("toolbarPresenter") Lazy<ToolbarPresenter> toolbarPresenter,
                            @Named("toolbarConfigButton") JButton toolbarConfigButton,
                            @Named("toolbarTemplateButton") JButton toolbarTemplateButton,
-                           @Named("toolbarReportButton") JButton toolbarReportButton) {
+                           @Named("toolbarReportButton") JButton toolbarReportButton,
+                           @Named("toolbarDiagnosticsButton") JButton toolbarDiagnosticsButton,
+                           @Named("toolbarRecordingButton") JButton toolbarRecordingButton) {
         this.toolbarPresenter = toolbarPresenter;
         this.toolbarConfigButton = toolbarConfigButton;
         this.toolbarTemplateButton = toolbarTemplateButton;
         this.toolbarReportButton = toolbarReportButton;
+        this.toolbarDiagnosticsButton = toolbarDiagnosticsButton;
+        this.toolbarRecordingButton = toolbarRecordingButton;
 
         this.setBorder(new EtchedBorder());
 
@@ -41,6 +47,12 @@ public class ToolbarViewImpl extends JToolBar implements ToolbarView {
         this.add(Box.createRigidArea(new Dimension(10, 0)));
         this.add(this.toolbarReportButton);
 
+        this.add(Box.createRigidArea(new Dimension(10, 0)));
+        this.add(this.toolbarDiagnosticsButton);
+
+        this.add(Box.createRigidArea(new Dimension(10, 0)));
+        this.add(this.toolbarRecordingButton);
+
     }
 
     @Override
@@ -48,6 +60,8 @@ public class ToolbarViewImpl extends JToolBar implements ToolbarView {
         this.toolbarConfigButton.addActionListener(this.toolbarPresenter.get());
         this.toolbarTemplateButton.addActionListener(this.toolbarPresenter.get());
         this.toolbarReportButton.addActionListener(this.toolbarPresenter.get());
+        this.toolbarDiagnosticsButton.addActionListener(this.toolbarPresenter.get());
+        this.toolbarRecordingButton.addActionListener(this.toolbarPresenter.get());
     }
 
     @Override
@@ -57,4 +71,10 @@ public class ToolbarViewImpl extends JToolBar implements ToolbarView {
         this.toolbarReportButton.setEnabled(toolbarButtonState == ToolbarButtonState.ENABLE);
     }
 
+    @Override
+    public void setRecordingButtonState(boolean recording) {
+        this.toolbarRecordingButton.setText(recording ? "Dump recording" : "Start recording");
+        this.toolbarRecordingButton.setEnabled(true);
+    }
+
 }
@@ -133,6 +133,7 @@ public abstract class ChartHandler extends MouseListenerImpl implements HelperCh
     this.detailsControlPanel.getCount().addActionListener(new RadioListenerColumn());
     this.detailsControlPanel.getSum().addActionListener(new RadioListenerColumn());
     this.detailsControlPanel.getAverage().addActionListener(new RadioListenerColumn());
+    this.detailsControlPanel.getQuantileList().forEach(quantile -> quantile.addActionListener(new RadioListenerColumn()));
 
     this.jxTableCaseMetrics.getJxTable().addMouseListener(this);
     this.jxTableCaseColumns.getJxTable().addMouseListener(this);
@@ -165,6 +166,8 @@ public abstract class ChartHandler extends MouseListenerImpl implements HelperCh
 
     this.checkTimestampColumn();
 
+    this.cancelRefinement(processType);
+
     if (METRICS.equals(sourceConfig)) {
       this.loadChartMetric(processType);
     } else if (COLUMNS.equals(sourceConfig)) {
@@ -174,6 +177,15 @@ public abstract class ChartHandler extends MouseListenerImpl implements HelperCh
     log.info("Query: " + queryInfo.getName());
   }
 
+  /**
+   * Stop background refinement of the history chart which is about to be replaced
+   */
+  private void cancelRefinement(ProcessType processType) {
+    if (getChartGanttPanel(processType).getTopComponent() instanceof StackChartPanel stackChartPanel) {
+      stackChartPanel.cancelRefinement();
+    }
+  }
+
   private void loadChartMetric(ProcessType processType) {
 
     Metric metric = getMetricFromUI();
@@ -277,7 +289,7 @@ public abstract class ChartHandler extends MouseListenerImpl implements HelperCh
         metric.setMetricFunction(metricFunctionOnEdit);
         metric.setChartType(STACKED);
       }
-      case SUM, AVERAGE -> {
+      case SUM, AVERAGE, P50, P90, P99, MAX -> {
         metric.setMetricFunction(metricFunctionOnEdit);
         metric.setChartType(LINEAR);
       }
@@ -309,7 +321,7 @@ public abstract class ChartHandler extends MouseListenerImpl implements HelperCh
       GUIHelper.addToJSplitPane(getChartGanttPanel(processType), detailPanel, JSplitPane.BOTTOM, 250);
     }
 
-    if (metric.isLinearYAxisSameSum() | metric.isLinearYAxisAvg()) {
+    if (metric.isLinearYAxisSameSum() | metric.isLinearYAxisAvg() | metric.isLinearYAxisQuantile()) {
       StackChartPanel stackChartPanel = getStackChartPanel(metric, processType);
       DetailPanel detailPanel = getDetailPanel(metric.getYAxis(), stackChartPanel.getSeriesColorMap(),
               stackChartPanel, processType, metric.getChartType());
@@ -427,6 +439,7 @@ public abstract class ChartHandler extends MouseListenerImpl implements HelperCh
         case "Count" -> metricFunctionOnEdit = MetricFunction.COUNT;
         case "Sum" -> metricFunctionOnEdit = MetricFunction.SUM;
         case "Average" -> metricFunctionOnEdit = MetricFunction.AVERAGE;
+        case "P50", "P90", "P99", "Max" -> metricFunctionOnEdit = MetricFunction.valueOf(button.getActionCommand());
       }
     }
   }
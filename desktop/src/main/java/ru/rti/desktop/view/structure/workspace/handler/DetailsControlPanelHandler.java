@@ -38,6 +38,7 @@ public class DetailsControlPanelHandler implements ActionListener {
     this.detailsControlPanel.getCount().addActionListener(new RadioListenerDetailsUI());
     this.detailsControlPanel.getSum().addActionListener(new RadioListenerDetailsUI());
     this.detailsControlPanel.getAverage().addActionListener(new RadioListenerDetailsUI());
+    this.detailsControlPanel.getQuantileList().forEach(quantile -> quantile.addActionListener(new RadioListenerDetailsUI()));
 
     this.status = LifeCycleStatus.NONE;
   }
@@ -60,12 +61,12 @@ public class DetailsControlPanelHandler implements ActionListener {
         cancelToSaveNewMetric();
 
         setButtonEnabled(false, true, false);
-        setRadioButtonEnabled(false, false, false, false);
+        setRadioButtonEnabled(false, false, false, false, false);
         setComboBoxEnabled(false, false, false);
       }
 
       setButtonEnabled(false, true, false);
-      setRadioButtonEnabled(false,false, false, false);
+      setRadioButtonEnabled(false, false, false, false, false);
       setComboBoxEnabled(false, false, false);
 
     } else if (e.getSource() == detailsControlPanel.getEditButton()) {
@@ -76,11 +77,11 @@ public class DetailsControlPanelHandler implements ActionListener {
       setButtonEnabled(false, false, true);
 
       if (Arrays.stream(TimestampType.values()).anyMatch((t) -> t.name().equals(metric.getYAxis().getColDbTypeName()))) {
-        setRadioButtonEnabled(false, true, true, true);
+        setRadioButtonEnabled(false, true, true, true, false);
       } else if (CType.STRING.equals(metric.getYAxis().getCsType().getCType())) {
-        setRadioButtonEnabled(false, true, false, false);
+        setRadioButtonEnabled(false, true, false, false, false);
       } else {
-        setRadioButtonEnabled(false, true, true, true);
+        setRadioButtonEnabled(false, true, true, true, true);
       }
 
       setComboBoxEnabled(false, false, false);
@@ -91,7 +92,7 @@ public class DetailsControlPanelHandler implements ActionListener {
       cancelToSaveNewMetric();
 
       setButtonEnabled(false, true, false);
-      setRadioButtonEnabled(false,false, false, false);
+      setRadioButtonEnabled(false, false, false, false, false);
       setComboBoxEnabled(false, false, false);
     }
   }
@@ -110,7 +111,7 @@ public class DetailsControlPanelHandler implements ActionListener {
     setMetricInUI(metric);
 
     setButtonEnabled(false, false, false);
-    setRadioButtonEnabled(false, false, false, false);
+    setRadioButtonEnabled(false, false, false, false, false);
     setComboBoxEnabled(false, false, false);
   }
 
@@ -120,7 +121,7 @@ public class DetailsControlPanelHandler implements ActionListener {
     loadMetricToDetails(metric);
 
     setButtonEnabled(false, true, false);
-    setRadioButtonEnabled(false, false, false, false);
+    setRadioButtonEnabled(false, false, false, false, false);
     setComboBoxEnabled(false, false, false);
   }
 
@@ -165,11 +166,12 @@ public class DetailsControlPanelHandler implements ActionListener {
     detailsControlPanel.getCancelButton().setEnabled(cancel);
   }
 
-  private void setRadioButtonEnabled(boolean asIs, boolean count, boolean sum, boolean average) {
+  private void setRadioButtonEnabled(boolean asIs, boolean count, boolean sum, boolean average, boolean quantile) {
     detailsControlPanel.getAsIs().setEnabled(asIs);
     detailsControlPanel.getCount().setEnabled(count);
     detailsControlPanel.getSum().setEnabled(sum);
     detailsControlPanel.getAverage().setEnabled(average);
+    detailsControlPanel.getQuantileList().forEach(button -> button.setEnabled(quantile));
   }
 
   private void setComboBoxEnabled(boolean yAxis, boolean group, boolean chartType) {
@@ -187,7 +189,7 @@ public class DetailsControlPanelHandler implements ActionListener {
 
       switch (button.getText()) {
         case "Count" -> setChartType(ChartType.STACKED);
-        case "Sum", "Average" -> setChartType(ChartType.LINEAR);
+        case "Sum", "Average", "P50", "P90", "P99", "Max" -> setChartType(ChartType.LINEAR);
       }
     }
   }
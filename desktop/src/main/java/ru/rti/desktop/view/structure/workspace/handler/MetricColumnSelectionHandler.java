@@ -90,6 +90,7 @@ public class MetricColumnSelectionHandler extends ChartHandler implements ListSe
     this.detailsControlPanel.getCount().addActionListener(new RadioListenerColumn());
     this.detailsControlPanel.getSum().addActionListener(new RadioListenerColumn());
     this.detailsControlPanel.getAverage().addActionListener(new RadioListenerColumn());
+    this.detailsControlPanel.getQuantileList().forEach(quantile -> quantile.addActionListener(new RadioListenerColumn()));
 
     this.detailsControlPanel.getSaveButton().addActionListener(this);
     this.detailsControlPanel.getCancelButton().addActionListener(this);
@@ -314,6 +315,10 @@ public class MetricColumnSelectionHandler extends ChartHandler implements ListSe
           metricFunctionOnEdit = MetricFunction.AVERAGE;
           loadChart(REAL_TIME);
         }
+        case "P50", "P90", "P99", "Max" -> {
+          metricFunctionOnEdit = MetricFunction.valueOf(button.getActionCommand());
+          loadChart(REAL_TIME);
+        }
       }
     }
   }
@@ -1,5 +1,7 @@
 package ru.rti.desktop.view.structure.workspace.query;
 
+import java.util.Arrays;
+import java.util.List;
 import javax.swing.Box;
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
@@ -26,6 +28,7 @@ public class DetailsControlPanel extends JPanel {
   private final JRadioButton count;
   private final JRadioButton sum;
   private final JRadioButton average;
+  private final List<JRadioButton> quantileList;
 
   private final JButton saveButton;
   private final JButton editButton;
@@ -46,6 +49,14 @@ public class DetailsControlPanel extends JPanel {
     this.count = new JRadioButton(MetricFunction.COUNT.getName(), false);
     this.sum = new JRadioButton(MetricFunction.SUM.getName(), false);
     this.average = new JRadioButton(MetricFunction.AVERAGE.getName(), false);
+    this.quantileList = Arrays.stream(MetricFunction.values())
+        .filter(MetricFunction::isQuantile)
+        .map(metricFunction -> {
+          JRadioButton quantile = new JRadioButton(metricFunction.getName(), false);
+          quantile.setActionCommand(metricFunction.name());
+          return quantile;
+        })
+        .toList();
 
     this.saveButton = new JButton("Save");
     this.editButton = new JButton("Edit");
@@ -56,12 +67,14 @@ public class DetailsControlPanel extends JPanel {
     buttonGroupFunction.add(count);
     buttonGroupFunction.add(sum);
     buttonGroupFunction.add(average);
+    quantileList.forEach(buttonGroupFunction::add);
 
     Box boxFunction = Box.createHorizontalBox();
     boxFunction.add(asIs);
     boxFunction.add(count);
     boxFunction.add(sum);
     boxFunction.add(average);
+    quantileList.forEach(boxFunction::add);
 
     JPanel jPanelSettings = new JPanel();
     PainlessGridBag gblSettings = new PainlessGridBag(jPanelSettings, GUIHelper.getPainlessGridbagConfiguration(), false);
@@ -89,6 +102,7 @@ public class DetailsControlPanel extends JPanel {
         .cell(sum).fillX();
     gblFunction.row()
         .cell(average).fillX();
+    quantileList.forEach(quantile -> gblFunction.row().cell(quantile).fillX());
     gblFunction.row()
         .cell(new JLabel()).fillXY();
 
@@ -96,6 +110,7 @@ public class DetailsControlPanel extends JPanel {
     setConstrainsInsets(gblFunction, count, 0);
     setConstrainsInsets(gblFunction, sum, 0);
     setConstrainsInsets(gblFunction, average, 0);
+    quantileList.forEach(quantile -> setConstrainsInsets(gblFunction, quantile, 0));
     gblFunction.done();
 
     JPanel jPanelButton = new JPanel();
@@ -133,6 +148,7 @@ public class DetailsControlPanel extends JPanel {
     count.setEnabled(flag);
     sum.setEnabled(flag);
     average.setEnabled(flag);
+    quantileList.forEach(quantile -> quantile.setEnabled(flag));
 
     saveButton.setEnabled(flag);
     editButton.setEnabled(flag);
@@ -145,6 +161,9 @@ public class DetailsControlPanel extends JPanel {
       case COUNT -> buttonGroupFunction.setSelected(count.getModel(), true);
       case SUM -> buttonGroupFunction.setSelected(sum.getModel(), true);
       case AVERAGE -> buttonGroupFunction.setSelected(average.getModel(), true);
+      case P50, P90, P99, MAX -> quantileList.stream()
+          .filter(quantile -> quantile.getActionCommand().equals(metricFunction.name()))
+          .forEach(quantile -> buttonGroupFunction.setSelected(quantile.getModel(), true));
     }
   }
 
@@ -0,0 +1,96 @@
+package ru.rti.desktop.warehouse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.EqualsAndHashCode.CacheStrategy;
+import lombok.ToString;
+import org.fbase.model.output.GanttColumn;
+import org.fbase.model.profile.CProfile;
+
+/**
+ * Results of two-level group by kept until a put to the table brings rows into their range,
+ * so the detail panel for a column or range the user already looked at is shown without a new scan
+ */
+public class GroupByCache {
+
+  private static final int MAX_CACHED_RESULTS = 500;
+
+  private final Map<GroupByKey, List<GanttColumn>> cache;
+  private final Map<String, Long> generations = new HashMap<>();
+
+  public GroupByCache() {
+    this.cache = new LinkedHashMap<>(64, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<GroupByKey, List<GanttColumn>> eldest) {
+        return size() > MAX_CACHED_RESULTS;
+      }
+    };
+  }
+
+  /**
+   * @return copy of cached result or null
+   */
+  public List<GanttColumn> get(String tableName, CProfile firstLevelGroupBy, CProfile secondLevelGroupBy,
+                               long begin, long end) {
+    List<GanttColumn> ganttColumnList;
+    synchronized (cache) {
+      ganttColumnList = cache.get(getKey(tableName, firstLevelGroupBy, secondLevelGroupBy, begin, end));
+    }
+    return ganttColumnList == null ? null : new ArrayList<>(ganttColumnList);
+  }
+
+  /**
+   * Generation of the table to pass to {@link #put} for a result read after this call
+   */
+  public long getGeneration(String tableName) {
+    synchronized (cache) {
+      return generations.getOrDefault(tableName, 0L);
+    }
+  }
+
+  /**
+   * Result is not cached when the table got a put after the generation was taken
+   */
+  public void put(String tableName, CProfile firstLevelGroupBy, CProfile secondLevelGroupBy,
+                  long begin, long end, long generation, List<GanttColumn> ganttColumnList) {
+    synchronized (cache) {
+      if (generations.getOrDefault(tableName, 0L) == generation) {
+        cache.put(getKey(tableName, firstLevelGroupBy, secondLevelGroupBy, begin, end),
+            new ArrayList<>(ganttColumnList));
+      }
+    }
+  }
+
+  /**
+   * Drop results of the ranges the rows of the put fall into, results read before the call
+   * are not cached afterwards
+   */
+  public void put(String tableName, PutSpan putSpan) {
+    synchronized (cache) {
+      cache.keySet().removeIf(key -> key.tableName.equals(tableName) && putSpan.overlaps(key.begin, key.end));
+      generations.merge(tableName, 1L, Long::sum);
+    }
+  }
+
+  private GroupByKey getKey(String tableName, CProfile firstLevelGroupBy, CProfile secondLevelGroupBy,
+                            long begin, long end) {
+    return new GroupByKey(tableName, firstLevelGroupBy.getColName(), secondLevelGroupBy.getColName(), begin, end);
+  }
+
+  @AllArgsConstructor
+  @EqualsAndHashCode(cacheStrategy = CacheStrategy.LAZY)
+  @ToString
+  private static class GroupByKey {
+
+    private String tableName;
+    private String firstLevel;
+    private String secondLevel;
+    private long begin;
+    private long end;
+  }
+}
@@ -0,0 +1,90 @@
+package ru.rti.desktop.warehouse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.log4j.Log4j2;
+import org.fbase.core.FStore;
+import org.fbase.model.output.GanttColumn;
+import org.fbase.model.profile.CProfile;
+import org.fbase.sql.BatchResultSet;
+
+/**
+ * Two-level group by for several first level columns in one pass over the range, every first
+ * level column gets its own hash aggregator. Keys are the strings fbase returns for stored values,
+ * the same the native group by builds its keys from, a range with a value of another type or null
+ * is left to the native group by
+ */
+@Log4j2
+public class GroupByScan {
+
+  private static final int FETCH_SIZE = 10_000;
+
+  private final FStore fStore;
+
+  public GroupByScan(FStore fStore) {
+    this.fStore = fStore;
+  }
+
+  /**
+   * @return results in the order of first level columns or empty if a key can't be taken as is
+   */
+  public Optional<Map<CProfile, List<GanttColumn>>> scan(String tableName, List<CProfile> firstLevelGroupByList,
+                                                         CProfile secondLevelGroupBy, long begin, long end) {
+    int secondIndex = secondLevelGroupBy.getColId();
+    int[] firstIndex = firstLevelGroupByList.stream().mapToInt(CProfile::getColId).toArray();
+
+    List<Map<String, Map<String, Integer>>> aggregators = new ArrayList<>(firstIndex.length);
+    for (int i = 0; i < firstIndex.length; i++) {
+      aggregators.add(new HashMap<>());
+    }
+
+    BatchResultSet batchResultSet = fStore.getBatchResultSet(tableName, begin, end, FETCH_SIZE);
+
+    while (batchResultSet.next()) {
+      List<List<Object>> rows = batchResultSet.getObject();
+      if (rows == null || rows.isEmpty()) {
+        break;
+      }
+
+      for (List<Object> row : rows) {
+        if (!(row.get(secondIndex) instanceof String secondKey)) {
+          return notSupported(tableName, secondLevelGroupBy, row.get(secondIndex));
+        }
+
+        for (int i = 0; i < firstIndex.length; i++) {
+          if (!(row.get(firstIndex[i]) instanceof String firstKey)) {
+            return notSupported(tableName, firstLevelGroupByList.get(i), row.get(firstIndex[i]));
+          }
+
+          aggregators.get(i)
+              .computeIfAbsent(firstKey, key -> new HashMap<>())
+              .merge(secondKey, 1, Integer::sum);
+        }
+      }
+    }
+
+    Map<CProfile, List<GanttColumn>> result = new LinkedHashMap<>();
+    for (int i = 0; i < firstIndex.length; i++) {
+      List<GanttColumn> ganttColumnList = new ArrayList<>();
+      aggregators.get(i).forEach((key, gantt) -> {
+        GanttColumn ganttColumn = new GanttColumn();
+        ganttColumn.setKey(key);
+        ganttColumn.setGantt(gantt);
+        ganttColumnList.add(ganttColumn);
+      });
+      result.put(firstLevelGroupByList.get(i), ganttColumnList);
+    }
+
+    return Optional.of(result);
+  }
+
+  private Optional<Map<CProfile, List<GanttColumn>>> notSupported(String tableName, CProfile cProfile, Object value) {
+    log.info("Scan group by of " + tableName + " is not used, column " + cProfile.getColName()
+        + " has value " + value + " of type " + (value == null ? null : value.getClass().getSimpleName()));
+    return Optional.empty();
+  }
+}
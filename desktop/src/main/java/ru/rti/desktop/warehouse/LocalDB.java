@@ -4,9 +4,17 @@ import com.sleepycat.je.DatabaseException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 import org.fbase.FBase;
 import org.fbase.config.FBaseConfig;
@@ -22,6 +30,10 @@ import org.fbase.model.profile.CProfile;
 import org.fbase.model.profile.SProfile;
 import org.fbase.model.profile.TProfile;
 import org.fbase.sql.BatchResultSet;
+import ru.rti.desktop.diagnostic.FetchTimer;
+import ru.rti.desktop.diagnostic.Stage;
+import ru.rti.desktop.diagnostic.StageMetrics;
+import ru.rti.desktop.diagnostic.event.LocalDbQueryEvent;
 import ru.rti.desktop.helper.FilesHelper;
 import ru.rti.desktop.warehouse.backend.BerkleyDB;
 
@@ -29,12 +41,24 @@ import ru.rti.desktop.warehouse.backend.BerkleyDB;
 @Singleton
 public class LocalDB implements FStore {
 
+  private static final int GROUP_BY_PARALLELISM = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 4));
+  private static final ExecutorService GROUP_BY_EXECUTOR = Executors.newFixedThreadPool(GROUP_BY_PARALLELISM, r -> {
+    Thread thread = new Thread(r, "local-db-group-by");
+    thread.setDaemon(true);
+    return thread;
+  });
+
   private final FilesHelper filesHelper;
   private final FBaseConfig fBaseConfig;
   private final FBase fBase;
   private final FStore fStore;
   private final BerkleyDB berkleyDB;
 
+  @Getter
+  private final SketchRollup sketchRollup;
+  private final GroupByCache groupByCache;
+  private final GroupByScan groupByScan;
+
   @Inject
   public LocalDB(FilesHelper filesHelper) {
     this.filesHelper = filesHelper;
@@ -42,6 +66,9 @@ public class LocalDB implements FStore {
     berkleyDB = new BerkleyDB(filesHelper.getDatabaseDir());
     fBase = new FBase(fBaseConfig, berkleyDB.getStore());
     fStore = fBase.getFStore();
+    sketchRollup = new SketchRollup(this);
+    groupByCache = new GroupByCache();
+    groupByScan = new GroupByScan(fStore);
   }
 
   @Override
@@ -74,53 +101,204 @@ public class LocalDB implements FStore {
 
   @Override
   public void putDataDirect(String tableName, List<List<Object>> list) {
+    PutSpan putSpan = getTimestampColumn(tableName)
+        .map(cProfile -> {
+          PutSpan span = new PutSpan();
+          list.get(cProfile.getColId()).forEach(span::add);
+          return span;
+        })
+        .orElseGet(PutSpan::unknown);
+
+    long start = System.nanoTime();
     try {
       fStore.putDataDirect(tableName, list);
     } catch (Exception e) {
       log.catching(e);
       throw new RuntimeException(e);
+    } finally {
+      StageMetrics.record(Stage.PUT_DATA, start);
+      clearRangeCaches(tableName, putSpan);
     }
   }
 
+  /**
+   * Fetch and store times are recorded by the loader, which knows the fetched rows and time range
+   */
   @Override
   public long putDataJdbc(String tableName, ResultSet resultSet)
       throws SqlColMetadataException, EnumByteExceedException {
-    return fStore.putDataJdbc(tableName, resultSet);
+    PutSpan putSpan = new PutSpan();
+    try {
+      return fStore.putDataJdbc(tableName, wrap(putSpan, tableName, resultSet));
+    } finally {
+      clearRangeCaches(tableName, putSpan);
+    }
   }
 
   @Override
   public void putDataJdbcBatch(String tableName, ResultSet resultSet, Integer fBaseBatchSize)
       throws SqlColMetadataException, EnumByteExceedException {
-    fStore.putDataJdbcBatch(tableName, resultSet, fBaseBatchSize);
+    FetchTimer fetchTimer = new FetchTimer();
+    PutSpan putSpan = new PutSpan();
+    long start = System.nanoTime();
+    try {
+      fStore.putDataJdbcBatch(tableName, fetchTimer.wrap(wrap(putSpan, tableName, resultSet)), fBaseBatchSize);
+    } finally {
+      recordFetchAndPut(fetchTimer, start);
+      clearRangeCaches(tableName, putSpan);
+    }
+  }
+
+  private void recordFetchAndPut(FetchTimer fetchTimer, long start) {
+    long nanos = System.nanoTime() - start;
+    StageMetrics.recordNanos(Stage.FETCH, fetchTimer.getFetchNanos());
+    StageMetrics.recordNanos(Stage.PUT_DATA, nanos - fetchTimer.getFetchNanos());
   }
 
   @Override
   public void putDataCsvBatch(String tableName, String fileName, String csvSplitBy, Integer fBaseBatchSize)
       throws SqlColMetadataException {
-    fStore.putDataCsvBatch(tableName, fileName, csvSplitBy, fBaseBatchSize);
+    try {
+      fStore.putDataCsvBatch(tableName, fileName, csvSplitBy, fBaseBatchSize);
+    } finally {
+      clearRangeCaches(tableName, PutSpan.unknown());
+    }
   }
 
   @Override
   public List<StackedColumn> getSColumnListByCProfile(String tableName, CProfile cProfile,
       long begin, long end) throws SqlColMetadataException, BeginEndWrongOrderException {
-    return fStore.getSColumnListByCProfile(tableName, cProfile, begin, end);
+    LocalDbQueryEvent event = new LocalDbQueryEvent();
+    event.begin();
+    long start = System.nanoTime();
+    try {
+      List<StackedColumn> sColumnList = fStore.getSColumnListByCProfile(tableName, cProfile, begin, end);
+      event.rows = sColumnList.size();
+      return sColumnList;
+    } finally {
+      StageMetrics.record(Stage.CHART_QUERY, start);
+      commit(event, "stacked", tableName, cProfile, begin, end);
+    }
   }
 
   @Override
   public List<GanttColumn> getGColumnListTwoLevelGroupBy(String tableName,
       CProfile firstLevelGroupBy, CProfile secondLevelGroupBy, long begin, long end)
       throws SqlColMetadataException, BeginEndWrongOrderException, GanttColumnNotSupportedException {
-    return fStore.getGColumnListTwoLevelGroupBy(tableName, firstLevelGroupBy, secondLevelGroupBy, begin, end);
+    long generation = groupByCache.getGeneration(tableName);
+    List<GanttColumn> ganttColumnList =
+        groupByCache.get(tableName, firstLevelGroupBy, secondLevelGroupBy, begin, end);
+
+    if (ganttColumnList == null) {
+      LocalDbQueryEvent event = new LocalDbQueryEvent();
+      event.begin();
+      long start = System.nanoTime();
+      ganttColumnList = fStore.getGColumnListTwoLevelGroupBy(tableName, firstLevelGroupBy, secondLevelGroupBy, begin, end);
+      StageMetrics.record(Stage.CHART_QUERY, start);
+      event.rows = ganttColumnList.size();
+      commit(event, "gantt", tableName, firstLevelGroupBy, begin, end);
+      groupByCache.put(tableName, firstLevelGroupBy, secondLevelGroupBy, begin, end, generation, ganttColumnList);
+    }
+
+    return ganttColumnList;
+  }
+
+  /**
+   * Two-level group by for several first level columns and one second level column, the range
+   * is scanned once by {@link GroupByScan} or columns are grouped natively in parallel if the scan can't be used
+   *
+   * @return results in the order of first level columns
+   */
+  public Map<CProfile, List<GanttColumn>> getGColumnListTwoLevelGroupBy(String tableName,
+      List<CProfile> firstLevelGroupByList, CProfile secondLevelGroupBy, long begin, long end)
+      throws SqlColMetadataException, BeginEndWrongOrderException, GanttColumnNotSupportedException {
+    Map<CProfile, List<GanttColumn>> result = new LinkedHashMap<>();
+    List<CProfile> notCached = new ArrayList<>();
+    long generation = groupByCache.getGeneration(tableName);
+
+    for (CProfile firstLevelGroupBy : firstLevelGroupByList) {
+      List<GanttColumn> ganttColumnList = groupByCache.get(tableName, firstLevelGroupBy, secondLevelGroupBy, begin, end);
+      result.put(firstLevelGroupBy, ganttColumnList);
+      if (ganttColumnList == null) {
+        notCached.add(firstLevelGroupBy);
+      }
+    }
+
+    if (notCached.size() == 1) {
+      CProfile firstLevelGroupBy = notCached.get(0);
+      result.put(firstLevelGroupBy, getGColumnListTwoLevelGroupBy(tableName, firstLevelGroupBy, secondLevelGroupBy, begin, end));
+    } else if (!notCached.isEmpty()) {
+      Optional<Map<CProfile, List<GanttColumn>>> scanned =
+          groupByScan.scan(tableName, notCached, secondLevelGroupBy, begin, end);
+
+      if (scanned.isPresent()) {
+        scanned.get().forEach((firstLevelGroupBy, ganttColumnList) -> {
+          groupByCache.put(tableName, firstLevelGroupBy, secondLevelGroupBy, begin, end, generation, ganttColumnList);
+          result.put(firstLevelGroupBy, ganttColumnList);
+        });
+      } else {
+        Map<CProfile, CompletableFuture<List<GanttColumn>>> futures = new LinkedHashMap<>();
+        notCached.forEach(firstLevelGroupBy -> futures.put(firstLevelGroupBy,
+            CompletableFuture.supplyAsync(() -> {
+              try {
+                return getGColumnListTwoLevelGroupBy(tableName, firstLevelGroupBy, secondLevelGroupBy, begin, end);
+              } catch (Exception e) {
+                throw new RuntimeException(e);
+              }
+            }, GROUP_BY_EXECUTOR)));
+
+        futures.forEach((firstLevelGroupBy, future) -> result.put(firstLevelGroupBy, future.join()));
+      }
+    }
+
+    return result;
   }
 
   @Override
   public List<List<Object>> getRawDataByColumn(String tableName, CProfile cProfile, long begin, long end) {
-    return fStore.getRawDataByColumn(tableName, cProfile, begin, end);
+    LocalDbQueryEvent event = new LocalDbQueryEvent();
+    event.begin();
+    long start = System.nanoTime();
+    try {
+      List<List<Object>> rawData = fStore.getRawDataByColumn(tableName, cProfile, begin, end);
+      event.rows = rawData.size();
+      return rawData;
+    } finally {
+      StageMetrics.record(Stage.CHART_QUERY, start);
+      commit(event, "raw", tableName, cProfile, begin, end);
+    }
   }
 
   @Override
   public List<List<Object>> getRawDataAll(String tableName, long begin, long end) {
-    return fStore.getRawDataAll(tableName, begin, end);
+    LocalDbQueryEvent event = new LocalDbQueryEvent();
+    event.begin();
+    long start = System.nanoTime();
+    try {
+      List<List<Object>> rawData = fStore.getRawDataAll(tableName, begin, end);
+      event.rows = rawData.size();
+      return rawData;
+    } finally {
+      StageMetrics.record(Stage.CHART_QUERY, start);
+      commit(event, "raw", tableName, null, begin, end);
+    }
+  }
+
+  /**
+   * Fields are filled only when the event passes the recording settings
+   */
+  private static void commit(LocalDbQueryEvent event, String operation, String tableName, CProfile cProfile,
+      long begin, long end) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.setKey(StageMetrics.getBoundKey());
+      event.table = tableName;
+      event.operation = operation;
+      event.column = cProfile == null ? null : cProfile.getColName();
+      event.rangeBegin = begin;
+      event.rangeEnd = end;
+      event.commit();
+    }
   }
 
   @Override
@@ -138,6 +316,34 @@ public class LocalDB implements FStore {
     return fStore.getLastTimestamp(tableName, begin, end);
   }
 
+  /**
+   * Results cached for ranges the rows of the put fall into are dropped, sketches of the buckets
+   * the put completes are rolled up
+   */
+  private void clearRangeCaches(String tableName, PutSpan putSpan) {
+    groupByCache.put(tableName, putSpan);
+    try {
+      sketchRollup.put(tableName, putSpan);
+    } catch (Exception e) {
+      log.catching(e);
+      sketchRollup.clear(tableName);
+    }
+  }
+
+  private ResultSet wrap(PutSpan putSpan, String tableName, ResultSet resultSet) {
+    return putSpan.wrap(resultSet, getTimestampColumn(tableName).map(CProfile::getColIdSql).orElse(0));
+  }
+
+  private Optional<CProfile> getTimestampColumn(String tableName) {
+    TProfile tProfile = getTProfile(tableName);
+    if (tProfile == null || tProfile.getCProfiles() == null) {
+      return Optional.empty();
+    }
+    return tProfile.getCProfiles().stream()
+        .filter(cProfile -> cProfile.getCsType() != null && cProfile.getCsType().isTimeStamp())
+        .findAny();
+  }
+
   @Override
   public void syncBackendDb() {
     if (this.berkleyDB.getStore() != null) {
@@ -0,0 +1,91 @@
+package ru.rti.desktop.warehouse;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.Date;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Time span of the rows of a put, so the range caches drop only results the rows may change.
+ * Span of a put which rows can't be seen, e.g. of a CSV file, is unknown and covers any range.
+ */
+@Log4j2
+public class PutSpan {
+
+  private long min = Long.MAX_VALUE;
+  private long max = Long.MIN_VALUE;
+  private boolean unknown;
+
+  public static PutSpan unknown() {
+    PutSpan putSpan = new PutSpan();
+    putSpan.unknown = true;
+    return putSpan;
+  }
+
+  public void add(Object value) {
+    if (value instanceof Date date) {
+      add(date.getTime());
+    } else if (value instanceof Number number) {
+      add(number.longValue());
+    } else if (value != null) {
+      unknown = true;
+    }
+  }
+
+  public void add(long timestamp) {
+    min = Math.min(min, timestamp);
+    max = Math.max(max, timestamp);
+  }
+
+  /**
+   * Result set wrapper which takes the timestamp column of each fetched row into the span,
+   * the span is unknown without the column
+   */
+  public ResultSet wrap(ResultSet resultSet, int columnIndex) {
+    if (columnIndex < 1) {
+      unknown = true;
+      return resultSet;
+    }
+
+    return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+        (proxy, method, args) -> {
+          try {
+            Object result = method.invoke(resultSet, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result) && !unknown) {
+              try {
+                add(resultSet.getTimestamp(columnIndex));
+              } catch (Exception e) {
+                log.info(e);
+                unknown = true;
+              }
+            }
+            return result;
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+  }
+
+  public boolean isEmpty() {
+    return !unknown && min > max;
+  }
+
+  /**
+   * @return first timestamp of the put, the minimal one when the span is unknown
+   */
+  public long getMin() {
+    return unknown ? Long.MIN_VALUE : min;
+  }
+
+  /**
+   * @return last timestamp of the put, the maximal one when the span is unknown
+   */
+  public long getMax() {
+    return unknown ? Long.MAX_VALUE : max;
+  }
+
+  public boolean overlaps(long begin, long end) {
+    return !isEmpty() && getMin() <= end && getMax() >= begin;
+  }
+}
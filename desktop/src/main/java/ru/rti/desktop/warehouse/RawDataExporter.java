@@ -0,0 +1,299 @@
+package ru.rti.desktop.warehouse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.zip.Deflater;
+import lombok.extern.log4j.Log4j2;
+import org.fbase.core.FStore;
+import org.fbase.model.profile.CProfile;
+import org.fbase.sql.BatchResultSet;
+import ru.rti.desktop.model.ExportFormat;
+
+/**
+ * Stream raw rows of a table from local storage to a file through a bounded buffer, memory use
+ * doesn't depend on the number of rows.
+ * <p>
+ * Columnar file layout: magic "RTIC", format version, column count and column names, then
+ * blocks of rows. A block is row count, compressed and uncompressed length and the deflated
+ * column values, all values of the first column go first. A value is a UTF-8 length and bytes,
+ * length -1 is null. The file ends with a block of zero rows.
+ * <p>
+ * A cancelled or failed export deletes the partial file.
+ */
+@Log4j2
+public class RawDataExporter {
+
+  public static final int FETCH_SIZE = 10_000;
+  private static final int BUFFER_SIZE = 1024 * 1024;
+  private static final int COLUMNAR_VERSION = 1;
+
+  private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+      DateTimeFormatter.ISO_LOCAL_DATE_TIME.withZone(ZoneId.systemDefault());
+
+  public interface ExportProgress {
+
+    void update(long rows, long lastTimestamp);
+
+    default boolean isCancelled() {
+      return false;
+    }
+  }
+
+  private final FStore fStore;
+
+  public RawDataExporter(FStore fStore) {
+    this.fStore = fStore;
+  }
+
+  /**
+   * @return number of exported rows
+   * @throws CancellationException if the export is cancelled by the progress
+   */
+  public long export(String tableName, List<CProfile> cProfiles, long begin, long end,
+                     Path path, ExportFormat format, ExportProgress progress) throws IOException {
+    return export(fStore.getBatchResultSet(tableName, begin, end, FETCH_SIZE), cProfiles, path, format, progress);
+  }
+
+  /**
+   * Export the whole table
+   *
+   * @return number of exported rows
+   * @throws CancellationException if the export is cancelled by the progress
+   */
+  public long export(String tableName, List<CProfile> cProfiles,
+                     Path path, ExportFormat format, ExportProgress progress) throws IOException {
+    return export(fStore.getBatchResultSet(tableName, FETCH_SIZE), cProfiles, path, format, progress);
+  }
+
+  private long export(BatchResultSet batchResultSet, List<CProfile> cProfiles,
+                      Path path, ExportFormat format, ExportProgress progress) throws IOException {
+    int timestampIndex = cProfiles.stream()
+        .filter(f -> f.getCsType().isTimeStamp())
+        .mapToInt(CProfile::getColId)
+        .findFirst()
+        .orElse(-1);
+
+    long start = System.currentTimeMillis();
+    long rows = 0;
+
+    boolean completed = false;
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ChannelWriter writer = new ChannelWriter(channel);
+
+      switch (format) {
+        case CSV -> writeCsvHeader(writer, cProfiles);
+        case COLUMNAR -> writeColumnarHeader(writer, cProfiles);
+      }
+
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+      try {
+        while (batchResultSet.next()) {
+          List<List<Object>> batch = batchResultSet.getObject();
+          if (batch == null || batch.isEmpty()) {
+            break;
+          }
+
+          if (progress.isCancelled()) {
+            throw new CancellationException("Export to " + path + " is cancelled after " + rows + " rows");
+          }
+
+          switch (format) {
+            case CSV -> writeCsvRows(writer, cProfiles, timestampIndex, batch);
+            case COLUMNAR -> writeColumnarBlock(writer, deflater, cProfiles.size(), batch);
+          }
+
+          rows += batch.size();
+
+          List<Object> lastRow = batch.get(batch.size() - 1);
+          progress.update(rows, timestampIndex >= 0 && lastRow.get(timestampIndex) instanceof Long timestamp
+              ? timestamp : -1);
+        }
+      } finally {
+        deflater.end();
+      }
+
+      if (ExportFormat.COLUMNAR.equals(format)) {
+        writer.putInt(0);
+      }
+
+      writer.flush();
+      completed = true;
+    } finally {
+      if (!completed) {
+        deletePartialFile(path);
+      }
+    }
+
+    log.info("Exported " + rows + " rows to " + path + " in " + (System.currentTimeMillis() - start) + " ms");
+
+    return rows;
+  }
+
+  private void deletePartialFile(Path path) {
+    try {
+      Files.deleteIfExists(path);
+      log.info("Partial export file " + path + " is deleted");
+    } catch (IOException e) {
+      log.error("Failed to delete partial export file " + path, e);
+    }
+  }
+
+  private void writeCsvHeader(ChannelWriter writer, List<CProfile> cProfiles) throws IOException {
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < cProfiles.size(); i++) {
+      if (i > 0) {
+        line.append(',');
+      }
+      appendCsvValue(line, cProfiles.get(i).getColName());
+    }
+    line.append('\n');
+
+    writer.put(line.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void writeCsvRows(ChannelWriter writer, List<CProfile> cProfiles, int timestampIndex,
+                            List<List<Object>> batch) throws IOException {
+    StringBuilder line = new StringBuilder(256);
+
+    for (List<Object> row : batch) {
+      line.setLength(0);
+
+      for (int i = 0; i < cProfiles.size(); i++) {
+        if (i > 0) {
+          line.append(',');
+        }
+
+        Object value = i < row.size() ? row.get(i) : null;
+        if (value == null) {
+          continue;
+        }
+
+        if (i == timestampIndex && value instanceof Long timestamp) {
+          line.append(TIMESTAMP_FORMATTER.format(Instant.ofEpochMilli(timestamp)));
+        } else {
+          appendCsvValue(line, value.toString());
+        }
+      }
+      line.append('\n');
+
+      writer.put(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private static void appendCsvValue(StringBuilder line, String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      line.append(value);
+      return;
+    }
+
+    line.append('"').append(value.replace("\"", "\"\"")).append('"');
+  }
+
+  private void writeColumnarHeader(ChannelWriter writer, List<CProfile> cProfiles) throws IOException {
+    writer.put("RTIC".getBytes(StandardCharsets.US_ASCII));
+    writer.putInt(COLUMNAR_VERSION);
+    writer.putInt(cProfiles.size());
+
+    for (CProfile cProfile : cProfiles) {
+      writeValue(writer, cProfile.getColName());
+    }
+  }
+
+  private void writeColumnarBlock(ChannelWriter writer, Deflater deflater, int columnCount,
+                                  List<List<Object>> batch) throws IOException {
+    ByteArrayOutputStream columns = new ByteArrayOutputStream(batch.size() * columnCount * 8);
+    DataOutputStream out = new DataOutputStream(columns);
+
+    for (int i = 0; i < columnCount; i++) {
+      for (List<Object> row : batch) {
+        Object value = i < row.size() ? row.get(i) : null;
+        if (value == null) {
+          out.writeInt(-1);
+        } else {
+          byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+          out.writeInt(bytes.length);
+          out.write(bytes);
+        }
+      }
+    }
+    out.flush();
+
+    byte[] input = columns.toByteArray();
+
+    deflater.reset();
+    deflater.setInput(input);
+    deflater.finish();
+
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(input.length / 4 + 64);
+    byte[] chunk = new byte[64 * 1024];
+    while (!deflater.finished()) {
+      compressed.write(chunk, 0, deflater.deflate(chunk));
+    }
+
+    writer.putInt(batch.size());
+    writer.putInt(compressed.size());
+    writer.putInt(input.length);
+    writer.put(compressed.toByteArray());
+  }
+
+  private void writeValue(ChannelWriter writer, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writer.putInt(bytes.length);
+    writer.put(bytes);
+  }
+
+  /**
+   * Bounded direct buffer which is written to the channel when full
+   */
+  private static class ChannelWriter {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    ChannelWriter(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    void putInt(int value) throws IOException {
+      if (buffer.remaining() < Integer.BYTES) {
+        flush();
+      }
+      buffer.putInt(value);
+    }
+
+    void put(byte[] bytes) throws IOException {
+      int offset = 0;
+      while (offset < bytes.length) {
+        if (!buffer.hasRemaining()) {
+          flush();
+        }
+        int length = Math.min(buffer.remaining(), bytes.length - offset);
+        buffer.put(bytes, offset, length);
+        offset += length;
+      }
+    }
+
+    void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
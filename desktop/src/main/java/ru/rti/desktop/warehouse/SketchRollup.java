@@ -0,0 +1,229 @@
+package ru.rti.desktop.warehouse;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.EqualsAndHashCode.CacheStrategy;
+import lombok.ToString;
+import lombok.extern.log4j.Log4j2;
+import org.fbase.core.FStore;
+import org.fbase.model.profile.CProfile;
+import ru.rti.desktop.model.chart.QuantileSketch;
+
+/**
+ * Rollup of raw column values into quantile sketches per fixed time bucket.
+ * Buckets of the columns asked once are rolled up on each put as soon as stored data covers them,
+ * a put drops only the sketches of its buckets and later ones. A chart bucket of any size
+ * is a merge of cached sketches plus raw values at the edges of the range.
+ */
+@Log4j2
+public class SketchRollup {
+
+  public static final long BUCKET_MS = 60 * 1000L;
+  private static final int MAX_CACHED_SKETCHES = 50_000;
+  private static final int MAX_ROLLUP_BUCKETS = 60;
+
+  private final FStore fStore;
+  private final Map<SketchKey, QuantileSketch> cache;
+  private final Map<String, Long> generations = new HashMap<>();
+  private final Map<String, Map<String, CProfile>> rollupColumns = new ConcurrentHashMap<>();
+
+  public SketchRollup(FStore fStore) {
+    this.fStore = fStore;
+    this.cache = new LinkedHashMap<>(1024, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<SketchKey, QuantileSketch> eldest) {
+        return size() > MAX_CACHED_SKETCHES;
+      }
+    };
+  }
+
+  public QuantileSketch getSketch(String tableName, CProfile cProfile, long begin, long end) {
+    QuantileSketch sketch = new QuantileSketch();
+    long generation = getGeneration(tableName);
+
+    rollupColumns.computeIfAbsent(tableName, key -> new ConcurrentHashMap<>())
+        .putIfAbsent(cProfile.getColName(), cProfile);
+
+    long firstBucket = ceilBucket(begin);
+    long lastBucket = floorBucket(end + 1);
+
+    if (firstBucket >= lastBucket) {
+      addRaw(sketch, tableName, cProfile, begin, end);
+      return sketch;
+    }
+
+    if (begin < firstBucket) {
+      addRaw(sketch, tableName, cProfile, begin, firstBucket - 1);
+    }
+
+    mergeBuckets(sketch, tableName, cProfile, firstBucket, lastBucket, generation);
+
+    if (lastBucket <= end) {
+      addRaw(sketch, tableName, cProfile, lastBucket, end);
+    }
+
+    return sketch;
+  }
+
+  /**
+   * Drop sketches of the table, rows of a put may belong to any bucket
+   */
+  public void clear(String tableName) {
+    invalidate(tableName, Long.MIN_VALUE);
+  }
+
+  /**
+   * Drop sketches of the buckets changed by the put and roll up the buckets it completes for
+   * the columns asked before, only the latest buckets are rolled up on a put of a long span
+   */
+  public void put(String tableName, PutSpan putSpan) {
+    if (putSpan.isEmpty()) {
+      return;
+    }
+
+    invalidate(tableName, putSpan.getMin());
+
+    Map<String, CProfile> columns = rollupColumns.get(tableName);
+    if (columns == null || putSpan.getMax() == Long.MAX_VALUE) {
+      return;
+    }
+
+    // the bucket before the put may be completed by it too
+    long generation = getGeneration(tableName);
+    long lastBucket = floorBucket(putSpan.getMax());
+    long firstBucket = Math.max(floorBucket(putSpan.getMin()) - BUCKET_MS, lastBucket - MAX_ROLLUP_BUCKETS * BUCKET_MS);
+
+    if (firstBucket < lastBucket) {
+      columns.values().forEach(cProfile -> mergeBuckets(null, tableName, cProfile, firstBucket, lastBucket, generation));
+    }
+  }
+
+  /**
+   * Sketches from the bucket of the timestamp on are dropped, sketches read before the call
+   * are not cached afterwards
+   */
+  private void invalidate(String tableName, long timestamp) {
+    long bucket = timestamp == Long.MIN_VALUE ? Long.MIN_VALUE : floorBucket(timestamp);
+    synchronized (cache) {
+      cache.keySet().removeIf(key -> key.tableName.equals(tableName) && key.bucket >= bucket);
+      generations.merge(tableName, 1L, Long::sum);
+    }
+  }
+
+  /**
+   * Cached sketches of the buckets are merged, missing ones are loaded by runs of adjacent buckets
+   */
+  private void mergeBuckets(QuantileSketch sketch, String tableName, CProfile cProfile,
+                            long firstBucket, long lastBucket, long generation) {
+    long missingBegin = -1;
+    for (long bucket = firstBucket; bucket < lastBucket; bucket += BUCKET_MS) {
+      QuantileSketch cached = getCached(tableName, cProfile, bucket);
+
+      if (cached != null) {
+        if (missingBegin != -1) {
+          loadBuckets(sketch, tableName, cProfile, missingBegin, bucket, generation);
+          missingBegin = -1;
+        }
+        if (sketch != null) {
+          sketch.merge(cached);
+        }
+      } else if (missingBegin == -1) {
+        missingBegin = bucket;
+      }
+    }
+
+    if (missingBegin != -1) {
+      loadBuckets(sketch, tableName, cProfile, missingBegin, lastBucket, generation);
+    }
+  }
+
+  /**
+   * Read raw values of whole buckets with one query and cache the ones which end
+   * before the last stored row of the table, sketches are merged into the given one if any
+   */
+  private void loadBuckets(QuantileSketch sketch, String tableName, CProfile cProfile,
+                           long bucketBegin, long bucketEnd, long generation) {
+    int bucketCount = Math.toIntExact((bucketEnd - bucketBegin) / BUCKET_MS);
+    QuantileSketch[] bucketSketches = new QuantileSketch[bucketCount];
+    for (int i = 0; i < bucketCount; i++) {
+      bucketSketches[i] = new QuantileSketch();
+    }
+
+    for (List<Object> row : fStore.getRawDataByColumn(tableName, cProfile, bucketBegin, bucketEnd - 1)) {
+      try {
+        long timestamp = (Long) row.get(0);
+        int i = (int) ((timestamp - bucketBegin) / BUCKET_MS);
+        if (i >= 0 && i < bucketCount) {
+          bucketSketches[i].add(Double.parseDouble(String.valueOf(row.get(1))));
+        }
+      } catch (Exception e) {
+        log.info(e);
+      }
+    }
+
+    long lastTimestamp = fStore.getLastTimestamp(tableName, bucketBegin, Long.MAX_VALUE);
+
+    for (int i = 0; i < bucketCount; i++) {
+      long bucket = bucketBegin + i * BUCKET_MS;
+      if (bucket + BUCKET_MS <= lastTimestamp) {
+        putCached(tableName, cProfile, bucket, bucketSketches[i], generation);
+      }
+      if (sketch != null) {
+        sketch.merge(bucketSketches[i]);
+      }
+    }
+  }
+
+  private void addRaw(QuantileSketch sketch, String tableName, CProfile cProfile, long begin, long end) {
+    for (List<Object> row : fStore.getRawDataByColumn(tableName, cProfile, begin, end)) {
+      try {
+        sketch.add(Double.parseDouble(String.valueOf(row.get(1))));
+      } catch (Exception e) {
+        log.info(e);
+      }
+    }
+  }
+
+  private QuantileSketch getCached(String tableName, CProfile cProfile, long bucket) {
+    synchronized (cache) {
+      return cache.get(new SketchKey(tableName, cProfile.getColName(), bucket));
+    }
+  }
+
+  private void putCached(String tableName, CProfile cProfile, long bucket, QuantileSketch sketch, long generation) {
+    synchronized (cache) {
+      if (generations.getOrDefault(tableName, 0L) == generation) {
+        cache.put(new SketchKey(tableName, cProfile.getColName(), bucket), sketch);
+      }
+    }
+  }
+
+  private long getGeneration(String tableName) {
+    synchronized (cache) {
+      return generations.getOrDefault(tableName, 0L);
+    }
+  }
+
+  private static long floorBucket(long timestamp) {
+    return Math.floorDiv(timestamp, BUCKET_MS) * BUCKET_MS;
+  }
+
+  private static long ceilBucket(long timestamp) {
+    return -Math.floorDiv(-timestamp, BUCKET_MS) * BUCKET_MS;
+  }
+
+  @AllArgsConstructor
+  @EqualsAndHashCode(cacheStrategy = CacheStrategy.LAZY)
+  @ToString
+  private static class SketchKey {
+
+    private String tableName;
+    private String colName;
+    private long bucket;
+  }
+}
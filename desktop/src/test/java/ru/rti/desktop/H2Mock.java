@@ -0,0 +1,161 @@
+package ru.rti.desktop;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.fbase.core.FStore;
+import org.fbase.model.profile.CProfile;
+import org.fbase.model.profile.SProfile;
+import org.fbase.model.profile.TProfile;
+import org.fbase.model.profile.cstype.CSType;
+import org.fbase.model.profile.cstype.SType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * In-memory H2 source and a local database mock keeping the put rows by table,
+ * the fbase jar is not needed to run the collect path
+ */
+public abstract class H2Mock {
+
+  protected Connection connection;
+  protected FStore fStore;
+
+  protected final Map<String, TProfile> tProfiles = new ConcurrentHashMap<>();
+  protected final Map<String, List<List<Object>>> tables = new ConcurrentHashMap<>();
+
+  @BeforeEach
+  public void initH2() throws Exception {
+    connection = DriverManager.getConnection(getUrl(), "sa", "");
+    fStore = mock(FStore.class);
+
+    lenient().when(fStore.loadJdbcTableMetadata(any(), anyString(), any())).thenAnswer(invocation -> {
+      try (PreparedStatement ps = invocation.<Connection>getArgument(0).prepareStatement(invocation.getArgument(1))) {
+        ResultSetMetaData metaData = ps.getMetaData();
+
+        List<String> columns = new ArrayList<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+          columns.add(metaData.getColumnLabel(i));
+        }
+        return register(invocation.getArgument(2), columns);
+      }
+    });
+    lenient().when(fStore.loadCsvTableMetadata(anyString(), anyString(), any())).thenAnswer(invocation -> {
+      String header = Files.readAllLines(Path.of(invocation.<String>getArgument(0))).get(0);
+      return register(invocation.getArgument(2), List.of(header.split(invocation.getArgument(1))));
+    });
+    lenient().when(fStore.getTProfile(anyString())).thenAnswer(invocation -> tProfiles.get(invocation.<String>getArgument(0)));
+
+    lenient().doAnswer(invocation -> {
+      List<List<Object>> data = invocation.getArgument(1);
+      for (int row = 0; row < data.get(0).size(); row++) {
+        List<Object> values = new ArrayList<>();
+        for (List<Object> column : data) {
+          values.add(column.get(row));
+        }
+        getRows(invocation.getArgument(0)).add(values);
+      }
+      return null;
+    }).when(fStore).putDataDirect(anyString(), any());
+
+    lenient().when(fStore.putDataJdbc(anyString(), any())).thenAnswer(invocation -> {
+      String tableName = invocation.getArgument(0);
+      ResultSet resultSet = invocation.getArgument(1);
+
+      long lastTimestamp = -1;
+      while (resultSet.next()) {
+        List<Object> values = new ArrayList<>();
+        for (CProfile cProfile : tProfiles.get(tableName).getCProfiles()) {
+          values.add(resultSet.getObject(cProfile.getColIdSql()));
+        }
+        getRows(tableName).add(values);
+        lastTimestamp = Math.max(lastTimestamp, getTimestamp(tableName, values));
+      }
+      return lastTimestamp;
+    });
+
+    lenient().when(fStore.getLastTimestamp(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> {
+      String tableName = invocation.getArgument(0);
+      return getRows(tableName).stream().mapToLong(values -> getTimestamp(tableName, values)).max().orElse(0L);
+    });
+
+    lenient().when(fStore.getRawDataAll(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> {
+      String tableName = invocation.getArgument(0);
+      long begin = invocation.getArgument(1);
+      long end = invocation.getArgument(2);
+      return getRows(tableName).stream()
+          .filter(values -> getTimestamp(tableName, values) >= begin && getTimestamp(tableName, values) <= end)
+          .toList();
+    });
+  }
+
+  @AfterEach
+  public void closeH2() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP ALL OBJECTS");
+    }
+    connection.close();
+  }
+
+  protected String getUrl() {
+    return "jdbc:h2:mem:" + getClass().getSimpleName() + ";DB_CLOSE_DELAY=-1";
+  }
+
+  protected String getJar() throws Exception {
+    return Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+  }
+
+  protected void execute(String sql) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+  protected List<List<Object>> getRows(String tableName) {
+    return tables.computeIfAbsent(tableName, key -> new ArrayList<>());
+  }
+
+  private TProfile register(SProfile sProfile, List<String> columns) {
+    List<CProfile> cProfiles = new ArrayList<>();
+    for (int i = 0; i < columns.size(); i++) {
+      CSType csType = sProfile.getCsTypeMap() == null ? null : sProfile.getCsTypeMap().get(columns.get(i));
+      cProfiles.add(new CProfile()
+          .setColId(i)
+          .setColIdSql(i + 1)
+          .setColName(columns.get(i))
+          .setCsType(csType == null ? new CSType().toBuilder().sType(SType.RAW).build() : csType));
+    }
+
+    TProfile tProfile = new TProfile()
+        .setTableName(sProfile.getTableName())
+        .setCProfiles(cProfiles);
+    tProfiles.put(sProfile.getTableName(), tProfile);
+    return tProfile;
+  }
+
+  private long getTimestamp(String tableName, List<Object> values) {
+    return tProfiles.get(tableName).getCProfiles().stream()
+        .filter(cProfile -> cProfile.getCsType().isTimeStamp())
+        .map(cProfile -> values.get(cProfile.getColId()))
+        .mapToLong(value -> ((Timestamp) value).getTime())
+        .findAny()
+        .orElse(-1L);
+  }
+}
@@ -2,11 +2,17 @@ package ru.rti.desktop.cache;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
 import lombok.extern.log4j.Log4j2;
 import org.junit.jupiter.api.Test;
 import ru.rti.desktop.HandlerMock;
 import ru.rti.desktop.model.ProfileTaskQueryKey;
+import ru.rti.desktop.model.info.ProfileInfo;
+import ru.rti.desktop.model.info.TableInfo;
+import ru.rti.desktop.model.info.TaskInfo;
 import ru.rti.desktop.model.info.gui.RangeInfo;
 
 
@@ -33,4 +39,39 @@ public class AppCacheTest extends HandlerMock {
         appCacheLazy.get().getRangeInfo(profileTaskQueryKey).size());
   }
 
+  @Test
+  public void reverse_index_test() {
+    AppCache appCache = appCacheLazy.get();
+
+    TaskInfo taskInfo = new TaskInfo();
+    taskInfo.setId(101);
+    taskInfo.setConnectionId(201);
+    taskInfo.setQueryInfoList(List.of(301, 302));
+    appCache.putTaskInfo(taskInfo);
+
+    ProfileInfo profileInfo = new ProfileInfo();
+    profileInfo.setId(401);
+    profileInfo.setTaskInfoList(List.of(101));
+    appCache.putProfileInfo(profileInfo);
+
+    TableInfo tableInfo = new TableInfo();
+    tableInfo.setTableName("ASH_TABLE");
+    appCache.putTableInfo(tableInfo);
+
+    assertEquals(401, appCache.getProfileInfoListByQueryId(302).get(0).getId());
+    assertEquals(101, appCache.getTaskInfoListByConnectionId(201).get(0).getId());
+    assertEquals(tableInfo, appCache.getTableInfoIgnoreCase("ash_table"));
+
+    taskInfo.setQueryInfoList(List.of(303));
+    appCache.putTaskInfo(taskInfo);
+    assertTrue(appCache.getProfileInfoListByQueryId(302).isEmpty());
+    assertEquals(401, appCache.getProfileInfoListByQueryId(303).get(0).getId());
+
+    appCache.deleteProfileInfo(401);
+    appCache.deleteTaskInfo(101);
+    appCache.deleteTableInfo("ASH_TABLE");
+    assertTrue(appCache.getProfileInfoListByQueryId(303).isEmpty());
+    assertTrue(appCache.getTaskInfoListByConnectionId(201).isEmpty());
+    assertNull(appCache.getTableInfoIgnoreCase("ash_table"));
+  }
 }
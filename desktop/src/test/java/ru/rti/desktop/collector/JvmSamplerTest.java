@@ -0,0 +1,50 @@
+package ru.rti.desktop.collector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import ru.rti.desktop.collector.jvm.JvmSampler;
+import ru.rti.desktop.collector.jvm.JvmTable;
+import ru.rti.desktop.diagnostic.Stage;
+import ru.rti.desktop.diagnostic.StageMetrics;
+
+public class JvmSamplerTest {
+
+  @Test
+  public void sample_columns_are_aligned_test() {
+    JvmSampler jvmSampler = new JvmSampler();
+    long timestamp = System.currentTimeMillis();
+
+    for (JvmTable jvmTable : List.of(JvmTable.GC, JvmTable.MEMORY, JvmTable.THREADS)) {
+      List<List<Object>> columns = jvmSampler.sample(jvmTable, timestamp);
+
+      assertEquals(jvmTable.getColumns().size(), columns.size());
+      assertFalse(columns.get(0).isEmpty());
+      columns.forEach(c -> assertEquals(columns.get(0).size(), c.size()));
+      assertEquals(new Timestamp(timestamp), columns.get(0).get(0));
+      assertEquals(jvmTable, JvmTable.ofText(jvmTable.getText()));
+    }
+
+    jvmSampler.sample(JvmTable.GC, timestamp)
+        .get(2)
+        .forEach(collections -> assertTrue((Long) collections >= 0));
+  }
+
+  @Test
+  public void stage_timings_are_drained_test() {
+    StageMetrics.drain();
+    StageMetrics.record(Stage.TASK_COLLECT, System.nanoTime());
+    StageMetrics.record(Stage.TASK_COLLECT, System.nanoTime());
+
+    List<List<Object>> columns = new JvmSampler().sample(JvmTable.TIMINGS, System.currentTimeMillis());
+
+    int row = columns.get(1).indexOf(Stage.TASK_COLLECT.getStageName());
+    assertEquals(2L, columns.get(2).get(row));
+
+    assertFalse(StageMetrics.drain().containsKey(Stage.TASK_COLLECT.getStageName()));
+  }
+}
@@ -0,0 +1,147 @@
+package ru.rti.desktop.collector.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import org.fbase.model.profile.CProfile;
+import org.fbase.model.profile.cstype.CSType;
+import org.fbase.model.profile.cstype.SType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.rti.desktop.H2Mock;
+import ru.rti.desktop.collector.CollectorImpl;
+import ru.rti.desktop.model.ProfileTaskQueryKey;
+import ru.rti.desktop.model.config.Metric;
+import ru.rti.desktop.model.db.DBType;
+import ru.rti.desktop.model.function.MetricFunction;
+import ru.rti.desktop.model.info.QueryInfo;
+import ru.rti.desktop.model.info.TableInfo;
+import ru.rti.desktop.model.info.TaskInfo;
+import ru.rti.desktop.model.sql.AggregateTable;
+import ru.rti.desktop.model.sql.GatherDataSql;
+import ru.rti.desktop.router.event.EventListener;
+import ru.rti.desktop.state.impl.SqlQueryStateImpl;
+import ru.rti.desktop.view.chart.stacked.function.AggregateMetricFunctionHandler;
+
+public class AggregateLoaderTest extends H2Mock {
+
+  private final ProfileTaskQueryKey profileTaskQueryKey = new ProfileTaskQueryKey(1, 1, 1);
+
+  // an hour bucket, rows inserted during the test fall into the same one
+  private final TaskInfo taskInfo = new TaskInfo().setId(1).setName("task").setPullTimeout(3600);
+
+  private final Metric sum = getMetric(1, "WAIT_MS", MetricFunction.SUM);
+  private final Metric average = getMetric(2, "WAIT_MS", MetricFunction.AVERAGE);
+
+  private QueryInfo queryInfo;
+  private TableInfo tableInfo;
+
+  @BeforeEach
+  public void initTable() throws Exception {
+    execute("CREATE TABLE ash (sample_time TIMESTAMP(3), event VARCHAR(64), wait_ms DOUBLE)");
+
+    queryInfo = new QueryInfo()
+        .setId(1).setName("ASH").setText("SELECT sample_time, event, wait_ms FROM ash")
+        .setDbType(DBType.H2)
+        .setGatherDataSql(GatherDataSql.BY_SERVER)
+        .setMetricList(List.of(sum, average));
+
+    tableInfo = new TableInfo();
+    tableInfo.setTableName("ASH");
+    tableInfo.setCProfiles(List.of(
+        new CProfile().setColName("SAMPLE_TIME").setCsType(new CSType().toBuilder().isTimeStamp(true).sType(SType.RAW).build()),
+        new CProfile().setColName("EVENT").setCsType(new CSType().toBuilder().sType(SType.RAW).build()),
+        new CProfile().setColName("WAIT_MS").setCsType(new CSType().toBuilder().sType(SType.RAW).build())));
+
+    new CollectorImpl(fStore, mock(EventListener.class)).fillMetadata(queryInfo, tableInfo, connection);
+  }
+
+  @Test
+  public void bucket_split_across_pulls_test() throws Exception {
+    AggregateLoader aggregateLoader = getAggregateLoader(List.of(sum, average));
+
+    insert("CPU", 10D);
+    aggregateLoader.loadDataJdbc();
+
+    insert("IO", 5D);
+    aggregateLoader.loadDataJdbc();
+    aggregateLoader.loadDataJdbc();
+
+    // a partial row of the bucket per pull, added up on read
+    assertEquals(2, getRows(AggregateTable.getTableName("ASH", sum)).size());
+    assertEquals(15D, getValue(sum));
+  }
+
+  @Test
+  public void average_is_sum_by_count_test() throws Exception {
+    AggregateLoader aggregateLoader = getAggregateLoader(List.of(sum, average));
+
+    insert("CPU", 2D);
+    insert("IO", 4D);
+    aggregateLoader.loadDataJdbc();
+
+    insert("CPU", 9D);
+    aggregateLoader.loadDataJdbc();
+
+    assertEquals(15D, getValue(sum));
+    assertEquals(15D / 3, getValue(average));
+  }
+
+  @Test
+  public void resume_after_restart_test() throws Exception {
+    insert("CPU", 10D);
+    getAggregateLoader(List.of(sum)).loadDataJdbc();
+
+    // a new loader continues after the last aggregated row, the first row is not loaded twice
+    insert("IO", 5D);
+    getAggregateLoader(List.of(sum)).loadDataJdbc();
+
+    assertEquals(2, getRows(AggregateTable.getTableName("ASH", sum)).size());
+    assertEquals(15D, getValue(sum));
+  }
+
+  @Test
+  public void failed_metric_test() throws Exception {
+    Metric failed = getMetric(3, "NOT_EXISTS", MetricFunction.SUM);
+
+    insert("CPU", 10D);
+    getAggregateLoader(List.of(failed, sum)).loadDataJdbc();
+
+    assertEquals(0, getRows(AggregateTable.getTableName("ASH", failed)).size());
+    assertEquals(10D, getValue(sum));
+  }
+
+  private AggregateLoader getAggregateLoader(List<Metric> metricList) {
+    SqlQueryStateImpl sqlQueryState = new SqlQueryStateImpl();
+    sqlQueryState.initializeLastTimestamp(profileTaskQueryKey, 0);
+
+    AggregateLoader aggregateLoader = new AggregateLoader(null, connection, profileTaskQueryKey,
+        taskInfo, queryInfo, tableInfo, metricList, sqlQueryState, fStore);
+    aggregateLoader.initLastTimestamp();
+    return aggregateLoader;
+  }
+
+  /**
+   * Row of the current millisecond, the pause keeps it apart from the range end of a pull
+   */
+  private void insert(String event, double waitMs) throws Exception {
+    Thread.sleep(5);
+    execute("INSERT INTO ash VALUES (LOCALTIMESTAMP(3), '" + event + "', " + waitMs + ")");
+    Thread.sleep(5);
+  }
+
+  private double getValue(Metric metric) {
+    return new AggregateMetricFunctionHandler(metric, queryInfo, fStore).getLinearValue(0, Long.MAX_VALUE, 1);
+  }
+
+  private static Metric getMetric(int id, String colName, MetricFunction metricFunction) {
+    Metric metric = new Metric();
+    metric.setId(id);
+    metric.setName(metricFunction + " " + colName);
+    metric.setYAxis(new CProfile().setColName(colName));
+    metric.setMetricFunction(metricFunction);
+    metric.setPushdown(true);
+    return metric;
+  }
+}
@@ -0,0 +1,58 @@
+package ru.rti.desktop.diagnostic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.rti.desktop.diagnostic.event.LoaderFlushEvent;
+import ru.rti.desktop.helper.FilesHelper;
+import ru.rti.desktop.manager.impl.RecordingManagerImpl;
+import ru.rti.desktop.model.ProfileTaskQueryKey;
+
+public class RecordingManagerTest {
+
+  @TempDir
+  Path rootDir;
+
+  @Test
+  public void dump_snapshot_of_recording_test() throws Exception {
+    RecordingManagerImpl recordingManager = new RecordingManagerImpl(new FilesHelper(rootDir.toString()));
+
+    recordingManager.startRecording();
+    assertTrue(recordingManager.isRecording());
+
+    LoaderFlushEvent event = new LoaderFlushEvent();
+    event.begin();
+    event.end();
+    event.setKey(new ProfileTaskQueryKey(1, 2, 3));
+    event.table = "TABLE_A";
+    event.rows = 42;
+    event.rangeBegin = 1000;
+    event.rangeEnd = 2000;
+    event.commit();
+
+    // a dump is a snapshot, the recording goes on until it is stopped
+    Path file = recordingManager.dumpRecording();
+    assertTrue(recordingManager.isRecording());
+    assertTrue(Files.exists(file));
+
+    recordingManager.stopRecording();
+    assertFalse(recordingManager.isRecording());
+
+    List<RecordedEvent> flushes = RecordingFile.readAllEvents(file).stream()
+        .filter(e -> e.getEventType().getName().equals("ru.rti.desktop.LoaderFlush"))
+        .toList();
+
+    assertEquals(1, flushes.size());
+    assertEquals("TABLE_A", flushes.get(0).getString("table"));
+    assertEquals(3, flushes.get(0).getInt("queryId"));
+    assertEquals(42, flushes.get(0).getLong("rows"));
+  }
+}
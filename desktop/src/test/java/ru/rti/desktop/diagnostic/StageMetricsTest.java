@@ -0,0 +1,53 @@
+package ru.rti.desktop.diagnostic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+import ru.rti.desktop.model.ProfileTaskQueryKey;
+
+public class StageMetricsTest {
+
+  @Test
+  public void histogram_quantiles_test() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long v = 1; v <= 1000; v++) {
+      histogram.record(v * 1000);
+    }
+
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1_000_000, histogram.getMax());
+    assertEquals(500_000, histogram.getValueAtQuantile(0.5), 500_000 / 8d);
+    assertEquals(990_000, histogram.getValueAtQuantile(0.99), 990_000 / 8d);
+
+    for (long v : new long[] {0, 7, 8, 15, 16, 1023, 1 << 20, Long.MAX_VALUE >> 2}) {
+      assertTrue(LatencyHistogram.upperBound(LatencyHistogram.index(v)) >= v);
+    }
+  }
+
+  @Test
+  public void bound_key_and_jmx_test() throws Exception {
+    ProfileTaskQueryKey key = new ProfileTaskQueryKey(101, 102, 103);
+
+    ProfileTaskQueryKey previous = StageMetrics.bind(key);
+    try {
+      StageMetrics.recordNanos(Stage.FETCH, 2_000_000);
+    } finally {
+      StageMetrics.restore(previous);
+    }
+    StageMetrics.recordNanos(Stage.FETCH, 1);
+
+    StageStats stats = StageMetrics.getStats().stream()
+        .filter(s -> s.getKey().equals(key) && s.getStageType() == Stage.FETCH)
+        .findAny()
+        .orElseThrow();
+    assertEquals(1, stats.getCount());
+    assertEquals(2.0, stats.getMaxMillis(), 0.001);
+
+    ObjectName name = new ObjectName(StageMetrics.DOMAIN + ":type=Stage,profile=101,task=102,query=103,name="
+        + Stage.FETCH.getStageName());
+    assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Count"));
+  }
+}
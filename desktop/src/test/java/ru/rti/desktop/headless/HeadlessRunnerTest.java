@@ -0,0 +1,83 @@
+package ru.rti.desktop.headless;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.fbase.model.profile.CProfile;
+import org.fbase.model.profile.cstype.CSType;
+import org.fbase.model.profile.cstype.SType;
+import org.junit.jupiter.api.Test;
+import ru.rti.desktop.H2Mock;
+import ru.rti.desktop.collector.CollectorImpl;
+import ru.rti.desktop.helper.FilesHelper;
+import ru.rti.desktop.helper.ReportHelper;
+import ru.rti.desktop.manager.ProfileManager;
+import ru.rti.desktop.manager.ReportManager;
+import ru.rti.desktop.manager.impl.CollectManagerImpl;
+import ru.rti.desktop.manager.impl.ConnectionPoolManagerImpl;
+import ru.rti.desktop.model.db.DBType;
+import ru.rti.desktop.model.info.ConnectionInfo;
+import ru.rti.desktop.model.info.ProfileInfo;
+import ru.rti.desktop.model.info.QueryInfo;
+import ru.rti.desktop.model.info.TableInfo;
+import ru.rti.desktop.model.info.TaskInfo;
+import ru.rti.desktop.model.sql.GatherDataSql;
+import ru.rti.desktop.router.event.EventListener;
+import ru.rti.desktop.security.EncryptDecrypt;
+import ru.rti.desktop.state.impl.SqlQueryStateImpl;
+
+public class HeadlessRunnerTest extends H2Mock {
+
+  @Test
+  public void collect_profile_test() throws Exception {
+    execute("CREATE TABLE ash (sample_time TIMESTAMP, event VARCHAR(64))");
+    execute("INSERT INTO ash VALUES (DATEADD('SECOND', 30, LOCALTIMESTAMP(0)), 'CPU')");
+    execute("INSERT INTO ash VALUES (DATEADD('SECOND', 31, LOCALTIMESTAMP(0)), 'IO')");
+
+    ConnectionInfo connectionInfo = new ConnectionInfo()
+        .setId(1).setName("h2").setUserName("sa").setPassword("")
+        .setUrl(getUrl()).setJar(getJar()).setDriver("org.h2.Driver").setDbType(DBType.H2);
+    QueryInfo queryInfo = new QueryInfo()
+        .setId(1).setName("ASH").setText("SELECT sample_time, event FROM ash")
+        .setGatherDataSql(GatherDataSql.BY_SERVER);
+    TaskInfo taskInfo = new TaskInfo()
+        .setId(1).setName("task").setPullTimeout(1).setConnectionId(1).setQueryInfoList(List.of(1));
+    ProfileInfo profileInfo = new ProfileInfo()
+        .setId(1).setName("profile").setTaskInfoList(List.of(1));
+
+    TableInfo tableInfo = new TableInfo();
+    tableInfo.setTableName("ASH");
+    tableInfo.setCProfiles(List.of(
+        new CProfile().setColName("SAMPLE_TIME").setCsType(new CSType().toBuilder().isTimeStamp(true).sType(SType.RAW).build()),
+        new CProfile().setColName("EVENT").setCsType(new CSType().toBuilder().sType(SType.RAW).build())));
+
+    ProfileManager profileManager = mock(ProfileManager.class);
+    when(profileManager.getProfileInfoList()).thenReturn(List.of(profileInfo));
+    when(profileManager.getProfileInfoById(1)).thenReturn(profileInfo);
+    when(profileManager.getTaskInfoById(1)).thenReturn(taskInfo);
+    when(profileManager.getConnectionInfoById(1)).thenReturn(connectionInfo);
+    when(profileManager.getQueryInfoList(1, 1)).thenReturn(List.of(queryInfo));
+    when(profileManager.getTableInfoListByQueryList(any())).thenReturn(List.of(tableInfo));
+
+    EncryptDecrypt encryptDecrypt = mock(EncryptDecrypt.class);
+    when(encryptDecrypt.decrypt(anyString())).thenReturn("");
+
+    CollectManagerImpl collectManager = new CollectManagerImpl(profileManager,
+        new ConnectionPoolManagerImpl(encryptDecrypt), new CollectorImpl(fStore, mock(EventListener.class)),
+        new SqlQueryStateImpl(), fStore);
+
+    HeadlessRunner headlessRunner = new HeadlessRunner(profileManager, mock(ReportManager.class), collectManager,
+        fStore, mock(FilesHelper.class), mock(ReportHelper.class));
+
+    assertEquals(0, headlessRunner.run("collect", "profile", "3"));
+
+    assertEquals(DBType.H2, queryInfo.getDbType());
+    assertFalse(tableInfo.getCProfiles().isEmpty());
+    assertEquals(2, getRows("ASH").size());
+  }
+}
@@ -0,0 +1,101 @@
+package ru.rti.desktop.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.rti.desktop.exception.FileNameExistException;
+import ru.rti.desktop.model.config.Profile;
+
+public class ConfigRepositoryTest {
+
+  @TempDir
+  Path rootDir;
+
+  private GsonHelper gsonHelper;
+  private ConfigRepository configRepository;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    gsonHelper = new GsonHelper(new FilesHelper(rootDir.toString()), new Gson(), new ReportHelper());
+    gsonHelper.createConfigDir(Profile.class);
+    configRepository = new ConfigRepository(gsonHelper);
+  }
+
+  @Test
+  public void add_update_delete_write_behind_test() {
+    Profile profile = profile(1, "Profile one");
+
+    configRepository.add(profile, Profile.class);
+    assertThrows(FileNameExistException.class, () -> configRepository.add(profile, Profile.class));
+
+    profile.setDescription("changed");
+    assertEquals("", configRepository.get(Profile.class, "Profile one").orElseThrow().getDescription());
+
+    configRepository.update(profile, Profile.class);
+    configRepository.flush();
+
+    Path file = gsonHelper.getConfigFilePath(profile, Profile.class);
+    assertTrue(Files.exists(file));
+    assertEquals("changed", gsonHelper.getConfig(Profile.class, "Profile one").getDescription());
+
+    configRepository.delete("Profile one", Profile.class);
+    configRepository.flush();
+
+    assertTrue(configRepository.get(Profile.class, "Profile one").isEmpty());
+    assertTrue(Files.notExists(file));
+  }
+
+  @Test
+  public void failed_write_stays_pending_test() throws IOException {
+    Profile profile = profile(3, "Blocked");
+    Path file = gsonHelper.getConfigFilePath(profile, Profile.class);
+
+    // a non-empty directory in place of the file makes the atomic replace fail
+    Files.createDirectories(file);
+    Files.createFile(file.resolve("lock"));
+
+    configRepository.add(profile, Profile.class);
+    configRepository.flush();
+
+    assertEquals(List.of(file), configRepository.getPendingFiles());
+
+    Files.delete(file.resolve("lock"));
+    Files.delete(file);
+    configRepository.flush();
+
+    assertTrue(configRepository.getPendingFiles().isEmpty());
+    assertEquals(3, gsonHelper.getConfig(Profile.class, "Blocked").getId());
+  }
+
+  @Test
+  public void external_edit_test() throws Exception {
+    assertTrue(configRepository.getList(Profile.class).isEmpty());
+
+    gsonHelper.writeConfigAtomic(profile(2, "External"), Profile.class);
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+    while (configRepository.get(Profile.class, "External").isEmpty() && System.nanoTime() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(50);
+    }
+
+    assertEquals(2, configRepository.get(Profile.class, "External").orElseThrow().getId());
+  }
+
+  private Profile profile(int id, String name) {
+    Profile profile = new Profile();
+    profile.setId(id);
+    profile.setName(name);
+    profile.setDescription("");
+    return profile;
+  }
+}
@@ -0,0 +1,77 @@
+package ru.rti.desktop.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.DoubleStream;
+import org.junit.jupiter.api.Test;
+import ru.rti.desktop.model.chart.AsIsValueTyped;
+import ru.rti.desktop.model.function.DownsampleType;
+
+public class DownsampleHelperTest {
+
+  @Test
+  public void min_max_bucket_test() {
+    List<AsIsValueTyped> data = getData(0, 1D, 9D, -3D, 2D, 4D, 7D, 0D, 8D);
+
+    List<AsIsValueTyped> points = DownsampleHelper.downsample(data, 2, DownsampleType.MIN_MAX);
+
+    // min and max of each bucket in time order
+    assertEquals(List.of(1L, 2L, 6L, 7L), points.stream().map(AsIsValueTyped::getTimestamp).toList());
+    assertEquals(List.of(9D, -3D, 0D, 8D), points.stream().map(AsIsValueTyped::getValue).toList());
+  }
+
+  @Test
+  public void lttb_first_last_test() {
+    List<AsIsValueTyped> data = new ArrayList<>();
+    for (long i = 0; i < 100; i++) {
+      data.add(new AsIsValueTyped(i, (double) (i % 7)));
+    }
+
+    List<AsIsValueTyped> points = DownsampleHelper.downsample(data, 10, DownsampleType.LTTB);
+
+    assertEquals(10, points.size());
+    assertSame(data.get(0), points.get(0));
+    assertSame(data.get(99), points.get(9));
+  }
+
+  @Test
+  public void empty_range_test() {
+    assertTrue(DownsampleHelper.downsample(List.of(), 10, DownsampleType.LTTB).isEmpty());
+    assertTrue(DownsampleHelper.downsample(List.of(), 10, DownsampleType.MIN_MAX).isEmpty());
+
+    List<AsIsValueTyped> buckets = DownsampleHelper.aggregate(List.of(), 0, 29, 10, DoubleStream::sum);
+    assertEquals(List.of(0L, 10L, 20L), buckets.stream().map(AsIsValueTyped::getTimestamp).toList());
+    assertEquals(List.of(0D, 0D, 0D), buckets.stream().map(AsIsValueTyped::getValue).toList());
+  }
+
+  @Test
+  public void fewer_points_than_pixels_test() {
+    List<AsIsValueTyped> data = getData(0, 1D, 2D, 3D);
+
+    assertSame(data, DownsampleHelper.downsample(data, 300, DownsampleType.LTTB));
+    assertSame(data, DownsampleHelper.downsample(data, 300, DownsampleType.MIN_MAX));
+  }
+
+  @Test
+  public void aggregate_in_memory_test() {
+    List<AsIsValueTyped> data = getData(0, 1D, 2D, 3D, 4D, 5D);
+
+    List<AsIsValueTyped> sum = DownsampleHelper.aggregate(data, 0, 5, 2, DoubleStream::sum);
+    assertEquals(List.of(3D, 7D, 5D), sum.stream().map(AsIsValueTyped::getValue).toList());
+
+    List<AsIsValueTyped> average = DownsampleHelper.aggregate(data, 0, 5, 3, values -> values.average().orElse(0D));
+    assertEquals(List.of(2D, 4.5D), average.stream().map(AsIsValueTyped::getValue).toList());
+  }
+
+  private List<AsIsValueTyped> getData(long begin, Double... values) {
+    List<AsIsValueTyped> data = new ArrayList<>();
+    for (int i = 0; i < values.length; i++) {
+      data.add(new AsIsValueTyped(begin + i, values[i]));
+    }
+    return data;
+  }
+}
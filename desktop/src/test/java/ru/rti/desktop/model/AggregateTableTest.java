@@ -0,0 +1,69 @@
+package ru.rti.desktop.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.fbase.model.profile.CProfile;
+import org.junit.jupiter.api.Test;
+import ru.rti.desktop.model.config.Metric;
+import ru.rti.desktop.model.db.DBType;
+import ru.rti.desktop.model.function.MetricFunction;
+import ru.rti.desktop.model.info.QueryInfo;
+import ru.rti.desktop.model.sql.AggregateTable;
+import ru.rti.desktop.model.sql.GatherDataSql;
+
+public class AggregateTableTest {
+
+  @Test
+  public void count_sql_test() {
+    String sql = AggregateTable.getSql(DBType.POSTGRES, "SELECT sample_time, event FROM ash",
+        "sample_time", getMetric(1, MetricFunction.COUNT, true), 10);
+
+    String bucket = DBType.POSTGRES.getTimeBucket("q.sample_time", 10);
+
+    assertEquals("SELECT " + bucket + " AS BUCKET_TIME, q.EVENT AS SERIES, COUNT(*) AS ROW_COUNT"
+        + " FROM (SELECT sample_time, event FROM ash) q WHERE q.sample_time > ? AND q.sample_time <= ?"
+        + " GROUP BY " + bucket + ", q.EVENT ORDER BY BUCKET_TIME", sql);
+  }
+
+  @Test
+  public void pushdown_metric_test() {
+    QueryInfo queryInfo = new QueryInfo()
+        .setName("ASH")
+        .setGatherDataSql(GatherDataSql.BY_SERVER)
+        .setMetricList(List.of(getMetric(1, MetricFunction.COUNT, true), getMetric(2, MetricFunction.P90, true)));
+
+    assertEquals(List.of(1), AggregateTable.getMetricList(queryInfo).stream().map(Metric::getId).toList());
+    assertFalse(AggregateTable.isAggregateOnly(queryInfo));
+    assertEquals("ASH_AGG_1", AggregateTable.getTableName(queryInfo.getName(), queryInfo.getMetricList().get(0)));
+
+    queryInfo.setMetricList(List.of(getMetric(1, MetricFunction.SUM, true), getMetric(2, MetricFunction.AVERAGE, true)));
+    assertTrue(AggregateTable.isAggregateOnly(queryInfo));
+
+    // a source without time bucket falls back to raw rows
+    queryInfo.setDbType(DBType.UNKNOWN);
+    assertTrue(AggregateTable.getMetricList(queryInfo).isEmpty());
+    assertFalse(AggregateTable.isAggregateOnly(queryInfo));
+
+    queryInfo.setDbType(DBType.H2);
+    queryInfo.setGatherDataSql(GatherDataSql.BY_CLIENT);
+    assertTrue(AggregateTable.getMetricList(queryInfo).isEmpty());
+  }
+
+  @Test
+  public void time_bucket_not_supported_test() {
+    assertThrows(UnsupportedOperationException.class, () -> DBType.JVM.getTimeBucket("DT", 10));
+  }
+
+  private Metric getMetric(int id, MetricFunction metricFunction, boolean pushdown) {
+    Metric metric = new Metric();
+    metric.setId(id);
+    metric.setYAxis(new CProfile().setColName("EVENT"));
+    metric.setMetricFunction(metricFunction);
+    metric.setPushdown(pushdown);
+    return metric;
+  }
+}
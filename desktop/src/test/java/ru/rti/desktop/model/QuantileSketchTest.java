@@ -0,0 +1,42 @@
+package ru.rti.desktop.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import ru.rti.desktop.model.chart.QuantileSketch;
+
+@Log4j2
+public class QuantileSketchTest {
+
+  @Test
+  public void quantile_relative_error_test() {
+    QuantileSketch sketch = new QuantileSketch();
+
+    for (int i = 1; i <= 10_000; i++) {
+      sketch.add(i);
+    }
+
+    assertEquals(5_000, sketch.getQuantile(0.5), 5_000 * QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+    assertEquals(9_900, sketch.getQuantile(0.99), 9_900 * QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+    assertEquals(10_000, sketch.getMax());
+  }
+
+  @Test
+  public void merge_test() {
+    QuantileSketch all = new QuantileSketch();
+    QuantileSketch first = new QuantileSketch();
+    QuantileSketch second = new QuantileSketch();
+
+    for (int i = 0; i < 1_000; i++) {
+      all.add(i - 100);
+      (i % 2 == 0 ? first : second).add(i - 100);
+    }
+
+    QuantileSketch merged = new QuantileSketch().merge(first).merge(second);
+
+    assertEquals(all.getCount(), merged.getCount());
+    assertEquals(all.getQuantile(0.9), merged.getQuantile(0.9));
+    assertEquals(-100, merged.getMin());
+  }
+}
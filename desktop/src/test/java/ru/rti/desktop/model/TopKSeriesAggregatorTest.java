@@ -0,0 +1,59 @@
+package ru.rti.desktop.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import ru.rti.desktop.model.chart.TopKSeriesAggregator;
+
+@Log4j2
+public class TopKSeriesAggregatorTest {
+
+  @Test
+  public void top_k_high_cardinality_test() {
+    TopKSeriesAggregator topK = new TopKSeriesAggregator(3, 0);
+
+    for (int i = 0; i < 10_000; i++) {
+      topK.offer("SQL_ID_" + i, 1);
+    }
+    topK.offer("HOT_1", 5_000);
+    topK.offer("HOT_2", 4_000);
+    topK.offer("HOT_3", 3_000);
+
+    Set<String> series = topK.getTopKSeries();
+
+    assertEquals(3, series.size());
+    assertTrue(series.containsAll(Set.of("HOT_1", "HOT_2", "HOT_3")));
+  }
+
+  @Test
+  public void top_k_window_slide_test() {
+    TopKSeriesAggregator topK = new TopKSeriesAggregator(1, 10);
+
+    topK.offer("OLD", 100);
+    for (int i = 0; i < 100; i++) {
+      topK.slide();
+      topK.offer("NEW", 10);
+    }
+
+    assertEquals(Set.of("NEW"), topK.getTopKSeries());
+  }
+
+  @Test
+  public void rank_heavy_series_after_light_ones_test() {
+    TopKSeriesAggregator topK = new TopKSeriesAggregator(2, 0);
+    Set<String> series = new LinkedHashSet<>();
+
+    assertEquals(List.of(), topK.rank(series, Map.of("LIGHT_1", 1L, "LIGHT_2", 2L)));
+    assertEquals(Set.of("LIGHT_1", "LIGHT_2"), series);
+
+    // the heavy series comes after the top-K slots are taken, the lightest one is folded into others
+    assertEquals(List.of("LIGHT_1"), topK.rank(series, Map.of("HEAVY", 100L)));
+    assertEquals(Set.of("LIGHT_2", "HEAVY", TopKSeriesAggregator.OTHER), series);
+  }
+}
@@ -0,0 +1,75 @@
+package ru.rti.desktop.router;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import ru.rti.desktop.router.event.EventBus;
+import ru.rti.desktop.router.event.EventBus.Delivery;
+import ru.rti.desktop.router.listener.ProfileAddListener;
+import ru.rti.desktop.router.listener.WorkspaceListener;
+
+public class EventBusTest {
+
+  @Test
+  public void background_delivery_does_not_block_publisher_and_coalesces_test() throws Exception {
+    EventBus eventBus = new EventBus();
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(1);
+    List<Integer> received = new CopyOnWriteArrayList<>();
+
+    eventBus.subscribe(WorkspaceListener.class, (WorkspaceListener) profileId -> {
+      try {
+        started.countDown();
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      received.add(profileId);
+      if (profileId == 4) {
+        done.countDown();
+      }
+    }, Delivery.BACKGROUND);
+
+    long start = System.nanoTime();
+    publishSelect(eventBus, 1);
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    publishSelect(eventBus, 2);
+    publishSelect(eventBus, 3);
+    publishSelect(eventBus, 4);
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+
+    release.countDown();
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+
+    // The first event is taken before the listener blocks, the queued ones are coalesced to the latest one
+    assertEquals(List.of(1, 4), received);
+    assertEquals(2, eventBus.getDispatchStats().get("select").getCoalesced().sum());
+  }
+
+  private void publishSelect(EventBus eventBus, int profileId) {
+    eventBus.publish(WorkspaceListener.class, null, "select", "select",
+        l -> l.fireOnSelectProfileOnNavigator(profileId));
+  }
+
+  @Test
+  public void direct_delivery_and_unsubscribe_test() {
+    EventBus eventBus = new EventBus();
+    List<String> received = new CopyOnWriteArrayList<>();
+
+    ProfileAddListener listener = () -> received.add("add");
+    eventBus.subscribe(ProfileAddListener.class, listener, Delivery.DIRECT);
+
+    eventBus.publish(ProfileAddListener.class, "add", ProfileAddListener::fireProfileAdd);
+    eventBus.unsubscribeIf(ProfileAddListener.class, s -> s.getListener() == listener);
+    eventBus.publish(ProfileAddListener.class, "add", ProfileAddListener::fireProfileAdd);
+
+    assertEquals(List.of("add"), received);
+  }
+}
@@ -0,0 +1,85 @@
+package ru.rti.desktop.view.detail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import javax.swing.SwingUtilities;
+import org.fbase.core.FStore;
+import org.fbase.model.profile.CProfile;
+import org.fbase.model.profile.cstype.CSType;
+import org.fbase.model.profile.cstype.SType;
+import org.fbase.sql.BatchResultSet;
+import org.jdesktop.swingx.JXTable;
+import org.junit.jupiter.api.Test;
+import ru.rti.desktop.view.detail.searchable.BackgroundTableSearchable;
+
+public class BackgroundTableSearchableTest {
+
+  private static final int PAGE_SIZE = 10;
+
+  @Test
+  public void search_evicted_pages_test() throws Exception {
+    List<List<Object>> rows = new ArrayList<>();
+    for (long i = 0; i < 300; i++) {
+      rows.add(List.of(i, i % 50 == 0 ? "MATCH" : "row"));
+    }
+
+    FStore fStore = mock(FStore.class);
+    when(fStore.getBatchResultSet(anyString(), anyLong(), anyLong(), anyInt())).thenAnswer(invocation -> {
+      long begin = invocation.getArgument(1);
+      int fetchSize = invocation.getArgument(3);
+      return getBatchResultSet(rows.stream().filter(row -> (Long) row.get(0) >= begin).iterator(), fetchSize);
+    });
+
+    List<CProfile> cProfiles = List.of(
+        new CProfile().setColId(0).setColName("DT").setCsType(CSType.builder().isTimeStamp(true).sType(SType.RAW).build()),
+        new CProfile().setColId(1).setColName("EVENT").setCsType(CSType.builder().sType(SType.RAW).build()));
+
+    RawDataTableModel model = new RawDataTableModel(fStore, "T", cProfiles, 0, Long.MAX_VALUE, PAGE_SIZE);
+
+    // 25 of 30 pages are loaded, only 10 of them stay in the page cache
+    for (int i = 0; i < 25; i++) {
+      model.fetchNextPage();
+    }
+
+    AtomicReference<BackgroundTableSearchable> searchable = new AtomicReference<>();
+    CountDownLatch done = new CountDownLatch(1);
+
+    SwingUtilities.invokeAndWait(() -> {
+      searchable.set(new BackgroundTableSearchable(new JXTable(model)));
+      searchable.get().searchInBackground(Pattern.compile("MATCH"), found -> done.countDown());
+    });
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(250, model.getRowCount());
+
+    AtomicReference<Integer> matchCount = new AtomicReference<>();
+    SwingUtilities.invokeAndWait(() -> matchCount.set(searchable.get().getMatchCount()));
+
+    assertEquals(5, matchCount.get());
+  }
+
+  private static BatchResultSet getBatchResultSet(Iterator<List<Object>> iterator, int fetchSize) {
+    BatchResultSet batchResultSet = mock(BatchResultSet.class);
+    when(batchResultSet.getObject()).thenAnswer(invocation -> {
+      List<List<Object>> batch = new ArrayList<>();
+      while (iterator.hasNext() && batch.size() < fetchSize) {
+        batch.add(iterator.next());
+      }
+      return batch;
+    });
+    return batchResultSet;
+  }
+}
@@ -0,0 +1,41 @@
+package ru.rti.desktop.warehouse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import org.fbase.model.output.GanttColumn;
+import org.fbase.model.profile.CProfile;
+import org.junit.jupiter.api.Test;
+
+public class GroupByCacheTest {
+
+  private final CProfile event = new CProfile().setColName("EVENT");
+  private final CProfile user = new CProfile().setColName("USER");
+
+  @Test
+  public void put_drops_overlapping_ranges_test() {
+    GroupByCache groupByCache = new GroupByCache();
+    List<GanttColumn> ganttColumnList = List.of(new GanttColumn());
+
+    groupByCache.put("T", event, user, 0, 999, groupByCache.getGeneration("T"), ganttColumnList);
+    groupByCache.put("T", event, user, 1000, 1999, groupByCache.getGeneration("T"), ganttColumnList);
+
+    PutSpan putSpan = new PutSpan();
+    putSpan.add(1500);
+    putSpan.add(2500);
+    groupByCache.put("T", putSpan);
+
+    assertEquals(ganttColumnList, groupByCache.get("T", event, user, 0, 999));
+    assertNull(groupByCache.get("T", event, user, 1000, 1999));
+
+    // result read before the put is not cached
+    long generation = groupByCache.getGeneration("T");
+    groupByCache.put("T", putSpan);
+    groupByCache.put("T", event, user, 1000, 1999, generation, ganttColumnList);
+    assertNull(groupByCache.get("T", event, user, 1000, 1999));
+
+    groupByCache.put("T", PutSpan.unknown());
+    assertNull(groupByCache.get("T", event, user, 0, 999));
+  }
+}
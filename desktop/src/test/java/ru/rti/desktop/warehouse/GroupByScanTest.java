@@ -0,0 +1,105 @@
+package ru.rti.desktop.warehouse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.fbase.core.FStore;
+import org.fbase.model.output.GanttColumn;
+import org.fbase.model.profile.CProfile;
+import org.fbase.sql.BatchResultSet;
+import org.junit.jupiter.api.Test;
+
+public class GroupByScanTest {
+
+  private final CProfile event = new CProfile().setColId(1).setColName("EVENT");
+  private final CProfile wait = new CProfile().setColId(2).setColName("WAIT");
+  private final CProfile user = new CProfile().setColId(3).setColName("USER");
+
+  private final List<List<Object>> rows = new ArrayList<>();
+
+  @Test
+  public void scan_equals_native_group_by_test() throws Exception {
+    for (long i = 0; i < 25; i++) {
+      rows.add(Arrays.asList(i, "E" + i % 3, "W" + i % 4, "U" + i % 2));
+    }
+
+    FStore fStore = getFStore(10);
+
+    Map<CProfile, List<GanttColumn>> scanned =
+        new GroupByScan(fStore).scan("T", List.of(event, wait), user, 0, 100).orElseThrow();
+
+    assertEquals(List.of(event, wait), List.copyOf(scanned.keySet()));
+    for (CProfile firstLevelGroupBy : List.of(event, wait)) {
+      assertEquals(toMap(fStore.getGColumnListTwoLevelGroupBy("T", firstLevelGroupBy, user, 0, 100)),
+          toMap(scanned.get(firstLevelGroupBy)));
+    }
+  }
+
+  @Test
+  public void not_string_key_test() {
+    rows.add(Arrays.asList(0L, "E0", "W0", "U0"));
+    rows.add(Arrays.asList(1L, null, "W1", "U1"));
+
+    assertTrue(new GroupByScan(getFStore(10)).scan("T", List.of(event, wait), user, 0, 100).isEmpty());
+  }
+
+  private FStore getFStore(int fetchSize) {
+    BatchResultSet batchResultSet = mock(BatchResultSet.class);
+
+    int[] offset = {0};
+    List<List<Object>>[] current = new List[1];
+    when(batchResultSet.next()).thenAnswer(invocation -> {
+      if (offset[0] >= rows.size()) {
+        return false;
+      }
+      current[0] = rows.subList(offset[0], Math.min(offset[0] + fetchSize, rows.size()));
+      offset[0] += fetchSize;
+      return true;
+    });
+    when(batchResultSet.getObject()).thenAnswer(invocation -> current[0]);
+
+    FStore fStore = mock(FStore.class);
+    when(fStore.getBatchResultSet(anyString(), anyLong(), anyLong(), anyInt())).thenReturn(batchResultSet);
+
+    try {
+      when(fStore.getGColumnListTwoLevelGroupBy(anyString(), any(), any(), anyLong(), anyLong()))
+          .thenAnswer(invocation -> {
+            CProfile first = invocation.getArgument(1);
+            CProfile second = invocation.getArgument(2);
+
+            Map<String, Map<String, Integer>> gantt = new HashMap<>();
+            rows.forEach(row -> gantt.computeIfAbsent((String) row.get(first.getColId()), key -> new HashMap<>())
+                .merge((String) row.get(second.getColId()), 1, Integer::sum));
+
+            List<GanttColumn> ganttColumnList = new ArrayList<>();
+            gantt.forEach((key, value) -> {
+              GanttColumn ganttColumn = new GanttColumn();
+              ganttColumn.setKey(key);
+              ganttColumn.setGantt(value);
+              ganttColumnList.add(ganttColumn);
+            });
+            return ganttColumnList;
+          });
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+
+    return fStore;
+  }
+
+  private Map<String, Map<String, Integer>> toMap(List<GanttColumn> ganttColumnList) {
+    return ganttColumnList.stream().collect(Collectors.toMap(GanttColumn::getKey, GanttColumn::getGantt));
+  }
+}
@@ -0,0 +1,143 @@
+package ru.rti.desktop.warehouse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.zip.Inflater;
+import org.fbase.core.FStore;
+import org.fbase.model.profile.CProfile;
+import org.fbase.model.profile.cstype.CSType;
+import org.fbase.sql.BatchResultSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.rti.desktop.model.ExportFormat;
+
+public class RawDataExporterTest {
+
+  @TempDir
+  Path dir;
+
+  private final List<CProfile> cProfiles = List.of(
+      new CProfile().setColId(0).setColName("DT").setCsType(new CSType().toBuilder().isTimeStamp(true).build()),
+      new CProfile().setColId(1).setColName("EVENT").setCsType(new CSType()));
+
+  @Test
+  public void columnar_round_trip_test() throws Exception {
+    List<List<Object>> first = List.of(Arrays.asList(1000L, "CPU"), Arrays.asList(2000L, null));
+    List<List<Object>> second = List.of(Arrays.asList(3000L, "IO, wait"));
+
+    Path path = dir.resolve("t.rtic");
+    long rows = new RawDataExporter(getFStore(first, second))
+        .export("T", cProfiles, 0, 5000, path, ExportFormat.COLUMNAR, (r, lastTimestamp) -> {});
+
+    assertEquals(3, rows);
+
+    List<List<Object>> read = readColumnar(path);
+    assertEquals(List.of(Arrays.asList("1000", "CPU"), Arrays.asList("2000", null), Arrays.asList("3000", "IO, wait")),
+        read);
+  }
+
+  @Test
+  public void cancel_test() throws Exception {
+    List<List<Object>> first = List.of(Arrays.asList(1000L, "CPU"));
+    List<List<Object>> second = List.of(Arrays.asList(2000L, "IO"));
+
+    Path path = dir.resolve("t.csv");
+
+    RawDataExporter.ExportProgress progress = new RawDataExporter.ExportProgress() {
+      private long rows;
+
+      @Override
+      public void update(long rows, long lastTimestamp) {
+        this.rows = rows;
+      }
+
+      @Override
+      public boolean isCancelled() {
+        return rows > 0;
+      }
+    };
+
+    assertThrows(CancellationException.class, () -> new RawDataExporter(getFStore(first, second))
+        .export("T", cProfiles, 0, 5000, path, ExportFormat.CSV, progress));
+
+    assertTrue(Files.notExists(path));
+  }
+
+  @SafeVarargs
+  private FStore getFStore(List<List<Object>>... batches) {
+    BatchResultSet batchResultSet = mock(BatchResultSet.class);
+
+    // a row set per batch, then the end of the cursor
+    Boolean[] next = new Boolean[batches.length];
+    Arrays.fill(next, true);
+    next[batches.length - 1] = false;
+    when(batchResultSet.next()).thenReturn(true, next);
+    when(batchResultSet.getObject()).thenReturn(batches[0], Arrays.copyOfRange(batches, 1, batches.length));
+
+    FStore fStore = mock(FStore.class);
+    when(fStore.getBatchResultSet(anyString(), anyLong(), anyLong(), anyInt())).thenReturn(batchResultSet);
+    return fStore;
+  }
+
+  private List<List<Object>> readColumnar(Path path) throws Exception {
+    try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+      assertEquals("RTIC", new String(in.readNBytes(4), StandardCharsets.US_ASCII));
+      assertEquals(1, in.readInt());
+
+      int columnCount = in.readInt();
+      for (int i = 0; i < columnCount; i++) {
+        assertEquals(cProfiles.get(i).getColName(), readValue(in));
+      }
+
+      List<List<Object>> rows = new ArrayList<>();
+      int rowCount;
+      while ((rowCount = in.readInt()) > 0) {
+        int compressedLength = in.readInt();
+        byte[] input = new byte[in.readInt()];
+        byte[] compressed = in.readNBytes(compressedLength);
+
+        Inflater inflater = new Inflater();
+        inflater.setInput(compressed);
+        inflater.inflate(input);
+        inflater.end();
+
+        DataInputStream block = new DataInputStream(new ByteArrayInputStream(input));
+        List<List<Object>> blockRows = new ArrayList<>();
+        for (int row = 0; row < rowCount; row++) {
+          blockRows.add(new ArrayList<>());
+        }
+        for (int i = 0; i < columnCount; i++) {
+          for (List<Object> row : blockRows) {
+            row.add(readValue(block));
+          }
+        }
+        rows.addAll(blockRows);
+      }
+
+      assertEquals(-1, in.read());
+      return rows;
+    }
+  }
+
+  private String readValue(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+  }
+}
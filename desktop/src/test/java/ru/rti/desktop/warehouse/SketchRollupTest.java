@@ -0,0 +1,91 @@
+package ru.rti.desktop.warehouse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.fbase.core.FStore;
+import org.fbase.model.profile.CProfile;
+import org.junit.jupiter.api.Test;
+import ru.rti.desktop.model.chart.QuantileSketch;
+
+public class SketchRollupTest {
+
+  private final List<List<Object>> rows = new ArrayList<>();
+  private final List<Long> rawReads = new ArrayList<>();
+
+  @Test
+  public void cached_until_put_test() {
+    for (long i = 0; i < 180; i++) {
+      addRow(i * 1000, 1D);
+    }
+
+    SketchRollup sketchRollup = new SketchRollup(getFStore());
+    CProfile cProfile = new CProfile().setColName("VALUE");
+    long end = 4 * SketchRollup.BUCKET_MS - 1;
+
+    assertEquals(1D, sketchRollup.getSketch("T", cProfile, 0, end).getMax());
+
+    // late row of a bucket cached before, it is seen only after the put drops the table sketches
+    addRow(30_000, 100D);
+    assertEquals(1D, sketchRollup.getSketch("T", cProfile, 0, end).getMax());
+
+    sketchRollup.clear("T");
+    assertEquals(100D, sketchRollup.getSketch("T", cProfile, 0, end).getMax());
+
+    // bucket ending after the last stored row is not cached
+    addRow(150_000, 200D);
+    assertEquals(200D, sketchRollup.getSketch("T", cProfile, 0, end).getMax());
+  }
+
+  @Test
+  public void put_between_queries_test() {
+    for (long i = 0; i < 150; i++) {
+      addRow(i * 1000, 1D);
+    }
+
+    SketchRollup sketchRollup = new SketchRollup(getFStore());
+    CProfile cProfile = new CProfile().setColName("VALUE");
+    long end = 4 * SketchRollup.BUCKET_MS - 1;
+
+    assertEquals(1D, sketchRollup.getSketch("T", cProfile, 0, end).getMax());
+
+    // the put completes the third bucket and opens the fourth one, older buckets stay cached
+    PutSpan putSpan = new PutSpan();
+    for (long i = 150; i < 200; i++) {
+      addRow(i * 1000, 5D);
+      putSpan.add(i * 1000);
+    }
+    sketchRollup.put("T", putSpan);
+    assertEquals(List.of(0L, 2 * SketchRollup.BUCKET_MS), rawReads);
+
+    rawReads.clear();
+    QuantileSketch sketch = sketchRollup.getSketch("T", cProfile, 0, end);
+
+    assertEquals(200, sketch.getCount());
+    assertEquals(5D, sketch.getMax());
+    assertEquals(List.of(3 * SketchRollup.BUCKET_MS), rawReads);
+  }
+
+  private FStore getFStore() {
+    FStore fStore = mock(FStore.class);
+    when(fStore.getRawDataByColumn(anyString(), any(), anyLong(), anyLong())).thenAnswer(invocation -> {
+      long begin = invocation.getArgument(2);
+      long end = invocation.getArgument(3);
+      rawReads.add(begin);
+      return rows.stream().filter(row -> (Long) row.get(0) >= begin && (Long) row.get(0) <= end).toList();
+    });
+    when(fStore.getLastTimestamp(anyString(), anyLong(), anyLong())).thenAnswer(invocation ->
+        rows.stream().mapToLong(row -> (Long) row.get(0)).max().orElse(0L));
+    return fStore;
+  }
+
+  private void addRow(long timestamp, double value) {
+    rows.add(List.of(timestamp, value));
+  }
+}
@@ -35,6 +35,8 @@
  * Changes
  * -------
  * 17-Sep-2013 : Version 1 (MZ);
+ * 18-Oct-2026 : Size the selection storage by the series count instead of a
+ *               fixed 50 series limit;
  *
  */
 
@@ -82,8 +84,6 @@ public class XYDatasetSelectionExtension extends
     public XYDatasetSelectionExtension(XYDataset dataset) {
         super(dataset);
         this.dataset = dataset;
-        //this.selectionData = new ArrayList[dataset.getSeriesCount()];
-        this.selectionData = new ArrayList[50];
         initSelection();
     }
 
@@ -97,7 +97,7 @@ public class XYDatasetSelectionExtension extends
      */
     public XYDatasetSelectionExtension(XYDataset dataset,
             SelectionChangeListener<XYCursor> initialListener) {
-        super(dataset);
+        this(dataset);
         addChangeListener(initialListener);
     }
     
@@ -135,9 +135,15 @@ public class XYDatasetSelectionExtension extends
     }
 
     /**
-     * inits the selection attribute storage and sets all data items to unselected
+     * inits the selection attribute storage and sets all data items to unselected,
+     * the storage is resized to the current series count of the dataset
      */
+    @SuppressWarnings("unchecked")
     private void initSelection() {
+        if (selectionData == null
+                || selectionData.length != dataset.getSeriesCount()) {
+            selectionData = new ArrayList[dataset.getSeriesCount()];
+        }
         for (int i = 0; i < dataset.getSeriesCount(); i++) {
             selectionData[i] = new ArrayList<Boolean>(dataset.getItemCount(i));
             for (int j = 0; j < dataset.getItemCount(i); j++) {
@@ -85,4 +85,34 @@ public class XYDatasetSelectionExtensionTest {
         }
     }
 
+    @Test
+    public void testSeriesCountAboveFifty() {
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        for (int i = 0; i < 75; i++) {
+            XYSeries s = new XYSeries("S" + i);
+            s.add(1.0, i);
+            dataset.addSeries(s);
+        }
+        XYDatasetSelectionExtension ext = new XYDatasetSelectionExtension(
+                dataset);
+        XYCursor cursor = new XYCursor(74, 0);
+        assertFalse(ext.isSelected(cursor));
+        ext.setSelected(cursor, true);
+        assertTrue(ext.isSelected(cursor));
+
+        int count = 0;
+        DatasetIterator<XYCursor> iterator = ext.getSelectionIterator(true);
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        assertEquals(1, count);
+
+        XYSeries s = new XYSeries("S75");
+        s.add(1.0, 75.0);
+        dataset.addSeries(s);
+        cursor.setPosition(75, 0);
+        assertFalse(ext.isSelected(cursor));
+    }
+
 }
\ No newline at end of file